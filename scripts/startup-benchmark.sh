@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+#
+# Mede o tempo entre o início do processo e a primeira resposta 200 da API, com e sem o
+# perfil Maven "aot-cds" (processamento AOT do Spring + arquivo CDS da JVM). O modo "extraído"
+# usa o jar descompactado sem AOT nem CDS, separando o ganho de cada etapa.
+#
+# Pré-requisitos: MongoDB acessível conforme application.properties e o projeto empacotado com
+#   mvn -Paot-cds package
+#
+# Uso: scripts/startup-benchmark.sh [execuções] [url]
+#   execuções  Quantidade de medições por modo (padrão: 5)
+#   url        Endpoint consultado até responder 200 (padrão: http://localhost:8080/users)
+#
+# Variáveis de ambiente:
+#   JAVA       Executável java (padrão: java do PATH)
+#   JAVA_OPTS  Opções adicionais para a JVM em ambos os modos
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+URL="${2:-http://localhost:8080/users}"
+JAVA="${JAVA:-java}"
+JAVA_OPTS="${JAVA_OPTS:-}"
+MAIN_CLASS="com.ewertonrodrigues.workshopmongo.WorkshopmongoApplication"
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$(ls "$ROOT"/target/workshopmongo-*.jar | grep -v original | head -1)"
+CDS_DIR="$ROOT/target/cds"
+
+if [[ ! -f "$CDS_DIR/application.jsa" ]]; then
+    echo "Arquivo CDS não encontrado. Execute antes: mvn -Paot-cds package" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Inicia a aplicação com o comando informado e imprime o tempo (ms) até a primeira resposta 200.
+measure() {
+    local dir="$1"
+    shift
+    local start pid elapsed
+    start=$(now_ms)
+    (cd "$dir" && exec "$@" > /dev/null 2>&1) &
+    pid=$!
+    until [[ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" == "200" ]]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "A aplicação encerrou antes de responder" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed"
+}
+
+# Executa as medições de um modo e imprime cada tempo e a mediana.
+bench() {
+    local label="$1"
+    shift
+    local times=()
+    for ((i = 1; i <= RUNS; i++)); do
+        times+=("$(measure "$@")")
+    done
+    local sorted
+    sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    printf '%-10s execuções: %s ms | mediana: %s ms\n' "$label" "${times[*]}" "${sorted[$((RUNS / 2))]}"
+}
+
+# shellcheck disable=SC2086
+bench "padrão" "$ROOT" "$JAVA" $JAVA_OPTS -jar "$JAR"
+# shellcheck disable=SC2086
+bench "extraído" "$CDS_DIR" "$JAVA" $JAVA_OPTS -cp "application.jar:BOOT-INF/lib/*" "$MAIN_CLASS"
+# shellcheck disable=SC2086
+bench "aot-cds" "$CDS_DIR" "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+    -cp "application.jar:BOOT-INF/lib/*" "$MAIN_CLASS"
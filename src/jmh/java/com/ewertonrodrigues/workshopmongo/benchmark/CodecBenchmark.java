@@ -0,0 +1,126 @@
+package com.ewertonrodrigues.workshopmongo.benchmark;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.repository.codec.WorkshopCodecs;
+import com.mongodb.MongoClientSettings;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a leitura e a gravação de um resultado de busca de posts pelo mapeamento de entidades
+ * ({@code MappingMongoConverter}) e pelo {@code PostCodec}.
+ * <p>
+ * Cada operação processa {@code posts} documentos BSON com {@code comments} comentários cada, como
+ * recebidos do driver. No caminho do mapeamento, o BSON é lido como {@link Document} e convertido
+ * por reflexão; no caminho do codec, o BSON é lido diretamente para a entidade.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"100"})
+    private int posts;
+
+    @Param({"3", "50"})
+    private int comments;
+
+    private final Codec<Document> documentCodec = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+    private Codec<Post> postCodec;
+    private MappingMongoConverter converter;
+    private List<RawBsonDocument> raw;
+    private List<Post> entities;
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext context = new MongoMappingContext();
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setTypeMapper(new DefaultMongoTypeMapper(null, context));
+        converter.afterPropertiesSet();
+        postCodec = WorkshopCodecs.registry("post").get(Post.class);
+
+        Random random = new Random(42);
+        List<AuthorDTO> authors = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            authors.add(new AuthorDTO(new User(new ObjectId().toHexString(), "Usuário " + i, "usuario" + i + "@example.com")));
+        }
+        raw = new ArrayList<>();
+        entities = new ArrayList<>();
+        for (int p = 0; p < posts; p++) {
+            Post post = new Post(new ObjectId().toHexString(), new Date(1_600_000_000_000L + p * 60_000L),
+                    "Título do post " + p, "Corpo do post ".repeat(30), authors.get(random.nextInt(authors.size())));
+            post.setTitleWords(List.of("titulo", "do", "post", String.valueOf(p)));
+            for (int c = 0; c < comments; c++) {
+                post.getComments().add(new CommentDTO("Comentário " + c + " do post " + p, post.getDate(),
+                        authors.get(random.nextInt(authors.size()))));
+            }
+            post.setCommentCount(comments);
+            Document doc = new Document();
+            converter.write(post, doc);
+            raw.add(new RawBsonDocument(doc, documentCodec));
+            entities.add(post);
+        }
+    }
+
+    @Benchmark
+    public void decodeWithMappingConverter(Blackhole blackhole) {
+        for (RawBsonDocument doc : raw) {
+            blackhole.consume(converter.read(Post.class, doc.decode(documentCodec)));
+        }
+    }
+
+    @Benchmark
+    public void decodeWithCodec(Blackhole blackhole) {
+        for (RawBsonDocument doc : raw) {
+            blackhole.consume(doc.decode(postCodec));
+        }
+    }
+
+    @Benchmark
+    public void encodeWithMappingConverter(Blackhole blackhole) {
+        for (Post post : entities) {
+            Document doc = new Document();
+            converter.write(post, doc);
+            blackhole.consume(new RawBsonDocument(doc, documentCodec));
+        }
+    }
+
+    @Benchmark
+    public void encodeWithCodec(Blackhole blackhole) {
+        for (Post post : entities) {
+            blackhole.consume(new RawBsonDocument(post, postCodec));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Filtro que exige o token administrativo nas requisições aos endpoints de {@code /admin}, no
+ * cabeçalho {@code Authorization: Bearer <token>}.
+ * <p>
+ * Sem um token configurado, os endpoints administrativos ficam desabilitados e respondem 403. Com o
+ * token configurado, as requisições sem ele ou com um token diferente respondem 401. A comparação
+ * leva o mesmo tempo para qualquer token do mesmo tamanho.
+ */
+public class AdminAuthFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final byte[] token;
+
+    public AdminAuthFilter(String token) {
+        this.token = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (token == null) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Endpoints administrativos desabilitados");
+            return;
+        }
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)
+                || !MessageDigest.isEqual(token, header.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8))) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token administrativo ausente ou inválido");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Proteção dos endpoints administrativos ({@code /admin/**}): exportação e importação das coleções,
+ * arquivamento, estatísticas internas e gravações do JDK Flight Recorder.
+ * <p>
+ * O token é definido pela propriedade {@code workshop.admin.token} (ex.: pela variável de ambiente
+ * {@code WORKSHOP_ADMIN_TOKEN}). Sem ele, os endpoints administrativos ficam desabilitados.
+ */
+@Configuration
+public class AdminSecurityConfiguration {
+
+    @Value("${workshop.admin.token:}")
+    private String token = "";
+
+    @Bean
+    public FilterRegistrationBean<AdminAuthFilter> adminAuthFilter() {
+        FilterRegistrationBean<AdminAuthFilter> registration = new FilterRegistrationBean<>(new AdminAuthFilter(token));
+        registration.addUrlPatterns("/admin", "/admin/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Propagação do contexto da requisição (guardado em {@link ThreadLocal}s) para as tarefas executadas
+ * em outras threads, como as leituras protegidas pelo disjuntor e as partições das buscas.
+ * <p>
+ * O contexto é capturado na thread que cria a tarefa, restaurado na thread que a executa e desfeito
+ * ao final. A medição de tempos ({@link RequestTiming}) e o handler dos eventos do JDK Flight
+ * Recorder ({@link ProfilingAspect}) são propagados por padrão; outros contextos podem ser
+ * registrados com {@link #register(Propagator)}.
+ */
+public final class ContextPropagation {
+
+    /**
+     * Um valor propagado entre threads.
+     *
+     * @param <T> O tipo do valor.
+     */
+    public interface Propagator<T> {
+
+        /**
+         * @return O valor da thread atual, ou {@code null} se não houver
+         */
+        T capture();
+
+        /**
+         * Define o valor da thread atual.
+         *
+         * @param value O valor, ou {@code null} para removê-lo.
+         */
+        void restore(T value);
+
+        /**
+         * Cria um propagador a partir das funções de leitura e escrita do valor.
+         *
+         * @param capture A leitura do valor da thread atual.
+         * @param restore A escrita do valor na thread atual ({@code null} remove o valor).
+         * @param <T>     O tipo do valor.
+         * @return O propagador.
+         */
+        static <T> Propagator<T> of(Supplier<T> capture, Consumer<T> restore) {
+            return new Propagator<>() {
+                @Override
+                public T capture() {
+                    return capture.get();
+                }
+
+                @Override
+                public void restore(T value) {
+                    restore.accept(value);
+                }
+            };
+        }
+    }
+
+    private static final List<Propagator<?>> PROPAGATORS = new CopyOnWriteArrayList<>(List.of(
+            Propagator.of(RequestTiming::current, RequestTiming::set),
+            Propagator.of(ProfilingAspect::handler, ProfilingAspect::handler)));
+
+    private ContextPropagation() {
+    }
+
+    /**
+     * Registra um contexto a ser propagado para as tarefas criadas a partir de então.
+     *
+     * @param propagator O propagador do contexto.
+     */
+    public static void register(Propagator<?> propagator) {
+        PROPAGATORS.add(propagator);
+    }
+
+    /**
+     * Envolve uma tarefa para que seja executada com o contexto da thread atual.
+     *
+     * @param task A tarefa.
+     * @param <T>  O tipo do resultado.
+     * @return A tarefa que restaura o contexto capturado antes de executar e o desfaz ao final.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Propagator<?>[] propagators = PROPAGATORS.toArray(new Propagator<?>[0]);
+        Object[] captured = new Object[propagators.length];
+        for (int i = 0; i < propagators.length; i++) {
+            captured[i] = propagators[i].capture();
+        }
+        return () -> {
+            Object[] previous = new Object[propagators.length];
+            for (int i = 0; i < propagators.length; i++) {
+                previous[i] = propagators[i].capture();
+                restore(propagators[i], captured[i]);
+            }
+            try {
+                return task.call();
+            } finally {
+                for (int i = propagators.length - 1; i >= 0; i--) {
+                    restore(propagators[i], previous[i]);
+                }
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void restore(Propagator<T> propagator, Object value) {
+        propagator.restore((T) value);
+    }
+}
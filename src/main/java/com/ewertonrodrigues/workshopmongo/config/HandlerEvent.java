@@ -0,0 +1,25 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import com.ewertonrodrigues.workshopmongo.services.JfrProfiler;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do JDK Flight Recorder com a execução de um método de {@code UserResource} ou
+ * {@code PostResource}, usado para atribuir as alocações e a contenção de locks da mesma thread ao
+ * endpoint.
+ */
+@Name(JfrProfiler.HANDLER_EVENT)
+@Label("Endpoint")
+@Category("Workshop")
+@Description("Execução de um método de UserResource ou PostResource")
+@StackTrace(false)
+class HandlerEvent extends Event {
+
+    @Label("Endpoint")
+    String handler;
+}
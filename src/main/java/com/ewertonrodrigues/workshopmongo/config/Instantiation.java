@@ -6,51 +6,147 @@ import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
 import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
 import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
 import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.IdLookupGuard;
+import com.ewertonrodrigues.workshopmongo.services.PostSummaryService;
+import com.ewertonrodrigues.workshopmongo.services.TitleSuggestService;
+import com.ewertonrodrigues.workshopmongo.services.UserDirectoryCache;
+import com.ewertonrodrigues.workshopmongo.services.UserStatsService;
+import com.ewertonrodrigues.workshopmongo.services.WarmupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
 
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
 
 /**
  * Classe de configuração para inicialização do banco de dados.
  * Implementa a interface {@link CommandLineRunner} para rodar um código ao iniciar a aplicação.
  * Utilizada para preencher o banco com dados iniciais.
+ * <p>
+ * A carga é controlada pela propriedade {@code workshop.seed.mode}: {@code if-empty} (padrão) só
+ * popula uma base sem usuários e sem posts, {@code off} não faz nada e {@code reset} apaga os usuários e posts
+ * existentes, apenas para desenvolvimento. Com {@code workshop.seed.async=true}, a carga é executada
+ * em segundo plano e a aplicação só fica pronta ({@code /actuator/health/readiness}) depois dela e da
+ * reconstrução das estruturas em memória que dependem dos dados. As propriedades são lidas em tempo
+ * de execução (e não com {@code @Conditional}) para que o mesmo comportamento valha com o
+ * processamento AOT, que fixa as condições no momento da compilação.
  */
 @Configuration
 public class Instantiation implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(Instantiation.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private TitleSuggestService suggestService;
+
+    @Autowired
+    private UserDirectoryCache directoryCache;
+
+    @Autowired
+    private IdLookupGuard idGuard;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private PostSummaryService summaryService;
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Value("${workshop.seed.mode:if-empty}")
+    private String mode;
+
+    @Value("${workshop.seed.async:false}")
+    private boolean async;
+
     /**
-     * Método que é executado ao iniciar a aplicação, responsável por popular o banco de dados com dados iniciais.
+     * Método que é executado ao iniciar a aplicação. Decide, de acordo com a configuração, se e
+     * como o banco de dados será populado com os dados iniciais.
+     *
+     * @param args Argumentos passados para a aplicação (não utilizados neste caso).
+     * @throws Exception Se ocorrer algum erro durante a carga síncrona.
+     */
+    @Override
+    public void run(String... args) throws Exception {
+        if ("off".equals(mode)) {
+            return;
+        }
+        if ("reset".equals(mode)) {
+            log.warn("workshop.seed.mode=reset: os usuários e posts existentes serão apagados (apenas para desenvolvimento)");
+        }
+        if (!async) {
+            seed();
+            return;
+        }
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                seed();
+                refresh();
+            } catch (Exception e) {
+                log.error("Falha na carga inicial dos dados", e);
+            }
+        }, null);
+        // A prontidão da aplicação aguarda a carga e as reconstruções.
+        warmupService.waitFor(task);
+        Thread seeder = new Thread(task, "seed-data");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    /**
+     * Reconstrói as estruturas em memória montadas na inicialização, que podem ter lido a base
+     * durante a carga, e aguarda as reconstruções feitas em segundo plano.
+     */
+    private void refresh() {
+        suggestService.rebuild();
+        statsService.reconcileCounters();
+        summaryService.refresh();
+        directoryCache.invalidate();
+        CompletableFuture.allOf(idGuard.rebuild(IdLookupGuard.Kind.USER), idGuard.rebuild(IdLookupGuard.Kind.POST)).join();
+    }
+
+    /**
+     * Popula o banco de dados com dados iniciais.
      * Este método realiza as seguintes operações:
      * <ul>
-     *     <li>Deleta todos os dados anteriores das coleções de usuários e posts;</li>
+     *     <li>No modo {@code reset}, deleta todos os dados anteriores das coleções de usuários, posts e contadores;</li>
      *     <li>Cria novos usuários e os salva no banco de dados;</li>
      *     <li>Cria novos posts e os associa aos usuários;</li>
      *     <li>Cria comentários para os posts e os associa corretamente;</li>
-     *     <li>Atualiza o usuário com os posts criados.</li>
+     *     <li>Inclui as referências aos posts criados no usuário com {@code $push}.</li>
      * </ul>
+     * No modo {@code if-empty}, nada é feito se já existirem usuários ou posts cadastrados.
      *
-     * @param args Argumentos passados para a aplicação (não utilizados neste caso).
      * @throws Exception Se ocorrer algum erro durante a execução do método.
      */
-    @Override
-    public void run(String... args) throws Exception {
+    private void seed() throws Exception {
+        if ("if-empty".equals(mode) && (userRepository.count() > 0 || postRepository.count() > 0)) {
+            return;
+        }
 
         SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
         sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
 
-        // Deleta todos os usuários e posts existentes
-        userRepository.deleteAll();
-        postRepository.deleteAll();
+        // Deleta todos os usuários, posts e contadores existentes
+        if ("reset".equals(mode)) {
+            userRepository.deleteAll();
+            postRepository.deleteAll();
+            userRepository.deleteCommentCounters(null);
+        }
 
         // Criação de usuários
         User maria = new User(null, "Maria Brown", "maria@gmail.com");
@@ -76,8 +172,9 @@ public class Instantiation implements CommandLineRunner {
         // Salva os posts no banco de dados
         postRepository.saveAll(Arrays.asList(post1, post2));
 
-        // Associa os posts ao usuário Maria
-        maria.getPosts().addAll(Arrays.asList(post1, post2));
-        userRepository.save(maria);
+        // Associa os posts ao usuário Maria, sem regravar o usuário inteiro
+        for (Post post : Arrays.asList(post1, post2)) {
+            userRepository.pushPostRef(maria.getId(), post.getId());
+        }
     }
 }
@@ -0,0 +1,26 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+/**
+ * Ajustes do mapeamento de entidades do MongoDB.
+ * <p>
+ * As entidades não têm subclasses, então o campo {@code _class} não é gravado: os documentos ficam
+ * menores e são lidos igualmente pelo mapeamento e pelos codecs escritos à mão. Os documentos
+ * antigos, que ainda contêm o campo, continuam sendo lidos normalmente.
+ */
+@Configuration
+public class MongoMappingConfiguration {
+
+    @Autowired
+    private MappingMongoConverter converter;
+
+    @PostConstruct
+    public void withoutTypeKey() {
+        converter.setTypeMapper(new DefaultMongoTypeMapper(null, converter.getMappingContext()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Habilita transações do MongoDB nas gravações que alteram mais de um documento (ex.: inclusão de
+ * um post e da sua referência no autor).
+ * <p>
+ * Transações exigem um replica set ou cluster fragmentado, por isso são habilitadas apenas pela
+ * propriedade {@code workshop.mongo.transactions}. Sem elas, essas gravações desfazem os passos
+ * já concluídos quando um passo posterior falha.
+ */
+@Configuration
+@ConditionalOnProperty(name = "workshop.mongo.transactions", havingValue = "true")
+public class MongoTransactionConfiguration {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Aspecto que emite os eventos do JDK Flight Recorder em torno dos métodos de {@code UserResource}
+ * e {@code PostResource} ({@link HandlerEvent}) e das chamadas aos repositórios
+ * ({@link RepositoryCallEvent}). Sem uma gravação com os eventos habilitados, as chamadas seguem
+ * sem criar eventos.
+ */
+@Aspect
+public class ProfilingAspect {
+
+    private static final ThreadLocal<String> HANDLER = new ThreadLocal<>();
+
+    @Around("within(com.ewertonrodrigues.workshopmongo.resources.UserResource)"
+            + " || within(com.ewertonrodrigues.workshopmongo.resources.PostResource)")
+    public Object handler(ProceedingJoinPoint joinPoint) throws Throwable {
+        HandlerEvent event = new HandlerEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        String previous = HANDLER.get();
+        event.handler = name(joinPoint.getSignature());
+        HANDLER.set(event.handler);
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            event.commit();
+            if (previous == null) {
+                HANDLER.remove();
+            } else {
+                HANDLER.set(previous);
+            }
+        }
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = name(joinPoint.getSignature());
+                event.handler = HANDLER.get();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * @return O handler em execução na thread atual, ou {@code null} se não houver
+     */
+    static String handler() {
+        return HANDLER.get();
+    }
+
+    /**
+     * Define o handler da thread atual, usado na propagação para outras threads.
+     *
+     * @param handler O handler, ou {@code null} para removê-lo.
+     */
+    static void handler(String handler) {
+        if (handler == null) {
+            HANDLER.remove();
+        } else {
+            HANDLER.set(handler);
+        }
+    }
+
+    private static String name(Signature signature) {
+        return signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Eventos do JDK Flight Recorder por endpoint e por chamada aos repositórios, usados pelas
+ * gravações iniciadas em {@code POST /admin/profiling/start}.
+ * <p>
+ * Habilitados pela propriedade {@code workshop.profiling.enabled}. Desabilitados, as gravações
+ * continuam disponíveis, mas sem os eventos próprios e sem a atribuição das alocações e da
+ * contenção de locks aos endpoints.
+ */
+@Configuration
+@ConditionalOnProperty(name = "workshop.profiling.enabled", havingValue = "true")
+public class ProfilingConfiguration {
+
+    @Bean
+    public ProfilingAspect profilingAspect() {
+        return new ProfilingAspect();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import com.ewertonrodrigues.workshopmongo.services.JfrProfiler;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do JDK Flight Recorder com uma chamada a um repositório, com o endpoint em execução na
+ * mesma thread (ou {@code null} fora de uma requisição).
+ */
+@Name(JfrProfiler.REPOSITORY_EVENT)
+@Label("Chamada ao repositório")
+@Category("Workshop")
+@Description("Chamada a um método de repositório do Spring Data")
+@StackTrace(false)
+class RepositoryCallEvent extends Event {
+
+    @Label("Método")
+    String method;
+
+    @Label("Endpoint")
+    String handler;
+}
@@ -0,0 +1,190 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tempos das fases de uma requisição, acumulados na thread que a atende.
+ * <p>
+ * As fases de controlador, serviço e repositório medem apenas a chamada mais externa de cada camada,
+ * para que chamadas aninhadas (ex.: um serviço que chama outro) não sejam contadas duas vezes. O tempo
+ * dos comandos do MongoDB é descontado do tempo do repositório (restando a conversão dos documentos
+ * pelo {@code MappingMongoConverter}) e do tempo da serialização (restando o Jackson; os comandos
+ * emitidos durante a serialização vêm da resolução preguiçosa de {@code @DBRef}).
+ * <p>
+ * As tarefas executadas em outras threads recebem a medição pela {@link ContextPropagation}; por isso
+ * o registro das fases e dos comandos é sincronizado.
+ */
+public final class RequestTiming {
+
+    /**
+     * Camadas medidas pelos aspectos.
+     */
+    public enum Layer {
+        CONTROLLER("ctrl"), SERVICE("svc"), REPOSITORY("repo");
+
+        private final String metric;
+
+        Layer(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private final int[] depth = new int[Layer.values().length];
+    private final long[] layerNanos = new long[Layer.values().length];
+    private final List<String> spans = new ArrayList<>();
+
+    private long mongoNanos;
+    private int mongoCommands;
+    private long mappingNanos;
+    private long serializationNanos;
+    private long dbRefNanos;
+
+    private RequestTiming() {
+    }
+
+    /**
+     * Inicia a medição de uma requisição na thread atual.
+     *
+     * @return A medição iniciada.
+     */
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Encerra a medição da requisição na thread atual.
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return A medição da requisição atendida pela thread atual, ou {@code null} se não houver
+     */
+    static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Define a medição da thread atual, usada na propagação para outras threads.
+     *
+     * @param timing A medição, ou {@code null} para removê-la.
+     */
+    static void set(RequestTiming timing) {
+        if (timing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timing);
+        }
+    }
+
+    /**
+     * Registra a entrada em uma camada.
+     *
+     * @param layer A camada.
+     * @return Se esta é a chamada mais externa da camada, a única medida
+     */
+    synchronized boolean enter(Layer layer) {
+        return depth[layer.ordinal()]++ == 0;
+    }
+
+    /**
+     * Registra a saída de uma camada.
+     *
+     * @param layer     A camada.
+     * @param outermost Se a chamada é a mais externa da camada.
+     * @param name      O nome do método, registrado como span.
+     * @param started   O instante de entrada, em nanossegundos.
+     * @param mongoAtStart O tempo acumulado dos comandos do MongoDB na entrada.
+     */
+    synchronized void exit(Layer layer, boolean outermost, String name, long started, long mongoAtStart) {
+        depth[layer.ordinal()]--;
+        if (!outermost) {
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        layerNanos[layer.ordinal()] += elapsed;
+        if (layer == Layer.REPOSITORY) {
+            mappingNanos += Math.max(0, elapsed - (mongoNanos - mongoAtStart));
+        }
+        span(layer.metric + ":" + name, started, elapsed);
+    }
+
+    /**
+     * Registra um comando do MongoDB concluído.
+     *
+     * @param nanos A duração do comando.
+     */
+    synchronized void mongoCommand(long nanos) {
+        mongoNanos += nanos;
+        mongoCommands++;
+    }
+
+    /**
+     * Registra a serialização do corpo da resposta.
+     *
+     * @param started      O instante de início, em nanossegundos.
+     * @param mongoAtStart O tempo acumulado dos comandos do MongoDB no início.
+     */
+    synchronized void serialized(long started, long mongoAtStart) {
+        long elapsed = System.nanoTime() - started;
+        long dbRef = mongoNanos - mongoAtStart;
+        dbRefNanos += dbRef;
+        serializationNanos += Math.max(0, elapsed - dbRef);
+        span("ser", started, elapsed);
+    }
+
+    /**
+     * @return O tempo acumulado dos comandos do MongoDB, em nanossegundos
+     */
+    synchronized long mongoNanos() {
+        return mongoNanos;
+    }
+
+    /**
+     * Monta o valor do cabeçalho {@code Server-Timing}, com as durações em milissegundos.
+     *
+     * @return O valor do cabeçalho.
+     */
+    synchronized String toServerTiming() {
+        StringBuilder header = new StringBuilder(160);
+        for (Layer layer : Layer.values()) {
+            metric(header, layer.metric, layerNanos[layer.ordinal()], null);
+        }
+        metric(header, "mongo", mongoNanos, mongoCommands + " comando(s)");
+        metric(header, "map", mappingNanos, null);
+        metric(header, "dbref", dbRefNanos, null);
+        metric(header, "ser", serializationNanos, null);
+        metric(header, "total", System.nanoTime() - start, null);
+        return header.toString();
+    }
+
+    /**
+     * @return Os spans registrados, no formato {@code nome@início+duração} em milissegundos
+     */
+    synchronized List<String> spans() {
+        return List.copyOf(spans);
+    }
+
+    private void span(String name, long started, long elapsed) {
+        spans.add(String.format(Locale.ROOT, "%s@%.3f+%.3f", name, (started - start) / 1e6, elapsed / 1e6));
+    }
+
+    private static void metric(StringBuilder header, String name, long nanos, String description) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name);
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+        header.append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+}
@@ -0,0 +1,68 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instrumentação do tempo das requisições por fase (controlador, serviço, repositório, comandos do
+ * MongoDB, conversão dos documentos e serialização), devolvida no cabeçalho {@code Server-Timing}.
+ * <p>
+ * Habilitada pela propriedade {@code workshop.timing.enabled}. Desabilitada, nenhum dos componentes
+ * é registrado e as requisições não passam por proxies nem filtros adicionais.
+ */
+@Configuration
+@ConditionalOnProperty(name = "workshop.timing.enabled", havingValue = "true")
+public class ServerTimingConfiguration {
+
+    @Bean
+    public ServerTimingFilter serverTimingFilter() {
+        return new ServerTimingFilter();
+    }
+
+    @Bean
+    public TimingAspect timingAspect() {
+        return new TimingAspect();
+    }
+
+    /**
+     * Substitui o conversor JSON padrão do Spring Boot pelo conversor que mede a serialização.
+     */
+    @Bean
+    public TimedJacksonConverter timedJacksonConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonConverter(objectMapper);
+    }
+
+    /**
+     * Registra a duração dos comandos do MongoDB. O driver síncrono notifica o listener na thread
+     * que executou o comando, a mesma da requisição.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer timingCommandListener() {
+        return builder -> builder.addCommandListener(new CommandListener() {
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            private void record(long nanos) {
+                RequestTiming timing = RequestTiming.current();
+                if (timing != null) {
+                    timing.mongoCommand(nanos);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Filtro que mede cada requisição e devolve os tempos das fases no cabeçalho {@code Server-Timing}.
+ * <p>
+ * O cabeçalho é incluído no momento em que o corpo começa a ser escrito, sem armazenar a resposta
+ * em memória. Os corpos JSON são serializados antes disso pelo {@link TimedJacksonConverter}, de
+ * modo que o tempo do Jackson também aparece no cabeçalho. Os spans da requisição são registrados
+ * no log em nível DEBUG.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    static final String HEADER = "Server-Timing";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.begin();
+        TimingResponse timed = new TimingResponse(response, timing);
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            timed.writeHeader();
+            RequestTiming.end();
+            if (log.isDebugEnabled()) {
+                log.debug("{} {} -> {} | {}", request.getMethod(), request.getRequestURI(),
+                        timing.toServerTiming(), timing.spans());
+            }
+        }
+    }
+
+    /**
+     * Resposta que inclui o cabeçalho {@code Server-Timing} antes da primeira escrita do corpo.
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        void writeHeader() {
+            if (!written && !isCommitted()) {
+                setHeader(HEADER, timing.toServerTiming());
+            }
+            written = true;
+        }
+    }
+}
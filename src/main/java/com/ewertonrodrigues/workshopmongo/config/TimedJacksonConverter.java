@@ -0,0 +1,52 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Conversor JSON que mede a serialização das respostas de uma requisição medida.
+ * <p>
+ * Nas requisições medidas o corpo é serializado em memória antes de ser escrito, para que o tempo
+ * da serialização (e das consultas de {@code @DBRef} preguiçosos feitas durante ela) seja conhecido
+ * antes do envio do cabeçalho {@code Server-Timing}. As demais requisições são escritas diretamente.
+ */
+public class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long started = System.nanoTime();
+        long mongoAtStart = timing.mongoNanos();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        timing.serialized(started, mongoAtStart);
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
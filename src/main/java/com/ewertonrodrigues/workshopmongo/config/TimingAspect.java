@@ -0,0 +1,44 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Aspecto que mede o tempo das chamadas aos controladores, serviços e repositórios durante uma
+ * requisição medida pelo {@link ServerTimingFilter}. Fora de uma requisição medida (ex.: tarefas
+ * agendadas), as chamadas seguem sem medição.
+ */
+@Aspect
+public class TimingAspect {
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(RequestTiming.Layer.CONTROLLER, joinPoint);
+    }
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(RequestTiming.Layer.SERVICE, joinPoint);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(RequestTiming.Layer.REPOSITORY, joinPoint);
+    }
+
+    private static Object time(RequestTiming.Layer layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        boolean outermost = timing.enter(layer);
+        long started = System.nanoTime();
+        long mongoAtStart = timing.mongoNanos();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exit(layer, outermost, joinPoint.getSignature().toShortString(), started, mongoAtStart);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ewertonrodrigues.workshopmongo.config;
+
+import com.ewertonrodrigues.workshopmongo.dto.WarmupReportDTO;
+import com.ewertonrodrigues.workshopmongo.services.WarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indicador de saúde "warmup", incluído no grupo {@code readiness}
+ * ({@code /actuator/health/readiness}): fora de serviço enquanto o aquecimento da inicialização
+ * ({@link WarmupService}) não termina, para que o balanceador só envie tráfego à instância aquecida.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Override
+    public Health health() {
+        WarmupReportDTO report = warmupService.report();
+        if (!warmupService.isDone()) {
+            return Health.outOfService().withDetail("startedAt", String.valueOf(report.getStartedAt())).build();
+        }
+        return Health.up()
+                .withDetail("elapsedMillis", report.getElapsedMillis())
+                .withDetail("timedOut", report.isTimedOut())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ewertonrodrigues.workshopmongo.domain;
+
+import java.io.Serializable;
+
+/**
+ * Referência imutável ao autor de um post ou comentário, usada nas visões compactas de posts.
+ *
+ * As instâncias são compartilhadas: todos os posts e comentários do mesmo autor lidos pelo
+ * {@code PostViewCodec} apontam para a mesma referência, em vez de cada um ter o seu próprio
+ * autor com cópias do ID e do nome.
+ */
+public final class AuthorRef implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Identificador único do autor */
+	private final String id;
+
+	/** Nome do autor */
+	private final String name;
+
+	/**
+	 * @param id   Identificador do autor
+	 * @param name Nome do autor
+	 */
+	public AuthorRef(String id, String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	/** @return O identificador do autor */
+	public String getId() {
+		return id;
+	}
+
+	/** @return O nome do autor */
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,58 @@
+package com.ewertonrodrigues.workshopmongo.domain;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Visão imutável e compacta de um comentário, usada nas visões compactas de posts.
+ *
+ * A data é mantida como milissegundos desde a época, sem um {@link Date} por comentário, e o autor
+ * é uma referência compartilhada ({@link AuthorRef}). A serialização é igual à do {@code CommentDTO}.
+ */
+public final class CommentView implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Texto do comentário */
+	private final String text;
+
+	/** Data do comentário, em milissegundos desde a época, ou {@code Long.MIN_VALUE} se ausente */
+	private final long date;
+
+	/** Autor do comentário */
+	private final AuthorRef author;
+
+	/**
+	 * @param text   Texto do comentário
+	 * @param date   Data do comentário, em milissegundos desde a época, ou {@code Long.MIN_VALUE} se ausente
+	 * @param author Autor do comentário
+	 */
+	public CommentView(String text, long date, AuthorRef author) {
+		this.text = text;
+		this.date = date;
+		this.author = author;
+	}
+
+	/** @return O texto do comentário */
+	public String getText() {
+		return text;
+	}
+
+	/** @return A data do comentário, criada a cada chamada */
+	public Date getDate() {
+		return date == Long.MIN_VALUE ? null : new Date(date);
+	}
+
+	/** @return A data do comentário, em milissegundos desde a época, ou {@code Long.MIN_VALUE} se ausente */
+	@JsonIgnore
+	public long getDateMillis() {
+		return date;
+	}
+
+	/** @return O autor do comentário */
+	public AuthorRef getAuthor() {
+		return author;
+	}
+}
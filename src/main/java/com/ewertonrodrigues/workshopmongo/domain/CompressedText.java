@@ -0,0 +1,119 @@
+package com.ewertonrodrigues.workshopmongo.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Texto gravado comprimido com deflate, descomprimido apenas quando é lido.
+ *
+ * Usado nos documentos de posts lidos com projeção: o corpo comprimido é serializado como texto
+ * pelo Jackson e só é descomprimido se o campo chegar a ser escrito na resposta. Os métodos
+ * estáticos fazem a compressão e a descompressão e contam o custo das descompressões.
+ */
+public final class CompressedText {
+
+	private static final LongAdder inflations = new LongAdder();
+	private static final LongAdder inflateNanos = new LongAdder();
+
+	/** Texto comprimido */
+	private final byte[] data;
+
+	/** Texto descomprimido, preenchido na primeira leitura */
+	private String text;
+
+	/**
+	 * Construtor com o texto comprimido.
+	 *
+	 * @param data O texto comprimido com {@link #deflate(String, int)}
+	 */
+	public CompressedText(byte[] data) {
+		this.data = data;
+	}
+
+	/**
+	 * @return O texto descomprimido
+	 */
+	@JsonValue
+	@Override
+	public String toString() {
+		if (text == null) {
+			text = inflate(data);
+		}
+		return text;
+	}
+
+	/**
+	 * Comprime um texto em UTF-8 com deflate.
+	 *
+	 * @param text  O texto
+	 * @param level O nível de compressão (1 a 9)
+	 * @return O texto comprimido
+	 */
+	public static byte[] deflate(String text, int level) {
+		byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+		Deflater deflater = new Deflater(level);
+		try {
+			deflater.setInput(raw);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Descomprime um texto comprimido com {@link #deflate(String, int)}.
+	 *
+	 * @param data O texto comprimido
+	 * @return O texto
+	 * @throws IllegalStateException Se os dados não estiverem no formato deflate
+	 */
+	public static String inflate(byte[] data) {
+		long start = System.nanoTime();
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+			byte[] buffer = new byte[8192];
+			while (!inflater.finished()) {
+				int read = inflater.inflate(buffer);
+				if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IllegalStateException("Texto comprimido incompleto");
+				}
+				out.write(buffer, 0, read);
+			}
+			return out.toString(StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Texto comprimido inválido", e);
+		} finally {
+			inflater.end();
+			inflations.increment();
+			inflateNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * @return A quantidade de descompressões feitas desde a inicialização
+	 */
+	public static long inflations() {
+		return inflations.sum();
+	}
+
+	/**
+	 * @return O tempo total das descompressões, em nanossegundos
+	 */
+	public static long inflateNanos() {
+		return inflateNanos.sum();
+	}
+}
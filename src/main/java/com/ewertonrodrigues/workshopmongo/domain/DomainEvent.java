@@ -0,0 +1,115 @@
+package com.ewertonrodrigues.workshopmongo.domain;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Evento de alteração de um usuário ou post, para consumo por outros sistemas.
+ *
+ * Esta classe é armazenada na coleção "events", gravada em lotes e em segundo plano a partir das
+ * operações de escrita dos serviços.
+ */
+@Document(collection = "events")
+public class DomainEvent implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Tipos de evento.
+	 */
+	public enum Type {
+		USER_CREATED, USER_UPDATED, USER_DELETED, POST_CREATED, COMMENT_ADDED
+	}
+
+	/** Identificador único do evento */
+	@Id
+	private String id;
+
+	/** Tipo do evento */
+	private Type type;
+
+	/** ID do usuário ou do post alterado */
+	private String entityId;
+
+	/** ID do usuário que realizou a alteração, quando conhecido */
+	private String actorId;
+
+	/** Data da alteração */
+	@Indexed
+	private Date date;
+
+	/**
+	 * Construtor padrão sem argumentos.
+	 */
+	public DomainEvent() {
+	}
+
+	/**
+	 * Construtor com os dados do evento.
+	 *
+	 * @param type     O tipo do evento
+	 * @param entityId O ID do usuário ou do post alterado
+	 * @param actorId  O ID do usuário que realizou a alteração, ou {@code null}
+	 * @param date     A data da alteração
+	 */
+	public DomainEvent(Type type, String entityId, String actorId, Date date) {
+		this.type = type;
+		this.entityId = entityId;
+		this.actorId = actorId;
+		this.date = date;
+	}
+
+	/** @return O identificador do evento */
+	public String getId() {
+		return id;
+	}
+
+	/** @param id Define o identificador do evento */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/** @return O tipo do evento */
+	public Type getType() {
+		return type;
+	}
+
+	/** @param type Define o tipo do evento */
+	public void setType(Type type) {
+		this.type = type;
+	}
+
+	/** @return O ID do usuário ou do post alterado */
+	public String getEntityId() {
+		return entityId;
+	}
+
+	/** @param entityId Define o ID do usuário ou do post alterado */
+	public void setEntityId(String entityId) {
+		this.entityId = entityId;
+	}
+
+	/** @return O ID do usuário que realizou a alteração */
+	public String getActorId() {
+		return actorId;
+	}
+
+	/** @param actorId Define o ID do usuário que realizou a alteração */
+	public void setActorId(String actorId) {
+		this.actorId = actorId;
+	}
+
+	/** @return A data da alteração */
+	public Date getDate() {
+		return date;
+	}
+
+	/** @param date Define a data da alteração */
+	public void setDate(Date date) {
+		this.date = date;
+	}
+}
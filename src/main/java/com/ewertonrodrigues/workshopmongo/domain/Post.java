@@ -7,7 +7,14 @@ import java.util.List;
 import java.util.Objects;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
 import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
@@ -16,9 +23,16 @@ import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
  * Representa uma postagem no sistema.
  * Cada post contém um título, um corpo de texto, um autor e comentários.
  *
- * Esta classe é armazenada em um banco de dados MongoDB.
+ * Esta classe é armazenada em um banco de dados MongoDB. O índice de texto usa o idioma
+ * "none", sem radicais nem palavras irrelevantes, para que as buscas encontrem palavras exatas.
+ * Os índices do autor e dos autores dos comentários atendem às estatísticas por usuário.
+ * Com a compressão habilitada, os corpos longos são gravados comprimidos no campo "bodyZ".
  */
-@Document
+@Document(language = "none")
+@CompoundIndexes({
+		@CompoundIndex(name = "author_date", def = "{'author._id': 1, 'date': 1}"),
+		@CompoundIndex(name = "comments_author", def = "{'comments.author._id': 1}")
+})
 public class Post implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -31,17 +45,40 @@ public class Post implements Serializable {
 	private Date date;
 
 	/** Título do post */
+	@TextIndexed(weight = 3)
 	private String title;
 
+	/** Palavras normalizadas do título, usadas nas buscas por prefixo com índice */
+	@Indexed
+	private List<String> titleWords = new ArrayList<>();
+
 	/** Conteúdo principal do post */
+	@TextIndexed
 	private String body;
 
+	/** Conteúdo do post comprimido, gravado no lugar de {@code body} quando excede o limite de compressão */
+	@Field("bodyZ")
+	private byte[] compressedBody;
+
+	/** Palavras normalizadas do corpo comprimido, usadas nas buscas no corpo (ausentes no corpo em texto) */
+	@Indexed(sparse = true)
+	private List<String> bodyWords;
+
 	/** Autor da postagem */
 	private AuthorDTO author;
 
-	/** Lista de comentários associados ao post */
+	/** Comentários mais recentes do post, limitados à janela definida em {@code workshop.comments.window} */
 	private List<CommentDTO> comments = new ArrayList<>();
 
+	/** Quantidade total de comentários do post, inclusive os que já saíram da janela */
+	private long commentCount;
+
+	/** Quantidade de visualizações do post */
+	private long views;
+
+	/** Quantidade de curtidas do post */
+	private long likes;
+
 	/**
 	 * Construtor padrão sem argumentos.
 	 */
@@ -95,14 +132,51 @@ public class Post implements Serializable {
 		this.title = title;
 	}
 
-	/** @return O conteúdo do post */
+	/** @return As palavras normalizadas do título (uso interno das buscas) */
+	@JsonIgnore
+	public List<String> getTitleWords() {
+		return titleWords;
+	}
+
+	/** @param titleWords Define as palavras normalizadas do título */
+	public void setTitleWords(List<String> titleWords) {
+		this.titleWords = titleWords;
+	}
+
+	/** @return O conteúdo do post, descomprimido na primeira leitura quando gravado comprimido */
 	public String getBody() {
+		if (body == null && compressedBody != null) {
+			body = CompressedText.inflate(compressedBody);
+		}
 		return body;
 	}
 
 	/** @param body Define o conteúdo do post */
 	public void setBody(String body) {
 		this.body = body;
+		this.compressedBody = null;
+	}
+
+	/** @return O conteúdo do post comprimido (uso interno da gravação) */
+	@JsonIgnore
+	public byte[] getCompressedBody() {
+		return compressedBody;
+	}
+
+	/** @param compressedBody Define o conteúdo do post comprimido */
+	public void setCompressedBody(byte[] compressedBody) {
+		this.compressedBody = compressedBody;
+	}
+
+	/** @return As palavras normalizadas do corpo comprimido (uso interno das buscas) */
+	@JsonIgnore
+	public List<String> getBodyWords() {
+		return bodyWords;
+	}
+
+	/** @param bodyWords Define as palavras normalizadas do corpo comprimido */
+	public void setBodyWords(List<String> bodyWords) {
+		this.bodyWords = bodyWords;
 	}
 
 	/** @return O autor do post */
@@ -125,6 +199,36 @@ public class Post implements Serializable {
 		this.comments = comments;
 	}
 
+	/** @return A quantidade total de comentários do post */
+	public long getCommentCount() {
+		return commentCount;
+	}
+
+	/** @param commentCount Define a quantidade total de comentários do post */
+	public void setCommentCount(long commentCount) {
+		this.commentCount = commentCount;
+	}
+
+	/** @return A quantidade de visualizações do post */
+	public long getViews() {
+		return views;
+	}
+
+	/** @param views Define a quantidade de visualizações do post */
+	public void setViews(long views) {
+		this.views = views;
+	}
+
+	/** @return A quantidade de curtidas do post */
+	public long getLikes() {
+		return likes;
+	}
+
+	/** @param likes Define a quantidade de curtidas do post */
+	public void setLikes(long likes) {
+		this.likes = likes;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(id);
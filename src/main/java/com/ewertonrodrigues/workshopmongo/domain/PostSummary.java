@@ -0,0 +1,177 @@
+package com.ewertonrodrigues.workshopmongo.domain;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+
+/**
+ * Resumo de um post, usado nas listagens.
+ *
+ * Esta classe é armazenada na coleção "post_summary", mantida a partir dos posts a cada gravação,
+ * com o mesmo ID do post. Contém apenas os campos exibidos nas listas e o início do corpo do post,
+ * sem os comentários.
+ */
+@Document(collection = "post_summary")
+@CompoundIndex(name = "author_date", def = "{'author._id': 1, 'date': -1}")
+public class PostSummary implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Identificador único do post resumido */
+	@Id
+	private String id;
+
+	/** Data da postagem */
+	@Indexed
+	private Date date;
+
+	/** Título do post */
+	private String title;
+
+	/** Palavras normalizadas do título, usadas nas buscas por prefixo com índice */
+	@Indexed
+	private List<String> titleWords = new ArrayList<>();
+
+	/** Autor da postagem */
+	private AuthorDTO author;
+
+	/** Quantidade total de comentários do post */
+	private long commentCount;
+
+	/** Início do corpo do post */
+	private String snippet;
+
+	/**
+	 * Construtor padrão sem argumentos.
+	 */
+	public PostSummary() {
+	}
+
+	/**
+	 * Construtor que resume um post.
+	 *
+	 * @param post          O post a ser resumido
+	 * @param snippetLength A quantidade máxima de caracteres do início do corpo
+	 */
+	public PostSummary(Post post, int snippetLength) {
+		this.id = post.getId();
+		this.date = post.getDate();
+		this.title = post.getTitle();
+		this.titleWords = post.getTitleWords();
+		this.author = post.getAuthor();
+		this.commentCount = Math.max(post.getCommentCount(), post.getComments().size());
+		this.snippet = snippet(post.getBody(), snippetLength);
+	}
+
+	/**
+	 * Retorna o início do texto, sem cortar um par substituto (surrogate pair) ao meio.
+	 *
+	 * @param body   O texto completo
+	 * @param length A quantidade máxima de caracteres
+	 * @return O início do texto
+	 */
+	public static String snippet(String body, int length) {
+		if (body == null || body.length() <= length) {
+			return body;
+		}
+		int end = Character.isHighSurrogate(body.charAt(length - 1)) ? length - 1 : length;
+		return body.substring(0, end);
+	}
+
+	/** @return O identificador do post */
+	public String getId() {
+		return id;
+	}
+
+	/** @param id Define o identificador do post */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/** @return A data do post */
+	public Date getDate() {
+		return date;
+	}
+
+	/** @param date Define a data do post */
+	public void setDate(Date date) {
+		this.date = date;
+	}
+
+	/** @return O título do post */
+	public String getTitle() {
+		return title;
+	}
+
+	/** @param title Define o título do post */
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	/** @return As palavras normalizadas do título (uso interno das buscas) */
+	@JsonIgnore
+	public List<String> getTitleWords() {
+		return titleWords;
+	}
+
+	/** @param titleWords Define as palavras normalizadas do título */
+	public void setTitleWords(List<String> titleWords) {
+		this.titleWords = titleWords;
+	}
+
+	/** @return O autor do post */
+	public AuthorDTO getAuthor() {
+		return author;
+	}
+
+	/** @param author Define o autor do post */
+	public void setAuthor(AuthorDTO author) {
+		this.author = author;
+	}
+
+	/** @return A quantidade total de comentários do post */
+	public long getCommentCount() {
+		return commentCount;
+	}
+
+	/** @param commentCount Define a quantidade total de comentários do post */
+	public void setCommentCount(long commentCount) {
+		this.commentCount = commentCount;
+	}
+
+	/** @return O início do corpo do post */
+	public String getSnippet() {
+		return snippet;
+	}
+
+	/** @param snippet Define o início do corpo do post */
+	public void setSnippet(String snippet) {
+		this.snippet = snippet;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		PostSummary other = (PostSummary) obj;
+		return Objects.equals(id, other.id);
+	}
+}
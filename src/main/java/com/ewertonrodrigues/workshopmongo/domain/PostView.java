@@ -0,0 +1,135 @@
+package com.ewertonrodrigues.workshopmongo.domain;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Visão imutável e compacta de um post, usada nas buscas somente leitura com {@code view=compact}.
+ *
+ * Em relação ao {@link Post}, a visão não guarda as palavras normalizadas do título, mantém as datas
+ * como milissegundos desde a época, os comentários em um array de tamanho exato e os autores como
+ * referências compartilhadas ({@link AuthorRef}). Os corpos comprimidos são descomprimidos apenas na
+ * serialização, sem guardar o texto descomprimido. A serialização é igual à do {@link Post}.
+ */
+public final class PostView implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Array vazio compartilhado pelos posts sem comentários */
+	public static final CommentView[] NO_COMMENTS = new CommentView[0];
+
+	/** Identificador único do post */
+	private final String id;
+
+	/** Data da postagem, em milissegundos desde a época, ou {@code Long.MIN_VALUE} se ausente */
+	private final long date;
+
+	/** Título do post */
+	private final String title;
+
+	/** Conteúdo principal do post, ou {@code null} quando gravado comprimido */
+	private final String body;
+
+	/** Conteúdo do post comprimido, quando gravado comprimido */
+	private final byte[] compressedBody;
+
+	/** Autor da postagem */
+	private final AuthorRef author;
+
+	/** Comentários mais recentes do post */
+	private final CommentView[] comments;
+
+	/** Quantidade total de comentários do post */
+	private final long commentCount;
+
+	/** Quantidade de visualizações do post */
+	private final long views;
+
+	/** Quantidade de curtidas do post */
+	private final long likes;
+
+	/**
+	 * @param id             Identificador do post
+	 * @param date           Data da postagem, em milissegundos desde a época, ou {@code Long.MIN_VALUE} se ausente
+	 * @param title          Título do post
+	 * @param body           Conteúdo do post, ou {@code null} quando gravado comprimido
+	 * @param compressedBody Conteúdo do post comprimido, ou {@code null}
+	 * @param author         Autor da postagem
+	 * @param comments       Comentários do post, sem cópia (o array não deve ser alterado depois)
+	 * @param commentCount   Quantidade total de comentários
+	 * @param views          Quantidade de visualizações
+	 * @param likes          Quantidade de curtidas
+	 */
+	public PostView(String id, long date, String title, String body, byte[] compressedBody, AuthorRef author,
+			CommentView[] comments, long commentCount, long views, long likes) {
+		this.id = id;
+		this.date = date;
+		this.title = title;
+		this.body = body;
+		this.compressedBody = compressedBody;
+		this.author = author;
+		this.comments = comments;
+		this.commentCount = commentCount;
+		this.views = views;
+		this.likes = likes;
+	}
+
+	/** @return O identificador do post */
+	public String getId() {
+		return id;
+	}
+
+	/** @return A data do post, criada a cada chamada */
+	public Date getDate() {
+		return date == Long.MIN_VALUE ? null : new Date(date);
+	}
+
+	/** @return A data do post, em milissegundos desde a época, ou {@code Long.MIN_VALUE} se ausente */
+	@JsonIgnore
+	public long getDateMillis() {
+		return date;
+	}
+
+	/** @return O título do post */
+	public String getTitle() {
+		return title;
+	}
+
+	/** @return O conteúdo do post, descomprimido a cada chamada quando gravado comprimido */
+	public String getBody() {
+		if (body == null && compressedBody != null) {
+			return CompressedText.inflate(compressedBody);
+		}
+		return body;
+	}
+
+	/** @return O autor do post */
+	public AuthorRef getAuthor() {
+		return author;
+	}
+
+	/** @return Os comentários do post, em uma lista somente leitura sobre o array */
+	public List<CommentView> getComments() {
+		return Collections.unmodifiableList(Arrays.asList(comments));
+	}
+
+	/** @return A quantidade total de comentários do post */
+	public long getCommentCount() {
+		return commentCount;
+	}
+
+	/** @return A quantidade de visualizações do post */
+	public long getViews() {
+		return views;
+	}
+
+	/** @return A quantidade de curtidas do post */
+	public long getLikes() {
+		return likes;
+	}
+}
@@ -0,0 +1,94 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) que representa o resultado de uma execução do arquivamento de posts antigos.
+ */
+public class ArchiveReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Data de corte: posts anteriores a ela são movidos para o arquivo
+     */
+    private Date cutoff;
+
+    /**
+     * Quantidade de posts movidos
+     */
+    private long moved;
+
+    /**
+     * Quantidade de lotes executados
+     */
+    private int batches;
+
+    /**
+     * Tempo total da execução em milissegundos, incluindo as pausas entre os lotes
+     */
+    private long elapsedMillis;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public ArchiveReportDTO() {
+    }
+
+    /**
+     * @return A data de corte do arquivamento
+     */
+    public Date getCutoff() {
+        return cutoff;
+    }
+
+    /**
+     * @param cutoff Define a data de corte do arquivamento
+     */
+    public void setCutoff(Date cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    /**
+     * @return A quantidade de posts movidos
+     */
+    public long getMoved() {
+        return moved;
+    }
+
+    /**
+     * @param moved Define a quantidade de posts movidos
+     */
+    public void setMoved(long moved) {
+        this.moved = moved;
+    }
+
+    /**
+     * @return A quantidade de lotes executados
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    /**
+     * @param batches Define a quantidade de lotes executados
+     */
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    /**
+     * @return O tempo total da execução em milissegundos
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @param elapsedMillis Define o tempo total da execução em milissegundos
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,207 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) com o estado e os contadores do disjuntor de uma leitura do banco.
+ */
+public class BreakerStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Nome da operação protegida
+     */
+    private String operation;
+
+    /**
+     * Indica se os disjuntores estão habilitados
+     */
+    private boolean enabled;
+
+    /**
+     * Estado do disjuntor (CLOSED | OPEN | HALF_OPEN)
+     */
+    private String state;
+
+    /**
+     * Quantidade de vezes em que o disjuntor abriu
+     */
+    private long opened;
+
+    /**
+     * Quantidade de leituras concluídas
+     */
+    private long successes;
+
+    /**
+     * Quantidade de leituras com falha de acesso ao banco
+     */
+    private long failures;
+
+    /**
+     * Quantidade de leituras que excederam o tempo limite
+     */
+    private long timeouts;
+
+    /**
+     * Quantidade de leituras rejeitadas com o disjuntor aberto
+     */
+    private long rejected;
+
+    /**
+     * Quantidade de respostas servidas com o último resultado bom
+     */
+    private long staleServed;
+
+    /**
+     * Quantidade de chaves com o último resultado bom guardado
+     */
+    private int cachedKeys;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public BreakerStatsDTO() {
+    }
+
+    /**
+     * @return O nome da operação protegida
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @param operation Define o nome da operação protegida
+     */
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * @return Se os disjuntores estão habilitados
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled Define se os disjuntores estão habilitados
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return O estado do disjuntor (CLOSED | OPEN | HALF_OPEN)
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * @param state Define o estado do disjuntor
+     */
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    /**
+     * @return A quantidade de vezes em que o disjuntor abriu
+     */
+    public long getOpened() {
+        return opened;
+    }
+
+    /**
+     * @param opened Define a quantidade de vezes em que o disjuntor abriu
+     */
+    public void setOpened(long opened) {
+        this.opened = opened;
+    }
+
+    /**
+     * @return A quantidade de leituras concluídas
+     */
+    public long getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * @param successes Define a quantidade de leituras concluídas
+     */
+    public void setSuccesses(long successes) {
+        this.successes = successes;
+    }
+
+    /**
+     * @return A quantidade de leituras com falha de acesso ao banco
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @param failures Define a quantidade de leituras com falha de acesso ao banco
+     */
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+
+    /**
+     * @return A quantidade de leituras que excederam o tempo limite
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * @param timeouts Define a quantidade de leituras que excederam o tempo limite
+     */
+    public void setTimeouts(long timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * @return A quantidade de leituras rejeitadas com o disjuntor aberto
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @param rejected Define a quantidade de leituras rejeitadas com o disjuntor aberto
+     */
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * @return A quantidade de respostas servidas com o último resultado bom
+     */
+    public long getStaleServed() {
+        return staleServed;
+    }
+
+    /**
+     * @param staleServed Define a quantidade de respostas servidas com o último resultado bom
+     */
+    public void setStaleServed(long staleServed) {
+        this.staleServed = staleServed;
+    }
+
+    /**
+     * @return A quantidade de chaves com o último resultado bom guardado
+     */
+    public int getCachedKeys() {
+        return cachedKeys;
+    }
+
+    /**
+     * @param cachedKeys Define a quantidade de chaves com o último resultado bom guardado
+     */
+    public void setCachedKeys(int cachedKeys) {
+        this.cachedKeys = cachedKeys;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ewertonrodrigues.workshopmongo.dto;
 
+import org.springframework.data.mongodb.core.index.TextIndexed;
+
 import java.io.Serializable;
 import java.util.Date;
 
@@ -12,8 +14,9 @@ public class CommentDTO implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Conteúdo do comentário
+     * Conteúdo do comentário (incluído no índice de texto dos posts)
      */
+    @TextIndexed
     private String text;
 
     /**
@@ -0,0 +1,188 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) com as estatísticas da compressão dos corpos de posts.
+ */
+public class CompressionStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Indica se a compressão está habilitada nas gravações
+     */
+    private boolean enabled;
+
+    /**
+     * Tamanho mínimo, em bytes, dos corpos comprimidos
+     */
+    private int thresholdBytes;
+
+    /**
+     * Quantidade de corpos gravados comprimidos desde a inicialização
+     */
+    private long compressed;
+
+    /**
+     * Tamanho original dos corpos comprimidos, em bytes
+     */
+    private long rawBytes;
+
+    /**
+     * Tamanho gravado dos corpos comprimidos, em bytes
+     */
+    private long storedBytes;
+
+    /**
+     * Razão entre o tamanho original e o tamanho gravado
+     */
+    private double ratio;
+
+    /**
+     * Tempo total das compressões, em milissegundos
+     */
+    private double compressMillis;
+
+    /**
+     * Quantidade de corpos descomprimidos desde a inicialização
+     */
+    private long inflations;
+
+    /**
+     * Tempo total das descompressões, em milissegundos
+     */
+    private double inflateMillis;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public CompressionStatsDTO() {
+    }
+
+    /**
+     * @return Se a compressão está habilitada nas gravações
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled Define se a compressão está habilitada nas gravações
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return O tamanho mínimo, em bytes, dos corpos comprimidos
+     */
+    public int getThresholdBytes() {
+        return thresholdBytes;
+    }
+
+    /**
+     * @param thresholdBytes Define o tamanho mínimo, em bytes, dos corpos comprimidos
+     */
+    public void setThresholdBytes(int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * @return A quantidade de corpos gravados comprimidos desde a inicialização
+     */
+    public long getCompressed() {
+        return compressed;
+    }
+
+    /**
+     * @param compressed Define a quantidade de corpos gravados comprimidos
+     */
+    public void setCompressed(long compressed) {
+        this.compressed = compressed;
+    }
+
+    /**
+     * @return O tamanho original dos corpos comprimidos, em bytes
+     */
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    /**
+     * @param rawBytes Define o tamanho original dos corpos comprimidos, em bytes
+     */
+    public void setRawBytes(long rawBytes) {
+        this.rawBytes = rawBytes;
+    }
+
+    /**
+     * @return O tamanho gravado dos corpos comprimidos, em bytes
+     */
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * @param storedBytes Define o tamanho gravado dos corpos comprimidos, em bytes
+     */
+    public void setStoredBytes(long storedBytes) {
+        this.storedBytes = storedBytes;
+    }
+
+    /**
+     * @return A razão entre o tamanho original e o tamanho gravado
+     */
+    public double getRatio() {
+        return ratio;
+    }
+
+    /**
+     * @param ratio Define a razão entre o tamanho original e o tamanho gravado
+     */
+    public void setRatio(double ratio) {
+        this.ratio = ratio;
+    }
+
+    /**
+     * @return O tempo total das compressões, em milissegundos
+     */
+    public double getCompressMillis() {
+        return compressMillis;
+    }
+
+    /**
+     * @param compressMillis Define o tempo total das compressões, em milissegundos
+     */
+    public void setCompressMillis(double compressMillis) {
+        this.compressMillis = compressMillis;
+    }
+
+    /**
+     * @return A quantidade de corpos descomprimidos desde a inicialização
+     */
+    public long getInflations() {
+        return inflations;
+    }
+
+    /**
+     * @param inflations Define a quantidade de corpos descomprimidos
+     */
+    public void setInflations(long inflations) {
+        this.inflations = inflations;
+    }
+
+    /**
+     * @return O tempo total das descompressões, em milissegundos
+     */
+    public double getInflateMillis() {
+        return inflateMillis;
+    }
+
+    /**
+     * @param inflateMillis Define o tempo total das descompressões, em milissegundos
+     */
+    public void setInflateMillis(double inflateMillis) {
+        this.inflateMillis = inflateMillis;
+    }
+}
@@ -0,0 +1,169 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) com as estatísticas do cache da listagem de usuários.
+ */
+public class DirectoryCacheStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Indica se o cache está montado e sendo usado
+     */
+    private boolean ready;
+
+    /**
+     * Quantidade de requisições atendidas pelo cache
+     */
+    private long hits;
+
+    /**
+     * Quantidade de requisições atendidas pelo caminho normal
+     */
+    private long misses;
+
+    /**
+     * Quantidade de reconstruções concluídas
+     */
+    private long rebuilds;
+
+    /**
+     * Quantidade de usuários na listagem em cache
+     */
+    private int users;
+
+    /**
+     * Tamanho do JSON em cache, em bytes
+     */
+    private long jsonBytes;
+
+    /**
+     * Tamanho do JSON comprimido em gzip, em bytes
+     */
+    private long gzipBytes;
+
+    /**
+     * Duração da última reconstrução, em milissegundos
+     */
+    private long buildMillis;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public DirectoryCacheStatsDTO() {
+    }
+
+    /**
+     * @return Se o cache está montado e sendo usado
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param ready Define se o cache está montado e sendo usado
+     */
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    /**
+     * @return A quantidade de requisições atendidas pelo cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @param hits Define a quantidade de requisições atendidas pelo cache
+     */
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * @return A quantidade de requisições atendidas pelo caminho normal
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @param misses Define a quantidade de requisições atendidas pelo caminho normal
+     */
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * @return A quantidade de reconstruções concluídas
+     */
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    /**
+     * @param rebuilds Define a quantidade de reconstruções concluídas
+     */
+    public void setRebuilds(long rebuilds) {
+        this.rebuilds = rebuilds;
+    }
+
+    /**
+     * @return A quantidade de usuários na listagem em cache
+     */
+    public int getUsers() {
+        return users;
+    }
+
+    /**
+     * @param users Define a quantidade de usuários na listagem em cache
+     */
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    /**
+     * @return O tamanho do JSON em cache, em bytes
+     */
+    public long getJsonBytes() {
+        return jsonBytes;
+    }
+
+    /**
+     * @param jsonBytes Define o tamanho do JSON em cache, em bytes
+     */
+    public void setJsonBytes(long jsonBytes) {
+        this.jsonBytes = jsonBytes;
+    }
+
+    /**
+     * @return O tamanho do JSON comprimido em gzip, em bytes
+     */
+    public long getGzipBytes() {
+        return gzipBytes;
+    }
+
+    /**
+     * @param gzipBytes Define o tamanho do JSON comprimido em gzip, em bytes
+     */
+    public void setGzipBytes(long gzipBytes) {
+        this.gzipBytes = gzipBytes;
+    }
+
+    /**
+     * @return A duração da última reconstrução, em milissegundos
+     */
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * @param buildMillis Define a duração da última reconstrução, em milissegundos
+     */
+    public void setBuildMillis(long buildMillis) {
+        this.buildMillis = buildMillis;
+    }
+}
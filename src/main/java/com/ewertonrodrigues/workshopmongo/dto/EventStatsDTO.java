@@ -0,0 +1,226 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) com as estatísticas da fila de eventos e da sua gravação em lotes.
+ */
+public class EventStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Indica se os eventos estão habilitados
+     */
+    private boolean enabled;
+
+    /**
+     * Política aplicada quando a fila está cheia (drop | wait)
+     */
+    private String overflow;
+
+    /**
+     * Capacidade da fila de eventos
+     */
+    private int capacity;
+
+    /**
+     * Quantidade de eventos na fila, ainda não gravados
+     */
+    private int queued;
+
+    /**
+     * Quantidade de eventos incluídos na fila desde a inicialização
+     */
+    private long published;
+
+    /**
+     * Quantidade de eventos descartados com a fila cheia
+     */
+    private long dropped;
+
+    /**
+     * Quantidade de publicações que aguardaram espaço na fila
+     */
+    private long waits;
+
+    /**
+     * Quantidade de eventos gravados na coleção de eventos
+     */
+    private long persisted;
+
+    /**
+     * Quantidade de lotes gravados
+     */
+    private long batches;
+
+    /**
+     * Quantidade de gravações de lote que falharam e serão repetidas
+     */
+    private long failures;
+
+    /**
+     * Tempo total das gravações de lotes, em milissegundos
+     */
+    private double persistMillis;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public EventStatsDTO() {
+    }
+
+    /**
+     * @return Se os eventos estão habilitados
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled Define se os eventos estão habilitados
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return A política aplicada quando a fila está cheia
+     */
+    public String getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * @param overflow Define a política aplicada quando a fila está cheia
+     */
+    public void setOverflow(String overflow) {
+        this.overflow = overflow;
+    }
+
+    /**
+     * @return A capacidade da fila de eventos
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param capacity Define a capacidade da fila de eventos
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return A quantidade de eventos na fila, ainda não gravados
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * @param queued Define a quantidade de eventos na fila
+     */
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    /**
+     * @return A quantidade de eventos incluídos na fila desde a inicialização
+     */
+    public long getPublished() {
+        return published;
+    }
+
+    /**
+     * @param published Define a quantidade de eventos incluídos na fila
+     */
+    public void setPublished(long published) {
+        this.published = published;
+    }
+
+    /**
+     * @return A quantidade de eventos descartados com a fila cheia
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @param dropped Define a quantidade de eventos descartados com a fila cheia
+     */
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    /**
+     * @return A quantidade de publicações que aguardaram espaço na fila
+     */
+    public long getWaits() {
+        return waits;
+    }
+
+    /**
+     * @param waits Define a quantidade de publicações que aguardaram espaço na fila
+     */
+    public void setWaits(long waits) {
+        this.waits = waits;
+    }
+
+    /**
+     * @return A quantidade de eventos gravados na coleção de eventos
+     */
+    public long getPersisted() {
+        return persisted;
+    }
+
+    /**
+     * @param persisted Define a quantidade de eventos gravados
+     */
+    public void setPersisted(long persisted) {
+        this.persisted = persisted;
+    }
+
+    /**
+     * @return A quantidade de lotes gravados
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * @param batches Define a quantidade de lotes gravados
+     */
+    public void setBatches(long batches) {
+        this.batches = batches;
+    }
+
+    /**
+     * @return A quantidade de gravações de lote que falharam
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @param failures Define a quantidade de gravações de lote que falharam
+     */
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+
+    /**
+     * @return O tempo total das gravações de lotes, em milissegundos
+     */
+    public double getPersistMillis() {
+        return persistMillis;
+    }
+
+    /**
+     * @param persistMillis Define o tempo total das gravações de lotes, em milissegundos
+     */
+    public void setPersistMillis(double persistMillis) {
+        this.persistMillis = persistMillis;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) com as alocações, a contenção de locks e as chamadas aos repositórios
+ * atribuídas a um endpoint durante uma gravação do JDK Flight Recorder.
+ */
+public class HandlerProfileDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Endpoint, no formato Controlador.método
+     */
+    private String handler;
+
+    /**
+     * Quantidade de execuções do endpoint
+     */
+    private long requests;
+
+    /**
+     * Tempo total de execução do endpoint em milissegundos
+     */
+    private double totalMillis;
+
+    /**
+     * Quantidade estimada de bytes alocados pelo endpoint
+     */
+    private long allocatedBytes;
+
+    /**
+     * Quantidade de esperas por monitores durante o endpoint
+     */
+    private long lockWaits;
+
+    /**
+     * Tempo de espera por monitores durante o endpoint em milissegundos
+     */
+    private double lockMillis;
+
+    /**
+     * Quantidade de chamadas aos repositórios feitas pelo endpoint
+     */
+    private long repositoryCalls;
+
+    /**
+     * Tempo total das chamadas aos repositórios em milissegundos
+     */
+    private double repositoryMillis;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public HandlerProfileDTO() {
+    }
+
+    /**
+     * @return O endpoint, no formato Controlador.método
+     */
+    public String getHandler() {
+        return handler;
+    }
+
+    /**
+     * @param handler Define o endpoint, no formato Controlador.método
+     */
+    public void setHandler(String handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * @return A quantidade de execuções do endpoint
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @param requests Define a quantidade de execuções do endpoint
+     */
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * @return O tempo total de execução do endpoint em milissegundos
+     */
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * @param totalMillis Define o tempo total de execução do endpoint em milissegundos
+     */
+    public void setTotalMillis(double totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    /**
+     * @return A quantidade estimada de bytes alocados pelo endpoint
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @param allocatedBytes Define a quantidade estimada de bytes alocados pelo endpoint
+     */
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * @return A quantidade de esperas por monitores durante o endpoint
+     */
+    public long getLockWaits() {
+        return lockWaits;
+    }
+
+    /**
+     * @param lockWaits Define a quantidade de esperas por monitores durante o endpoint
+     */
+    public void setLockWaits(long lockWaits) {
+        this.lockWaits = lockWaits;
+    }
+
+    /**
+     * @return O tempo de espera por monitores durante o endpoint em milissegundos
+     */
+    public double getLockMillis() {
+        return lockMillis;
+    }
+
+    /**
+     * @param lockMillis Define o tempo de espera por monitores durante o endpoint em milissegundos
+     */
+    public void setLockMillis(double lockMillis) {
+        this.lockMillis = lockMillis;
+    }
+
+    /**
+     * @return A quantidade de chamadas aos repositórios feitas pelo endpoint
+     */
+    public long getRepositoryCalls() {
+        return repositoryCalls;
+    }
+
+    /**
+     * @param repositoryCalls Define a quantidade de chamadas aos repositórios feitas pelo endpoint
+     */
+    public void setRepositoryCalls(long repositoryCalls) {
+        this.repositoryCalls = repositoryCalls;
+    }
+
+    /**
+     * @return O tempo total das chamadas aos repositórios em milissegundos
+     */
+    public double getRepositoryMillis() {
+        return repositoryMillis;
+    }
+
+    /**
+     * @param repositoryMillis Define o tempo total das chamadas aos repositórios em milissegundos
+     */
+    public void setRepositoryMillis(double repositoryMillis) {
+        this.repositoryMillis = repositoryMillis;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) que representa o resultado de uma importação em lote.
+ * Informa o último bloco confirmado pelo banco de dados, para que uma importação
+ * interrompida possa ser retomada a partir do bloco seguinte, e a vazão obtida.
+ */
+public class ImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Coleção de destino da importação
+     */
+    private String collection;
+
+    /**
+     * Quantidade de documentos por bloco
+     */
+    private int chunkSize;
+
+    /**
+     * Índice do primeiro bloco importado (diferente de zero quando a importação é retomada)
+     */
+    private long firstChunk;
+
+    /**
+     * Índice do último bloco confirmado, considerando que todos os anteriores também foram confirmados
+     */
+    private long lastAcknowledgedChunk;
+
+    /**
+     * Quantidade de documentos gravados
+     */
+    private long documents;
+
+    /**
+     * Tempo total da importação em milissegundos
+     */
+    private long elapsedMillis;
+
+    /**
+     * Vazão da importação em documentos por segundo
+     */
+    private double documentsPerSecond;
+
+    /**
+     * Indica se todo o conteúdo recebido foi importado
+     */
+    private boolean completed;
+
+    /**
+     * Mensagem de erro, quando a importação é interrompida
+     */
+    private String error;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public ImportReportDTO() {
+    }
+
+    /**
+     * @return A coleção de destino da importação
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * @param collection Define a coleção de destino da importação
+     */
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    /**
+     * @return A quantidade de documentos por bloco
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize Define a quantidade de documentos por bloco
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return O índice do primeiro bloco importado
+     */
+    public long getFirstChunk() {
+        return firstChunk;
+    }
+
+    /**
+     * @param firstChunk Define o índice do primeiro bloco importado
+     */
+    public void setFirstChunk(long firstChunk) {
+        this.firstChunk = firstChunk;
+    }
+
+    /**
+     * @return O índice do último bloco confirmado (-1 quando nenhum bloco foi confirmado)
+     */
+    public long getLastAcknowledgedChunk() {
+        return lastAcknowledgedChunk;
+    }
+
+    /**
+     * @param lastAcknowledgedChunk Define o índice do último bloco confirmado
+     */
+    public void setLastAcknowledgedChunk(long lastAcknowledgedChunk) {
+        this.lastAcknowledgedChunk = lastAcknowledgedChunk;
+    }
+
+    /**
+     * @return A quantidade de documentos gravados
+     */
+    public long getDocuments() {
+        return documents;
+    }
+
+    /**
+     * @param documents Define a quantidade de documentos gravados
+     */
+    public void setDocuments(long documents) {
+        this.documents = documents;
+    }
+
+    /**
+     * @return O tempo total da importação em milissegundos
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @param elapsedMillis Define o tempo total da importação em milissegundos
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return A vazão da importação em documentos por segundo
+     */
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    /**
+     * @param documentsPerSecond Define a vazão da importação em documentos por segundo
+     */
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+
+    /**
+     * @return Se todo o conteúdo recebido foi importado
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * @param completed Define se todo o conteúdo recebido foi importado
+     */
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * @return A mensagem de erro da importação
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @param error Define a mensagem de erro da importação
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+}
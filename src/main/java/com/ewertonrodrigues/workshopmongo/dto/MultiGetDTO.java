@@ -0,0 +1,72 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa o resultado de uma busca por vários IDs.
+ * Os itens encontrados seguem a ordem dos IDs da requisição, e os IDs sem correspondência
+ * são informados separadamente.
+ *
+ * @param <T> O tipo dos itens retornados.
+ */
+public class MultiGetDTO<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Itens encontrados, na ordem dos IDs da requisição
+     */
+    private List<T> items = new ArrayList<>();
+
+    /**
+     * IDs da requisição que não foram encontrados
+     */
+    private List<String> missing = new ArrayList<>();
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public MultiGetDTO() {
+    }
+
+    /**
+     * Construtor que inicializa o resultado com os dados fornecidos.
+     *
+     * @param items   Itens encontrados, na ordem dos IDs da requisição.
+     * @param missing IDs que não foram encontrados.
+     */
+    public MultiGetDTO(List<T> items, List<String> missing) {
+        this.items = items;
+        this.missing = missing;
+    }
+
+    /**
+     * @return Os itens encontrados
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @param items Define os itens encontrados
+     */
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    /**
+     * @return Os IDs que não foram encontrados
+     */
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    /**
+     * @param missing Define os IDs que não foram encontrados
+     */
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) com uma entrada dos rankings de uma gravação do JDK Flight Recorder
+ * (método que aloca ou monitor disputado).
+ */
+public class ProfileEntryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Nome do método ou da classe do monitor
+     */
+    private String name;
+
+    /**
+     * Quantidade de amostras ou de esperas
+     */
+    private long count;
+
+    /**
+     * Quantidade estimada de bytes alocados
+     */
+    private long allocatedBytes;
+
+    /**
+     * Tempo de espera em milissegundos
+     */
+    private double millis;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public ProfileEntryDTO() {
+    }
+
+    /**
+     * @return O nome do método ou da classe do monitor
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name Define o nome do método ou da classe do monitor
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return A quantidade de amostras ou de esperas
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param count Define a quantidade de amostras ou de esperas
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * @return A quantidade estimada de bytes alocados
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @param allocatedBytes Define a quantidade estimada de bytes alocados
+     */
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * @return O tempo de espera em milissegundos
+     */
+    public double getMillis() {
+        return millis;
+    }
+
+    /**
+     * @param millis Define o tempo de espera em milissegundos
+     */
+    public void setMillis(double millis) {
+        this.millis = millis;
+    }
+}
@@ -0,0 +1,210 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) com o resumo de uma gravação do JDK Flight Recorder: alocações,
+ * contenção de locks e sua atribuição aos endpoints.
+ */
+public class ProfileSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Estado da gravação (IDLE | RECORDING | STOPPED)
+     */
+    private String state;
+
+    /**
+     * Data de início da gravação
+     */
+    private Date startedAt;
+
+    /**
+     * Duração da gravação em milissegundos
+     */
+    private long durationMillis;
+
+    /**
+     * Quantidade estimada de bytes alocados durante a gravação
+     */
+    private long allocatedBytes;
+
+    /**
+     * Taxa estimada de alocação em bytes por segundo
+     */
+    private double allocationRate;
+
+    /**
+     * Quantidade de esperas por monitores acima do limite configurado
+     */
+    private long lockWaits;
+
+    /**
+     * Tempo total de espera por monitores em milissegundos
+     */
+    private double lockMillis;
+
+    /**
+     * Alocações, a contenção e as chamadas aos repositórios de cada endpoint
+     */
+    private List<HandlerProfileDTO> handlers;
+
+    /**
+     * Métodos que mais alocaram memória
+     */
+    private List<ProfileEntryDTO> topFrames;
+
+    /**
+     * Classes dos monitores com maior tempo de espera
+     */
+    private List<ProfileEntryDTO> topMonitors;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public ProfileSummaryDTO() {
+    }
+
+    /**
+     * @return O estado da gravação (IDLE | RECORDING | STOPPED)
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * @param state Define o estado da gravação (IDLE | RECORDING | STOPPED)
+     */
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    /**
+     * @return A data de início da gravação
+     */
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @param startedAt Define a data de início da gravação
+     */
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * @return A duração da gravação em milissegundos
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @param durationMillis Define a duração da gravação em milissegundos
+     */
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return A quantidade estimada de bytes alocados durante a gravação
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @param allocatedBytes Define a quantidade estimada de bytes alocados durante a gravação
+     */
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * @return A taxa estimada de alocação em bytes por segundo
+     */
+    public double getAllocationRate() {
+        return allocationRate;
+    }
+
+    /**
+     * @param allocationRate Define a taxa estimada de alocação em bytes por segundo
+     */
+    public void setAllocationRate(double allocationRate) {
+        this.allocationRate = allocationRate;
+    }
+
+    /**
+     * @return A quantidade de esperas por monitores acima do limite configurado
+     */
+    public long getLockWaits() {
+        return lockWaits;
+    }
+
+    /**
+     * @param lockWaits Define a quantidade de esperas por monitores acima do limite configurado
+     */
+    public void setLockWaits(long lockWaits) {
+        this.lockWaits = lockWaits;
+    }
+
+    /**
+     * @return O tempo total de espera por monitores em milissegundos
+     */
+    public double getLockMillis() {
+        return lockMillis;
+    }
+
+    /**
+     * @param lockMillis Define o tempo total de espera por monitores em milissegundos
+     */
+    public void setLockMillis(double lockMillis) {
+        this.lockMillis = lockMillis;
+    }
+
+    /**
+     * @return As alocações, a contenção e as chamadas aos repositórios de cada endpoint
+     */
+    public List<HandlerProfileDTO> getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * @param handlers Define as alocações, a contenção e as chamadas aos repositórios de cada endpoint
+     */
+    public void setHandlers(List<HandlerProfileDTO> handlers) {
+        this.handlers = handlers;
+    }
+
+    /**
+     * @return Os métodos que mais alocaram memória
+     */
+    public List<ProfileEntryDTO> getTopFrames() {
+        return topFrames;
+    }
+
+    /**
+     * @param topFrames Define os métodos que mais alocaram memória
+     */
+    public void setTopFrames(List<ProfileEntryDTO> topFrames) {
+        this.topFrames = topFrames;
+    }
+
+    /**
+     * @return As classes dos monitores com maior tempo de espera
+     */
+    public List<ProfileEntryDTO> getTopMonitors() {
+        return topMonitors;
+    }
+
+    /**
+     * @param topMonitors Define as classes dos monitores com maior tempo de espera
+     */
+    public void setTopMonitors(List<ProfileEntryDTO> topMonitors) {
+        this.topMonitors = topMonitors;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) com as estatísticas do índice de autocompletar de títulos.
+ */
+public class SuggestStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Quantidade de títulos indexados
+     */
+    private long titles;
+
+    /**
+     * Quantidade de nós da árvore de prefixos
+     */
+    private long nodes;
+
+    /**
+     * Memória estimada do índice, em bytes
+     */
+    private long estimatedBytes;
+
+    /**
+     * Memória estimada do índice para um milhão de títulos, em bytes
+     */
+    private long bytesPerMillionTitles;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public SuggestStatsDTO() {
+    }
+
+    /**
+     * Construtor que inicializa as estatísticas com os dados fornecidos.
+     *
+     * @param titles         Quantidade de títulos indexados.
+     * @param nodes          Quantidade de nós da árvore.
+     * @param estimatedBytes Memória estimada do índice, em bytes.
+     */
+    public SuggestStatsDTO(long titles, long nodes, long estimatedBytes) {
+        this.titles = titles;
+        this.nodes = nodes;
+        this.estimatedBytes = estimatedBytes;
+        this.bytesPerMillionTitles = titles == 0 ? 0 : estimatedBytes * 1_000_000 / titles;
+    }
+
+    /**
+     * @return A quantidade de títulos indexados
+     */
+    public long getTitles() {
+        return titles;
+    }
+
+    /**
+     * @param titles Define a quantidade de títulos indexados
+     */
+    public void setTitles(long titles) {
+        this.titles = titles;
+    }
+
+    /**
+     * @return A quantidade de nós da árvore de prefixos
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @param nodes Define a quantidade de nós da árvore de prefixos
+     */
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return A memória estimada do índice, em bytes
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * @param estimatedBytes Define a memória estimada do índice, em bytes
+     */
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * @return A memória estimada do índice para um milhão de títulos, em bytes
+     */
+    public long getBytesPerMillionTitles() {
+        return bytesPerMillionTitles;
+    }
+
+    /**
+     * @param bytesPerMillionTitles Define a memória estimada para um milhão de títulos, em bytes
+     */
+    public void setBytesPerMillionTitles(long bytesPerMillionTitles) {
+        this.bytesPerMillionTitles = bytesPerMillionTitles;
+    }
+}
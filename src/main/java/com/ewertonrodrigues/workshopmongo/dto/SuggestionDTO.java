@@ -0,0 +1,67 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) que representa uma sugestão de autocompletar.
+ * Contém apenas o ID e o título do post sugerido.
+ */
+public class SuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identificador do post sugerido
+     */
+    private String id;
+
+    /**
+     * Título do post sugerido
+     */
+    private String title;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public SuggestionDTO() {
+    }
+
+    /**
+     * Construtor que inicializa uma sugestão com os dados fornecidos.
+     *
+     * @param id    Identificador do post.
+     * @param title Título do post.
+     */
+    public SuggestionDTO(String id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    /**
+     * @return O identificador do post sugerido
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @param id Define o identificador do post sugerido
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return O título do post sugerido
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @param title Define o título do post sugerido
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import com.ewertonrodrigues.workshopmongo.domain.PostSummary;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) com o perfil de um usuário: os dados do usuário e, conforme o parâmetro
+ * {@code include}, os resumos dos seus posts mais recentes e a quantidade de comentários recebidos.
+ * Os campos não solicitados são omitidos da resposta.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserProfileDTO extends UserDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Resumos dos posts mais recentes do usuário, do mais recente para o mais antigo
+     */
+    private List<PostSummary> posts;
+
+    /**
+     * Quantidade total de posts do usuário
+     */
+    private Long postCount;
+
+    /**
+     * Quantidade total de comentários recebidos nos posts do usuário
+     */
+    private Long commentCount;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public UserProfileDTO() {
+    }
+
+    /**
+     * @return Os resumos dos posts mais recentes do usuário
+     */
+    public List<PostSummary> getPosts() {
+        return posts;
+    }
+
+    /**
+     * @param posts Define os resumos dos posts mais recentes do usuário
+     */
+    public void setPosts(List<PostSummary> posts) {
+        this.posts = posts;
+    }
+
+    /**
+     * @return A quantidade total de posts do usuário
+     */
+    public Long getPostCount() {
+        return postCount;
+    }
+
+    /**
+     * @param postCount Define a quantidade total de posts do usuário
+     */
+    public void setPostCount(Long postCount) {
+        this.postCount = postCount;
+    }
+
+    /**
+     * @return A quantidade total de comentários recebidos nos posts do usuário
+     */
+    public Long getCommentCount() {
+        return commentCount;
+    }
+
+    /**
+     * @param commentCount Define a quantidade total de comentários recebidos nos posts do usuário
+     */
+    public void setCommentCount(Long commentCount) {
+        this.commentCount = commentCount;
+    }
+}
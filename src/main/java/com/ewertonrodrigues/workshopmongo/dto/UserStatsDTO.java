@@ -0,0 +1,146 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) com as estatísticas de publicação de um usuário.
+ */
+public class UserStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identificador único do usuário
+     */
+    private String userId;
+
+    /**
+     * Quantidade de posts publicados pelo usuário
+     */
+    private long postCount;
+
+    /**
+     * Quantidade de comentários recebidos nos posts do usuário
+     */
+    private long commentsReceived;
+
+    /**
+     * Quantidade de comentários escritos pelo usuário
+     */
+    private long commentsAuthored;
+
+    /**
+     * Data do primeiro post do usuário
+     */
+    private Date firstPostDate;
+
+    /**
+     * Data do último post do usuário
+     */
+    private Date lastPostDate;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public UserStatsDTO() {
+    }
+
+    /**
+     * Construtor de cópia, usado para devolver as estatísticas em cache sem expor a instância armazenada.
+     *
+     * @param other As estatísticas a serem copiadas.
+     */
+    public UserStatsDTO(UserStatsDTO other) {
+        this.userId = other.userId;
+        this.postCount = other.postCount;
+        this.commentsReceived = other.commentsReceived;
+        this.commentsAuthored = other.commentsAuthored;
+        this.firstPostDate = other.firstPostDate;
+        this.lastPostDate = other.lastPostDate;
+    }
+
+    /**
+     * @return O ID do usuário
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * @param userId Define o ID do usuário
+     */
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * @return A quantidade de posts publicados pelo usuário
+     */
+    public long getPostCount() {
+        return postCount;
+    }
+
+    /**
+     * @param postCount Define a quantidade de posts publicados pelo usuário
+     */
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+
+    /**
+     * @return A quantidade de comentários recebidos nos posts do usuário
+     */
+    public long getCommentsReceived() {
+        return commentsReceived;
+    }
+
+    /**
+     * @param commentsReceived Define a quantidade de comentários recebidos nos posts do usuário
+     */
+    public void setCommentsReceived(long commentsReceived) {
+        this.commentsReceived = commentsReceived;
+    }
+
+    /**
+     * @return A quantidade de comentários escritos pelo usuário
+     */
+    public long getCommentsAuthored() {
+        return commentsAuthored;
+    }
+
+    /**
+     * @param commentsAuthored Define a quantidade de comentários escritos pelo usuário
+     */
+    public void setCommentsAuthored(long commentsAuthored) {
+        this.commentsAuthored = commentsAuthored;
+    }
+
+    /**
+     * @return A data do primeiro post do usuário
+     */
+    public Date getFirstPostDate() {
+        return firstPostDate;
+    }
+
+    /**
+     * @param firstPostDate Define a data do primeiro post do usuário
+     */
+    public void setFirstPostDate(Date firstPostDate) {
+        this.firstPostDate = firstPostDate;
+    }
+
+    /**
+     * @return A data do último post do usuário
+     */
+    public Date getLastPostDate() {
+        return lastPostDate;
+    }
+
+    /**
+     * @param lastPostDate Define a data do último post do usuário
+     */
+    public void setLastPostDate(Date lastPostDate) {
+        this.lastPostDate = lastPostDate;
+    }
+}
@@ -0,0 +1,208 @@
+package com.ewertonrodrigues.workshopmongo.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) que representa o resultado do aquecimento executado na inicialização.
+ */
+public class WarmupReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Indica se o aquecimento terminou
+     */
+    private boolean completed;
+
+    /**
+     * Data de início do aquecimento
+     */
+    private Date startedAt;
+
+    /**
+     * Duração do aquecimento em milissegundos
+     */
+    private long elapsedMillis;
+
+    /**
+     * Indica se o aquecimento foi interrompido pelo tempo máximo
+     */
+    private boolean timedOut;
+
+    /**
+     * Quantidade de conexões com o MongoDB abertas em paralelo
+     */
+    private int poolConnections;
+
+    /**
+     * Indica se os IDs vieram do registro da instância anterior (ou de uma amostra, na falta dele)
+     */
+    private boolean recordedIds;
+
+    /**
+     * Quantidade de usuários pré-carregados
+     */
+    private int preloadedUsers;
+
+    /**
+     * Quantidade de posts pré-carregados
+     */
+    private int preloadedPosts;
+
+    /**
+     * Quantidade de requisições internas aos endpoints
+     */
+    private int requests;
+
+    /**
+     * Quantidade de requisições internas com erro de servidor ou falha de conexão
+     */
+    private int failedRequests;
+
+    /**
+     * Construtor padrão sem argumentos.
+     */
+    public WarmupReportDTO() {
+    }
+
+    /**
+     * @return Se o aquecimento terminou
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * @param completed Define se o aquecimento terminou
+     */
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * @return A data de início do aquecimento
+     */
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @param startedAt Define a data de início do aquecimento
+     */
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * @return A duração do aquecimento em milissegundos
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @param elapsedMillis Define a duração do aquecimento em milissegundos
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return Se o aquecimento foi interrompido pelo tempo máximo
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @param timedOut Define se o aquecimento foi interrompido pelo tempo máximo
+     */
+    public void setTimedOut(boolean timedOut) {
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * @return A quantidade de conexões com o MongoDB abertas em paralelo
+     */
+    public int getPoolConnections() {
+        return poolConnections;
+    }
+
+    /**
+     * @param poolConnections Define a quantidade de conexões com o MongoDB abertas em paralelo
+     */
+    public void setPoolConnections(int poolConnections) {
+        this.poolConnections = poolConnections;
+    }
+
+    /**
+     * @return Se os IDs vieram do registro da instância anterior
+     */
+    public boolean isRecordedIds() {
+        return recordedIds;
+    }
+
+    /**
+     * @param recordedIds Define se os IDs vieram do registro da instância anterior
+     */
+    public void setRecordedIds(boolean recordedIds) {
+        this.recordedIds = recordedIds;
+    }
+
+    /**
+     * @return A quantidade de usuários pré-carregados
+     */
+    public int getPreloadedUsers() {
+        return preloadedUsers;
+    }
+
+    /**
+     * @param preloadedUsers Define a quantidade de usuários pré-carregados
+     */
+    public void setPreloadedUsers(int preloadedUsers) {
+        this.preloadedUsers = preloadedUsers;
+    }
+
+    /**
+     * @return A quantidade de posts pré-carregados
+     */
+    public int getPreloadedPosts() {
+        return preloadedPosts;
+    }
+
+    /**
+     * @param preloadedPosts Define a quantidade de posts pré-carregados
+     */
+    public void setPreloadedPosts(int preloadedPosts) {
+        this.preloadedPosts = preloadedPosts;
+    }
+
+    /**
+     * @return A quantidade de requisições internas aos endpoints
+     */
+    public int getRequests() {
+        return requests;
+    }
+
+    /**
+     * @param requests Define a quantidade de requisições internas aos endpoints
+     */
+    public void setRequests(int requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * @return A quantidade de requisições internas com erro
+     */
+    public int getFailedRequests() {
+        return failedRequests;
+    }
+
+    /**
+     * @param failedRequests Define a quantidade de requisições internas com erro
+     */
+    public void setFailedRequests(int failedRequests) {
+        this.failedRequests = failedRequests;
+    }
+}
@@ -0,0 +1,177 @@
+package com.ewertonrodrigues.workshopmongo.repository;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostView;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserStatsDTO;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Operações do repositório de {@link Post} implementadas diretamente sobre o {@code MongoTemplate}.
+ */
+public interface PostRepositoryCustom {
+
+    /**
+     * Executa uma consulta de posts montada pelo planejador de buscas.
+     *
+     * @param query A consulta a ser executada.
+     * @return Lista de posts que atendem à consulta.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException
+     *         Se a consulta exceder o tempo máximo definido em {@code maxTimeMS}.
+     */
+    List<Post> search(Query query);
+
+    /**
+     * Executa uma consulta de posts e lê o resultado como visões compactas e imutáveis
+     * ({@link PostView}), para as buscas somente leitura com muitos resultados.
+     *
+     * @param query A consulta a ser executada.
+     * @return Lista das visões dos posts que atendem à consulta.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException
+     *         Se a consulta exceder o tempo máximo definido em {@code maxTimeMS}.
+     */
+    List<PostView> searchViews(Query query);
+
+    /**
+     * Executa uma consulta com projeção e retorna os documentos sem convertê-los em {@link Post}.
+     * O campo {@code _id} é devolvido como {@code id}, no mesmo formato da entidade.
+     *
+     * @param query A consulta a ser executada, com a projeção dos campos desejados.
+     * @return Lista de documentos contendo apenas os campos projetados.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException
+     *         Se a consulta exceder o tempo máximo definido em {@code maxTimeMS}.
+     */
+    List<Document> searchProjected(Query query);
+
+    /**
+     * Preenche as palavras normalizadas do título dos posts gravados antes da criação desse campo.
+     *
+     * @return A quantidade de posts atualizados.
+     */
+    long backfillTitleWords();
+
+    /**
+     * Preenche as palavras normalizadas dos corpos comprimidos gravados antes da criação desse campo.
+     *
+     * @return A quantidade de posts atualizados.
+     */
+    long backfillBodyWords();
+
+    /**
+     * Preenche a quantidade de comentários dos posts gravados antes da criação desse campo.
+     *
+     * @return A quantidade de posts atualizados.
+     */
+    long backfillCommentCount();
+
+    /**
+     * Inclui um comentário em um post com uma única atualização atômica: {@code $push} com
+     * {@code $slice}, que mantém apenas os comentários mais recentes, e {@code $inc} da quantidade
+     * total de comentários.
+     *
+     * @param postId  O ID do post.
+     * @param comment O comentário a ser incluído.
+     * @param window  A quantidade máxima de comentários mantidos no post.
+     * @return O post atualizado, apenas com o ID, o autor e a quantidade de comentários,
+     *         ou {@code null} se o post não existir.
+     */
+    Post appendComment(String postId, CommentDTO comment, int window);
+
+    /**
+     * Calcula as estatísticas dos posts de um usuário com um único pipeline de agregação sobre os
+     * posts e os posts arquivados ({@code $unionWith}), usando o índice de {@code author._id}. A
+     * quantidade de comentários escritos não é calculada aqui, pois os posts guardam apenas a janela
+     * dos comentários mais recentes.
+     *
+     * @param userId O ID do usuário.
+     * @return As estatísticas do usuário (zeradas se ele não tiver posts).
+     */
+    UserStatsDTO authorStats(String userId);
+
+    /**
+     * Lê os IDs dos autores dos posts que atendem a um filtro, sem ler os posts inteiros.
+     *
+     * @param filter O filtro, já mapeado para os campos do documento.
+     * @return Os IDs dos autores.
+     */
+    Set<String> findAuthorIds(Document filter);
+
+    /**
+     * Conta os comentários guardados nos posts e nos posts arquivados por autor. Como cada post
+     * guarda apenas a janela dos comentários mais recentes, o resultado é um limite inferior.
+     *
+     * @return A quantidade de comentários por ID de autor.
+     */
+    Map<String, Long> countCommentsByAuthor();
+
+    /**
+     * Executa uma consulta de posts na coleção de posts arquivados.
+     *
+     * @param query A consulta a ser executada.
+     * @return Lista de posts arquivados que atendem à consulta.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException
+     *         Se a consulta exceder o tempo máximo definido em {@code maxTimeMS}.
+     */
+    List<Post> searchArchive(Query query);
+
+    /**
+     * Executa uma consulta na coleção de posts arquivados, no mesmo formato de {@link #searchViews(Query)}.
+     *
+     * @param query A consulta a ser executada.
+     * @return Lista das visões dos posts arquivados que atendem à consulta.
+     */
+    List<PostView> searchArchiveViews(Query query);
+
+    /**
+     * Executa uma consulta com projeção na coleção de posts arquivados, no mesmo formato de
+     * {@link #searchProjected(Query)}.
+     *
+     * @param query A consulta a ser executada, com a projeção dos campos desejados.
+     * @return Lista de documentos contendo apenas os campos projetados.
+     */
+    List<Document> searchArchiveProjected(Query query);
+
+    /**
+     * Busca um post arquivado pelo seu ID.
+     *
+     * @param id O ID do post.
+     * @return O post arquivado, ou vazio se não existir.
+     */
+    Optional<Post> findArchivedById(String id);
+
+    /**
+     * @return A quantidade de posts arquivados
+     */
+    long countArchived();
+
+    /**
+     * @return A data do post arquivado mais recente, ou {@code null} se o arquivo estiver vazio
+     */
+    Date newestArchivedDate();
+
+    /**
+     * Cria a coleção de posts arquivados com compressão zstd (quando suportada pelo servidor) e os
+     * índices usados pelas buscas.
+     */
+    void prepareArchive();
+
+    /**
+     * Move um lote dos posts mais antigos que a data de corte para a coleção de posts arquivados.
+     * Os posts são gravados no arquivo antes de serem excluídos, e um post alterado durante a
+     * movimentação (comentários, visualizações ou curtidas) não é excluído (é movido novamente no
+     * próximo lote).
+     *
+     * @param cutoff    A data de corte.
+     * @param batchSize A quantidade máxima de posts do lote.
+     * @return A quantidade de posts excluídos da coleção principal, isto é, efetivamente movidos
+     *         (zero quando não há mais posts a mover ou quando todos foram alterados na movimentação).
+     */
+    int archiveBatch(Date cutoff, int batchSize);
+}
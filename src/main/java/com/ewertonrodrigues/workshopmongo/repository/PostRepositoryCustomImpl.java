@@ -0,0 +1,473 @@
+package com.ewertonrodrigues.workshopmongo.repository;
+
+import com.ewertonrodrigues.workshopmongo.domain.CompressedText;
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostView;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserStatsDTO;
+import com.ewertonrodrigues.workshopmongo.repository.codec.PostCodec;
+import com.ewertonrodrigues.workshopmongo.repository.codec.PostViewCodec;
+import com.ewertonrodrigues.workshopmongo.repository.codec.WorkshopCodecs;
+import com.ewertonrodrigues.workshopmongo.services.TextNormalizer;
+import com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementação de {@link PostRepositoryCustom}, combinada pelo Spring Data ao {@link PostRepository}.
+ */
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    private static final int BACKFILL_BATCH = 500;
+
+    /**
+     * Coleção dos posts arquivados, com o mesmo formato da coleção de posts.
+     */
+    public static final String ARCHIVE_COLLECTION = "post_archive";
+
+    /**
+     * Código de erro do servidor para um estágio de agregação desconhecido.
+     */
+    private static final int UNRECOGNIZED_STAGE = 40324;
+
+    /**
+     * Indica se o servidor aceita o estágio {@code $unionWith}; desligado no primeiro erro de estágio desconhecido.
+     */
+    private volatile boolean unionWithSupported = true;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private WorkshopCodecs codecs;
+
+    @Override
+    public List<Post> search(Query query) {
+        return withTimeout(() -> findDecoded(query, mongoTemplate.getCollectionName(Post.class), Post.class));
+    }
+
+    @Override
+    public List<PostView> searchViews(Query query) {
+        return withTimeout(() -> findDecoded(query, mongoTemplate.getCollectionName(Post.class), PostView.class));
+    }
+
+    @Override
+    public List<Document> searchProjected(Query query) {
+        // A consulta é mapeada pela entidade Post (id -> _id), mas o resultado não é convertido.
+        return shaped(withTimeout(() -> mongoTemplate.query(Post.class).as(Document.class).matching(query).all()));
+    }
+
+    @Override
+    public List<Post> searchArchive(Query query) {
+        return withTimeout(() -> findDecoded(query, ARCHIVE_COLLECTION, Post.class));
+    }
+
+    @Override
+    public List<PostView> searchArchiveViews(Query query) {
+        return withTimeout(() -> findDecoded(query, ARCHIVE_COLLECTION, PostView.class));
+    }
+
+    /**
+     * Executa a consulta mapeada pela entidade Post (id -> _id, ObjectId) e lê os posts com o
+     * {@link PostCodec} ou o {@link PostViewCodec}, sem o mapeamento por reflexão.
+     */
+    private <T> List<T> findDecoded(Query query, String collection, Class<T> type) {
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Post.class);
+        FindIterable<T> find = codecs.collection(collection, type)
+                .find(mapper.getMappedObject(query.getQueryObject(), entity));
+        Document fields = mapper.getMappedFields(query.getFieldsObject(), entity);
+        if (!fields.isEmpty()) {
+            find.projection(fields);
+        }
+        Document sort = mapper.getMappedSort(query.getSortObject(), entity);
+        if (!sort.isEmpty()) {
+            find.sort(sort);
+        }
+        if (query.getSkip() > 0) {
+            find.skip((int) query.getSkip());
+        }
+        if (query.getLimit() > 0) {
+            find.limit(query.getLimit());
+        }
+        Long maxTime = query.getMeta().getMaxTimeMsec();
+        if (maxTime != null) {
+            find.maxTime(maxTime, TimeUnit.MILLISECONDS);
+        }
+        return find.into(new ArrayList<>());
+    }
+
+    @Override
+    public List<Document> searchArchiveProjected(Query query) {
+        return shaped(withTimeout(() -> mongoTemplate.query(Post.class).inCollection(ARCHIVE_COLLECTION)
+                .as(Document.class).matching(query).all()));
+    }
+
+    @Override
+    public Optional<Post> findArchivedById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, Post.class, ARCHIVE_COLLECTION));
+    }
+
+    @Override
+    public long countArchived() {
+        return mongoTemplate.getCollection(ARCHIVE_COLLECTION).countDocuments();
+    }
+
+    @Override
+    public Date newestArchivedDate() {
+        Document newest = mongoTemplate.getCollection(ARCHIVE_COLLECTION).find()
+                .sort(Sorts.descending("date")).projection(new Document("date", 1)).limit(1).first();
+        return newest == null ? null : newest.get("date", Date.class);
+    }
+
+    @Override
+    public void prepareArchive() {
+        if (!mongoTemplate.collectionExists(ARCHIVE_COLLECTION)) {
+            try {
+                mongoTemplate.getDb().createCollection(ARCHIVE_COLLECTION, new CreateCollectionOptions()
+                        .storageEngineOptions(new Document("wiredTiger", new Document("configString", "block_compressor=zstd"))));
+            } catch (MongoException e) {
+                // Servidores sem WiredTiger ou sem zstd: a coleção é criada sem compressão específica.
+                if (!mongoTemplate.collectionExists(ARCHIVE_COLLECTION)) {
+                    mongoTemplate.createCollection(ARCHIVE_COLLECTION);
+                }
+            }
+        }
+        IndexOperations indexes = mongoTemplate.indexOps(ARCHIVE_COLLECTION);
+        indexes.ensureIndex(new Index().on("date", Sort.Direction.ASC));
+        indexes.ensureIndex(new Index().on("author._id", Sort.Direction.ASC).on("date", Sort.Direction.ASC));
+        indexes.ensureIndex(new Index().on("comments.author._id", Sort.Direction.ASC));
+        indexes.ensureIndex(TextIndexDefinition.builder()
+                .onField("title", 3F).onField("body").onField("comments.text")
+                .withDefaultLanguage("none").build());
+    }
+
+    @Override
+    public int archiveBatch(Date cutoff, int batchSize) {
+        MongoCollection<Document> posts = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class));
+        List<Document> batch = posts.find(Filters.lt("date", cutoff))
+                .sort(Sorts.ascending("date")).limit(batchSize).into(new ArrayList<>());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<WriteModel<Document>> writes = batch.stream()
+                .map(doc -> new ReplaceOneModel<>(Filters.eq("_id", doc.get("_id")), doc, new ReplaceOptions().upsert(true)))
+                .collect(Collectors.toList());
+        mongoTemplate.getCollection(ARCHIVE_COLLECTION).bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        // Só exclui os posts sem comentários nem contadores novos desde a leitura; os demais são
+        // regravados no próximo lote.
+        long deleted = posts.deleteMany(Filters.or(batch.stream()
+                .map(doc -> Filters.and(Filters.eq("_id", doc.get("_id")),
+                        Filters.eq("commentCount", doc.get("commentCount")),
+                        Filters.eq("views", doc.get("views")),
+                        Filters.eq("likes", doc.get("likes"))))
+                .collect(Collectors.toList()))).getDeletedCount();
+        return (int) deleted;
+    }
+
+    @Override
+    public UserStatsDTO authorStats(String userId) {
+        // O ID do autor é gravado como _id do documento embutido, em ObjectId quando válido.
+        Object key = ObjectId.isValid(userId) ? new ObjectId(userId) : userId;
+        Document match = new Document("author._id", key);
+        Document facet = new Document("$facet", new Document()
+                .append("posts", List.of(
+                        new Document("$match", new Document("author._id", key)),
+                        new Document("$group", new Document("_id", null)
+                                .append("postCount", new Document("$sum", 1))
+                                .append("commentsReceived", new Document("$sum", new Document("$max", List.of(
+                                        new Document("$ifNull", List.of("$commentCount", 0)),
+                                        new Document("$size", new Document("$ifNull", List.of("$comments", List.of())))))))
+                                .append("firstPostDate", new Document("$min", "$date"))
+                                .append("lastPostDate", new Document("$max", "$date"))))));
+        MongoCollection<Document> posts = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class));
+
+        List<Document> results = new ArrayList<>();
+        if (unionWithSupported) {
+            try {
+                // Os posts arquivados entram no cálculo; um post presente nas duas coleções (durante a
+                // movimentação) é contado uma vez, com a versão da coleção de posts.
+                results.add(posts.aggregate(List.of(
+                        new Document("$match", match),
+                        new Document("$unionWith", new Document("coll", ARCHIVE_COLLECTION)
+                                .append("pipeline", List.of(new Document("$match", match)))),
+                        new Document("$group", new Document("_id", "$_id").append("doc", new Document("$first", "$$ROOT"))),
+                        new Document("$replaceRoot", new Document("newRoot", "$doc")),
+                        facet)).first());
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() != UNRECOGNIZED_STAGE) {
+                    throw e;
+                }
+                unionWithSupported = false;
+            }
+        }
+        if (!unionWithSupported) {
+            // Servidores sem $unionWith (anteriores ao 4.4): agrega cada coleção e soma os resultados,
+            // ignorando no arquivo os posts ainda presentes na coleção de posts.
+            results.add(posts.aggregate(List.of(new Document("$match", match), facet)).first());
+            results.add(mongoTemplate.getCollection(ARCHIVE_COLLECTION).aggregate(List.of(
+                    new Document("$match", match),
+                    new Document("$lookup", new Document("from", posts.getNamespace().getCollectionName())
+                            .append("localField", "_id").append("foreignField", "_id").append("as", "live")),
+                    new Document("$match", new Document("live", new Document("$size", 0))),
+                    facet)).first());
+        }
+
+        UserStatsDTO stats = new UserStatsDTO();
+        stats.setUserId(userId);
+        for (Document result : results) {
+            if (result != null) {
+                addStats(stats, result);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Soma às estatísticas o resultado do {@code $facet} de uma agregação de {@link #authorStats}.
+     */
+    private static void addStats(UserStatsDTO stats, Document result) {
+        List<Document> posts = result.getList("posts", Document.class, List.of());
+        if (!posts.isEmpty()) {
+            Document group = posts.get(0);
+            stats.setPostCount(stats.getPostCount() + ((Number) group.get("postCount")).longValue());
+            stats.setCommentsReceived(stats.getCommentsReceived() + ((Number) group.get("commentsReceived")).longValue());
+            Date first = group.get("firstPostDate", Date.class);
+            if (first != null && (stats.getFirstPostDate() == null || first.before(stats.getFirstPostDate()))) {
+                stats.setFirstPostDate(first);
+            }
+            Date last = group.get("lastPostDate", Date.class);
+            if (last != null && (stats.getLastPostDate() == null || last.after(stats.getLastPostDate()))) {
+                stats.setLastPostDate(last);
+            }
+        }
+    }
+
+    @Override
+    public Set<String> findAuthorIds(Document filter) {
+        Set<String> ids = new HashSet<>();
+        for (Document post : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class))
+                .find(filter).projection(new Document("author._id", 1))) {
+            Document author = post.get("author", Document.class);
+            Object id = author == null ? null : author.get("_id");
+            if (id != null) {
+                ids.add(id instanceof ObjectId ? ((ObjectId) id).toHexString() : id.toString());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public Map<String, Long> countCommentsByAuthor() {
+        MongoCollection<Document> posts = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class));
+        List<Document> byAuthor = List.of(
+                new Document("$unwind", "$comments"),
+                new Document("$group", new Document("_id", "$comments.author._id").append("count", new Document("$sum", 1))));
+        // No arquivo, ignora os posts ainda presentes na coleção de posts (durante a movimentação).
+        List<Document> archived = new ArrayList<>(List.of(
+                new Document("$lookup", new Document("from", posts.getNamespace().getCollectionName())
+                        .append("localField", "_id").append("foreignField", "_id").append("as", "live")),
+                new Document("$match", new Document("live", new Document("$size", 0)))));
+        archived.addAll(byAuthor);
+
+        List<Document> groups = posts.aggregate(byAuthor).into(new ArrayList<>());
+        mongoTemplate.getCollection(ARCHIVE_COLLECTION).aggregate(archived).into(groups);
+        Map<String, Long> counts = new HashMap<>();
+        for (Document group : groups) {
+            Object id = group.get("_id");
+            if (id != null) {
+                String userId = id instanceof ObjectId ? ((ObjectId) id).toHexString() : id.toString();
+                counts.merge(userId, ((Number) group.get("count")).longValue(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Post appendComment(String postId, CommentDTO comment, int window) {
+        Query query = new Query(Criteria.where("id").is(postId));
+        query.fields().include("author").include("commentCount");
+        Update update = new Update().inc("commentCount", 1);
+        update.push("comments").slice(-window).each(comment);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Post.class);
+    }
+
+    private static List<Document> shaped(List<Document> docs) {
+        for (Document doc : docs) {
+            doc.remove("_class");
+            // O corpo comprimido é devolvido como "body" e descomprimido apenas na serialização.
+            Object compressed = doc.remove("bodyZ");
+            if (compressed instanceof Binary) {
+                doc.put("body", new CompressedText(((Binary) compressed).getData()));
+            }
+            toEntityShape(doc);
+        }
+        return docs;
+    }
+
+    /**
+     * Ajusta o documento ao formato serializado da entidade: {@code _id} passa a se chamar
+     * {@code id} (inclusive no autor e nos comentários) e os {@link ObjectId} viram texto.
+     */
+    private static void toEntityShape(Document doc) {
+        if (doc.containsKey("_id")) {
+            Document shaped = new Document("id", doc.get("_id"));
+            doc.remove("_id");
+            shaped.putAll(doc);
+            doc.clear();
+            doc.putAll(shaped);
+        }
+        for (Map.Entry<String, Object> entry : doc.entrySet()) {
+            entry.setValue(toEntityValue(entry.getValue()));
+        }
+    }
+
+    private static Object toEntityValue(Object value) {
+        if (value instanceof ObjectId) {
+            return ((ObjectId) value).toHexString();
+        }
+        if (value instanceof Document) {
+            toEntityShape((Document) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            List<Object> shaped = new ArrayList<>(list.size());
+            for (Object item : list) {
+                shaped.add(toEntityValue(item));
+            }
+            return shaped;
+        }
+        return value;
+    }
+
+    private static <T> T withTimeout(Supplier<T> operation) {
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            if (e instanceof MongoExecutionTimeoutException || e.getCause() instanceof MongoExecutionTimeoutException) {
+                throw new SearchTimeoutException("A busca excedeu o tempo limite");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public long backfillTitleWords() {
+        Query query = new Query(Criteria.where("titleWords").exists(false));
+        query.fields().include("title");
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            for (Post post : (Iterable<Post>) posts::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+                }
+                bulk.updateOne(new Query(Criteria.where("id").is(post.getId())),
+                        new Update().set("titleWords", TextNormalizer.words(post.getTitle())));
+                if (++pending == BACKFILL_BATCH) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            updated += bulk.execute().getModifiedCount();
+        }
+        return updated;
+    }
+
+    @Override
+    public long backfillBodyWords() {
+        Query query = new Query(Criteria.where("bodyZ").exists(true).and("bodyWords").exists(false));
+        query.fields().include("bodyZ");
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            for (Post post : (Iterable<Post>) posts::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+                }
+                bulk.updateOne(new Query(Criteria.where("id").is(post.getId())),
+                        new Update().set("bodyWords", TextNormalizer.words(post.getBody())));
+                if (++pending == BACKFILL_BATCH) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            updated += bulk.execute().getModifiedCount();
+        }
+        return updated;
+    }
+
+    @Override
+    public long backfillCommentCount() {
+        Query query = new Query(Criteria.where("commentCount").exists(false));
+        query.fields().include("comments.date");
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            for (Post post : (Iterable<Post>) posts::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+                }
+                // A condição evita sobrescrever um contador criado por um comentário concorrente.
+                bulk.updateOne(new Query(Criteria.where("id").is(post.getId()).and("commentCount").exists(false)),
+                        new Update().set("commentCount", post.getComments().size()));
+                if (++pending == BACKFILL_BATCH) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            updated += bulk.execute().getModifiedCount();
+        }
+        return updated;
+    }
+}
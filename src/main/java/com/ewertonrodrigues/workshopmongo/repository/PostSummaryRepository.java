@@ -0,0 +1,9 @@
+package com.ewertonrodrigues.workshopmongo.repository;
+
+import com.ewertonrodrigues.workshopmongo.domain.PostSummary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostSummaryRepository extends MongoRepository<PostSummary, String>, PostSummaryRepositoryCustom {
+}
@@ -0,0 +1,45 @@
+package com.ewertonrodrigues.workshopmongo.repository;
+
+import com.ewertonrodrigues.workshopmongo.domain.PostSummary;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+/**
+ * Operações do repositório de {@link PostSummary} implementadas diretamente sobre o {@code MongoTemplate}.
+ */
+public interface PostSummaryRepositoryCustom {
+
+    /**
+     * Executa uma consulta de resumos montada pelo planejador de buscas.
+     *
+     * @param query A consulta a ser executada, com os mesmos campos de {@code Post}.
+     * @return Lista de resumos que atendem à consulta.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException
+     *         Se a consulta exceder o tempo máximo definido em {@code maxTimeMS}.
+     */
+    List<PostSummary> search(Query query);
+
+    /**
+     * Incrementa a quantidade de comentários do resumo de um post.
+     *
+     * @param postId O ID do post.
+     */
+    void incrementCommentCount(String postId);
+
+    /**
+     * Exclui os resumos que atendem ao filtro de uma exclusão de posts.
+     *
+     * @param filter O filtro da exclusão, apenas por {@code _id}.
+     */
+    void deleteMatching(Document filter);
+
+    /**
+     * Recalcula os resumos de todos os posts, inclusive dos arquivados, com um pipeline de agregação
+     * terminado em {@code $merge}, executado inteiramente no servidor.
+     *
+     * @param snippetLength A quantidade máxima de caracteres do início do corpo.
+     */
+    void mergeFromPosts(int snippetLength);
+}
@@ -0,0 +1,104 @@
+package com.ewertonrodrigues.workshopmongo.repository;
+
+import com.ewertonrodrigues.workshopmongo.domain.CompressedText;
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostSummary;
+import com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * Implementação de {@link PostSummaryRepositoryCustom}, combinada pelo Spring Data ao {@link PostSummaryRepository}.
+ */
+public class PostSummaryRepositoryCustomImpl implements PostSummaryRepositoryCustom {
+
+    private static final int SNIPPET_BATCH = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<PostSummary> search(Query query) {
+        try {
+            return mongoTemplate.find(query, PostSummary.class);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof MongoExecutionTimeoutException) {
+                throw new SearchTimeoutException("A busca excedeu o tempo limite");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void incrementCommentCount(String postId) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(postId)),
+                new Update().inc("commentCount", 1), PostSummary.class);
+    }
+
+    @Override
+    public void deleteMatching(Document filter) {
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(PostSummary.class)).deleteMany(filter);
+    }
+
+    @Override
+    public void mergeFromPosts(int snippetLength) {
+        List<Document> pipeline = List.of(
+                new Document("$project", new Document()
+                        .append("date", 1)
+                        .append("title", 1)
+                        .append("titleWords", 1)
+                        .append("author", 1)
+                        .append("commentCount", new Document("$max", List.of(
+                                new Document("$ifNull", List.of("$commentCount", 0)),
+                                new Document("$size", new Document("$ifNull", List.of("$comments", List.of()))))))
+                        .append("snippet", new Document("$substrCP", List.of(
+                                new Document("$ifNull", List.of("$body", "")), 0, snippetLength)))),
+                new Document("$merge", new Document("into", mongoTemplate.getCollectionName(PostSummary.class))
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+        for (String source : List.of(mongoTemplate.getCollectionName(Post.class), PostRepositoryCustomImpl.ARCHIVE_COLLECTION)) {
+            mongoTemplate.getCollection(source).aggregate(pipeline).toCollection();
+            mergeCompressedSnippets(source, snippetLength);
+        }
+    }
+
+    /**
+     * Preenche o início do corpo dos resumos dos posts com o corpo comprimido, que o pipeline de
+     * agregação não consegue ler.
+     */
+    private void mergeCompressedSnippets(String source, int snippetLength) {
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(source)
+                .find(Filters.exists("bodyZ")).projection(new Document("bodyZ", 1)).iterator()) {
+            while (cursor.hasNext()) {
+                Document doc = cursor.next();
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostSummary.class);
+                }
+                String body = CompressedText.inflate(doc.get("bodyZ", Binary.class).getData());
+                bulk.updateOne(new Query(Criteria.where("id").is(doc.get("_id"))),
+                        new Update().set("snippet", PostSummary.snippet(body, snippetLength)));
+                if (++pending == SNIPPET_BATCH) {
+                    bulk.execute();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+    }
+}
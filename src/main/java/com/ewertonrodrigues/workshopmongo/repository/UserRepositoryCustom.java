@@ -0,0 +1,111 @@
+package com.ewertonrodrigues.workshopmongo.repository;
+
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserProfileDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Operações do repositório de {@link User} implementadas diretamente sobre o {@code MongoTemplate}.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Lê apenas os IDs dos posts referenciados pelo usuário, sem carregar as referências.
+     *
+     * @param userId O ID do usuário.
+     * @return Os IDs dos posts, na ordem gravada, ou vazio se o usuário não existir.
+     */
+    Optional<List<String>> findPostIds(String userId);
+
+    /**
+     * Lê apenas o ID e o nome do usuário, sem a lista de referências aos posts.
+     *
+     * @param userId O ID do usuário.
+     * @return O autor correspondente ao usuário, ou vazio se o usuário não existir.
+     */
+    Optional<AuthorDTO> findAuthor(String userId);
+
+    /**
+     * Lê todos os usuários sem as referências aos posts, decodificados pelo {@code UserCodec}
+     * em vez do mapeamento por reflexão.
+     *
+     * @return Os usuários, com ID, nome e email.
+     */
+    List<User> findAllWithoutPosts();
+
+    /**
+     * Inclui a referência a um post no final da lista de posts do usuário com {@code $push},
+     * sem ler nem regravar o usuário.
+     *
+     * @param userId O ID do usuário.
+     * @param postId O ID do post.
+     * @return Se o usuário foi encontrado.
+     */
+    boolean pushPostRef(String userId, String postId);
+
+    /**
+     * Atualiza o nome e o email do usuário com {@code $set}, sem ler nem regravar a lista de
+     * referências aos posts.
+     *
+     * @param userId O ID do usuário.
+     * @param name   O novo nome.
+     * @param email  O novo email.
+     * @return Se o usuário foi encontrado.
+     */
+    boolean updateNameAndEmail(String userId, String name, String email);
+
+    /**
+     * Lê o perfil de um usuário com uma única agregação: os dados do usuário e, com um {@code $lookup}
+     * nos resumos de posts para cada parte, a página de posts mais recentes ({@code $match},
+     * {@code $sort} e {@code $limit} atendidos pelo índice {@code (author._id, date)}) e os totais de
+     * posts e de comentários recebidos. A lista de referências aos posts do usuário não é lida.
+     *
+     * @param userId        O ID do usuário.
+     * @param posts         Se a página de posts mais recentes e o total de posts devem ser incluídos.
+     * @param commentCounts Se o total de comentários recebidos deve ser incluído.
+     * @param postLimit     A quantidade máxima de posts na página.
+     * @return O perfil do usuário, ou vazio se o usuário não existir.
+     */
+    Optional<UserProfileDTO> findProfile(String userId, boolean posts, boolean commentCounts, int postLimit);
+
+    /**
+     * Soma um à quantidade de comentários escritos pelo usuário, com {@code $inc} no documento de
+     * contadores do usuário (criado se não existir).
+     *
+     * @param userId O ID do usuário.
+     */
+    void incrementCommentsAuthored(String userId);
+
+    /**
+     * Lê a quantidade de comentários escritos pelo usuário. Diferente dos comentários guardados nos
+     * posts, limitados à janela dos mais recentes, o contador inclui todos os comentários.
+     *
+     * @param userId O ID do usuário.
+     * @return A quantidade de comentários, ou zero se o usuário não tiver contadores.
+     */
+    long findCommentsAuthored(String userId);
+
+    /**
+     * @return Se existe algum documento de contadores de usuário
+     */
+    boolean hasCommentCounters();
+
+    /**
+     * Eleva os contadores de comentários escritos aos valores informados, com {@code $max}: um
+     * contador nunca é reduzido, pois pode incluir comentários que já saíram da janela dos posts.
+     *
+     * @param counts A quantidade de comentários por ID de usuário.
+     */
+    void raiseCommentsAuthored(Map<String, Long> counts);
+
+    /**
+     * Exclui os contadores de um usuário.
+     *
+     * @param userId O ID do usuário, ou {@code null} para excluir os contadores de todos os usuários.
+     */
+    void deleteCommentCounters(String userId);
+}
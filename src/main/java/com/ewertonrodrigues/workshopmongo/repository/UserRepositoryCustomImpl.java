@@ -0,0 +1,187 @@
+package com.ewertonrodrigues.workshopmongo.repository;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostSummary;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserProfileDTO;
+import com.ewertonrodrigues.workshopmongo.repository.codec.WorkshopCodecs;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação de {@link UserRepositoryCustom}, combinada pelo Spring Data ao {@link UserRepository}.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    /**
+     * Coleção dos contadores por usuário, com o ID do usuário como {@code _id}.
+     */
+    public static final String COUNTERS_COLLECTION = "user_counters";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private WorkshopCodecs codecs;
+
+    @Override
+    public Optional<List<String>> findPostIds(String userId) {
+        Query query = new Query(Criteria.where("id").is(userId));
+        query.fields().include("posts");
+        Document user = mongoTemplate.query(User.class).as(Document.class).matching(query).oneValue();
+        if (user == null) {
+            return Optional.empty();
+        }
+        List<String> ids = new ArrayList<>();
+        for (Object ref : user.getList("posts", Object.class, List.of())) {
+            Object id = ref instanceof DBRef ? ((DBRef) ref).getId() : ref;
+            ids.add(id instanceof ObjectId ? ((ObjectId) id).toHexString() : String.valueOf(id));
+        }
+        return Optional.of(ids);
+    }
+
+    @Override
+    public Optional<AuthorDTO> findAuthor(String userId) {
+        Query query = new Query(Criteria.where("id").is(userId));
+        query.fields().include("name");
+        User user = mongoTemplate.findOne(query, User.class);
+        return Optional.ofNullable(user).map(AuthorDTO::new);
+    }
+
+    @Override
+    public List<User> findAllWithoutPosts() {
+        return codecs.collection(mongoTemplate.getCollectionName(User.class), User.class)
+                .find().projection(new Document("posts", 0)).into(new ArrayList<>());
+    }
+
+    @Override
+    public boolean pushPostRef(String userId, String postId) {
+        // Mesmo formato das referências gravadas pelo mapeamento de @DBRef.
+        Object id = ObjectId.isValid(postId) ? new ObjectId(postId) : postId;
+        DBRef ref = new DBRef(mongoTemplate.getCollectionName(Post.class), id);
+        return mongoTemplate.updateFirst(new Query(Criteria.where("id").is(userId)),
+                new Update().push("posts", ref), User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean updateNameAndEmail(String userId, String name, String email) {
+        return mongoTemplate.updateFirst(new Query(Criteria.where("id").is(userId)),
+                new Update().set("name", name).set("email", email), User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public Optional<UserProfileDTO> findProfile(String userId, boolean posts, boolean commentCounts, int postLimit) {
+        // O ID do autor é gravado como _id do documento embutido, em ObjectId quando válido.
+        Object key = ObjectId.isValid(userId) ? new ObjectId(userId) : userId;
+        String summaries = mongoTemplate.getCollectionName(PostSummary.class);
+        Document byAuthor = new Document("$match", new Document("$expr", new Document("$eq", List.of("$author._id", "$$author"))));
+        List<Document> pipeline = new ArrayList<>(List.of(
+                new Document("$match", new Document("_id", key)),
+                new Document("$project", new Document("name", 1).append("email", 1))));
+        if (posts) {
+            // $match, $sort e $limit seguidos usam o índice (author._id, date) e leem apenas os posts da página.
+            pipeline.add(new Document("$lookup", new Document("from", summaries)
+                    .append("let", new Document("author", "$_id"))
+                    .append("pipeline", List.of(byAuthor,
+                            new Document("$sort", new Document("date", -1)),
+                            new Document("$limit", postLimit)))
+                    .append("as", "recent")));
+        }
+        if (posts || commentCounts) {
+            pipeline.add(new Document("$lookup", new Document("from", summaries)
+                    .append("let", new Document("author", "$_id"))
+                    .append("pipeline", List.of(byAuthor, new Document("$group", new Document("_id", null)
+                            .append("postCount", new Document("$sum", 1))
+                            .append("commentCount", new Document("$sum", new Document("$ifNull", List.of("$commentCount", 0)))))))
+                    .append("as", "totals")));
+        }
+        Document result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .aggregate(pipeline).first();
+        if (result == null) {
+            return Optional.empty();
+        }
+
+        UserProfileDTO profile = new UserProfileDTO();
+        profile.setId(userId);
+        profile.setName(result.getString("name"));
+        profile.setEmail(result.getString("email"));
+        List<Document> totals = result.getList("totals", Document.class, List.of());
+        Document group = totals.isEmpty() ? new Document() : totals.get(0);
+        if (posts) {
+            profile.setPosts(result.getList("recent", Document.class, List.of()).stream()
+                    .map(doc -> mongoTemplate.getConverter().read(PostSummary.class, doc))
+                    .collect(Collectors.toList()));
+            profile.setPostCount(((Number) group.getOrDefault("postCount", 0)).longValue());
+        }
+        if (commentCounts) {
+            profile.setCommentCount(((Number) group.getOrDefault("commentCount", 0)).longValue());
+        }
+        return Optional.of(profile);
+    }
+
+    @Override
+    public void incrementCommentsAuthored(String userId) {
+        mongoTemplate.getCollection(COUNTERS_COLLECTION).updateOne(Filters.eq("_id", key(userId)),
+                Updates.inc("commentsAuthored", 1L), new UpdateOptions().upsert(true));
+    }
+
+    @Override
+    public long findCommentsAuthored(String userId) {
+        Document counters = mongoTemplate.getCollection(COUNTERS_COLLECTION).find(Filters.eq("_id", key(userId)))
+                .projection(new Document("commentsAuthored", 1)).first();
+        return counters == null ? 0 : ((Number) counters.getOrDefault("commentsAuthored", 0L)).longValue();
+    }
+
+    @Override
+    public boolean hasCommentCounters() {
+        return mongoTemplate.getCollection(COUNTERS_COLLECTION).find().limit(1).first() != null;
+    }
+
+    @Override
+    public void raiseCommentsAuthored(Map<String, Long> counts) {
+        List<WriteModel<Document>> writes = counts.entrySet().stream()
+                .map(entry -> new UpdateOneModel<Document>(Filters.eq("_id", key(entry.getKey())),
+                        Updates.max("commentsAuthored", entry.getValue()), new UpdateOptions().upsert(true)))
+                .collect(Collectors.toList());
+        if (!writes.isEmpty()) {
+            mongoTemplate.getCollection(COUNTERS_COLLECTION).bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        }
+    }
+
+    @Override
+    public void deleteCommentCounters(String userId) {
+        MongoCollection<Document> counters = mongoTemplate.getCollection(COUNTERS_COLLECTION);
+        if (userId == null) {
+            counters.deleteMany(new Document());
+        } else {
+            counters.deleteOne(Filters.eq("_id", key(userId)));
+        }
+    }
+
+    /**
+     * O ID do usuário no formato gravado nos documentos, em ObjectId quando válido.
+     */
+    private static Object key(String userId) {
+        return ObjectId.isValid(userId) ? new ObjectId(userId) : userId;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ewertonrodrigues.workshopmongo.repository.codec;
+
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Codec do {@link AuthorDTO} embutido nos posts e comentários: {@code {_id, name}}.
+ */
+public class AuthorCodec implements Codec<AuthorDTO> {
+
+    @Override
+    public AuthorDTO decode(BsonReader reader, DecoderContext decoderContext) {
+        AuthorDTO author = new AuthorDTO();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id":
+                    author.setId(BsonValues.readId(reader));
+                    break;
+                case "name":
+                    author.setName(BsonValues.readString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return author;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, AuthorDTO value, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonValues.writeId(writer, "_id", value.getId());
+        BsonValues.writeString(writer, "name", value.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<AuthorDTO> getEncoderClass() {
+        return AuthorDTO.class;
+    }
+}
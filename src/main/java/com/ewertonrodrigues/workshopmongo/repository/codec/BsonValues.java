@@ -0,0 +1,142 @@
+package com.ewertonrodrigues.workshopmongo.repository.codec;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Leitura e escrita dos valores BSON comuns aos codecs, nos mesmos formatos gravados pelo
+ * mapeamento de entidades do Spring Data.
+ */
+final class BsonValues {
+
+    private BsonValues() {
+    }
+
+    /**
+     * Lê um ID gravado como {@link ObjectId} ou como texto.
+     */
+    static String readId(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID:
+                return reader.readObjectId().toHexString();
+            case STRING:
+                return reader.readString();
+            case NULL:
+                reader.readNull();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * Escreve um ID como {@link ObjectId} quando válido, como faz o mapeamento de entidades.
+     */
+    static void writeId(BsonWriter writer, String name, String id) {
+        if (id == null) {
+            return;
+        }
+        writer.writeName(name);
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(new ObjectId(id));
+        } else {
+            writer.writeString(id);
+        }
+    }
+
+    static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.STRING) {
+            return reader.readString();
+        }
+        skip(reader);
+        return null;
+    }
+
+    static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    static Date readDate(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.DATE_TIME) {
+            return new Date(reader.readDateTime());
+        }
+        skip(reader);
+        return null;
+    }
+
+    static void writeDate(BsonWriter writer, String name, Date value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.getTime());
+        }
+    }
+
+    /**
+     * Lê um contador gravado como inteiro de 32 ou 64 bits ou como número real (ex.: após um {@code $inc}).
+     */
+    static long readLong(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case DOUBLE:
+                return (long) reader.readDouble();
+            default:
+                skip(reader);
+                return 0;
+        }
+    }
+
+    static List<String> readStringList(BsonReader reader) {
+        List<String> values = new ArrayList<>();
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            skip(reader);
+            return values;
+        }
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String value = readString(reader);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        reader.readEndArray();
+        return values;
+    }
+
+    static void writeStringList(BsonWriter writer, String name, List<String> values) {
+        if (values == null) {
+            return;
+        }
+        writer.writeStartArray(name);
+        for (String value : values) {
+            writer.writeString(value);
+        }
+        writer.writeEndArray();
+    }
+
+    static boolean isNull(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return true;
+        }
+        return false;
+    }
+
+    private static void skip(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+        } else {
+            reader.skipValue();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ewertonrodrigues.workshopmongo.repository.codec;
+
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Codec do {@link CommentDTO} embutido nos posts: {@code {text, date, author}}.
+ */
+public class CommentCodec implements Codec<CommentDTO> {
+
+    private final AuthorCodec authorCodec;
+
+    /**
+     * @param authorCodec O codec do autor do comentário.
+     */
+    public CommentCodec(AuthorCodec authorCodec) {
+        this.authorCodec = authorCodec;
+    }
+
+    @Override
+    public CommentDTO decode(BsonReader reader, DecoderContext decoderContext) {
+        CommentDTO comment = new CommentDTO();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "text":
+                    comment.setText(BsonValues.readString(reader));
+                    break;
+                case "date":
+                    comment.setDate(BsonValues.readDate(reader));
+                    break;
+                case "author":
+                    if (!BsonValues.isNull(reader)) {
+                        comment.setAuthor(authorCodec.decode(reader, decoderContext));
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return comment;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, CommentDTO value, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonValues.writeString(writer, "text", value.getText());
+        BsonValues.writeDate(writer, "date", value.getDate());
+        if (value.getAuthor() != null) {
+            writer.writeName("author");
+            authorCodec.encode(writer, value.getAuthor(), encoderContext);
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<CommentDTO> getEncoderClass() {
+        return CommentDTO.class;
+    }
+}
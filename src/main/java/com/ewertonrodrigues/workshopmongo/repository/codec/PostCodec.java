@@ -0,0 +1,142 @@
+package com.ewertonrodrigues.workshopmongo.repository.codec;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codec do {@link Post}, no mesmo formato gravado pelo mapeamento de entidades, sem o campo
+ * {@code _class}. Os campos desconhecidos (inclusive o {@code _class} de documentos antigos) são
+ * ignorados, e os campos ausentes ficam com o valor padrão da entidade.
+ */
+public class PostCodec implements Codec<Post> {
+
+    private final AuthorCodec authorCodec;
+    private final CommentCodec commentCodec;
+
+    /**
+     * @param authorCodec  O codec do autor do post.
+     * @param commentCodec O codec dos comentários.
+     */
+    public PostCodec(AuthorCodec authorCodec, CommentCodec commentCodec) {
+        this.authorCodec = authorCodec;
+        this.commentCodec = commentCodec;
+    }
+
+    @Override
+    public Post decode(BsonReader reader, DecoderContext decoderContext) {
+        Post post = new Post();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id":
+                    post.setId(BsonValues.readId(reader));
+                    break;
+                case "date":
+                    post.setDate(BsonValues.readDate(reader));
+                    break;
+                case "title":
+                    post.setTitle(BsonValues.readString(reader));
+                    break;
+                case "titleWords":
+                    post.setTitleWords(BsonValues.readStringList(reader));
+                    break;
+                case "body":
+                    post.setBody(BsonValues.readString(reader));
+                    break;
+                case "bodyZ":
+                    if (reader.getCurrentBsonType() == BsonType.BINARY) {
+                        post.setCompressedBody(reader.readBinaryData().getData());
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case "bodyWords":
+                    post.setBodyWords(BsonValues.readStringList(reader));
+                    break;
+                case "author":
+                    if (!BsonValues.isNull(reader)) {
+                        post.setAuthor(authorCodec.decode(reader, decoderContext));
+                    }
+                    break;
+                case "comments":
+                    post.setComments(readComments(reader, decoderContext));
+                    break;
+                case "commentCount":
+                    post.setCommentCount(BsonValues.readLong(reader));
+                    break;
+                case "views":
+                    post.setViews(BsonValues.readLong(reader));
+                    break;
+                case "likes":
+                    post.setLikes(BsonValues.readLong(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return post;
+    }
+
+    private List<CommentDTO> readComments(BsonReader reader, DecoderContext decoderContext) {
+        List<CommentDTO> comments = new ArrayList<>();
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return comments;
+        }
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (!BsonValues.isNull(reader)) {
+                comments.add(commentCodec.decode(reader, decoderContext));
+            }
+        }
+        reader.readEndArray();
+        return comments;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Post value, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonValues.writeId(writer, "_id", value.getId());
+        BsonValues.writeDate(writer, "date", value.getDate());
+        BsonValues.writeString(writer, "title", value.getTitle());
+        BsonValues.writeStringList(writer, "titleWords", value.getTitleWords());
+        if (value.getCompressedBody() != null) {
+            // O corpo comprimido é regravado como foi lido, sem descomprimir.
+            writer.writeBinaryData("bodyZ", new BsonBinary(value.getCompressedBody()));
+            BsonValues.writeStringList(writer, "bodyWords", value.getBodyWords());
+        } else {
+            BsonValues.writeString(writer, "body", value.getBody());
+        }
+        if (value.getAuthor() != null) {
+            writer.writeName("author");
+            authorCodec.encode(writer, value.getAuthor(), encoderContext);
+        }
+        if (value.getComments() != null) {
+            writer.writeStartArray("comments");
+            for (CommentDTO comment : value.getComments()) {
+                commentCodec.encode(writer, comment, encoderContext);
+            }
+            writer.writeEndArray();
+        }
+        writer.writeInt64("commentCount", value.getCommentCount());
+        writer.writeInt64("views", value.getViews());
+        writer.writeInt64("likes", value.getLikes());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Post> getEncoderClass() {
+        return Post.class;
+    }
+}
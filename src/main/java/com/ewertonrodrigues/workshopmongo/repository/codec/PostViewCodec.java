@@ -0,0 +1,188 @@
+package com.ewertonrodrigues.workshopmongo.repository.codec;
+
+import com.ewertonrodrigues.workshopmongo.domain.AuthorRef;
+import com.ewertonrodrigues.workshopmongo.domain.CommentView;
+import com.ewertonrodrigues.workshopmongo.domain.PostView;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codec somente leitura da {@link PostView}, a partir do mesmo formato lido pelo {@link PostCodec}.
+ * <p>
+ * Os autores dos posts e dos comentários são compartilhados: cada autor lido é procurado pelo ID em
+ * uma tabela de até {@value #MAX_AUTHORS} autores e reaproveitado quando o nome também é o mesmo.
+ * Um autor com o nome alterado substitui o anterior; com a tabela cheia, os autores novos não são
+ * incluídos nela.
+ */
+public class PostViewCodec implements Codec<PostView> {
+
+    static final int MAX_AUTHORS = 100_000;
+
+    private final Map<String, AuthorRef> authors = new ConcurrentHashMap<>();
+
+    @Override
+    public PostView decode(BsonReader reader, DecoderContext decoderContext) {
+        String id = null;
+        long date = Long.MIN_VALUE;
+        String title = null;
+        String body = null;
+        byte[] compressedBody = null;
+        AuthorRef author = null;
+        CommentView[] comments = PostView.NO_COMMENTS;
+        long commentCount = 0;
+        long views = 0;
+        long likes = 0;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id":
+                    id = BsonValues.readId(reader);
+                    break;
+                case "date":
+                    date = readMillis(reader);
+                    break;
+                case "title":
+                    title = BsonValues.readString(reader);
+                    break;
+                case "body":
+                    body = BsonValues.readString(reader);
+                    break;
+                case "bodyZ":
+                    if (reader.getCurrentBsonType() == BsonType.BINARY) {
+                        compressedBody = reader.readBinaryData().getData();
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case "author":
+                    author = readAuthor(reader);
+                    break;
+                case "comments":
+                    comments = readComments(reader);
+                    break;
+                case "commentCount":
+                    commentCount = BsonValues.readLong(reader);
+                    break;
+                case "views":
+                    views = BsonValues.readLong(reader);
+                    break;
+                case "likes":
+                    likes = BsonValues.readLong(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new PostView(id, date, title, body, compressedBody, author, comments, commentCount, views, likes);
+    }
+
+    private CommentView[] readComments(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return PostView.NO_COMMENTS;
+        }
+        List<CommentView> comments = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (!BsonValues.isNull(reader)) {
+                comments.add(readComment(reader));
+            }
+        }
+        reader.readEndArray();
+        return comments.isEmpty() ? PostView.NO_COMMENTS : comments.toArray(PostView.NO_COMMENTS);
+    }
+
+    private CommentView readComment(BsonReader reader) {
+        String text = null;
+        long date = Long.MIN_VALUE;
+        AuthorRef author = null;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "text":
+                    text = BsonValues.readString(reader);
+                    break;
+                case "date":
+                    date = readMillis(reader);
+                    break;
+                case "author":
+                    author = readAuthor(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new CommentView(text, date, author);
+    }
+
+    private AuthorRef readAuthor(BsonReader reader) {
+        if (BsonValues.isNull(reader)) {
+            return null;
+        }
+        String id = null;
+        String name = null;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id":
+                    id = BsonValues.readId(reader);
+                    break;
+                case "name":
+                    name = BsonValues.readString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return intern(id, name);
+    }
+
+    /**
+     * Retorna a referência compartilhada do autor, criando-a na primeira leitura.
+     */
+    AuthorRef intern(String id, String name) {
+        if (id == null) {
+            return new AuthorRef(null, name);
+        }
+        AuthorRef author = authors.get(id);
+        if (author != null && Objects.equals(author.getName(), name)) {
+            return author;
+        }
+        author = new AuthorRef(id, name);
+        if (authors.size() < MAX_AUTHORS || authors.containsKey(id)) {
+            authors.put(id, author);
+        }
+        return author;
+    }
+
+    private static long readMillis(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.DATE_TIME) {
+            return reader.readDateTime();
+        }
+        reader.skipValue();
+        return Long.MIN_VALUE;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, PostView value, EncoderContext encoderContext) {
+        throw new UnsupportedOperationException("A visão compacta de posts é somente leitura");
+    }
+
+    @Override
+    public Class<PostView> getEncoderClass() {
+        return PostView.class;
+    }
+}
@@ -0,0 +1,110 @@
+package com.ewertonrodrigues.workshopmongo.repository.codec;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codec do {@link User}, no mesmo formato gravado pelo mapeamento de entidades, sem o campo
+ * {@code _class}.
+ * <p>
+ * As referências aos posts ({@code {$ref, $id}}) não são resolvidas: cada post é lido apenas com o
+ * seu ID. Os usuários lidos por este codec servem às leituras que não usam os posts.
+ */
+public class UserCodec implements Codec<User> {
+
+    private final String postCollection;
+
+    /**
+     * @param postCollection O nome da coleção de posts, gravado nas referências.
+     */
+    public UserCodec(String postCollection) {
+        this.postCollection = postCollection;
+    }
+
+    @Override
+    public User decode(BsonReader reader, DecoderContext decoderContext) {
+        User user = new User();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id":
+                    user.setId(BsonValues.readId(reader));
+                    break;
+                case "name":
+                    user.setName(BsonValues.readString(reader));
+                    break;
+                case "email":
+                    user.setEmail(BsonValues.readString(reader));
+                    break;
+                case "posts":
+                    user.setPosts(readPostRefs(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return user;
+    }
+
+    private static List<Post> readPostRefs(BsonReader reader) {
+        List<Post> posts = new ArrayList<>();
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return posts;
+        }
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+                reader.skipValue();
+                continue;
+            }
+            Post post = new Post();
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                if ("$id".equals(reader.readName())) {
+                    post.setId(BsonValues.readId(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.readEndDocument();
+            posts.add(post);
+        }
+        reader.readEndArray();
+        return posts;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, User value, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonValues.writeId(writer, "_id", value.getId());
+        BsonValues.writeString(writer, "name", value.getName());
+        BsonValues.writeString(writer, "email", value.getEmail());
+        if (value.getPosts() != null) {
+            writer.writeStartArray("posts");
+            for (Post post : value.getPosts()) {
+                writer.writeStartDocument();
+                writer.writeString("$ref", postCollection);
+                BsonValues.writeId(writer, "$id", post.getId());
+                writer.writeEndDocument();
+            }
+            writer.writeEndArray();
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<User> getEncoderClass() {
+        return User.class;
+    }
+}
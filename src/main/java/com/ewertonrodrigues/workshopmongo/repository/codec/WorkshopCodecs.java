@@ -0,0 +1,63 @@
+package com.ewertonrodrigues.workshopmongo.repository.codec;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoCollection;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registro dos codecs escritos à mão de {@code Post}, {@code User}, {@code AuthorDTO} e
+ * {@code CommentDTO}, combinado ao registro padrão do driver.
+ * <p>
+ * As coleções obtidas por {@link #collection(String, Class)} leem e gravam as entidades diretamente
+ * em BSON, sem o mapeamento por reflexão do {@code MappingMongoConverter}, sem o campo
+ * {@code _class} e sem os eventos de mapeamento. São usadas nas leituras com muitos documentos; as
+ * gravações continuam pelo mapeamento de entidades, que dispara os eventos dos quais dependem os
+ * resumos, as estatísticas e a compressão. O registro também lê a visão compacta dos posts
+ * ({@code PostView}), somente leitura.
+ */
+@Component
+public class WorkshopCodecs {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private volatile CodecRegistry registry;
+
+    /**
+     * Retorna uma coleção que lê e grava documentos da classe informada com os codecs das entidades.
+     *
+     * @param name O nome da coleção.
+     * @param type A classe dos documentos ({@code Post}, {@code PostView} ou {@code User}).
+     * @return A coleção com o registro de codecs.
+     */
+    public <T> MongoCollection<T> collection(String name, Class<T> type) {
+        return mongoTemplate.getCollection(name).withCodecRegistry(registry()).withDocumentClass(type);
+    }
+
+    private CodecRegistry registry() {
+        CodecRegistry current = registry;
+        if (current == null) {
+            current = registry(mongoTemplate.getCollectionName(Post.class));
+            registry = current;
+        }
+        return current;
+    }
+
+    /**
+     * @param postCollection O nome da coleção de posts, usado nas referências dos usuários.
+     * @return O registro com os codecs das entidades e os codecs padrão do driver.
+     */
+    public static CodecRegistry registry(String postCollection) {
+        AuthorCodec author = new AuthorCodec();
+        CommentCodec comment = new CommentCodec(author);
+        return CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(author, comment, new PostCodec(author, comment), new UserCodec(postCollection),
+                        new PostViewCodec()),
+                MongoClientSettings.getDefaultCodecRegistry());
+    }
+}
@@ -0,0 +1,215 @@
+package com.ewertonrodrigues.workshopmongo.resources;
+
+import com.ewertonrodrigues.workshopmongo.dto.ArchiveReportDTO;
+import com.ewertonrodrigues.workshopmongo.dto.BreakerStatsDTO;
+import com.ewertonrodrigues.workshopmongo.dto.CompressionStatsDTO;
+import com.ewertonrodrigues.workshopmongo.dto.DirectoryCacheStatsDTO;
+import com.ewertonrodrigues.workshopmongo.dto.EventStatsDTO;
+import com.ewertonrodrigues.workshopmongo.dto.ImportReportDTO;
+import com.ewertonrodrigues.workshopmongo.dto.ProfileSummaryDTO;
+import com.ewertonrodrigues.workshopmongo.dto.WarmupReportDTO;
+import com.ewertonrodrigues.workshopmongo.services.BulkTransferService;
+import com.ewertonrodrigues.workshopmongo.services.DomainEventPublisher;
+import com.ewertonrodrigues.workshopmongo.services.JfrProfiler;
+import com.ewertonrodrigues.workshopmongo.services.PostArchiveService;
+import com.ewertonrodrigues.workshopmongo.services.PostBodyCompression;
+import com.ewertonrodrigues.workshopmongo.services.RepositoryGuard;
+import com.ewertonrodrigues.workshopmongo.services.UserDirectoryCache;
+import com.ewertonrodrigues.workshopmongo.services.WarmupService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Controlador REST com as operações administrativas da aplicação.
+ * Contém os endpoints de exportação e importação em lote das coleções de usuários e posts,
+ * de arquivamento dos posts antigos, de estatísticas dos caches, da compressão e dos eventos, do
+ * resultado do aquecimento da inicialização e das gravações do JDK Flight Recorder.
+ */
+@RestController
+@RequestMapping(value = "/admin")
+public class AdminResource {
+
+    @Autowired
+    private BulkTransferService transferService;
+
+    @Autowired
+    private UserDirectoryCache directoryCache;
+
+    @Autowired
+    private PostArchiveService archiveService;
+
+    @Autowired
+    private PostBodyCompression bodyCompression;
+
+    @Autowired
+    private DomainEventPublisher eventPublisher;
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Autowired
+    private RepositoryGuard repositoryGuard;
+
+    @Autowired
+    private JfrProfiler profiler;
+
+    /**
+     * Endpoint para exportar uma coleção como NDJSON comprimido em gzip.
+     * O conteúdo é transmitido à medida que o cursor é lido, sem carregar a coleção em memória.
+     *
+     * @param collection A coleção a ser exportada ("posts" ou "users").
+     * @return O arquivo {@code .ndjson.gz} com um documento por linha.
+     */
+    @RequestMapping(value = "/export/{collection}", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String collection) {
+        String name = transferService.collectionName(collection);
+        StreamingResponseBody body = out -> transferService.export(name, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + collection + ".ndjson.gz\"")
+                .body(body);
+    }
+
+    /**
+     * Endpoint para importar uma coleção a partir de um NDJSON comprimido em gzip,
+     * no mesmo formato produzido pela exportação.
+     *
+     * @param collection A coleção de destino ("posts" ou "users").
+     * @param resumeFrom O índice do bloco a partir do qual a importação deve ser retomada. O valor padrão é 0.
+     * @param request    A requisição, cujo corpo é lido como fluxo.
+     * @return O relatório da importação, com o último bloco confirmado e a vazão obtida.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    @RequestMapping(value = "/import/{collection}", method = RequestMethod.POST)
+    public ResponseEntity<ImportReportDTO> importDocuments(
+            @PathVariable String collection,
+            @RequestParam(value = "resumeFrom", defaultValue = "0") long resumeFrom,
+            HttpServletRequest request) throws IOException {
+        String name = transferService.collectionName(collection);
+        ImportReportDTO report = transferService.importDocuments(name, request.getInputStream(), resumeFrom);
+        return ResponseEntity.ok().body(report);
+    }
+
+    /**
+     * Endpoint para consultar as estatísticas do cache da listagem de usuários.
+     *
+     * @return As estatísticas de acertos, faltas, reconstruções e tamanho do conteúdo em cache.
+     */
+    @RequestMapping(value = "/cache/users", method = RequestMethod.GET)
+    public ResponseEntity<DirectoryCacheStatsDTO> userCacheStats() {
+        return ResponseEntity.ok().body(directoryCache.stats());
+    }
+
+    /**
+     * Endpoint para executar imediatamente o arquivamento dos posts antigos, mesmo com a execução
+     * periódica desabilitada.
+     *
+     * @return O relatório do arquivamento, com a data de corte e a quantidade de posts movidos.
+     */
+    @RequestMapping(value = "/archive", method = RequestMethod.POST)
+    public ResponseEntity<ArchiveReportDTO> archive() {
+        return ResponseEntity.ok().body(archiveService.archive());
+    }
+
+    /**
+     * Endpoint para consultar as estatísticas da compressão dos corpos de posts.
+     *
+     * @return A quantidade de corpos comprimidos, a razão de compressão e o tempo gasto na compressão
+     *         e na descompressão.
+     */
+    @RequestMapping(value = "/compression", method = RequestMethod.GET)
+    public ResponseEntity<CompressionStatsDTO> compressionStats() {
+        return ResponseEntity.ok().body(bodyCompression.stats());
+    }
+
+    /**
+     * Endpoint para consultar as estatísticas da fila de eventos de alteração e da sua gravação em lotes.
+     *
+     * @return A quantidade de eventos publicados, descartados, na fila e gravados, e o tempo gasto nas
+     *         gravações.
+     */
+    @RequestMapping(value = "/events", method = RequestMethod.GET)
+    public ResponseEntity<EventStatsDTO> eventStats() {
+        return ResponseEntity.ok().body(eventPublisher.stats());
+    }
+
+    /**
+     * Endpoint para consultar o resultado do aquecimento executado na inicialização.
+     *
+     * @return A duração do aquecimento e a quantidade de usuários, posts e requisições usados nele.
+     */
+    @RequestMapping(value = "/warmup", method = RequestMethod.GET)
+    public ResponseEntity<WarmupReportDTO> warmup() {
+        return ResponseEntity.ok().body(warmupService.report());
+    }
+
+    /**
+     * Endpoint para consultar o estado dos disjuntores das leituras do banco.
+     *
+     * @return O estado de cada disjuntor e as leituras concluídas, com falha, rejeitadas e servidas com
+     *         o último resultado bom.
+     */
+    @RequestMapping(value = "/breakers", method = RequestMethod.GET)
+    public ResponseEntity<List<BreakerStatsDTO>> breakers() {
+        return ResponseEntity.ok().body(repositoryGuard.stats());
+    }
+
+    /**
+     * Endpoint para iniciar uma gravação do JDK Flight Recorder, encerrada automaticamente depois da
+     * duração informada.
+     *
+     * @param durationSeconds A duração máxima da gravação, em segundos. O valor padrão é 60.
+     * @return O estado da gravação iniciada.
+     */
+    @RequestMapping(value = "/profiling/start", method = RequestMethod.POST)
+    public ResponseEntity<ProfileSummaryDTO> startProfiling(
+            @RequestParam(value = "durationSeconds", defaultValue = "60") int durationSeconds) {
+        return ResponseEntity.ok().body(profiler.start(durationSeconds));
+    }
+
+    /**
+     * Endpoint para encerrar a gravação em andamento.
+     *
+     * @return O resumo da gravação, com as alocações e a contenção de locks de cada endpoint.
+     */
+    @RequestMapping(value = "/profiling/stop", method = RequestMethod.POST)
+    public ResponseEntity<ProfileSummaryDTO> stopProfiling() {
+        return ResponseEntity.ok().body(profiler.stop());
+    }
+
+    /**
+     * Endpoint para consultar o resumo da última gravação.
+     *
+     * @return O resumo da gravação encerrada, ou apenas o seu estado enquanto ela está em andamento.
+     */
+    @RequestMapping(value = "/profiling/summary", method = RequestMethod.GET)
+    public ResponseEntity<ProfileSummaryDTO> profilingSummary() {
+        return ResponseEntity.ok().body(profiler.summary());
+    }
+
+    /**
+     * Endpoint para baixar o arquivo da última gravação encerrada, para análise no JDK Mission Control
+     * ou com o comando {@code jfr}.
+     *
+     * @return O arquivo {@code .jfr} da gravação.
+     */
+    @RequestMapping(value = "/profiling/recording", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> profilingRecording() {
+        Path file = profiler.recording();
+        StreamingResponseBody body = out -> Files.copy(file, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"workshop.jfr\"")
+                .body(body);
+    }
+}
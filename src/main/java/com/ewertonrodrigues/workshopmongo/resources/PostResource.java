@@ -1,12 +1,21 @@
 package com.ewertonrodrigues.workshopmongo.resources;
 
 import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.dto.MultiGetDTO;
+import com.ewertonrodrigues.workshopmongo.dto.SuggestStatsDTO;
+import com.ewertonrodrigues.workshopmongo.dto.SuggestionDTO;
 import com.ewertonrodrigues.workshopmongo.resources.util.URL;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
 import com.ewertonrodrigues.workshopmongo.services.PostService;
+import com.ewertonrodrigues.workshopmongo.services.PostSummaryService;
+import com.ewertonrodrigues.workshopmongo.services.TitleSuggestService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.Date;
 import java.util.List;
 
@@ -21,27 +30,92 @@ public class PostResource {
     @Autowired
     private PostService service;
 
+    @Autowired
+    private TitleSuggestService suggestService;
+
+    @Autowired
+    private PostSummaryService summaryService;
+
     /**
-     * Endpoint para buscar um post pelo seu ID.
+     * Endpoint para buscar vários posts pelos seus IDs em uma única consulta.
      *
-     * @param id O ID do post a ser buscado.
+     * @param ids Os IDs dos posts separados por vírgula (ex.: {@code ?ids=a,b,c}).
+     * @return Os posts encontrados, na ordem dos IDs informados, e os IDs não encontrados.
+     */
+    @RequestMapping(method = RequestMethod.GET, params = "ids")
+    public ResponseEntity<MultiGetDTO<Post>> findByIds(@RequestParam(value = "ids") String ids) {
+        MultiGetDTO<Post> result = service.findByIds(URL.splitParam(ids));
+        return ResponseEntity.ok().body(result);
+    }
+
+    /**
+     * Endpoint para buscar um post pelo seu ID. Cada chamada conta como uma visualização do post.
+     *
+     * @param id     O ID do post a ser buscado.
+     * @param fields Os campos desejados, separados por vírgula (ex.: {@code id,title,date,author.name}).
+     *               Quando vazio, o post completo é retornado.
      * @return Um objeto {@link ResponseEntity} contendo o post encontrado ou um erro caso o post não seja encontrado.
      */
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
-    public ResponseEntity<Post> findById(@PathVariable String id) {
-        Post obj = service.findById(id);
+    public ResponseEntity<?> findById(@PathVariable String id,
+                                      @RequestParam(value = "fields", defaultValue = "") String fields) {
+        if (!fields.isBlank()) {
+            return ResponseEntity.ok().body(service.view(id, URL.decodeParam(fields)));
+        }
+        Post obj = service.view(id);
         return ResponseEntity.ok().body(obj);
     }
 
+    /**
+     * Endpoint para curtir um post.
+     *
+     * @param id O ID do post a ser curtido.
+     * @return O post com a quantidade de curtidas atualizada.
+     */
+    @RequestMapping(value = "/{id}/like", method = RequestMethod.POST)
+    public ResponseEntity<Post> like(@PathVariable String id) {
+        Post obj = service.like(id);
+        return ResponseEntity.ok().body(obj);
+    }
+
+    /**
+     * Endpoint para comentar um post. O comentário é incluído com uma única atualização atômica,
+     * sem ler o post, e apenas os comentários mais recentes são mantidos no documento.
+     *
+     * @param id      O ID do post comentado.
+     * @param comment O comentário, com o texto e o autor ({@code id} e {@code name}).
+     * @return A resposta com o URI do post e a quantidade total de comentários atualizada.
+     */
+    @RequestMapping(value = "/{id}/comments", method = RequestMethod.POST)
+    public ResponseEntity<Post> addComment(@PathVariable String id, @RequestBody CommentDTO comment) {
+        Post obj = service.addComment(id, comment);
+        URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/posts/{id}").buildAndExpand(id).toUri();
+        return ResponseEntity.created(uri).body(obj);
+    }
+
     /**
      * Endpoint para buscar posts cujo título contenha o texto especificado.
      *
-     * @param text O texto a ser pesquisado no título dos posts. O valor padrão é uma string vazia.
+     * @param text   O texto a ser pesquisado no título dos posts. O valor padrão é uma string vazia.
+     * @param fields Os campos desejados, separados por vírgula. Quando vazio, os posts completos são retornados.
+     * @param view   {@code summary} para retornar os resumos dos posts em vez dos posts completos, ou
+     *               {@code compact} para os posts completos lidos como visões compactas e imutáveis.
      * @return Uma lista de posts cujo título contém o texto informado.
      */
     @RequestMapping(value = "/titlesearch", method = RequestMethod.GET)
-    public ResponseEntity<List<Post>> findByTitle(@RequestParam(value = "text", defaultValue = "") String text) {
+    public ResponseEntity<List<?>> findByTitle(@RequestParam(value = "text", defaultValue = "") String text,
+                                               @RequestParam(value = "fields", defaultValue = "") String fields,
+                                               @RequestParam(value = "view", defaultValue = "full") String view) {
         text = URL.decodeParam(text);
+        if (isCompactView(view, fields)) {
+            return ResponseEntity.ok().body(service.findViewsByTitle(text));
+        }
+        if (isSummaryView(view, fields)) {
+            return ResponseEntity.ok().body(summaryService.findByTitle(text));
+        }
+        if (!fields.isBlank()) {
+            return ResponseEntity.ok().body(service.findByTitle(text, URL.decodeParam(fields)));
+        }
         List<Post> list = service.findByTitle(text);
         return ResponseEntity.ok().body(list);
     }
@@ -53,17 +127,101 @@ public class PostResource {
      * @param text    O texto a ser pesquisado nos posts. O valor padrão é uma string vazia.
      * @param minDate A data mínima para o filtro de data. O valor padrão é a data 01/01/1970.
      * @param maxDate A data máxima para o filtro de data. O valor padrão é a data atual.
+     * @param fields  Os campos desejados, separados por vírgula. Quando vazio, os posts completos são retornados.
+     * @param view    {@code summary} para retornar os resumos dos posts em vez dos posts completos, ou
+     *                {@code compact} para os posts completos lidos como visões compactas e imutáveis.
+     * @param limit   A quantidade máxima de posts, dos mais recentes para os mais antigos. O valor padrão
+     *                é 0 (todos os posts).
      * @return Uma lista de posts que atendem aos critérios de pesquisa especificados.
      */
     @RequestMapping(value = "/fullsearch", method = RequestMethod.GET)
-    public ResponseEntity<List<Post>> fullsearch(
+    public ResponseEntity<List<?>> fullsearch(
             @RequestParam(value = "text", defaultValue = "") String text,
             @RequestParam(value = "minDate", defaultValue = "") String minDate,
-            @RequestParam(value = "maxDate", defaultValue = "") String maxDate) {
+            @RequestParam(value = "maxDate", defaultValue = "") String maxDate,
+            @RequestParam(value = "fields", defaultValue = "") String fields,
+            @RequestParam(value = "view", defaultValue = "full") String view,
+            @RequestParam(value = "limit", defaultValue = "0") int limit) {
         text = URL.decodeParam(text);
         Date min = URL.convertDate(minDate, new Date(0L));
         Date max = URL.convertDate(maxDate, new Date());
-        List<Post> list = service.fullSearch(text, min, max);
+        if (isCompactView(view, fields)) {
+            return ResponseEntity.ok().body(service.fullSearchViews(text, min, max, limit));
+        }
+        if (isSummaryView(view, fields)) {
+            return ResponseEntity.ok().body(summaryService.fullSearch(text, min, max, limit));
+        }
+        if (!fields.isBlank()) {
+            return ResponseEntity.ok().body(service.fullSearch(text, min, max, URL.decodeParam(fields), limit));
+        }
+        List<Post> list = service.fullSearch(text, min, max, limit);
         return ResponseEntity.ok().body(list);
     }
+
+    /**
+     * Endpoint de autocompletar: sugere títulos de posts que começam com o prefixo informado.
+     * A busca é feita em um índice em memória, sem consultar o banco de dados.
+     *
+     * @param prefix O prefixo digitado pelo usuário.
+     * @param limit  A quantidade máxima de sugestões. O valor padrão é 10.
+     * @return A lista de sugestões ordenadas por relevância.
+     */
+    @RequestMapping(value = "/suggest", method = RequestMethod.GET)
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        prefix = URL.decodeParam(prefix);
+        List<SuggestionDTO> list = suggestService.suggest(prefix, limit);
+        return ResponseEntity.ok().body(list);
+    }
+
+    /**
+     * Endpoint com as estatísticas do índice de autocompletar, incluindo a memória estimada
+     * para um milhão de títulos.
+     *
+     * @return As estatísticas do índice.
+     */
+    @RequestMapping(value = "/suggest/stats", method = RequestMethod.GET)
+    public ResponseEntity<SuggestStatsDTO> suggestStats() {
+        return ResponseEntity.ok().body(suggestService.stats());
+    }
+
+    /**
+     * Verifica se a busca deve retornar as visões compactas dos posts ({@code view=compact}).
+     *
+     * @param view   O parâmetro {@code view} da busca.
+     * @param fields Os campos solicitados, que não podem ser combinados com {@code compact}.
+     * @return Se a busca deve retornar as visões compactas.
+     * @throws BadRequestException Se {@code compact} for combinado com {@code fields}.
+     */
+    static boolean isCompactView(String view, String fields) {
+        if (!"compact".equals(view)) {
+            return false;
+        }
+        if (!fields.isBlank()) {
+            throw new BadRequestException("Os parâmetros fields e view=compact não podem ser combinados");
+        }
+        return true;
+    }
+
+    /**
+     * Interpreta o parâmetro {@code view} das listagens.
+     *
+     * @param view   {@code full} (padrão) ou {@code summary}.
+     * @param fields Os campos solicitados, que não podem ser combinados com {@code summary}.
+     * @return Se a listagem deve retornar os resumos dos posts.
+     * @throws BadRequestException Se a visão for desconhecida ou combinada com {@code fields}.
+     */
+    static boolean isSummaryView(String view, String fields) {
+        if ("full".equals(view)) {
+            return false;
+        }
+        if (!"summary".equals(view)) {
+            throw new BadRequestException("Visão desconhecida: " + view);
+        }
+        if (!fields.isBlank()) {
+            throw new BadRequestException("Os parâmetros fields e view=summary não podem ser combinados");
+        }
+        return true;
+    }
 }
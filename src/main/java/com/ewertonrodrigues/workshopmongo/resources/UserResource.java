@@ -2,13 +2,23 @@ package com.ewertonrodrigues.workshopmongo.resources;
 
 import com.ewertonrodrigues.workshopmongo.domain.Post;
 import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.MultiGetDTO;
 import com.ewertonrodrigues.workshopmongo.dto.UserDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserProfileDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserStatsDTO;
+import com.ewertonrodrigues.workshopmongo.resources.util.URL;
+import com.ewertonrodrigues.workshopmongo.services.PostService;
+import com.ewertonrodrigues.workshopmongo.services.PostSummaryService;
+import com.ewertonrodrigues.workshopmongo.services.UserDirectoryCache;
 import com.ewertonrodrigues.workshopmongo.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,26 +34,66 @@ public class UserResource {
     @Autowired
     private UserService service;
 
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostSummaryService summaryService;
+
+    @Autowired
+    private UserDirectoryCache directoryCache;
+
     /**
      * Endpoint para buscar todos os usuários cadastrados.
+     * Quando disponível, a resposta já codificada é escrita a partir do {@link UserDirectoryCache}.
      *
-     * @return Uma lista de objetos {@link UserDTO} representando todos os usuários.
+     * @param request  A requisição, usada para negociar o tipo de conteúdo e a compressão.
+     * @param response A resposta, na qual o conteúdo em cache é escrito.
+     * @return Uma lista de objetos {@link UserDTO} representando todos os usuários, ou {@code null}
+     *         quando a resposta já foi escrita a partir do cache.
+     * @throws IOException Se ocorrer um erro na escrita da resposta.
      */
     @RequestMapping(method = RequestMethod.GET)
-    public ResponseEntity<List<UserDTO>> findAll() {
+    public ResponseEntity<List<UserDTO>> findAll(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (directoryCache.write(request, response)) {
+            return null;
+        }
         List<User> list = service.findAll();
         List<UserDTO> listDTO = list.stream().map(x -> new UserDTO(x)).collect(Collectors.toList());
         return ResponseEntity.ok().body(listDTO);
     }
 
+    /**
+     * Endpoint para buscar vários usuários pelos seus IDs em uma única consulta.
+     *
+     * @param ids Os IDs dos usuários separados por vírgula (ex.: {@code ?ids=a,b,c}).
+     * @return Os usuários encontrados, na ordem dos IDs informados, e os IDs não encontrados.
+     */
+    @RequestMapping(method = RequestMethod.GET, params = "ids")
+    public ResponseEntity<MultiGetDTO<UserDTO>> findByIds(@RequestParam(value = "ids") String ids) {
+        MultiGetDTO<User> result = service.findByIds(URL.splitParam(ids));
+        List<UserDTO> listDTO = result.getItems().stream().map(x -> new UserDTO(x)).collect(Collectors.toList());
+        return ResponseEntity.ok().body(new MultiGetDTO<>(listDTO, result.getMissing()));
+    }
+
     /**
      * Endpoint para buscar um usuário pelo seu ID.
+     * Com {@code include}, o perfil do usuário é retornado com os dados solicitados, lidos em uma única
+     * agregação (ex.: {@code ?include=posts,commentCounts&postLimit=10}).
      *
-     * @param id O ID do usuário a ser buscado.
-     * @return O objeto {@link UserDTO} representando o usuário encontrado.
+     * @param id        O ID do usuário a ser buscado.
+     * @param include   Os dados incluídos, separados por vírgula: {@code posts} e {@code commentCounts}.
+     * @param postLimit A quantidade máxima de posts incluídos. O valor padrão é 10.
+     * @return O objeto {@link UserDTO} representando o usuário encontrado, ou o {@link UserProfileDTO}
+     *         com os dados incluídos.
      */
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
-    public ResponseEntity<UserDTO> findById(@PathVariable String id) {
+    public ResponseEntity<UserDTO> findById(@PathVariable String id,
+                                            @RequestParam(value = "include", defaultValue = "") String include,
+                                            @RequestParam(value = "postLimit", defaultValue = "10") int postLimit) {
+        if (!include.isBlank()) {
+            return ResponseEntity.ok().body(service.findProfile(id, URL.splitParam(include), postLimit));
+        }
         User obj = service.findById(id);
         return ResponseEntity.ok().body(new UserDTO(obj));
     }
@@ -89,15 +139,52 @@ public class UserResource {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Endpoint para buscar as estatísticas de publicação de um usuário: quantidade de posts,
+     * comentários recebidos e escritos e datas do primeiro e do último post.
+     *
+     * @param id O ID do usuário.
+     * @return O objeto {@link UserStatsDTO} com as estatísticas do usuário.
+     */
+    @RequestMapping(value = "/{id}/stats", method = RequestMethod.GET)
+    public ResponseEntity<UserStatsDTO> findStats(@PathVariable String id) {
+        return ResponseEntity.ok().body(service.findStats(id));
+    }
+
     /**
      * Endpoint para buscar todos os posts de um usuário específico.
      *
-     * @param id O ID do usuário cujos posts serão buscados.
+     * @param id     O ID do usuário cujos posts serão buscados.
+     * @param fields Os campos desejados, separados por vírgula. Quando vazio, os posts completos são retornados.
+     * @param view   {@code summary} para retornar os resumos dos posts em vez dos posts completos.
      * @return Uma lista de objetos {@link Post} representando os posts do usuário.
      */
     @RequestMapping(value = "/{id}/posts", method = RequestMethod.GET)
-    public ResponseEntity<List<Post>> findPosts(@PathVariable String id) {
+    public ResponseEntity<List<?>> findPosts(@PathVariable String id,
+                                             @RequestParam(value = "fields", defaultValue = "") String fields,
+                                             @RequestParam(value = "view", defaultValue = "full") String view) {
+        if (PostResource.isSummaryView(view, fields)) {
+            return ResponseEntity.ok().body(summaryService.findByIds(service.findPostIds(id)));
+        }
+        if (!fields.isBlank()) {
+            List<String> postIds = service.findPostIds(id);
+            return ResponseEntity.ok().body(postService.findByIds(postIds, URL.decodeParam(fields)));
+        }
         User obj = service.findById(id);
         return ResponseEntity.ok().body(obj.getPosts());
     }
+
+    /**
+     * Endpoint para publicar um novo post de um usuário.
+     *
+     * @param id  O ID do autor do post.
+     * @param obj O post, com o título e o corpo.
+     * @return A resposta contendo o URI do novo post.
+     */
+    @RequestMapping(value = "/{id}/posts", method = RequestMethod.POST)
+    public ResponseEntity<Void> insertPost(@PathVariable String id, @RequestBody Post obj) {
+        Post post = postService.insert(id, obj);
+        URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/posts/{id}").buildAndExpand(post.getId()).toUri();
+        return ResponseEntity.created(uri).build();
+    }
 }
@@ -5,7 +5,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
 import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException;
+import com.ewertonrodrigues.workshopmongo.services.exception.ServiceUnavailableException;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -19,4 +22,28 @@ public class ResourceExceptionHandler {
 		StandardError err = new StandardError(System.currentTimeMillis(), status.value(), "Não Encontrado", e.getMessage(), request.getRequestURI());
 		return ResponseEntity.status(status).body(err);
 	}
+
+	@ExceptionHandler(SearchTimeoutException.class)
+	public ResponseEntity<StandardError> searchTimeout(SearchTimeoutException e, HttpServletRequest request){
+		
+		HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+		StandardError err = new StandardError(System.currentTimeMillis(), status.value(), "Tempo Esgotado", e.getMessage(), request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
+
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<StandardError> serviceUnavailable(ServiceUnavailableException e, HttpServletRequest request){
+		
+		HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+		StandardError err = new StandardError(System.currentTimeMillis(), status.value(), "Serviço Indisponível", e.getMessage(), request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
+
+	@ExceptionHandler(BadRequestException.class)
+	public ResponseEntity<StandardError> badRequest(BadRequestException e, HttpServletRequest request){
+		
+		HttpStatus status = HttpStatus.BAD_REQUEST;
+		StandardError err = new StandardError(System.currentTimeMillis(), status.value(), "Requisição Inválida", e.getMessage(), request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
 }
@@ -4,7 +4,9 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
 
 public class URL {
@@ -26,4 +28,14 @@ public class URL {
 			return defaultValue;
 		}
 	}
+
+	public static List<String> splitParam(String text) {
+		List<String> list = new ArrayList<>();
+		for (String item : decodeParam(text).split(",")) {
+			if (!item.isBlank()) {
+				list.add(item.trim());
+			}
+		}
+		return list;
+	}
 }
@@ -0,0 +1,118 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de IDs, seguro para leituras e inclusões concorrentes sem bloqueio.
+ * <p>
+ * Responde "talvez exista" ou "certamente não existe". O tamanho do vetor de bits e a
+ * quantidade de funções de espalhamento são calculados a partir da capacidade esperada e da
+ * taxa de falsos positivos desejada. As posições são obtidas por espalhamento duplo
+ * ({@code h1 + i * h2}) de um único hash de 64 bits do ID.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * @param capacity              A quantidade esperada de IDs.
+     * @param falsePositiveRate     A taxa de falsos positivos desejada para essa quantidade.
+     */
+    BloomFilter(long capacity, double falsePositiveRate) {
+        this.capacity = Math.max(1, capacity);
+        long m = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (bitCount / 64));
+    }
+
+    /**
+     * Inclui um ID no filtro.
+     *
+     * @param id O ID a ser incluído.
+     */
+    void put(String id) {
+        long hash = hash64(id);
+        long h1 = mix64(hash);
+        long h2 = mix64(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * Verifica se o ID pode ter sido incluído.
+     *
+     * @param id O ID a ser verificado.
+     * @return {@code false} se o ID certamente não foi incluído.
+     */
+    boolean mightContain(String id) {
+        long hash = hash64(id);
+        long h1 = mix64(hash);
+        long h2 = mix64(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A quantidade de inclusões feitas no filtro
+     */
+    long size() {
+        return size.get();
+    }
+
+    /**
+     * @return Se a quantidade de inclusões ultrapassou a capacidade, elevando a taxa de falsos positivos
+     */
+    boolean isSaturated() {
+        return size.get() > capacity;
+    }
+
+    /**
+     * @return O tamanho do vetor de bits, em bytes
+     */
+    long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits dos caracteres do ID.
+     */
+    private static long hash64(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizador do MurmurHash3, que espalha os bits do hash.
+     */
+    private static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93fe53b76bdL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,310 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.ImportReportDTO;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serviço responsável pela exportação e importação em lote das coleções de usuários e posts.
+ * <p>
+ * A exportação percorre um cursor e escreve cada documento como uma linha JSON (NDJSON)
+ * comprimida em gzip, com uso de memória constante. A importação lê o mesmo formato e grava
+ * blocos de documentos em paralelo, com operações em lote idempotentes ({@code upsert} por
+ * {@code _id}), o que permite retomar uma importação a partir do último bloco confirmado.
+ */
+@Service
+public class BulkTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkTransferService.class);
+
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserDirectoryCache directoryCache;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private IdLookupGuard idGuard;
+
+    @Autowired
+    private PostSummaryService summaryService;
+
+    @Autowired
+    private TitleSuggestService suggestService;
+
+    @Autowired
+    private PostMigrations migrations;
+
+    @Value("${workshop.transfer.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${workshop.transfer.import-threads:4}")
+    private int importThreads;
+
+    private ExecutorService executor;
+
+    /**
+     * Converte o nome público da coleção ("posts" ou "users") no nome da coleção no MongoDB.
+     *
+     * @param name O nome público da coleção.
+     * @return O nome da coleção no banco de dados.
+     * @throws ObjectNotFoundException Se a coleção não for suportada.
+     */
+    public String collectionName(String name) {
+        switch (name) {
+            case "posts":
+                return mongoTemplate.getCollectionName(Post.class);
+            case "users":
+                return mongoTemplate.getCollectionName(User.class);
+            default:
+                throw new ObjectNotFoundException("Coleção não encontrada");
+        }
+    }
+
+    /**
+     * Exporta a coleção como NDJSON comprimido em gzip, escrevendo diretamente no fluxo de saída.
+     *
+     * @param collection O nome da coleção no banco de dados.
+     * @param out        O fluxo de saída da resposta.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    public void export(String collection, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        Query query = new Query().cursorBatchSize(chunkSize);
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Document> cursor = mongoTemplate.stream(query, Document.class, collection)) {
+            for (Document doc : (Iterable<Document>) cursor::iterator) {
+                writer.write(doc.toJson(JSON_SETTINGS));
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        gzip.finish();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Exportação de '{}': {} documentos em {} ms ({} docs/s)",
+                collection, count, elapsedMillis, count * 1000 / elapsedMillis);
+    }
+
+    /**
+     * Importa documentos NDJSON comprimidos em gzip, gravando blocos em paralelo.
+     * Os blocos anteriores a {@code resumeFrom} são lidos e descartados, o que permite retomar
+     * uma importação interrompida enviando novamente o mesmo arquivo.
+     * <p>
+     * Uma falha na leitura (ex.: arquivo truncado ou linha que não é JSON) interrompe a importação
+     * sem lançar exceção: o relatório traz o erro e o último bloco confirmado, a partir do qual a
+     * importação pode ser retomada. Os caches e estruturas em memória que dependem da coleção são
+     * atualizados mesmo quando a importação é interrompida.
+     *
+     * @param collection O nome da coleção no banco de dados.
+     * @param in         O fluxo de entrada com o conteúdo comprimido.
+     * @param resumeFrom O índice do primeiro bloco a ser gravado.
+     * @return O relatório da importação.
+     * @throws BadRequestException Se {@code resumeFrom} for negativo.
+     */
+    public ImportReportDTO importDocuments(String collection, InputStream in, long resumeFrom) {
+        if (resumeFrom < 0) {
+            throw new BadRequestException("O bloco inicial da importação não pode ser negativo");
+        }
+        long start = System.nanoTime();
+        ChunkTracker tracker = new ChunkTracker(resumeFrom);
+        AtomicLong documents = new AtomicLong();
+        AtomicReference<String> error = new AtomicReference<>();
+        // Limita os blocos em memória, mantendo o consumo constante independentemente do tamanho do arquivo.
+        Semaphore inFlight = new Semaphore(importThreads * 2);
+
+        boolean completed = true;
+        long chunkIndex = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new GZIPInputStream(in, 64 * 1024), StandardCharsets.UTF_8))) {
+            int linesInChunk = 0;
+            List<Document> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (chunkIndex >= resumeFrom) {
+                    chunk.add(Document.parse(line));
+                }
+                if (++linesInChunk == chunkSize) {
+                    if (chunkIndex >= resumeFrom) {
+                        if (!submit(collection, chunk, chunkIndex, tracker, documents, error, inFlight)) {
+                            completed = false;
+                            break;
+                        }
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                    linesInChunk = 0;
+                    chunkIndex++;
+                }
+            }
+            if (completed && !chunk.isEmpty()) {
+                completed = submit(collection, chunk, chunkIndex, tracker, documents, error, inFlight);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Os blocos já enviados continuam sendo gravados; o relatório indica onde retomar.
+            completed = false;
+            error.compareAndSet(null, "Falha na leitura do bloco " + chunkIndex + ": " + e);
+        } finally {
+            // Aguarda a conclusão dos blocos em andamento antes de montar o relatório.
+            inFlight.acquireUninterruptibly(importThreads * 2);
+            if (documents.get() > 0) {
+                refresh(collection);
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        ImportReportDTO report = new ImportReportDTO();
+        report.setCollection(collection);
+        report.setChunkSize(chunkSize);
+        report.setFirstChunk(resumeFrom);
+        report.setLastAcknowledgedChunk(tracker.lastAcknowledged());
+        report.setDocuments(documents.get());
+        report.setElapsedMillis(elapsedMillis);
+        report.setDocumentsPerSecond(documents.get() * 1000.0 / elapsedMillis);
+        report.setError(error.get());
+        report.setCompleted(completed && error.get() == null);
+        log.info("Importação em '{}': {} documentos em {} ms ({} docs/s), último bloco confirmado {}{}",
+                collection, documents.get(), elapsedMillis, (long) report.getDocumentsPerSecond(),
+                report.getLastAcknowledgedChunk(), report.getError() == null ? "" : ", erro: " + report.getError());
+        return report;
+    }
+
+    /**
+     * Atualiza os caches e estruturas em memória derivados da coleção importada.
+     */
+    private void refresh(String collection) {
+        try {
+            if (collection.equals(mongoTemplate.getCollectionName(User.class))) {
+                directoryCache.invalidate();
+                idGuard.rebuild(IdLookupGuard.Kind.USER);
+            }
+            if (collection.equals(mongoTemplate.getCollectionName(Post.class))) {
+                // Os documentos importados podem não ter os campos derivados (ex.: palavras do título).
+                migrations.runAll();
+                statsService.reconcileCounters();
+                idGuard.rebuild(IdLookupGuard.Kind.POST);
+                summaryService.refresh();
+                suggestService.rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao atualizar os caches após a importação em '{}'", collection, e);
+        }
+    }
+
+    /**
+     * Envia um bloco para gravação assíncrona.
+     *
+     * @return {@code false} se a importação já falhou e não deve continuar.
+     */
+    private boolean submit(String collection, List<Document> chunk, long chunkIndex, ChunkTracker tracker,
+                           AtomicLong documents, AtomicReference<String> error, Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        if (error.get() != null) {
+            inFlight.release();
+            return false;
+        }
+        executor().execute(() -> {
+            try {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                for (Document doc : chunk) {
+                    bulk.replaceOne(new Query(Criteria.where("_id").is(doc.get("_id"))), doc,
+                            FindAndReplaceOptions.options().upsert());
+                }
+                bulk.execute();
+                documents.addAndGet(chunk.size());
+                tracker.acknowledge(chunkIndex);
+            } catch (RuntimeException e) {
+                error.compareAndSet(null, "Falha no bloco " + chunkIndex + ": " + e.getMessage());
+            } finally {
+                inFlight.release();
+            }
+        });
+        return true;
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(importThreads);
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Acompanha os blocos confirmados e calcula o maior índice contíguo confirmado,
+     * já que os blocos podem terminar fora de ordem.
+     */
+    private static final class ChunkTracker {
+
+        private final long base;
+        private final BitSet acknowledged = new BitSet();
+
+        private ChunkTracker(long base) {
+            this.base = base;
+        }
+
+        private synchronized void acknowledge(long chunkIndex) {
+            acknowledged.set((int) (chunkIndex - base));
+        }
+
+        private synchronized long lastAcknowledged() {
+            return base + acknowledged.nextClearBit(0) - 1;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+/**
+ * Disjuntor de uma operação: depois de {@code failureThreshold} falhas seguidas, rejeita as chamadas
+ * por {@code openNanos} e então libera uma única chamada de teste, que fecha o disjuntor se tiver
+ * sucesso ou o reabre se falhar.
+ * <p>
+ * O estado é protegido por um monitor mantido apenas durante a atualização dos contadores, nunca
+ * durante a chamada protegida.
+ */
+final class CircuitBreaker {
+
+    /**
+     * Estados do disjuntor, na ordem usada pela métrica de estado (0, 1 e 2).
+     */
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long opened;
+
+    /**
+     * @param failureThreshold A quantidade de falhas seguidas que abre o disjuntor.
+     * @param openNanos        O tempo em que o disjuntor fica aberto antes da chamada de teste.
+     */
+    CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Verifica se uma chamada pode ser feita.
+     *
+     * @return {@code false} se o disjuntor estiver aberto ou se a chamada de teste já estiver em andamento.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Registra uma chamada concluída (inclusive com erro de negócio), fechando o disjuntor.
+     */
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Libera a chamada de teste sem registrar resultado, quando a chamada não chegou ao fim (ex.: a
+     * thread que aguardava foi interrompida). O estado não muda e a próxima chamada pode testar o banco.
+     */
+    synchronized void release() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Registra uma falha de acesso ao banco ou um tempo esgotado.
+     */
+    synchronized void onFailure() {
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            failures = 0;
+            opened++;
+        }
+    }
+
+    /**
+     * @return O estado atual.
+     */
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return A quantidade de vezes em que o disjuntor abriu.
+     */
+    synchronized long opened() {
+        return opened;
+    }
+}
@@ -0,0 +1,264 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.DomainEvent;
+import com.ewertonrodrigues.workshopmongo.dto.EventStatsDTO;
+import com.mongodb.ErrorCategory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serviço de publicação dos eventos de alteração de usuários e posts na coleção "events".
+ * <p>
+ * As operações de escrita publicam o evento em uma fila circular em memória ({@link EventRing}), sem
+ * bloqueio e sem acesso ao banco. Uma única thread consumidora esvazia a fila a cada
+ * {@code workshop.events.flush-interval-ms} e grava os eventos em lotes de até
+ * {@code workshop.events.batch-size} documentos, um {@code insertMany} por lote. Um lote que falha é
+ * mantido e gravado novamente no ciclo seguinte; enquanto isso, a fila continua recebendo eventos.
+ * Como o ID de cada evento é atribuído na publicação, a nova tentativa é uma inserção não ordenada
+ * que ignora os eventos já gravados pela tentativa anterior (erros de chave duplicada), sem duplicá-los.
+ * <p>
+ * Com a fila cheia, a política {@code workshop.events.overflow} decide o que acontece com o novo
+ * evento: {@code drop} (padrão) o descarta imediatamente e {@code wait} aguarda até
+ * {@code workshop.events.overflow-wait-ms} por espaço antes de descartá-lo. Os eventos descartados
+ * são contados nas estatísticas. No encerramento da aplicação, os eventos da fila são gravados antes
+ * do fechamento da conexão com o banco.
+ */
+@Service
+public class DomainEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventPublisher.class);
+
+    /**
+     * Política aplicada quando a fila está cheia.
+     */
+    enum Overflow {
+        DROP, WAIT
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${workshop.events.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${workshop.events.capacity:8192}")
+    private int capacity = 8192;
+
+    @Value("${workshop.events.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${workshop.events.flush-interval-ms:200}")
+    private long flushIntervalMs = 200;
+
+    @Value("${workshop.events.overflow:drop}")
+    private String overflow = "drop";
+
+    @Value("${workshop.events.overflow-wait-ms:5}")
+    private long overflowWaitMs = 5;
+
+    private EventRing<DomainEvent> ring;
+    private Overflow policy;
+    private Thread consumer;
+    private volatile boolean running;
+
+    /**
+     * Lote que falhou na última gravação, a ser gravado novamente antes de novos eventos. Acessado
+     * apenas pela thread consumidora ou, no encerramento, depois que ela termina.
+     */
+    private List<DomainEvent> retry = List.of();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder persistNanos = new LongAdder();
+
+    /**
+     * Cria a fila e inicia a thread consumidora, quando os eventos estão habilitados.
+     */
+    @PostConstruct
+    public void start() {
+        policy = Overflow.valueOf(overflow.trim().toUpperCase());
+        ring = new EventRing<>(capacity);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::consume, "domain-events");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Publica um evento de alteração sem bloquear a operação de escrita (exceto com a política
+     * {@code wait} e a fila cheia).
+     *
+     * @param type     O tipo do evento.
+     * @param entityId O ID do usuário ou do post alterado.
+     * @param actorId  O ID do usuário que realizou a alteração, ou {@code null}.
+     */
+    public void publish(DomainEvent.Type type, String entityId, String actorId) {
+        if (!enabled) {
+            return;
+        }
+        DomainEvent event = new DomainEvent(type, entityId, actorId, new Date());
+        event.setId(new ObjectId().toHexString());
+        if (ring.offer(event) || policy == Overflow.WAIT && await(event)) {
+            published.increment();
+            return;
+        }
+        dropped.increment();
+    }
+
+    /**
+     * Aguarda espaço na fila pelo tempo máximo configurado, acordando a thread consumidora.
+     */
+    private boolean await(DomainEvent event) {
+        waits.increment();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(overflowWaitMs);
+        do {
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(50_000);
+            if (ring.offer(event)) {
+                return true;
+            }
+        } while (System.nanoTime() < deadline);
+        return false;
+    }
+
+    private void consume() {
+        while (running) {
+            try {
+                if (flush() < batchSize) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar {} eventos; nova tentativa no próximo ciclo: {}", retry.size(), e.toString());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+    }
+
+    /**
+     * Grava o lote pendente de nova tentativa, se houver, ou o próximo lote da fila.
+     *
+     * @return A quantidade de eventos gravados.
+     */
+    private int flush() {
+        List<DomainEvent> batch = retry;
+        boolean retrying = !batch.isEmpty();
+        if (!retrying) {
+            batch = new ArrayList<>(Math.min(batchSize, ring.size()));
+            ring.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            if (retrying) {
+                insertMissing(batch);
+            } else {
+                mongoTemplate.insert(batch, DomainEvent.class);
+            }
+        } catch (RuntimeException e) {
+            retry = batch;
+            failures.increment();
+            throw e;
+        }
+        retry = List.of();
+        persistNanos.add(System.nanoTime() - start);
+        persisted.add(batch.size());
+        batches.increment();
+        return batch.size();
+    }
+
+    /**
+     * Grava novamente um lote que falhou. Parte dos eventos pode já ter sido gravada pela tentativa
+     * anterior; a inserção não ordenada grava os demais e os erros de chave duplicada são ignorados.
+     */
+    private void insertMissing(List<DomainEvent> batch) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DomainEvent.class).insert(batch).execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCategory() != ErrorCategory.DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Interrompe a thread consumidora e grava os eventos restantes na fila.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (consumer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (consumer.isAlive()) {
+            log.warn("A thread de eventos não terminou; {} eventos não foram gravados", ring.size());
+            return;
+        }
+        // Grava a fila inteira, um lote por vez, com até três tentativas seguidas por lote.
+        int attempts = 0;
+        while (true) {
+            try {
+                if (flush() == 0) {
+                    return;
+                }
+                attempts = 0;
+            } catch (RuntimeException e) {
+                if (++attempts == 3) {
+                    log.warn("Falha ao gravar os eventos no encerramento; {} eventos perdidos: {}",
+                            retry.size() + ring.size(), e.toString());
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return As estatísticas da fila e das gravações desde a inicialização.
+     */
+    public EventStatsDTO stats() {
+        EventStatsDTO stats = new EventStatsDTO();
+        stats.setEnabled(enabled);
+        stats.setOverflow(policy.name().toLowerCase());
+        stats.setCapacity(ring.capacity());
+        stats.setQueued(ring.size());
+        stats.setPublished(published.sum());
+        stats.setDropped(dropped.sum());
+        stats.setWaits(waits.sum());
+        stats.setPersisted(persisted.sum());
+        stats.setBatches(batches.sum());
+        stats.setFailures(failures.sum());
+        stats.setPersistMillis(persistNanos.sum() / 1_000_000.0);
+        return stats;
+    }
+}
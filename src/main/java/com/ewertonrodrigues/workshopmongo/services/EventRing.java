@@ -0,0 +1,107 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Fila circular limitada com vários produtores e um único consumidor, sem bloqueio.
+ * <p>
+ * Cada posição guarda um número de sequência que indica se ela está livre para a volta atual do
+ * produtor ou já preenchida para o consumidor. O produtor reserva uma posição com um único
+ * {@code compareAndSet} no contador de escrita e publica o elemento gravando a sequência da
+ * posição; quando a fila está cheia, {@link #offer(Object)} retorna {@code false} imediatamente. Apenas
+ * uma thread pode consumir a fila ao mesmo tempo.
+ *
+ * @param <T> O tipo dos elementos.
+ */
+final class EventRing<T> {
+
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Posição de leitura, alterada apenas pelo consumidor e lida por {@link #size()}.
+     */
+    private volatile long head;
+
+    /**
+     * @param capacity A capacidade mínima, arredondada para a próxima potência de dois.
+     */
+    EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.items = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Inclui um elemento sem bloquear.
+     *
+     * @param item O elemento.
+     * @return {@code false} se a fila estiver cheia.
+     */
+    boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[index] = item;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0: outro produtor reservou a posição; tenta a seguinte.
+        }
+    }
+
+    /**
+     * Remove até {@code max} elementos, na ordem de inclusão. Deve ser chamado por um único consumidor.
+     *
+     * @param consumer O destino dos elementos removidos.
+     * @param max      A quantidade máxima de elementos.
+     * @return A quantidade de elementos removidos.
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<? super T> consumer, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break; // Vazia, ou o produtor ainda não publicou o elemento reservado.
+            }
+            T item = (T) items[index];
+            items[index] = null;
+            sequences.lazySet(index, position + items.length);
+            position++;
+            drained++;
+            consumer.accept(item);
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * @return A quantidade aproximada de elementos na fila.
+     */
+    int size() {
+        return (int) Math.max(0, Math.min(items.length, tail.get() - head));
+    }
+
+    /**
+     * @return A capacidade da fila.
+     */
+    int capacity() {
+        return items.length;
+    }
+}
@@ -0,0 +1,281 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Registro dos usuários e posts mais acessados, usados no aquecimento da próxima inicialização.
+ * <p>
+ * Cada leitura por ID incrementa um contador em memória, limitado a
+ * {@code workshop.warmup.tracked-ids} IDs por coleção (IDs novos são ignorados depois desse limite).
+ * As requisições com o cabeçalho {@value #UNTRACKED_HEADER} (as requisições do próprio aquecimento)
+ * não são contadas, para que o aquecimento não reforce os IDs que ele mesmo escolheu.
+ * <p>
+ * Periodicamente e no encerramento da aplicação, os acessos contados desde a última gravação são
+ * somados aos acessos gravados no documento "hot-ids" da coleção "warmup" (inclusive por outras
+ * instâncias), que guarda os {@code workshop.warmup.hot-ids} IDs mais acessados de cada coleção. Os
+ * acessos gravados decaem pela metade a cada {@code workshop.warmup.hot-ids-half-life-ms} desde a
+ * gravação anterior, de modo que os IDs muito acessados no passado dão lugar aos acessados agora. A
+ * gravação usa o campo {@code version} do documento para não sobrescrever a gravação concorrente de
+ * outra instância; nesse caso, a soma é refeita sobre o documento atualizado.
+ */
+@Component
+public class HotIdTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(HotIdTracker.class);
+
+    static final String COLLECTION = "warmup";
+    private static final String DOCUMENT_ID = "hot-ids";
+
+    /**
+     * Cabeçalho das requisições cujas leituras não são contadas.
+     */
+    public static final String UNTRACKED_HEADER = "X-Warmup";
+
+    private static final int MAX_SAVE_ATTEMPTS = 5;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${workshop.warmup.hot-ids:200}")
+    private int hotIds = 200;
+
+    @Value("${workshop.warmup.hot-ids-half-life-ms:86400000}")
+    private long halfLifeMs = 86400000;
+
+    @Value("${workshop.warmup.tracked-ids:20000}")
+    private int trackedIds = 20000;
+
+    private final Map<IdLookupGuard.Kind, Map<String, LongAdder>> hits = new EnumMap<>(IdLookupGuard.Kind.class);
+
+    public HotIdTracker() {
+        for (IdLookupGuard.Kind kind : IdLookupGuard.Kind.values()) {
+            hits.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Registra uma leitura por ID.
+     *
+     * @param kind A coleção.
+     * @param id   O ID lido.
+     */
+    public void hit(IdLookupGuard.Kind kind, String id) {
+        if (untracked()) {
+            return;
+        }
+        Map<String, LongAdder> counters = hits.get(kind);
+        LongAdder counter = counters.get(id);
+        if (counter == null) {
+            if (counters.size() >= trackedIds) {
+                return;
+            }
+            counter = counters.computeIfAbsent(id, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * @param kind A coleção.
+     * @return Os IDs mais acessados desde a última gravação, do mais acessado para o menos acessado.
+     */
+    public List<String> hottest(IdLookupGuard.Kind kind) {
+        return hits.get(kind).entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(hotIds)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lê os IDs mais acessados gravados pela última instância.
+     *
+     * @param kind A coleção.
+     * @return Os IDs gravados, ou uma lista vazia quando não há registro.
+     */
+    public List<String> recorded(IdLookupGuard.Kind kind) {
+        Document doc = mongoTemplate.getCollection(COLLECTION).find(Filters.eq("_id", DOCUMENT_ID)).first();
+        List<String> ids = doc == null ? null : doc.getList(field(kind), String.class);
+        return ids == null ? List.of() : ids;
+    }
+
+    /**
+     * Soma os acessos contados desde a última gravação aos acessos gravados, quando houve leituras.
+     * Se a gravação falhar, os acessos voltam a ser contados para a próxima gravação.
+     */
+    @Scheduled(fixedDelayString = "${workshop.warmup.save-interval-ms:600000}",
+            initialDelayString = "${workshop.warmup.save-interval-ms:600000}")
+    public void save() {
+        Map<IdLookupGuard.Kind, Map<String, Long>> deltas = drain();
+        if (deltas.values().stream().allMatch(Map::isEmpty)) {
+            return;
+        }
+        try {
+            merge(deltas);
+        } catch (RuntimeException e) {
+            restore(deltas);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        try {
+            save();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar os IDs mais acessados: {}", e.toString());
+        }
+    }
+
+    /**
+     * Retira dos contadores os acessos contados até agora. Os IDs sem acessos desde a gravação anterior
+     * deixam de ocupar o limite de IDs registrados; um acesso simultâneo à remoção pode ser perdido.
+     */
+    private Map<IdLookupGuard.Kind, Map<String, Long>> drain() {
+        Map<IdLookupGuard.Kind, Map<String, Long>> deltas = new EnumMap<>(IdLookupGuard.Kind.class);
+        for (IdLookupGuard.Kind kind : IdLookupGuard.Kind.values()) {
+            Map<String, Long> delta = new HashMap<>();
+            hits.get(kind).forEach((id, counter) -> {
+                long count = counter.sum();
+                if (count == 0) {
+                    hits.get(kind).remove(id, counter);
+                } else {
+                    counter.add(-count);
+                    delta.put(id, count);
+                }
+            });
+            deltas.put(kind, delta);
+        }
+        return deltas;
+    }
+
+    private void restore(Map<IdLookupGuard.Kind, Map<String, Long>> deltas) {
+        deltas.forEach((kind, delta) -> delta.forEach((id, count) ->
+                hits.get(kind).computeIfAbsent(id, k -> new LongAdder()).add(count)));
+    }
+
+    /**
+     * Soma os acessos ao documento gravado, refazendo a soma quando outra instância gravou no meio tempo.
+     */
+    private void merge(Map<IdLookupGuard.Kind, Map<String, Long>> deltas) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION);
+        for (int attempt = 1; ; attempt++) {
+            Document current = collection.find(Filters.eq("_id", DOCUMENT_ID)).first();
+            Object version = current == null ? null : current.get("version");
+            Date now = new Date();
+            double decay = decay(current, now);
+            Document doc = new Document("_id", DOCUMENT_ID).append("savedAt", now)
+                    .append("version", version instanceof Number number ? number.longValue() + 1 : 1L);
+            for (IdLookupGuard.Kind kind : IdLookupGuard.Kind.values()) {
+                Map<String, Long> merged = recordedHits(current, kind, decay);
+                deltas.get(kind).forEach((id, count) -> merged.merge(id, count, Long::sum));
+                List<String> ids = new ArrayList<>();
+                List<Document> counts = new ArrayList<>();
+                merged.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                        .limit(hotIds)
+                        .forEach(entry -> {
+                            ids.add(entry.getKey());
+                            counts.add(new Document("id", entry.getKey()).append("hits", entry.getValue()));
+                        });
+                doc.append(field(kind), ids).append(field(kind) + "Hits", counts);
+            }
+            if (current == null ? insert(collection, doc) : collection.replaceOne(
+                    Filters.and(Filters.eq("_id", DOCUMENT_ID), Filters.eq("version", version)), doc).getMatchedCount() == 1) {
+                return;
+            }
+            if (attempt == MAX_SAVE_ATTEMPTS) {
+                throw new IllegalStateException("Gravações concorrentes dos IDs mais acessados; tentativas esgotadas");
+            }
+        }
+    }
+
+    private static boolean insert(MongoCollection<Document> collection, Document doc) {
+        try {
+            collection.insertOne(doc);
+            return true;
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Calcula o fator de decaimento dos acessos gravados: metade a cada meia-vida desde a gravação anterior.
+     */
+    private double decay(Document current, Date now) {
+        Date savedAt = current == null ? null : current.getDate("savedAt");
+        if (savedAt == null || halfLifeMs <= 0) {
+            return 1.0;
+        }
+        return Math.pow(0.5, Math.max(0L, now.getTime() - savedAt.getTime()) / (double) halfLifeMs);
+    }
+
+    /**
+     * Lê os acessos gravados, multiplicados pelo fator de decaimento (os IDs cujos acessos chegam a zero
+     * são descartados); os registros sem contagem (gravados antes da soma) contam um acesso por ID.
+     */
+    private static Map<String, Long> recordedHits(Document current, IdLookupGuard.Kind kind, double decay) {
+        Map<String, Long> recorded = new HashMap<>();
+        if (current == null) {
+            return recorded;
+        }
+        List<Document> counts = current.getList(field(kind) + "Hits", Document.class);
+        if (counts != null) {
+            counts.forEach(count -> {
+                long hits = Math.round(count.get("hits", Number.class).longValue() * decay);
+                if (hits > 0) {
+                    recorded.put(count.getString("id"), hits);
+                }
+            });
+            return recorded;
+        }
+        List<String> ids = current.getList(field(kind), String.class);
+        if (ids != null) {
+            ids.forEach(id -> recorded.put(id, 1L));
+        }
+        return recorded;
+    }
+
+    /**
+     * @return Se a requisição atendida pela thread atual pede que as leituras não sejam contadas.
+     */
+    private static boolean untracked() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet
+                && servlet.getRequest().getHeader(UNTRACKED_HEADER) != null;
+    }
+
+    private static String field(IdLookupGuard.Kind kind) {
+        return kind == IdLookupGuard.Kind.USER ? "users" : "posts";
+    }
+}
@@ -0,0 +1,390 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepositoryCustomImpl;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import com.mongodb.client.MongoCursor;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Guarda das buscas por ID de usuários e posts, que responde aos IDs inexistentes sem consultar
+ * o MongoDB.
+ * <p>
+ * Os IDs que não são {@link ObjectId} válidos são rejeitados antes de qualquer consulta. Para os
+ * demais, um {@link BloomFilter} com os IDs gravados indica os IDs que certamente não existem, e um
+ * cache negativo guarda por um tempo limitado os IDs consultados e não encontrados (falsos positivos
+ * do filtro ou documentos excluídos).
+ * <p>
+ * O filtro é montado em segundo plano na inicialização e a cada {@code workshop.idguard.rebuild-ms},
+ * e recebe os IDs gravados por esta instância. Os IDs gravados por outras instâncias (ou fora do
+ * mapeamento de entidades) são incluídos a cada {@code workshop.idguard.refresh-ms} por uma leitura
+ * dos {@code _id} gerados desde a leitura anterior, que usa o índice de {@code _id}. Como a data de
+ * criação faz parte do {@link ObjectId}, o filtro só responde pelos IDs criados antes da última
+ * leitura (com a margem {@code workshop.idguard.clock-skew-ms} para a diferença entre os relógios das
+ * instâncias); os mais novos sempre seguem para o banco. Enquanto o filtro não está pronto, ou quando a
+ * última montagem completa é mais antiga que duas vezes {@code workshop.idguard.rebuild-ms}, todas as
+ * buscas seguem para o banco.
+ */
+@Component
+public class IdLookupGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(IdLookupGuard.class);
+
+    private static final long MIN_CAPACITY = 10_000;
+
+    /**
+     * Coleções protegidas pela guarda. Os IDs dos posts incluem os posts arquivados.
+     */
+    public enum Kind {
+        USER(User.class), POST(Post.class, PostRepositoryCustomImpl.ARCHIVE_COLLECTION);
+
+        private final Class<?> entityClass;
+
+        private final String[] extraCollections;
+
+        Kind(Class<?> entityClass, String... extraCollections) {
+            this.entityClass = entityClass;
+            this.extraCollections = extraCollections;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${workshop.idguard.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Value("${workshop.idguard.negative-cache-size:10000}")
+    private int negativeCacheSize = 10000;
+
+    @Value("${workshop.idguard.negative-ttl-ms:60000}")
+    private long negativeTtlMs = 60000;
+
+    @Value("${workshop.idguard.refresh-ms:30000}")
+    private long refreshMs = 30000;
+
+    @Value("${workshop.idguard.rebuild-ms:600000}")
+    private long rebuildMs = 600000;
+
+    @Value("${workshop.idguard.clock-skew-ms:5000}")
+    private long clockSkewMs = 5000;
+
+    private final Map<Kind, Filters> filters = new EnumMap<>(Kind.class);
+    private final Map<Kind, Map<String, Long>> negative = new EnumMap<>(Kind.class);
+    private final Map<Kind, CompletableFuture<Void>> rebuilding = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "id-lookup-guard");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdLookupGuard() {
+        for (Kind kind : Kind.values()) {
+            filters.put(kind, new Filters());
+            negative.put(kind, new LinkedHashMap<>(16, 0.75f, true));
+        }
+    }
+
+    /**
+     * Rejeita IDs que não têm o formato de um {@link ObjectId}.
+     *
+     * @param id O ID informado na requisição.
+     * @throws BadRequestException Se o ID não for um {@link ObjectId} válido.
+     */
+    public void checkFormat(String id) {
+        if (id == null || !ObjectId.isValid(id)) {
+            throw new BadRequestException("ID inválido: " + id);
+        }
+    }
+
+    /**
+     * Verifica se vale a pena consultar o banco de dados para o ID informado.
+     *
+     * @param kind A coleção consultada.
+     * @param id   O ID informado na requisição.
+     * @throws BadRequestException     Se o ID não for um {@link ObjectId} válido.
+     * @throws ObjectNotFoundException Se o ID certamente não existir.
+     */
+    public void requireCandidate(Kind kind, String id) {
+        checkFormat(id);
+        String key = key(id);
+        if (isKnownMissing(kind, key) || isAbsent(kind, key)) {
+            throw new ObjectNotFoundException("Objeto não encontrado");
+        }
+    }
+
+    /**
+     * Consulta o filtro apenas para os IDs criados antes da última leitura dos IDs gravados.
+     */
+    private boolean isAbsent(Kind kind, String id) {
+        Filters holder = filters.get(kind);
+        BloomFilter filter = holder.current;
+        if (filter == null || System.currentTimeMillis() - holder.builtAt > 2 * rebuildMs) {
+            return false;
+        }
+        long createdAt = new ObjectId(id).getTimestamp() * 1000L;
+        return createdAt < holder.coveredUntil && !filter.mightContain(id);
+    }
+
+    /**
+     * @param kind A coleção.
+     * @return Se o filtro da coleção já foi montado
+     */
+    public boolean isReady(Kind kind) {
+        return filters.get(kind).current != null;
+    }
+
+    /**
+     * Registra um ID consultado e não encontrado, para que as próximas buscas não consultem o banco.
+     *
+     * @param kind A coleção consultada.
+     * @param id   O ID não encontrado.
+     */
+    public void recordMiss(Kind kind, String id) {
+        Map<String, Long> misses = negative.get(kind);
+        synchronized (misses) {
+            misses.put(key(id), System.currentTimeMillis() + negativeTtlMs);
+            if (misses.size() > negativeCacheSize) {
+                misses.remove(misses.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Inclui no filtro os IDs de usuários e posts gravados pela aplicação.
+     *
+     * @param event O evento de gravação do Spring Data.
+     */
+    @EventListener
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        Kind kind = kindOf(event.getSource().getClass());
+        Object id = event.getDocument() == null ? null : event.getDocument().get("_id");
+        if (kind == null || id == null) {
+            return;
+        }
+        String key = id instanceof ObjectId ? ((ObjectId) id).toHexString() : key(id.toString());
+        Filters current = filters.get(kind);
+        BloomFilter next = current.next;
+        if (next != null) {
+            next.put(key);
+        }
+        BloomFilter filter = current.current;
+        if (filter != null) {
+            filter.put(key);
+            if (filter.isSaturated()) {
+                rebuild(kind);
+            }
+        }
+        Map<String, Long> misses = negative.get(kind);
+        synchronized (misses) {
+            misses.remove(key);
+        }
+    }
+
+    /**
+     * Monta os filtros de todas as coleções em segundo plano, após a inicialização.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        for (Kind kind : Kind.values()) {
+            rebuild(kind);
+        }
+    }
+
+    /**
+     * Agenda a reconstrução do filtro de uma coleção, usada após gravações feitas fora do
+     * mapeamento de entidades (ex.: importação em lote) ou quando o filtro fica saturado, e descarta
+     * o cache negativo da coleção.
+     *
+     * @param kind A coleção.
+     * @return A reconstrução agendada (ou a que já estava em andamento).
+     */
+    public CompletableFuture<Void> rebuild(Kind kind) {
+        Map<String, Long> misses = negative.get(kind);
+        synchronized (misses) {
+            misses.clear();
+        }
+        return rebuilding.compute(kind, (key, running) -> running != null && !running.isDone() ? running
+                : CompletableFuture.runAsync(() -> {
+                    try {
+                        build(kind);
+                    } catch (RuntimeException e) {
+                        log.warn("Falha ao montar o filtro de IDs de {}: {}", kind, e.getMessage());
+                    }
+                }, executor));
+    }
+
+    /**
+     * Monta novamente os filtros de todas as coleções, para que os IDs gravados por outras instâncias
+     * fora da janela de {@link #refresh()} (ex.: IDs antigos importados) também sejam incluídos.
+     */
+    @Scheduled(fixedDelayString = "${workshop.idguard.rebuild-ms:600000}",
+            initialDelayString = "${workshop.idguard.rebuild-ms:600000}")
+    public void rebuildAll() {
+        for (Kind kind : Kind.values()) {
+            rebuild(kind);
+        }
+    }
+
+    /**
+     * Inclui nos filtros os IDs gravados desde a última leitura, por qualquer instância.
+     */
+    @Scheduled(fixedDelayString = "${workshop.idguard.refresh-ms:30000}",
+            initialDelayString = "${workshop.idguard.refresh-ms:30000}")
+    public void refresh() {
+        for (Kind kind : Kind.values()) {
+            executor.execute(() -> {
+                try {
+                    refresh(kind);
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao atualizar o filtro de IDs de {}: {}", kind, e.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void build(Kind kind) {
+        long start = System.nanoTime();
+        List<String> collections = new ArrayList<>();
+        collections.add(mongoTemplate.getCollectionName(kind.entityClass));
+        collections.addAll(Arrays.asList(kind.extraCollections));
+        long count = 0;
+        for (String collection : collections) {
+            count += mongoTemplate.getCollection(collection).estimatedDocumentCount();
+        }
+        BloomFilter filter = new BloomFilter(Math.max(MIN_CAPACITY, count * 2), falsePositiveRate);
+        Filters holder = filters.get(kind);
+        long readAt = System.currentTimeMillis();
+        // As gravações concorrentes com a leitura também são incluídas no novo filtro.
+        holder.next = filter;
+        for (String collection : collections) {
+            load(filter, collection, new Document());
+        }
+        holder.coveredUntil = readAt - clockSkewMs;
+        holder.builtAt = readAt;
+        holder.current = filter;
+        holder.next = null;
+        log.info("Filtro de IDs de {} montado: {} IDs, {} bytes, em {} ms", kind, filter.size(),
+                filter.sizeInBytes(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Lê os IDs criados a partir do início da janela coberta pelo filtro, com uma consulta por
+     * intervalo de {@code _id}.
+     */
+    private void refresh(Kind kind) {
+        Filters holder = filters.get(kind);
+        BloomFilter filter = holder.current;
+        if (filter == null) {
+            return;
+        }
+        long readAt = System.currentTimeMillis();
+        Document range = new Document("_id", new Document("$gte", firstId(holder.coveredUntil)));
+        load(filter, mongoTemplate.getCollectionName(kind.entityClass), range);
+        for (String collection : kind.extraCollections) {
+            load(filter, collection, range);
+        }
+        holder.coveredUntil = readAt - clockSkewMs;
+        if (filter.isSaturated()) {
+            rebuild(kind);
+        }
+    }
+
+    private void load(BloomFilter filter, String collection, Document query) {
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection).find(query)
+                .projection(new Document("_id", 1)).batchSize(10_000).iterator()) {
+            while (cursor.hasNext()) {
+                Object id = cursor.next().get("_id");
+                filter.put(id instanceof ObjectId ? ((ObjectId) id).toHexString() : String.valueOf(id));
+            }
+        }
+    }
+
+    /**
+     * @return O menor {@link ObjectId} criado no instante informado.
+     */
+    private static ObjectId firstId(long millis) {
+        return new ObjectId(String.format("%08x", Math.max(0, millis / 1000)) + "0000000000000000");
+    }
+
+    /**
+     * Normaliza o ID para a forma gravada nos filtros e no cache negativo: o {@link ObjectId} em
+     * hexadecimal minúsculo, que é o mesmo documento para o Spring Data em qualquer caixa.
+     */
+    private static String key(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id).toHexString() : id;
+    }
+
+    private boolean isKnownMissing(Kind kind, String id) {
+        Map<String, Long> misses = negative.get(kind);
+        synchronized (misses) {
+            Long expiresAt = misses.get(id);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt < System.currentTimeMillis()) {
+                misses.remove(id);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        for (Kind kind : Kind.values()) {
+            if (kind.entityClass.equals(type)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Filtro em uso e filtro em construção de uma coleção.
+     */
+    private static final class Filters {
+        private volatile BloomFilter current;
+        private volatile BloomFilter next;
+
+        /**
+         * Instante da última montagem completa.
+         */
+        private volatile long builtAt;
+
+        /**
+         * Instante até o qual os IDs criados (pela data do {@link ObjectId}) estão no filtro.
+         */
+        private volatile long coveredUntil;
+    }
+}
@@ -0,0 +1,406 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.dto.HandlerProfileDTO;
+import com.ewertonrodrigues.workshopmongo.dto.ProfileEntryDTO;
+import com.ewertonrodrigues.workshopmongo.dto.ProfileSummaryDTO;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Gravações sob demanda do JDK Flight Recorder, com o resumo das alocações e da contenção de locks
+ * por endpoint.
+ * <p>
+ * Cada gravação usa a configuração "profile" do JDK, com duração limitada a
+ * {@code workshop.profiling.max-duration-seconds} e tamanho limitado a
+ * {@code workshop.profiling.max-size-mb}, e registra as esperas por monitores acima de
+ * {@code workshop.profiling.lock-threshold-ms}. Os eventos com variáveis de ambiente, propriedades do
+ * sistema e argumentos da JVM ({@link #SENSITIVE_EVENTS}) são desabilitados. Apenas uma gravação
+ * existe por vez: a seguinte substitui o arquivo da anterior.
+ * <p>
+ * Com {@code workshop.profiling.enabled}, a gravação também recebe um evento por execução dos
+ * métodos de {@code UserResource} e {@code PostResource} e um por chamada aos repositórios. As
+ * amostras de alocação e as esperas por monitores são atribuídas ao endpoint em execução na mesma
+ * thread no instante do evento; as demais ficam em {@link #UNATTRIBUTED}.
+ */
+@Service
+public class JfrProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrProfiler.class);
+
+    /**
+     * Nome do evento emitido a cada execução de um endpoint.
+     */
+    public static final String HANDLER_EVENT = "workshop.Handler";
+
+    /**
+     * Nome do evento emitido a cada chamada a um repositório.
+     */
+    public static final String REPOSITORY_EVENT = "workshop.RepositoryCall";
+
+    static final String UNATTRIBUTED = "(fora dos endpoints)";
+
+    private static final String ALLOCATION_EVENT = "jdk.ObjectAllocationSample";
+    private static final String MONITOR_EVENT = "jdk.JavaMonitorEnter";
+    private static final int TOP = 10;
+
+    /**
+     * Eventos da configuração "profile" que registram variáveis de ambiente, propriedades do sistema,
+     * argumentos da JVM e linhas de comando dos processos, que podem conter credenciais (ex.: a URI
+     * do MongoDB).
+     */
+    public static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty", "jdk.InitialSecurityProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+
+    /**
+     * Estado da gravação.
+     */
+    enum State {
+        IDLE, RECORDING, STOPPED
+    }
+
+    @Value("${workshop.profiling.max-duration-seconds:300}")
+    private int maxDurationSeconds = 300;
+
+    @Value("${workshop.profiling.max-size-mb:100}")
+    private long maxSizeMb = 100;
+
+    @Value("${workshop.profiling.lock-threshold-ms:10}")
+    private long lockThresholdMs = 10;
+
+    private Recording recording;
+    private Path file;
+    private Date startedAt;
+    private ProfileSummaryDTO summary;
+
+    /**
+     * Inicia uma gravação, encerrada automaticamente depois da duração informada.
+     *
+     * @param durationSeconds A duração máxima da gravação, em segundos.
+     * @return O estado da nova gravação.
+     * @throws BadRequestException Se já houver uma gravação em andamento ou se a duração estiver fora
+     *                             dos limites.
+     */
+    public synchronized ProfileSummaryDTO start(int durationSeconds) {
+        if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+            throw new BadRequestException("A duração da gravação deve estar entre 1 e " + maxDurationSeconds + " segundos");
+        }
+        if (state() == State.RECORDING) {
+            throw new BadRequestException("Já existe uma gravação em andamento");
+        }
+        discard();
+        try {
+            file = Files.createTempFile("workshop-", ".jfr");
+            recording = new Recording(Configuration.getConfiguration("profile"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Falha ao preparar a gravação", e);
+        }
+        recording.setName("workshop");
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        recording.enable(HANDLER_EVENT);
+        recording.enable(REPOSITORY_EVENT);
+        recording.enable(MONITOR_EVENT).withThreshold(Duration.ofMillis(lockThresholdMs)).withStackTrace();
+        recording.setDuration(Duration.ofSeconds(durationSeconds));
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.setToDisk(true);
+        try {
+            recording.setDestination(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        startedAt = new Date();
+        log.info("Gravação do JFR iniciada por até {} s em {}", durationSeconds, file);
+        return summary();
+    }
+
+    /**
+     * Encerra a gravação em andamento (ou a já encerrada pela duração) e resume o seu conteúdo.
+     *
+     * @return O resumo da gravação.
+     * @throws BadRequestException Se nenhuma gravação foi iniciada.
+     */
+    public synchronized ProfileSummaryDTO stop() {
+        if (state() == State.IDLE) {
+            throw new BadRequestException("Nenhuma gravação foi iniciada");
+        }
+        if (state() == State.RECORDING) {
+            recording.stop();
+        }
+        return summary();
+    }
+
+    /**
+     * @return O resumo da última gravação, ou apenas o seu estado enquanto ela está em andamento.
+     */
+    public synchronized ProfileSummaryDTO summary() {
+        State state = state();
+        if (state != State.STOPPED) {
+            ProfileSummaryDTO current = new ProfileSummaryDTO();
+            current.setState(state.name());
+            current.setStartedAt(startedAt);
+            if (startedAt != null) {
+                current.setDurationMillis(System.currentTimeMillis() - startedAt.getTime());
+            }
+            return current;
+        }
+        if (summary == null) {
+            long durationMillis = Duration.between(recording.getStartTime(), recording.getStopTime()).toMillis();
+            recording.close();
+            try {
+                summary = summarize(file, durationMillis);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            summary.setStartedAt(startedAt);
+        }
+        return summary;
+    }
+
+    /**
+     * @return O arquivo {@code .jfr} da última gravação encerrada.
+     * @throws BadRequestException Se nenhuma gravação foi encerrada.
+     */
+    public synchronized Path recording() {
+        if (state() != State.STOPPED) {
+            throw new BadRequestException("Nenhuma gravação encerrada");
+        }
+        return file;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        discard();
+    }
+
+    private State state() {
+        if (recording == null) {
+            return State.IDLE;
+        }
+        RecordingState state = recording.getState();
+        return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING
+                ? State.RECORDING : State.STOPPED;
+    }
+
+    /**
+     * Fecha a gravação anterior e apaga o seu arquivo.
+     */
+    private void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Falha ao apagar a gravação {}: {}", file, e.toString());
+            }
+            file = null;
+        }
+        startedAt = null;
+        summary = null;
+    }
+
+    /**
+     * Resume uma gravação em duas leituras do arquivo: a primeira monta os intervalos dos endpoints
+     * de cada thread e a segunda atribui a eles as amostras de alocação e as esperas por monitores.
+     *
+     * @param path           O arquivo da gravação.
+     * @param durationMillis A duração da gravação.
+     * @return O resumo da gravação.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    static ProfileSummaryDTO summarize(Path path, long durationMillis) throws IOException {
+        Map<String, HandlerProfileDTO> handlers = new HashMap<>();
+        Map<Long, List<Interval>> intervals = new HashMap<>();
+        try (RecordingFile recording = new RecordingFile(path)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (name.equals(HANDLER_EVENT)) {
+                    HandlerProfileDTO handler = handler(handlers, event.getString("handler"));
+                    handler.setRequests(handler.getRequests() + 1);
+                    handler.setTotalMillis(handler.getTotalMillis() + millis(event.getDuration()));
+                    RecordedThread thread = event.getThread();
+                    if (thread != null) {
+                        intervals.computeIfAbsent(thread.getJavaThreadId(), id -> new ArrayList<>())
+                                .add(new Interval(nanos(event.getStartTime()), nanos(event.getEndTime()), handler));
+                    }
+                } else if (name.equals(REPOSITORY_EVENT)) {
+                    String owner = event.getString("handler");
+                    HandlerProfileDTO handler = handler(handlers, owner == null ? UNATTRIBUTED : owner);
+                    handler.setRepositoryCalls(handler.getRepositoryCalls() + 1);
+                    handler.setRepositoryMillis(handler.getRepositoryMillis() + millis(event.getDuration()));
+                }
+            }
+        }
+        for (List<Interval> list : intervals.values()) {
+            list.sort(Comparator.comparingLong(Interval::start));
+        }
+
+        ProfileSummaryDTO summary = new ProfileSummaryDTO();
+        Map<String, ProfileEntryDTO> frames = new HashMap<>();
+        Map<String, ProfileEntryDTO> monitors = new HashMap<>();
+        try (RecordingFile recording = new RecordingFile(path)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (name.equals(ALLOCATION_EVENT)) {
+                    long weight = event.getLong("weight");
+                    summary.setAllocatedBytes(summary.getAllocatedBytes() + weight);
+                    HandlerProfileDTO handler = owner(handlers, intervals, event);
+                    handler.setAllocatedBytes(handler.getAllocatedBytes() + weight);
+                    ProfileEntryDTO frame = entry(frames, topFrame(event.getStackTrace()));
+                    frame.setCount(frame.getCount() + 1);
+                    frame.setAllocatedBytes(frame.getAllocatedBytes() + weight);
+                } else if (name.equals(MONITOR_EVENT)) {
+                    double waited = millis(event.getDuration());
+                    summary.setLockWaits(summary.getLockWaits() + 1);
+                    summary.setLockMillis(summary.getLockMillis() + waited);
+                    HandlerProfileDTO handler = owner(handlers, intervals, event);
+                    handler.setLockWaits(handler.getLockWaits() + 1);
+                    handler.setLockMillis(handler.getLockMillis() + waited);
+                    ProfileEntryDTO monitor = entry(monitors, event.getClass("monitorClass") == null
+                            ? "?" : event.getClass("monitorClass").getName());
+                    monitor.setCount(monitor.getCount() + 1);
+                    monitor.setMillis(monitor.getMillis() + waited);
+                }
+            }
+        }
+
+        summary.setState(State.STOPPED.name());
+        summary.setDurationMillis(durationMillis);
+        summary.setAllocationRate(durationMillis > 0 ? summary.getAllocatedBytes() * 1000.0 / durationMillis : 0);
+        summary.setHandlers(handlers.values().stream()
+                .sorted(Comparator.comparingLong(HandlerProfileDTO::getAllocatedBytes).reversed()
+                        .thenComparing(HandlerProfileDTO::getHandler))
+                .collect(Collectors.toList()));
+        summary.setTopFrames(top(frames, ProfileEntryDTO::getAllocatedBytes));
+        summary.setTopMonitors(top(monitors, ProfileEntryDTO::getMillis));
+        return summary;
+    }
+
+    /**
+     * Encontra o endpoint em execução na thread do evento, no instante em que ele ocorreu.
+     */
+    private static HandlerProfileDTO owner(Map<String, HandlerProfileDTO> handlers, Map<Long, List<Interval>> intervals,
+                                           RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        List<Interval> list = thread == null ? null : intervals.get(thread.getJavaThreadId());
+        if (list != null) {
+            long time = nanos(event.getStartTime());
+            // Último intervalo iniciado até o instante do evento.
+            int low = 0;
+            int high = list.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (list.get(mid).start() <= time) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (high >= 0 && list.get(high).end() >= time) {
+                return list.get(high).handler();
+            }
+        }
+        return handler(handlers, UNATTRIBUTED);
+    }
+
+    private static HandlerProfileDTO handler(Map<String, HandlerProfileDTO> handlers, String name) {
+        return handlers.computeIfAbsent(name, key -> {
+            HandlerProfileDTO handler = new HandlerProfileDTO();
+            handler.setHandler(key);
+            return handler;
+        });
+    }
+
+    private static ProfileEntryDTO entry(Map<String, ProfileEntryDTO> entries, String name) {
+        return entries.computeIfAbsent(name, key -> {
+            ProfileEntryDTO entry = new ProfileEntryDTO();
+            entry.setName(key);
+            return entry;
+        });
+    }
+
+    private static <T extends Comparable<T>> List<ProfileEntryDTO> top(Map<String, ProfileEntryDTO> entries,
+                                                                       Function<ProfileEntryDTO, T> key) {
+        return entries.values().stream()
+                .sorted(Comparator.comparing(key).reversed())
+                .limit(TOP)
+                .collect(Collectors.toList());
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "?";
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    /**
+     * Execução de um endpoint em uma thread, entre os instantes {@code start} e {@code end} (em
+     * nanossegundos).
+     */
+    private static final class Interval {
+
+        private final long start;
+        private final long end;
+        private final HandlerProfileDTO handler;
+
+        Interval(long start, long end, HandlerProfileDTO handler) {
+            this.start = start;
+            this.end = end;
+            this.handler = handler;
+        }
+
+        long start() {
+            return start;
+        }
+
+        long end() {
+            return end;
+        }
+
+        HandlerProfileDTO handler() {
+            return handler;
+        }
+    }
+}
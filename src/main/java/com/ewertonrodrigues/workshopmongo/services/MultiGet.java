@@ -0,0 +1,66 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.dto.MultiGetDTO;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Utilitário das buscas por vários IDs, resolvidas com uma única consulta {@code $in}.
+ */
+final class MultiGet {
+
+    private MultiGet() {
+    }
+
+    /**
+     * Remove IDs repetidos, mantendo a ordem, e valida a quantidade máxima permitida.
+     *
+     * @param ids    Os IDs da requisição.
+     * @param maxIds A quantidade máxima de IDs por requisição.
+     * @return Os IDs distintos, na ordem da requisição.
+     * @throws BadRequestException Se nenhum ID for informado ou se o limite for excedido.
+     */
+    static List<String> distinctIds(List<String> ids, int maxIds) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.isEmpty()) {
+            throw new BadRequestException("Nenhum ID informado");
+        }
+        if (distinct.size() > maxIds) {
+            throw new BadRequestException("Quantidade máxima de IDs por requisição: " + maxIds);
+        }
+        return distinct;
+    }
+
+    /**
+     * Ordena os itens encontrados conforme os IDs da requisição e identifica os IDs ausentes.
+     *
+     * @param ids   Os IDs distintos, na ordem da requisição.
+     * @param found Os itens retornados pelo banco de dados, em qualquer ordem.
+     * @param idOf  A função que obtém o ID de um item.
+     * @param <T>   O tipo dos itens.
+     * @return O resultado na ordem da requisição.
+     */
+    static <T> MultiGetDTO<T> ordered(List<String> ids, Iterable<T> found, Function<T, String> idOf) {
+        Map<String, T> byId = new HashMap<>();
+        for (T item : found) {
+            byId.put(idOf.apply(item), item);
+        }
+        List<T> items = new ArrayList<>(byId.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            T item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new MultiGetDTO<>(items, missing);
+    }
+}
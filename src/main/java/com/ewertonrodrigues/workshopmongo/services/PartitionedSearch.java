@@ -0,0 +1,148 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.config.ContextPropagation;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Execução da busca completa de posts dividida em partições do intervalo de datas.
+ * <p>
+ * Com {@code workshop.search.partitions} maior que 1, o intervalo é dividido em partições de mesma
+ * duração (nunca menores que {@code workshop.search.min-partition-days} dias), consultadas em
+ * paralelo em threads virtuais, no máximo {@code workshop.search.partition-concurrency} ao mesmo
+ * tempo. As partições são iniciadas da mais recente para a mais antiga e os resultados são
+ * concatenados nessa ordem; cada subconsulta ordena os seus posts por data decrescente, então o
+ * resultado final fica em ordem de data. Com um limite informado, as partições ainda não iniciadas
+ * não são consultadas depois que as partições mais recentes somam a quantidade pedida. Cada
+ * subconsulta recebe o contexto da requisição pela {@link ContextPropagation}, para que os seus
+ * comandos sejam atribuídos à requisição.
+ */
+@Component
+public class PartitionedSearch {
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    /**
+     * Subconsulta de uma partição.
+     *
+     * @param <T> O tipo dos resultados.
+     */
+    @FunctionalInterface
+    public interface Partition<T> {
+
+        /**
+         * @param from    O início da partição (inclusivo).
+         * @param to      O fim da partição (inclusivo).
+         * @param limit   A quantidade máxima de resultados, ou 0 para todos.
+         * @param ordered Se os resultados devem ser ordenados por data decrescente (busca
+         *                particionada ou com limite).
+         * @return Os resultados da partição.
+         */
+        List<T> search(Date from, Date to, int limit, boolean ordered);
+    }
+
+    @Value("${workshop.search.partitions:1}")
+    private int partitions = 1;
+
+    @Value("${workshop.search.min-partition-days:30}")
+    private int minPartitionDays = 30;
+
+    @Value("${workshop.search.partition-concurrency:4}")
+    private int concurrency = 4;
+
+    @Value("${workshop.search.max-limit:1000}")
+    private int maxLimit = 1000;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Valida o limite de resultados informado na busca.
+     *
+     * @param limit A quantidade máxima de resultados, ou 0 para todos.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException
+     *         Se o limite for negativo ou maior que {@code workshop.search.max-limit}.
+     */
+    public void checkLimit(int limit) {
+        if (limit < 0 || limit > maxLimit) {
+            throw new BadRequestException("O limite deve estar entre 0 e " + maxLimit);
+        }
+    }
+
+    /**
+     * Calcula a quantidade de partições de um intervalo.
+     *
+     * @param minDate O início do intervalo.
+     * @param maxDate O fim do intervalo.
+     * @return A quantidade de partições (1 quando a busca não deve ser dividida).
+     */
+    public int partitionsFor(Date minDate, Date maxDate) {
+        long span = maxDate.getTime() - minDate.getTime();
+        long bySize = span / (Math.max(1, minPartitionDays) * DAY_MILLIS);
+        return (int) Math.max(1, Math.min(partitions, bySize));
+    }
+
+    /**
+     * Executa a busca no intervalo informado, dividida em partições quando configurado.
+     *
+     * @param minDate   O início do intervalo (inclusivo).
+     * @param maxDate   O fim do intervalo (inclusivo).
+     * @param limit     A quantidade máxima de resultados, ou 0 para todos.
+     * @param partition A subconsulta executada em cada partição.
+     * @return Os resultados, das partições mais recentes para as mais antigas, até o limite.
+     */
+    public <T> List<T> search(Date minDate, Date maxDate, int limit, Partition<T> partition) {
+        int count = partitionsFor(minDate, maxDate);
+        if (count == 1) {
+            return partition.search(minDate, maxDate, limit, limit > 0);
+        }
+        long start = minDate.getTime();
+        long step = (maxDate.getTime() - start) / count;
+        int window = Math.max(1, concurrency);
+        List<Future<List<T>>> running = new ArrayList<>(count);
+        // Da partição mais recente para a mais antiga; as datas são inteiras em milissegundos, e o fim
+        // de cada partição é o milissegundo anterior ao início da partição seguinte. Uma partição só é
+        // iniciada quando há menos de "window" partições em andamento à frente da que está sendo lida.
+        int next = count - 1;
+        List<T> results = new ArrayList<>();
+        try {
+            for (int read = 0; read < count; read++) {
+                while (next >= 0 && running.size() - read < window) {
+                    Date from = new Date(start + next * step);
+                    Date to = next == count - 1 ? maxDate : new Date(start + (next + 1) * step - 1);
+                    running.add(executor.submit(ContextPropagation.wrap(() -> partition.search(from, to, limit, true))));
+                    next--;
+                }
+                results.addAll(running.get(read).get());
+                if (limit > 0 && results.size() >= limit) {
+                    running.forEach(future -> future.cancel(false));
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Busca interrompida", e);
+        } catch (ExecutionException e) {
+            running.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return limit > 0 && results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,160 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.ArchiveReportDTO;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Serviço de arquivamento dos posts antigos.
+ * <p>
+ * Quando habilitado ({@code workshop.archive.enabled}), move periodicamente os posts mais antigos que
+ * {@code workshop.archive.max-age-days} para a coleção "post_archive", em lotes com pausas entre eles
+ * para não disputar o banco com as requisições. A coleção de posts fica limitada aos posts recentes,
+ * que atendem à maior parte das buscas.
+ * <p>
+ * As buscas consultam o arquivo apenas quando o intervalo de datas alcança o post arquivado mais
+ * recente, e a busca por ID consulta o arquivo quando o post não está na coleção principal. Posts
+ * arquivados são somente leitura: não recebem curtidas nem comentários.
+ */
+@Service
+public class PostArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostArchiveService.class);
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    @Autowired
+    private PostRepository repo;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Value("${workshop.archive.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${workshop.archive.max-age-days:90}")
+    private int maxAgeDays = 90;
+
+    @Value("${workshop.archive.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${workshop.archive.batch-pause-ms:200}")
+    private long batchPauseMs = 200;
+
+    /**
+     * Data do post arquivado mais recente, ou {@code null} enquanto o arquivo estiver vazio.
+     */
+    private volatile Date newestArchived;
+
+    private boolean prepared;
+
+    /**
+     * Prepara a coleção de arquivo e lê a data do post arquivado mais recente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            prepare();
+        }
+        newestArchived = repo.newestArchivedDate();
+    }
+
+    /**
+     * Execução periódica do arquivamento, quando habilitado.
+     */
+    @Scheduled(fixedDelayString = "${workshop.archive.interval-ms:3600000}",
+            initialDelayString = "${workshop.archive.initial-delay-ms:60000}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Move para o arquivo, em lotes, todos os posts mais antigos que a idade máxima configurada.
+     *
+     * @return O resultado da execução.
+     */
+    public synchronized ArchiveReportDTO archive() {
+        prepare();
+        long start = System.nanoTime();
+        Date cutoff = new Date(System.currentTimeMillis() - maxAgeDays * DAY_MILLIS);
+        ArchiveReportDTO report = new ArchiveReportDTO();
+        report.setCutoff(cutoff);
+        // Um lote pode excluir menos posts que o lido (os alterados na movimentação ficam para o lote
+        // seguinte); o arquivamento termina no primeiro lote que não exclui nenhum post.
+        int moved;
+        while ((moved = repo.archiveBatch(cutoff, batchSize)) > 0) {
+            report.setMoved(report.getMoved() + moved);
+            report.setBatches(report.getBatches() + 1);
+            newestArchived = repo.newestArchivedDate();
+            if (!pause()) {
+                break;
+            }
+        }
+        if (report.getMoved() > 0) {
+            // As estatísticas por usuário são calculadas apenas sobre os posts da coleção principal.
+            statsService.clear();
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Arquivamento de posts anteriores a {}: {} posts em {} lotes, {} ms", cutoff,
+                report.getMoved(), report.getBatches(), report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * Verifica se uma busca a partir da data informada precisa consultar o arquivo.
+     *
+     * @param minDate A data mínima da busca.
+     * @return Se existe algum post arquivado a partir dessa data.
+     */
+    public boolean reaches(Date minDate) {
+        Date newest = newestArchived;
+        return newest != null && !minDate.after(newest);
+    }
+
+    /**
+     * Busca um post arquivado pelo seu ID, sem consultar o banco enquanto o arquivo estiver vazio.
+     *
+     * @param id O ID do post.
+     * @return O post arquivado, ou vazio se não existir.
+     */
+    public Optional<Post> findById(String id) {
+        if (newestArchived == null) {
+            return Optional.empty();
+        }
+        return repo.findArchivedById(id);
+    }
+
+    private synchronized void prepare() {
+        if (!prepared) {
+            try {
+                repo.prepareArchive();
+            } catch (RuntimeException e) {
+                log.warn("Índices do arquivo de posts não criados: {}", e.getMessage());
+            }
+            prepared = true;
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
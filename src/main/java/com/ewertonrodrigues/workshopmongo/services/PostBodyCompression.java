@@ -0,0 +1,89 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.CompressedText;
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.CompressionStatsDTO;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compressão dos corpos longos de posts, habilitada por {@code workshop.compression.enabled}.
+ * <p>
+ * Antes de cada gravação pelo mapeamento de entidades, o corpo com mais de
+ * {@code workshop.compression.threshold-bytes} bytes em UTF-8 é trocado no documento pelo campo
+ * binário "bodyZ", comprimido com deflate. A leitura descomprime o corpo apenas quando ele é
+ * acessado ({@link Post#getBody()}) ou serializado ({@link CompressedText}), com ou sem a compressão
+ * habilitada. Para que as buscas continuem encontrando o corpo comprimido, as suas palavras
+ * normalizadas são gravadas no campo "bodyWords" ({@link SearchPlanner}); o corpo em texto não tem
+ * esse campo.
+ */
+@Component
+public class PostBodyCompression extends AbstractMongoEventListener<Post> {
+
+    @Value("${workshop.compression.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${workshop.compression.threshold-bytes:2048}")
+    private int thresholdBytes = 2048;
+
+    @Value("${workshop.compression.level:6}")
+    private int level = 6;
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Post> event) {
+        Document doc = event.getDocument();
+        if (doc == null || !(doc.get("body") instanceof String)) {
+            // Sem corpo em texto: um post lido comprimido e não alterado mantém o "bodyZ" original.
+            return;
+        }
+        doc.remove("bodyZ");
+        doc.remove("bodyWords");
+        if (!enabled) {
+            return;
+        }
+        byte[] raw = doc.getString("body").getBytes(StandardCharsets.UTF_8);
+        if (raw.length <= thresholdBytes) {
+            return;
+        }
+        long start = System.nanoTime();
+        byte[] data = CompressedText.deflate(doc.getString("body"), level);
+        compressNanos.add(System.nanoTime() - start);
+        if (data.length >= raw.length) {
+            return;
+        }
+        doc.put("bodyWords", TextNormalizer.words((String) doc.remove("body")));
+        doc.put("bodyZ", new Binary(data));
+        compressed.increment();
+        rawBytes.add(raw.length);
+        storedBytes.add(data.length);
+    }
+
+    /**
+     * @return As estatísticas de compressão e descompressão desde a inicialização.
+     */
+    public CompressionStatsDTO stats() {
+        CompressionStatsDTO stats = new CompressionStatsDTO();
+        stats.setEnabled(enabled);
+        stats.setThresholdBytes(thresholdBytes);
+        stats.setCompressed(compressed.sum());
+        stats.setRawBytes(rawBytes.sum());
+        stats.setStoredBytes(storedBytes.sum());
+        stats.setRatio(stats.getStoredBytes() == 0 ? 0 : (double) stats.getRawBytes() / stats.getStoredBytes());
+        stats.setCompressMillis(compressNanos.sum() / 1_000_000.0);
+        stats.setInflations(CompressedText.inflations());
+        stats.setInflateMillis(CompressedText.inflateNanos() / 1_000_000.0);
+        return stats;
+    }
+}
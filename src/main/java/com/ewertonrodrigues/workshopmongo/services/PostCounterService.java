@@ -0,0 +1,282 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepositoryCustomImpl;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço responsável pelos contadores de visualizações e curtidas dos posts.
+ * <p>
+ * Os incrementos são acumulados em memória em contadores {@link LongAdder} (que já distribuem
+ * a contenção entre células internas) indexados pelo ID do post, e enviados periodicamente ao
+ * MongoDB como um único lote não ordenado de operações {@code $inc}. Assim, uma visualização
+ * não gera uma escrita no banco de dados. Os incrementos de posts arquivados nesse intervalo são
+ * aplicados na coleção de posts arquivados.
+ */
+@Service
+public class PostCounterService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TitleSuggestService suggestService;
+
+    /**
+     * Incrementos pendentes (ainda não persistidos) por ID de post.
+     */
+    private final Map<String, PendingCounters> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Entradas removidas do mapa no último ciclo, conferidas no ciclo seguinte para recolher
+     * incrementos feitos por quem já tinha a referência. Acessado apenas em {@link #flush()}.
+     */
+    private final Map<String, PendingCounters> retired = new HashMap<>();
+
+    /**
+     * Registra uma visualização do post.
+     *
+     * @param id O ID do post visualizado.
+     */
+    public void incrementViews(String id) {
+        countersOf(id).views.increment();
+    }
+
+    /**
+     * Registra uma curtida do post.
+     *
+     * @param id O ID do post curtido.
+     */
+    public void incrementLikes(String id) {
+        countersOf(id).likes.increment();
+    }
+
+    /**
+     * Soma aos contadores persistidos do post os incrementos ainda pendentes em memória, incluindo
+     * os que estão sendo enviados e ainda não foram confirmados pelo banco de dados.
+     *
+     * @param post O post lido do banco de dados.
+     */
+    public void applyPending(Post post) {
+        PendingCounters counters = pending.get(post.getId());
+        if (counters != null) {
+            post.setViews(post.getViews() + counters.views());
+            post.setLikes(post.getLikes() + counters.likes());
+        }
+    }
+
+    /**
+     * Soma os incrementos pendentes aos contadores presentes em um documento projetado.
+     * Contadores ausentes da projeção não são acrescentados.
+     *
+     * @param doc O documento do post, com o ID no campo {@code id}.
+     */
+    public void applyPending(Document doc) {
+        PendingCounters counters = pending.get(String.valueOf(doc.get("id")));
+        if (counters != null) {
+            if (doc.containsKey("views")) {
+                doc.put("views", ((Number) doc.get("views")).longValue() + counters.views());
+            }
+            if (doc.containsKey("likes")) {
+                doc.put("likes", ((Number) doc.get("likes")).longValue() + counters.likes());
+            }
+        }
+    }
+
+    /**
+     * Envia os incrementos pendentes ao MongoDB em um único lote não ordenado de {@code $inc}.
+     * Executado periodicamente e também no encerramento da aplicação.
+     * <p>
+     * As entradas sem incrementos desde o ciclo anterior são removidas do mapa.
+     */
+    @Scheduled(fixedDelayString = "${workshop.counters.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        reclaimRetired();
+        List<String> ids = new ArrayList<>();
+        List<PendingCounters> flushed = new ArrayList<>();
+        List<Update> updates = new ArrayList<>();
+        Map<String, Long> scores = new HashMap<>();
+        BulkOperations bulk = null;
+
+        for (Map.Entry<String, PendingCounters> entry : pending.entrySet()) {
+            PendingCounters counters = entry.getValue();
+            long[] deltas = counters.take();
+            if (deltas[0] == 0 && deltas[1] == 0) {
+                if (pending.remove(entry.getKey(), counters)) {
+                    retired.put(entry.getKey(), counters);
+                }
+                continue;
+            }
+            Update update = new Update();
+            if (deltas[0] != 0) {
+                update.inc("views", deltas[0]);
+            }
+            if (deltas[1] != 0) {
+                update.inc("likes", deltas[1]);
+            }
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+            }
+            bulk.updateOne(new Query(Criteria.where("id").is(entry.getKey())), update);
+            ids.add(entry.getKey());
+            flushed.add(counters);
+            updates.add(update);
+            scores.put(entry.getKey(), deltas[0] + deltas[1]);
+        }
+
+        if (bulk == null) {
+            return;
+        }
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (RuntimeException e) {
+            flushed.forEach(PendingCounters::restore);
+            throw e;
+        }
+        suggestService.countersFlushed(scores);
+        try {
+            if (result.getMatchedCount() < ids.size()) {
+                applyToArchive(ids, flushed, updates);
+            }
+        } finally {
+            flushed.forEach(PendingCounters::acknowledge);
+        }
+    }
+
+    /**
+     * Reaplica na coleção de posts arquivados os incrementos dos posts que não estão mais na
+     * coleção de posts (movidos pelo arquivamento depois de visualizados ou curtidos).
+     */
+    private void applyToArchive(List<String> ids, List<PendingCounters> flushed, List<Update> updates) {
+        Query live = new Query(Criteria.where("id").in(ids));
+        live.fields().include("id");
+        Set<String> found = mongoTemplate.find(live, Post.class).stream()
+                .map(Post::getId).collect(Collectors.toSet());
+        List<PendingCounters> archived = new ArrayList<>();
+        BulkOperations archive = null;
+        for (int i = 0; i < ids.size(); i++) {
+            if (!found.contains(ids.get(i))) {
+                if (archive == null) {
+                    archive = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class,
+                            PostRepositoryCustomImpl.ARCHIVE_COLLECTION);
+                }
+                archive.updateOne(new Query(Criteria.where("id").is(ids.get(i))), updates.get(i));
+                archived.add(flushed.get(i));
+            }
+        }
+        if (archive == null) {
+            return;
+        }
+        try {
+            archive.execute();
+        } catch (RuntimeException e) {
+            archived.forEach(PendingCounters::restore);
+            throw e;
+        }
+    }
+
+    /**
+     * Recolhe os incrementos feitos nas entradas removidas no ciclo anterior por quem já tinha
+     * obtido a entrada antes da remoção, devolvendo-os ao mapa.
+     */
+    private void reclaimRetired() {
+        for (Map.Entry<String, PendingCounters> entry : retired.entrySet()) {
+            long[] late = entry.getValue().take();
+            entry.getValue().acknowledge();
+            if (late[0] != 0 || late[1] != 0) {
+                PendingCounters counters = countersOf(entry.getKey());
+                counters.views.add(late[0]);
+                counters.likes.add(late[1]);
+            }
+        }
+        retired.clear();
+    }
+
+    /**
+     * Garante que os incrementos pendentes sejam persistidos no encerramento gracioso da aplicação.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private PendingCounters countersOf(String id) {
+        return pending.computeIfAbsent(id, k -> new PendingCounters());
+    }
+
+    /**
+     * @return A quantidade de posts com contadores no mapa.
+     */
+    int size() {
+        return pending.size();
+    }
+
+    /**
+     * Par de contadores pendentes de um post, com os incrementos em envio ao banco de dados.
+     * Os campos em envio só são alterados por {@link #flush()}.
+     */
+    private static final class PendingCounters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder likes = new LongAdder();
+        private volatile long inFlightViews;
+        private volatile long inFlightLikes;
+
+        private long views() {
+            return views.sum() + inFlightViews;
+        }
+
+        private long likes() {
+            return likes.sum() + inFlightLikes;
+        }
+
+        /**
+         * Move os incrementos acumulados para o envio, mantendo-os visíveis nas leituras.
+         */
+        private long[] take() {
+            long viewsDelta = views.sum();
+            long likesDelta = likes.sum();
+            inFlightViews = viewsDelta;
+            inFlightLikes = likesDelta;
+            views.add(-viewsDelta);
+            likes.add(-likesDelta);
+            return new long[]{viewsDelta, likesDelta};
+        }
+
+        /**
+         * Descarta os incrementos enviados, depois da confirmação do banco de dados.
+         */
+        private void acknowledge() {
+            inFlightViews = 0;
+            inFlightLikes = 0;
+        }
+
+        /**
+         * Devolve os incrementos de um envio que falhou, para serem reenviados no próximo ciclo.
+         */
+        private void restore() {
+            views.add(inFlightViews);
+            likes.add(inFlightLikes);
+            acknowledge();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mapping.MappingException;
+import org.springframework.data.mapping.PersistentPropertyPath;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Converte o parâmetro {@code fields} das requisições de posts em uma projeção do MongoDB.
+ * <p>
+ * Cada campo é validado contra o mapeamento da entidade {@link Post} (incluindo os campos
+ * aninhados de autor e comentários, como {@code author.name}) e traduzido para o nome gravado no
+ * banco de dados. Assim, os campos não solicitados não são lidos, transferidos nem serializados.
+ * O ID do post é sempre retornado.
+ */
+@Component
+public class PostFieldProjection {
+
+    /**
+     * Campos internos que não podem ser solicitados.
+     */
+    private static final Set<String> INTERNAL = Set.of("titleWords", "compressedBody", "bodyWords");
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    /**
+     * Valida a lista de campos e retorna os nomes correspondentes no banco de dados.
+     *
+     * @param fields Os campos separados por vírgula (ex.: {@code id,title,date,author.name}).
+     * @return Os nomes dos campos no banco de dados.
+     * @throws BadRequestException Se algum campo não existir em {@link Post}.
+     */
+    public Set<String> resolve(String fields) {
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String path = field.trim();
+            if (path.isEmpty()) {
+                continue;
+            }
+            if (INTERNAL.contains(path.split("\\.")[0])) {
+                throw new BadRequestException("Campo inválido: " + path);
+            }
+            try {
+                PersistentPropertyPath<MongoPersistentProperty> propertyPath =
+                        mappingContext.getPersistentPropertyPath(path, Post.class);
+                resolved.add(propertyPath.toDotPath(MongoPersistentProperty::getFieldName));
+            } catch (MappingException | IllegalArgumentException e) {
+                throw new BadRequestException("Campo inválido: " + path);
+            }
+        }
+        if (resolved.isEmpty()) {
+            throw new BadRequestException("Nenhum campo informado");
+        }
+        return resolved;
+    }
+
+    /**
+     * Aplica a projeção dos campos solicitados à consulta. O corpo inclui também o corpo comprimido.
+     *
+     * @param query  A consulta a ser executada.
+     * @param fields Os campos separados por vírgula.
+     * @return A própria consulta, com a projeção aplicada.
+     * @throws BadRequestException Se algum campo não existir em {@link Post}.
+     */
+    public Query apply(Query query, String fields) {
+        for (String field : resolve(fields)) {
+            query.fields().include(field);
+            if ("body".equals(field)) {
+                query.fields().include("bodyZ");
+            }
+        }
+        return query;
+    }
+}
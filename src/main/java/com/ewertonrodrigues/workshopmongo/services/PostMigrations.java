@@ -0,0 +1,115 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Migrações dos posts gravados antes da criação dos campos derivados: palavras normalizadas do
+ * título ({@code titleWords}) e dos corpos comprimidos ({@code bodyWords}) e quantidade de
+ * comentários ({@code commentCount}).
+ * <p>
+ * Cada migração percorre a coleção de posts inteira; por isso, é executada uma única vez, em uma
+ * thread em segundo plano iniciada depois que a aplicação fica pronta (sem atrasar a prontidão), e
+ * registrada com um documento na coleção "migrations". Os posts gravados pela aplicação já têm os
+ * campos; apenas a importação em lote, que grava os documentos diretamente, executa as migrações
+ * novamente ({@link #runAll()}). Com {@code workshop.migrations.enabled=false}, nada é executado na
+ * inicialização.
+ */
+@Component
+public class PostMigrations {
+
+    private static final Logger log = LoggerFactory.getLogger(PostMigrations.class);
+
+    static final String COLLECTION = "migrations";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PostRepository repo;
+
+    @Value("${workshop.migrations.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Inicia as migrações pendentes em segundo plano.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread migrations = new Thread(this::runPending, "post-migrations");
+        migrations.setDaemon(true);
+        migrations.start();
+    }
+
+    /**
+     * Executa as migrações ainda não registradas. Uma migração que falha não é registrada e é
+     * executada novamente na próxima inicialização.
+     */
+    public void runPending() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION);
+        migrations().forEach((name, migration) -> {
+            if (collection.find(Filters.eq("_id", name)).first() == null) {
+                run(collection, name, migration);
+            }
+        });
+    }
+
+    /**
+     * Executa todas as migrações, registradas ou não, depois de uma gravação feita fora do mapeamento
+     * de entidades (ex.: importação em lote).
+     */
+    public void runAll() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION);
+        migrations().forEach((name, migration) -> run(collection, name, migration));
+    }
+
+    private Map<String, LongSupplier> migrations() {
+        Map<String, LongSupplier> migrations = new LinkedHashMap<>();
+        migrations.put("posts.titleWords", repo::backfillTitleWords);
+        migrations.put("posts.bodyWords", repo::backfillBodyWords);
+        migrations.put("posts.commentCount", repo::backfillCommentCount);
+        return migrations;
+    }
+
+    private void run(MongoCollection<Document> collection, String name, LongSupplier migration) {
+        long start = System.nanoTime();
+        long updated;
+        try {
+            updated = migration.getAsLong();
+        } catch (RuntimeException e) {
+            log.warn("Falha na migração '{}': {}", name, e.toString());
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Migração '{}': {} posts atualizados em {} ms", name, updated, elapsedMillis);
+        Document marker = new Document("_id", name).append("appliedAt", new Date()).append("updated", updated);
+        try {
+            collection.insertOne(marker);
+        } catch (MongoWriteException e) {
+            // Já registrada (por outra instância ou por uma execução anterior de runAll).
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+        }
+    }
+}
@@ -1,13 +1,33 @@
 package com.ewertonrodrigues.workshopmongo.services;
 
+import com.ewertonrodrigues.workshopmongo.domain.DomainEvent;
 import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostView;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.dto.MultiGetDTO;
 import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
 import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Serviço responsável por fornecer as operações de negócios para a entidade {@link Post}.
@@ -19,25 +39,218 @@ public class PostService {
     @Autowired
     private PostRepository repo;
 
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private PostCounterService counters;
+
+    @Autowired
+    private SearchPlanner planner;
+
+    @Autowired
+    private PostFieldProjection projection;
+
+    @Autowired
+    private IdLookupGuard idGuard;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private PostSummaryService summaryService;
+
+    @Autowired
+    private PostArchiveService archive;
+
+    @Autowired
+    private PartitionedSearch partitionedSearch;
+
+    @Autowired
+    private DomainEventPublisher events;
+
+    @Autowired
+    private HotIdTracker hotIds;
+
+    @Autowired
+    private RepositoryGuard guard;
+
+    @Value("${workshop.multiget.max-ids:100}")
+    private int maxIds = 100;
+
+    @Value("${workshop.comments.window:100}")
+    private int commentWindow = 100;
+
+    /**
+     * Gerenciador de transações, presente apenas com {@code workshop.mongo.transactions=true}.
+     */
+    @Autowired(required = false)
+    private MongoTransactionManager transactionManager;
+
     /**
-     * Busca um post pelo seu ID.
+     * Busca um post pelo seu ID, consultando os posts arquivados quando ele não está na coleção de posts.
+     * Os contadores de visualizações e curtidas incluem os incrementos ainda não persistidos, exceto
+     * quando o banco está indisponível e o post vem do último resultado bom ({@link RepositoryGuard}).
      *
      * @param id O ID do post a ser buscado.
      * @return O objeto {@link Post} correspondente ao ID informado.
      * @throws ObjectNotFoundException Se o post não for encontrado.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException
+     *         Se o ID não for um ObjectId válido.
      */
     public Post findById(String id) {
-        return repo.findById(id).orElseThrow(() -> new ObjectNotFoundException("Objeto não encontrado"));
+        idGuard.requireCandidate(IdLookupGuard.Kind.POST, id);
+        RepositoryGuard.Result<Optional<Post>> hot = guard.call(RepositoryGuard.Operation.POST_FIND_BY_ID, id,
+                () -> repo.findById(id));
+        Post post = hot.value().or(() -> archive.findById(id)).orElseThrow(() -> notFound(id));
+        if (!hot.isStale()) {
+            counters.applyPending(post);
+        }
+        return post;
+    }
+
+    /**
+     * Busca vários posts pelos seus IDs com uma única consulta {@code $in}.
+     *
+     * @param ids Os IDs dos posts, na ordem desejada.
+     * @return Os posts encontrados, na ordem dos IDs, e os IDs não encontrados.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException
+     *         Se nenhum ID for informado ou se a quantidade máxima de IDs for excedida.
+     */
+    public MultiGetDTO<Post> findByIds(List<String> ids) {
+        List<String> distinct = MultiGet.distinctIds(ids, maxIds);
+        MultiGetDTO<Post> result = MultiGet.ordered(distinct, repo.findAllById(distinct), Post::getId);
+        result.getItems().forEach(counters::applyPending);
+        return result;
     }
 
     /**
-     * Busca posts cujo título contenha o texto informado.
+     * Busca um post pelo seu ID e registra uma visualização.
+     * As visualizações de posts arquivados não são registradas.
+     *
+     * @param id O ID do post visualizado.
+     * @return O objeto {@link Post} com os contadores atualizados.
+     * @throws ObjectNotFoundException Se o post não for encontrado.
+     */
+    public Post view(String id) {
+        idGuard.requireCandidate(IdLookupGuard.Kind.POST, id);
+        RepositoryGuard.Result<Optional<Post>> hot = guard.call(RepositoryGuard.Operation.POST_FIND_BY_ID, id,
+                () -> repo.findById(id));
+        if (hot.value().isEmpty()) {
+            return archive.findById(id).orElseThrow(() -> notFound(id));
+        }
+        Post post = hot.value().get();
+        counters.incrementViews(id);
+        hotIds.hit(IdLookupGuard.Kind.POST, id);
+        if (!hot.isStale()) {
+            counters.applyPending(post);
+        }
+        return post;
+    }
+
+    /**
+     * Registra uma curtida no post informado.
+     *
+     * @param id O ID do post curtido.
+     * @return O objeto {@link Post} com os contadores atualizados.
+     * @throws ObjectNotFoundException Se o post não for encontrado.
+     * @throws BadRequestException     Se o post estiver arquivado.
+     */
+    public Post like(String id) {
+        idGuard.requireCandidate(IdLookupGuard.Kind.POST, id);
+        Post post = repo.findById(id).orElseThrow(() -> notFoundOrArchived(id));
+        counters.incrementLikes(id);
+        counters.applyPending(post);
+        return post;
+    }
+
+    /**
+     * Publica um novo post de um usuário.
+     * <p>
+     * O usuário não é lido nem regravado por inteiro: apenas o seu nome é lido, o post é inserido e a
+     * referência ao post é incluída no usuário com {@code $push}, com custo independente da
+     * quantidade de posts do autor. Com transações habilitadas, a inserção e o {@code $push} são
+     * atômicos; sem elas, o post é excluído se o autor deixar de existir antes do {@code $push}.
+     *
+     * @param userId O ID do autor.
+     * @param obj    O post, com o título e o corpo. A data é definida pelo servidor.
+     * @return O post inserido.
+     * @throws ObjectNotFoundException Se o usuário não for encontrado.
+     * @throws BadRequestException     Se o título estiver vazio.
+     */
+    public Post insert(String userId, Post obj) {
+        idGuard.requireCandidate(IdLookupGuard.Kind.USER, userId);
+        if (obj == null || obj.getTitle() == null || obj.getTitle().isBlank()) {
+            throw new BadRequestException("O título do post é obrigatório");
+        }
+        Post post = transactionManager == null ? insertPost(userId, obj, false)
+                : new TransactionTemplate(transactionManager).execute(status -> insertPost(userId, obj, true));
+        events.publish(DomainEvent.Type.POST_CREATED, post.getId(), userId);
+        return post;
+    }
+
+    private Post insertPost(String userId, Post obj, boolean transactional) {
+        AuthorDTO author = userRepo.findAuthor(userId).orElseThrow(() -> userNotFound(userId));
+        Post post = repo.insert(new Post(null, new Date(), obj.getTitle(), obj.getBody(), author));
+        if (!userRepo.pushPostRef(userId, post.getId())) {
+            if (!transactional) {
+                repo.deleteById(post.getId());
+            }
+            throw userNotFound(userId);
+        }
+        return post;
+    }
+
+    /**
+     * Inclui um comentário em um post com uma única atualização atômica, sem ler nem regravar o post.
+     * O post mantém apenas os comentários mais recentes (janela definida em
+     * {@code workshop.comments.window}) e a quantidade total de comentários.
+     *
+     * @param id      O ID do post comentado.
+     * @param comment O comentário, com o texto e o ID do autor. A data e o nome do autor são definidos
+     *                pelo servidor.
+     * @return O post com o ID, o autor e a quantidade de comentários atualizada.
+     * @throws ObjectNotFoundException Se o post não for encontrado.
+     * @throws BadRequestException     Se o texto estiver vazio, se o autor não tiver um ID válido ou não
+     *                                 existir, ou se o post estiver arquivado.
+     */
+    public Post addComment(String id, CommentDTO comment) {
+        idGuard.requireCandidate(IdLookupGuard.Kind.POST, id);
+        if (comment == null || comment.getText() == null || comment.getText().isBlank()) {
+            throw new BadRequestException("O texto do comentário é obrigatório");
+        }
+        if (comment.getAuthor() == null) {
+            throw new BadRequestException("O autor do comentário é obrigatório");
+        }
+        String authorId = comment.getAuthor().getId();
+        idGuard.checkFormat(authorId);
+        // O nome do autor é lido do usuário, não do corpo da requisição.
+        comment.setAuthor(userRepo.findAuthor(authorId)
+                .orElseThrow(() -> new BadRequestException("Autor do comentário não encontrado")));
+        comment.setDate(new Date());
+        Post post = repo.appendComment(id, comment, commentWindow);
+        if (post == null) {
+            throw notFoundOrArchived(id);
+        }
+        userRepo.incrementCommentsAuthored(authorId);
+        statsService.commentAdded(post.getAuthor() == null ? null : post.getAuthor().getId(),
+                comment.getAuthor().getId());
+        summaryService.commentAdded(id);
+        events.publish(DomainEvent.Type.COMMENT_ADDED, id, comment.getAuthor().getId());
+        return post;
+    }
+
+    /**
+     * Busca posts pelo título, usando a estratégia escolhida pelo {@link SearchPlanner}: por padrão,
+     * o texto é buscado como literal em qualquer posição do título (com o índice de palavras
+     * habilitado, uma única palavra é buscada como prefixo das palavras do título).
      *
      * @param text O texto a ser pesquisado no título dos posts.
-     * @return Uma lista de objetos {@link Post} cujos títulos contêm o texto informado.
+     * @return Uma lista de objetos {@link Post} cujos títulos atendem à busca.
      */
     public List<Post> findByTitle(String text) {
-        return repo.searchTitle(text);
+        return guard.call(RepositoryGuard.Operation.POST_TITLE_SEARCH, text,
+                () -> repo.search(planner.planTitleSearch(text).getQuery())).value();
     }
 
     /**
@@ -46,6 +259,9 @@ public class PostService {
      *   <li>A data do post deve estar dentro do intervalo fornecido (minDate a maxDate).</li>
      *   <li>O texto pesquisado deve estar presente no título, corpo ou nos comentários do post.</li>
      * </ul>
+     * A estratégia (literal com tempo limitado ou, se habilitado, índice de texto) é escolhida pelo
+     * {@link SearchPlanner}. Os posts arquivados são consultados apenas quando o intervalo alcança o
+     * post arquivado mais recente.
      *
      * @param text    O texto a ser pesquisado nos posts.
      * @param minDate A data mínima do post (início do intervalo de busca).
@@ -53,8 +269,228 @@ public class PostService {
      * @return Uma lista de objetos {@link Post} que atendem aos critérios de pesquisa.
      */
     public List<Post> fullSearch(String text, Date minDate, Date maxDate) {
+        return fullSearch(text, minDate, maxDate, 0);
+    }
+
+    /**
+     * Realiza a busca completa de posts com um limite de resultados. Com um limite, ou com a busca
+     * dividida em partições de datas ({@link PartitionedSearch}), os posts mais recentes vêm primeiro.
+     *
+     * @param text    O texto a ser pesquisado nos posts.
+     * @param minDate A data mínima do post.
+     * @param maxDate A data máxima do post.
+     * @param limit   A quantidade máxima de posts, ou 0 para todos.
+     * @return Uma lista de objetos {@link Post} que atendem aos critérios de pesquisa.
+     * @throws BadRequestException Se o limite for inválido.
+     */
+    public List<Post> fullSearch(String text, Date minDate, Date maxDate, int limit) {
+        partitionedSearch.checkLimit(limit);
+        String key = text + '|' + minDate.getTime() + '|' + maxDate.getTime() + '|' + limit;
+        return guard.call(RepositoryGuard.Operation.POST_FULL_SEARCH, key,
+                () -> searchPosts(text, minDate, maxDate, limit)).value();
+    }
+
+    private List<Post> searchPosts(String text, Date minDate, Date maxDate, int limit) {
         // Ajusta a data máxima para incluir o final do dia.
-        maxDate = new Date(maxDate.getTime() + 24 * 60 * 60 * 1000);
-        return repo.fullSearch(text, minDate, maxDate);
+        Date end = new Date(maxDate.getTime() + 24 * 60 * 60 * 1000);
+        List<Post> posts = partitionedSearch.search(minDate, end, limit, (from, to, max, ordered) ->
+                repo.search(planner.newestFirst(planner.planFullSearch(text, from, to).getQuery(), max, ordered)));
+        if (!archive.reaches(minDate) || (limit > 0 && posts.size() >= limit)) {
+            return posts;
+        }
+        Query query = planner.newestFirst(planner.planFullSearch(text, minDate, end).getQuery(), limit, limit > 0);
+        return limited(merged(posts, repo.searchArchive(query), Post::getId), limit);
+    }
+
+    /**
+     * Busca posts pelo título e retorna as visões compactas e imutáveis dos posts ({@link PostView}),
+     * com menos memória por resultado que {@link #findByTitle(String)}.
+     *
+     * @param text O texto a ser pesquisado no título dos posts.
+     * @return As visões dos posts cujos títulos atendem à busca.
+     */
+    public List<PostView> findViewsByTitle(String text) {
+        return repo.searchViews(planner.planTitleSearch(text).getQuery());
+    }
+
+    /**
+     * Realiza a busca completa de posts e retorna as visões compactas e imutáveis dos posts
+     * ({@link PostView}), na mesma ordem de {@link #fullSearch(String, Date, Date, int)} e com menos
+     * memória por resultado.
+     *
+     * @param text    O texto a ser pesquisado nos posts.
+     * @param minDate A data mínima do post.
+     * @param maxDate A data máxima do post.
+     * @param limit   A quantidade máxima de posts, ou 0 para todos.
+     * @return As visões dos posts que atendem aos critérios de pesquisa.
+     * @throws BadRequestException Se o limite for inválido.
+     */
+    public List<PostView> fullSearchViews(String text, Date minDate, Date maxDate, int limit) {
+        partitionedSearch.checkLimit(limit);
+        Date end = new Date(maxDate.getTime() + 24 * 60 * 60 * 1000);
+        List<PostView> views = partitionedSearch.search(minDate, end, limit, (from, to, max, ordered) ->
+                repo.searchViews(planner.newestFirst(planner.planFullSearch(text, from, to).getQuery(), max, ordered)));
+        if (!archive.reaches(minDate) || (limit > 0 && views.size() >= limit)) {
+            return views;
+        }
+        Query query = planner.newestFirst(planner.planFullSearch(text, minDate, end).getQuery(), limit, limit > 0);
+        return limited(merged(views, repo.searchArchiveViews(query), PostView::getId), limit);
+    }
+
+    /**
+     * Busca um post pelo seu ID, lendo apenas os campos solicitados, e registra uma visualização.
+     *
+     * @param id     O ID do post visualizado.
+     * @param fields Os campos desejados, separados por vírgula.
+     * @return O documento do post com os campos solicitados.
+     * @throws ObjectNotFoundException Se o post não for encontrado.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException
+     *         Se algum campo não existir em {@link Post}.
+     */
+    public Document view(String id, String fields) {
+        idGuard.requireCandidate(IdLookupGuard.Kind.POST, id);
+        Query query = projection.apply(new Query(Criteria.where("id").is(id)), fields);
+        List<Document> docs = repo.searchProjected(query);
+        if (docs.isEmpty()) {
+            if (archive.findById(id).isEmpty()) {
+                throw notFound(id);
+            }
+            docs = repo.searchArchiveProjected(query);
+            counters.applyPending(docs.get(0));
+            return docs.get(0);
+        }
+        counters.incrementViews(id);
+        hotIds.hit(IdLookupGuard.Kind.POST, id);
+        counters.applyPending(docs.get(0));
+        return docs.get(0);
+    }
+
+    /**
+     * Busca posts pelo título, lendo apenas os campos solicitados.
+     *
+     * @param text   O texto a ser pesquisado no título dos posts.
+     * @param fields Os campos desejados, separados por vírgula.
+     * @return Os documentos dos posts com os campos solicitados.
+     */
+    public List<Document> findByTitle(String text, String fields) {
+        return findProjected(projection.apply(planner.planTitleSearch(text).getQuery(), fields));
+    }
+
+    /**
+     * Realiza a busca completa de posts, lendo apenas os campos solicitados.
+     *
+     * @param text    O texto a ser pesquisado nos posts.
+     * @param minDate A data mínima do post.
+     * @param maxDate A data máxima do post.
+     * @param fields  Os campos desejados, separados por vírgula.
+     * @return Os documentos dos posts com os campos solicitados.
+     */
+    public List<Document> fullSearch(String text, Date minDate, Date maxDate, String fields) {
+        return fullSearch(text, minDate, maxDate, fields, 0);
+    }
+
+    /**
+     * Realiza a busca completa de posts com um limite de resultados, lendo apenas os campos solicitados.
+     *
+     * @param text    O texto a ser pesquisado nos posts.
+     * @param minDate A data mínima do post.
+     * @param maxDate A data máxima do post.
+     * @param fields  Os campos desejados, separados por vírgula.
+     * @param limit   A quantidade máxima de posts, ou 0 para todos.
+     * @return Os documentos dos posts com os campos solicitados.
+     * @throws BadRequestException Se o limite ou algum campo for inválido.
+     */
+    public List<Document> fullSearch(String text, Date minDate, Date maxDate, String fields, int limit) {
+        partitionedSearch.checkLimit(limit);
+        Date end = new Date(maxDate.getTime() + 24 * 60 * 60 * 1000);
+        List<Document> docs = partitionedSearch.search(minDate, end, limit, (from, to, max, ordered) ->
+                findProjected(projection.apply(
+                        planner.newestFirst(planner.planFullSearch(text, from, to).getQuery(), max, ordered), fields)));
+        if (!archive.reaches(minDate) || (limit > 0 && docs.size() >= limit)) {
+            return docs;
+        }
+        Query query = projection.apply(
+                planner.newestFirst(planner.planFullSearch(text, minDate, end).getQuery(), limit, limit > 0), fields);
+        return limited(merged(docs, repo.searchArchiveProjected(query), doc -> doc.get("id")), limit);
+    }
+
+    /**
+     * Busca vários posts pelos seus IDs, lendo apenas os campos solicitados.
+     * Os posts não encontrados são ignorados.
+     *
+     * @param ids    Os IDs dos posts, na ordem desejada.
+     * @param fields Os campos desejados, separados por vírgula.
+     * @return Os documentos dos posts com os campos solicitados, na ordem dos IDs.
+     */
+    public List<Document> findByIds(List<String> ids, String fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = projection.apply(new Query(Criteria.where("id").in(ids)), fields);
+        Map<Object, Document> byId = new HashMap<>();
+        for (Document doc : findProjected(query)) {
+            byId.put(doc.get("id"), doc);
+        }
+        return ids.stream().map(byId::get).filter(doc -> doc != null).collect(Collectors.toList());
+    }
+
+    /**
+     * Registra o ID não encontrado na guarda de buscas e cria a exceção correspondente.
+     *
+     * @param id O ID não encontrado.
+     * @return A exceção a ser lançada.
+     */
+    private ObjectNotFoundException notFound(String id) {
+        idGuard.recordMiss(IdLookupGuard.Kind.POST, id);
+        return new ObjectNotFoundException("Objeto não encontrado");
+    }
+
+    /**
+     * Registra o ID do autor não encontrado na guarda de buscas e cria a exceção correspondente.
+     *
+     * @param userId O ID não encontrado.
+     * @return A exceção a ser lançada.
+     */
+    private ObjectNotFoundException userNotFound(String userId) {
+        idGuard.recordMiss(IdLookupGuard.Kind.USER, userId);
+        return new ObjectNotFoundException("Usuário não encontrado");
+    }
+
+    /**
+     * Cria a exceção para um post ausente da coleção de posts: os posts arquivados são somente leitura.
+     *
+     * @param id O ID do post.
+     * @return A exceção a ser lançada.
+     */
+    private RuntimeException notFoundOrArchived(String id) {
+        if (archive.findById(id).isPresent()) {
+            return new BadRequestException("O post está arquivado");
+        }
+        return notFound(id);
+    }
+
+    /**
+     * Junta os resultados da coleção de posts e do arquivo, sem repetir os posts que estavam sendo
+     * movidos durante a busca.
+     */
+    private static <T> List<T> merged(List<T> hot, List<T> archived, Function<T, Object> id) {
+        Map<Object, T> byId = new LinkedHashMap<>();
+        for (T item : hot) {
+            byId.put(id.apply(item), item);
+        }
+        for (T item : archived) {
+            byId.putIfAbsent(id.apply(item), item);
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    private static <T> List<T> limited(List<T> items, int limit) {
+        return limit > 0 && items.size() > limit ? new ArrayList<>(items.subList(0, limit)) : items;
+    }
+
+    private List<Document> findProjected(Query query) {
+        List<Document> docs = repo.searchProjected(query);
+        docs.forEach(counters::applyPending);
+        return docs;
     }
 }
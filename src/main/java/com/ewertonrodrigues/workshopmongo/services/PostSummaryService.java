@@ -0,0 +1,183 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostSummary;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.ewertonrodrigues.workshopmongo.repository.PostSummaryRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço do modelo de leitura resumido dos posts, usado pelas listagens com {@code view=summary}.
+ * <p>
+ * Os resumos ficam na coleção "post_summary" e são mantidos de forma síncrona: cada gravação de post
+ * pelo mapeamento de entidades regrava o resumo, cada comentário incrementa a sua quantidade de
+ * comentários e as exclusões de posts excluem os resumos. Gravações feitas fora do mapeamento
+ * (importação em lote) e bases anteriores à coleção são sincronizadas por um {@code $merge}.
+ */
+@Service
+public class PostSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSummaryService.class);
+
+    @Autowired
+    private PostSummaryRepository repo;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private SearchPlanner planner;
+
+    @Autowired
+    private PostArchiveService archive;
+
+    @Autowired
+    private PartitionedSearch partitionedSearch;
+
+    @Value("${workshop.summary.snippet-length:120}")
+    private int snippetLength = 120;
+
+    /**
+     * Regrava o resumo de um post gravado.
+     *
+     * @param post O post gravado.
+     */
+    public void saved(Post post) {
+        repo.save(new PostSummary(post, snippetLength));
+    }
+
+    /**
+     * Incrementa a quantidade de comentários do resumo de um post comentado.
+     *
+     * @param postId O ID do post.
+     */
+    public void commentAdded(String postId) {
+        repo.incrementCommentCount(postId);
+    }
+
+    /**
+     * Exclui os resumos dos posts excluídos. Exclusões por outros campos além do ID não permitem
+     * saber quais posts foram excluídos, e os resumos são recalculados por completo.
+     *
+     * @param filter O filtro da exclusão de posts.
+     */
+    public void deleted(Document filter) {
+        if (filter.keySet().stream().allMatch("_id"::equals)) {
+            repo.deleteMatching(filter);
+        } else {
+            repo.deleteAll();
+            repo.mergeFromPosts(snippetLength);
+        }
+    }
+
+    /**
+     * Recalcula todos os resumos a partir dos posts, usado após gravações feitas fora do mapeamento
+     * de entidades (ex.: importação em lote).
+     */
+    public void refresh() {
+        long start = System.nanoTime();
+        repo.mergeFromPosts(snippetLength);
+        log.info("Resumos de posts recalculados em {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Cria os resumos dos posts gravados antes da existência da coleção de resumos.
+     * Os posts arquivados mantêm os seus resumos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (repo.count() != postRepository.count() + postRepository.countArchived()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Busca resumos de posts pelo título, com o mesmo plano da busca de posts.
+     *
+     * @param text O texto a ser pesquisado no título dos posts.
+     * @return Os resumos dos posts cujos títulos atendem à busca.
+     */
+    public List<PostSummary> findByTitle(String text) {
+        return repo.search(planner.planTitleSearch(text).getQuery());
+    }
+
+    /**
+     * Realiza a busca completa de posts e retorna os resumos dos posts encontrados.
+     * A busca é feita nos posts, lendo apenas os IDs, e os resumos são lidos com uma consulta {@code $in}.
+     * Os posts arquivados são incluídos quando o intervalo de datas alcança o arquivo.
+     *
+     * @param text    O texto a ser pesquisado nos posts.
+     * @param minDate A data mínima do post.
+     * @param maxDate A data máxima do post.
+     * @return Os resumos dos posts encontrados, na ordem da busca.
+     */
+    public List<PostSummary> fullSearch(String text, Date minDate, Date maxDate) {
+        return fullSearch(text, minDate, maxDate, 0);
+    }
+
+    /**
+     * Realiza a busca completa de posts com um limite de resultados e retorna os resumos dos posts
+     * encontrados, na mesma ordem de {@link PostService#fullSearch(String, Date, Date, int)}.
+     *
+     * @param text    O texto a ser pesquisado nos posts.
+     * @param minDate A data mínima do post.
+     * @param maxDate A data máxima do post.
+     * @param limit   A quantidade máxima de posts, ou 0 para todos.
+     * @return Os resumos dos posts encontrados, na ordem da busca.
+     */
+    public List<PostSummary> fullSearch(String text, Date minDate, Date maxDate, int limit) {
+        partitionedSearch.checkLimit(limit);
+        Date end = new Date(maxDate.getTime() + 24 * 60 * 60 * 1000);
+        List<Document> docs = new ArrayList<>(partitionedSearch.search(minDate, end, limit, (from, to, max, ordered) ->
+                postRepository.searchProjected(idsOnly(planner.newestFirst(planner.planFullSearch(text, from, to).getQuery(), max, ordered)))));
+        if (archive.reaches(minDate) && (limit == 0 || docs.size() < limit)) {
+            docs.addAll(postRepository.searchArchiveProjected(
+                    idsOnly(planner.newestFirst(planner.planFullSearch(text, minDate, end).getQuery(), limit, limit > 0))));
+        }
+        List<String> ids = docs.stream()
+                .map(doc -> String.valueOf(doc.get("id")))
+                .distinct()
+                .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+        return findByIds(ids);
+    }
+
+    private static Query idsOnly(Query query) {
+        query.fields().include("id");
+        return query;
+    }
+
+    /**
+     * Busca os resumos de vários posts pelos seus IDs.
+     * Os posts sem resumo são ignorados.
+     *
+     * @param ids Os IDs dos posts, na ordem desejada.
+     * @return Os resumos encontrados, na ordem dos IDs.
+     */
+    public List<PostSummary> findByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, PostSummary> byId = new HashMap<>();
+        for (PostSummary summary : repo.findAllById(ids)) {
+            byId.put(summary.getId(), summary);
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,88 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Ouvinte das gravações de {@link Post} feitas pelo repositório ou pelo {@code MongoTemplate}.
+ * Preenche os campos derivados do título e a quantidade de comentários antes da gravação e mantém
+ * atualizadas as estruturas em memória e os resumos derivados dos posts.
+ */
+@Component
+public class PostWriteListener extends AbstractMongoEventListener<Post> {
+
+    @Autowired
+    private TitleSuggestService suggestService;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private PostSummaryService summaryService;
+
+    /**
+     * Autores dos posts em exclusão na thread, entre os eventos anterior e posterior à exclusão.
+     */
+    private final ThreadLocal<Set<String>> deletingAuthors = new ThreadLocal<>();
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Post> event) {
+        Post post = event.getSource();
+        post.setTitleWords(TextNormalizer.words(post.getTitle()));
+        post.setCommentCount(Math.max(post.getCommentCount(), post.getComments().size()));
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Post> event) {
+        suggestService.index(event.getSource());
+        statsService.postSaved(event.getSource());
+        summaryService.saved(event.getSource());
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Post> event) {
+        // Os eventos trazem apenas o filtro da exclusão: os autores dos posts são lidos antes dela.
+        deletingAuthors.set(statsService.postsDeleting(event.getSource()));
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Post> event) {
+        Set<String> authors = deletingAuthors.get();
+        deletingAuthors.remove();
+        if (authors == null) {
+            statsService.clear();
+        } else {
+            authors.forEach(statsService::evict);
+        }
+        summaryService.deleted(event.getSource());
+        removeSuggestions(event.getSource());
+    }
+
+    /**
+     * Remove do autocompletar os títulos dos posts excluídos. Como nos resumos, exclusões por outros
+     * campos além do ID (ou por um operador diferente de {@code $in}) não permitem saber quais posts
+     * foram excluídos, e o índice é reconstruído a partir do banco.
+     */
+    private void removeSuggestions(Document filter) {
+        Object id = filter.get("_id");
+        if (id == null || !filter.keySet().stream().allMatch("_id"::equals)) {
+            suggestService.rebuild();
+        } else if (!(id instanceof Document operators)) {
+            suggestService.remove(id.toString());
+        } else if (operators.size() == 1 && operators.get("$in") instanceof Collection<?> ids) {
+            ids.forEach(each -> suggestService.remove(each.toString()));
+        } else {
+            suggestService.rebuild();
+        }
+    }
+}
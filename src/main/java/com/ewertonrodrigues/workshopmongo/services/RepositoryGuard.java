@@ -0,0 +1,408 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.config.ContextPropagation;
+import com.ewertonrodrigues.workshopmongo.dto.BreakerStatsDTO;
+import com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException;
+import com.ewertonrodrigues.workshopmongo.services.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Proteção das leituras do banco com um disjuntor ({@link CircuitBreaker}) e um tempo limite por
+ * operação, e com o último resultado bom de cada chave servido quando o banco não responde.
+ * <p>
+ * Com {@code workshop.breaker.enabled=true}, cada leitura protegida é executada em uma thread
+ * virtual e aguardada por até {@code workshop.breaker.find-timeout-ms} (buscas por ID) ou
+ * {@code workshop.breaker.search-timeout-ms} (buscas de posts). O tempo esgotado e as falhas de
+ * acesso ao banco contam como falha; depois de {@code workshop.breaker.failure-threshold} falhas
+ * seguidas, o disjuntor da operação abre e as chamadas são rejeitadas sem acessar o banco por
+ * {@code workshop.breaker.open-ms}. Exceções de negócio (ex.: objeto não encontrado) chegam ao
+ * chamador e não contam como falha.
+ * <p>
+ * Na falha ou com o disjuntor aberto, o último resultado obtido para a mesma chave, se tiver no
+ * máximo {@code workshop.breaker.stale-max-age-ms}, é retornado no lugar do erro, e a resposta HTTP
+ * recebe os cabeçalhos {@code X-Served-Stale: true} e {@code Age}. Sem esse resultado, a falha é
+ * lançada como {@link ServiceUnavailableException} (ou {@link SearchTimeoutException}, quando a
+ * busca excedeu o seu próprio tempo limite). Os últimos resultados são guardados para até
+ * {@code workshop.breaker.stale-cache-size} chaves por operação de busca por ID e, nas buscas de
+ * posts, cujos resultados podem ter milhares de posts, até {@code workshop.breaker.stale-search-max-posts}
+ * posts somados entre todas as chaves da operação (uma busca com mais posts que o limite não é guardada).
+ * Os resultados ficam na ordem da última leitura bem-sucedida: a cada nova leitura, os resultados mais
+ * antigos que {@code workshop.breaker.stale-max-age-ms} são descartados e, acima do limite, as chaves
+ * lidas há mais tempo dão lugar às novas. As exclusões chamam
+ * {@link #forget(Operation, Object)} para que o objeto excluído não seja mais servido.
+ * <p>
+ * A leitura na thread virtual recebe o contexto da requisição pela {@link ContextPropagation}
+ * (medição de tempos e handler dos eventos de profiling).
+ * <p>
+ * O estado e as chamadas de cada disjuntor são publicados no Micrometer
+ * ({@code workshop.breaker.state} e {@code workshop.breaker.calls}) e em {@code GET /admin/breakers}.
+ * Desabilitada (padrão), a leitura é executada diretamente, sem disjuntor nem cache.
+ */
+@Component
+public class RepositoryGuard {
+
+    /**
+     * Leituras protegidas, cada uma com o seu disjuntor e o seu cache de últimos resultados.
+     */
+    public enum Operation {
+        USER_FIND_BY_ID("users.findById", false),
+        POST_FIND_BY_ID("posts.findById", false),
+        POST_TITLE_SEARCH("posts.titleSearch", true),
+        POST_FULL_SEARCH("posts.fullSearch", true);
+
+        private final String metricName;
+        private final boolean search;
+
+        Operation(String metricName, boolean search) {
+            this.metricName = metricName;
+            this.search = search;
+        }
+
+        /**
+         * @return O nome da operação nas métricas.
+         */
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    /**
+     * Resultado de uma leitura protegida.
+     *
+     * @param <T> O tipo do resultado.
+     */
+    public static final class Result<T> {
+
+        private final T value;
+        private final boolean stale;
+
+        private Result(T value, boolean stale) {
+            this.value = value;
+            this.stale = stale;
+        }
+
+        /**
+         * @return O resultado da leitura, ou o último resultado bom quando {@link #isStale()}.
+         */
+        public T value() {
+            return value;
+        }
+
+        /**
+         * @return Se o resultado veio do cache de últimos resultados, e não do banco.
+         */
+        public boolean isStale() {
+            return stale;
+        }
+    }
+
+    /**
+     * Último resultado bom de uma chave e o instante (em nanossegundos) em que foi obtido.
+     */
+    private static final class Entry {
+
+        final Object value;
+        final long loadedAt;
+        final int weight;
+
+        Entry(Object value, long loadedAt, int weight) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Disjuntor, cache e contadores de uma operação.
+     */
+    private static final class Guarded {
+
+        final CircuitBreaker breaker;
+        final Map<Object, Entry> cache = new LinkedHashMap<>();
+        /** Soma dos pesos das entradas do cache: uma por chave, ou a quantidade de posts nas buscas. */
+        long weight;
+        final LongAdder successes = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder staleServed = new LongAdder();
+
+        Guarded(CircuitBreaker breaker) {
+            this.breaker = breaker;
+        }
+    }
+
+    static final String STALE_HEADER = "X-Served-Stale";
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${workshop.breaker.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${workshop.breaker.find-timeout-ms:500}")
+    private long findTimeoutMs = 500;
+
+    @Value("${workshop.breaker.search-timeout-ms:3000}")
+    private long searchTimeoutMs = 3000;
+
+    @Value("${workshop.breaker.failure-threshold:5}")
+    private int failureThreshold = 5;
+
+    @Value("${workshop.breaker.open-ms:5000}")
+    private long openMs = 5000;
+
+    @Value("${workshop.breaker.stale-cache-size:10000}")
+    private int staleCacheSize = 10000;
+
+    @Value("${workshop.breaker.stale-search-max-posts:2000}")
+    private int staleSearchMaxPosts = 2000;
+
+    @Value("${workshop.breaker.stale-max-age-ms:300000}")
+    private long staleMaxAgeMs = 300000;
+
+    private final Map<Operation, Guarded> guarded = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Registra as métricas dos disjuntores, quando há um registro do Micrometer.
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        for (Operation operation : Operation.values()) {
+            Guarded g = guarded(operation);
+            String name = operation.getMetricName();
+            Gauge.builder("workshop.breaker.state", g.breaker, breaker -> breaker.state().ordinal())
+                    .description("Estado do disjuntor: 0 fechado, 1 aberto, 2 meio aberto")
+                    .tag("operation", name).register(meterRegistry);
+            counter("success", name, g.successes);
+            counter("failure", name, g.failures);
+            counter("timeout", name, g.timeouts);
+            counter("rejected", name, g.rejected);
+            counter("stale", name, g.staleServed);
+        }
+    }
+
+    private void counter(String outcome, String operation, LongAdder adder) {
+        FunctionCounter.builder("workshop.breaker.calls", adder, LongAdder::sum)
+                .tag("operation", operation).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Executa uma leitura protegida.
+     *
+     * @param operation A operação.
+     * @param key       A chave do resultado no cache de últimos resultados (ex.: o ID ou os parâmetros da busca).
+     * @param read      A leitura no banco.
+     * @param <T>       O tipo do resultado.
+     * @return O resultado da leitura ou, com o banco indisponível, o último resultado bom da chave.
+     * @throws ServiceUnavailableException Se o banco estiver indisponível e não houver resultado recente para a chave.
+     * @throws SearchTimeoutException      Se a busca exceder o seu tempo limite e não houver resultado recente para a chave.
+     */
+    public <T> Result<T> call(Operation operation, Object key, Supplier<T> read) {
+        if (!enabled) {
+            return new Result<>(read.get(), false);
+        }
+        Guarded g = guarded(operation);
+        if (!g.breaker.tryAcquire()) {
+            g.rejected.increment();
+            return stale(g, key, null);
+        }
+        Future<T> future = executor.submit(ContextPropagation.wrap(read::get));
+        try {
+            T value = future.get(operation.search ? searchTimeoutMs : findTimeoutMs, TimeUnit.MILLISECONDS);
+            g.breaker.onSuccess();
+            g.successes.increment();
+            remember(operation, g, key, value);
+            return new Result<>(value, false);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            g.breaker.onFailure();
+            g.timeouts.increment();
+            return stale(g, key, null);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            // A leitura não terminou: libera a chamada de teste sem fechar o disjuntor.
+            g.breaker.release();
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("A leitura foi interrompida");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (isFailure(cause)) {
+                g.breaker.onFailure();
+                g.failures.increment();
+                return stale(g, key, (RuntimeException) cause);
+            }
+            g.breaker.onSuccess();
+            g.successes.increment();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Descarta o último resultado de uma chave, para que um objeto excluído não seja servido com o
+     * banco indisponível.
+     *
+     * @param operation A operação.
+     * @param key       A chave do resultado.
+     */
+    public void forget(Operation operation, Object key) {
+        Guarded g = guarded(operation);
+        synchronized (g.cache) {
+            evict(g, key);
+        }
+    }
+
+    /**
+     * @return O estado e os contadores de cada disjuntor.
+     */
+    public List<BreakerStatsDTO> stats() {
+        List<BreakerStatsDTO> stats = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            Guarded g = guarded(operation);
+            BreakerStatsDTO dto = new BreakerStatsDTO();
+            dto.setOperation(operation.getMetricName());
+            dto.setEnabled(enabled);
+            dto.setState(g.breaker.state().name());
+            dto.setOpened(g.breaker.opened());
+            dto.setSuccesses(g.successes.sum());
+            dto.setFailures(g.failures.sum());
+            dto.setTimeouts(g.timeouts.sum());
+            dto.setRejected(g.rejected.sum());
+            dto.setStaleServed(g.staleServed.sum());
+            synchronized (g.cache) {
+                dto.setCachedKeys(g.cache.size());
+            }
+            stats.add(dto);
+        }
+        return stats;
+    }
+
+    private Guarded guarded(Operation operation) {
+        return guarded.computeIfAbsent(operation, op ->
+                new Guarded(new CircuitBreaker(failureThreshold, TimeUnit.MILLISECONDS.toNanos(openMs))));
+    }
+
+    /**
+     * Falhas de acesso ao banco, que contam para a abertura do disjuntor.
+     */
+    private static boolean isFailure(Throwable cause) {
+        return cause instanceof TransientDataAccessException
+                || cause instanceof DataAccessResourceFailureException
+                || cause instanceof SearchTimeoutException;
+    }
+
+    private void remember(Operation operation, Guarded g, Object key, Object value) {
+        if (value == null || value instanceof Optional<?> optional && optional.isEmpty()) {
+            return;
+        }
+        long limit = operation.search ? staleSearchMaxPosts : staleCacheSize;
+        int weight = operation.search && value instanceof Collection<?> posts ? Math.max(1, posts.size()) : 1;
+        long now = System.nanoTime();
+        long maxAge = TimeUnit.MILLISECONDS.toNanos(staleMaxAgeMs);
+        synchronized (g.cache) {
+            // Reinserida, a chave vai para o fim; o início guarda as leituras mais antigas.
+            evict(g, key);
+            if (weight > limit) {
+                return;
+            }
+            g.cache.put(key, new Entry(value, now, weight));
+            g.weight += weight;
+            Iterator<Entry> eldest = g.cache.values().iterator();
+            while (eldest.hasNext()) {
+                Entry entry = eldest.next();
+                if (g.weight <= limit && now - entry.loadedAt <= maxAge) {
+                    break;
+                }
+                eldest.remove();
+                g.weight -= entry.weight;
+            }
+        }
+    }
+
+    /**
+     * Remove a chave do cache, descontando o seu peso. Deve ser chamado com o monitor do cache.
+     */
+    private static void evict(Guarded g, Object key) {
+        Entry removed = g.cache.remove(key);
+        if (removed != null) {
+            g.weight -= removed.weight;
+        }
+    }
+
+    /**
+     * Retorna o último resultado bom da chave, marcando a resposta HTTP, ou lança a falha.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Result<T> stale(Guarded g, Object key, RuntimeException cause) {
+        Entry entry;
+        long age;
+        synchronized (g.cache) {
+            entry = g.cache.get(key);
+            age = entry == null ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.loadedAt);
+            if (entry != null && age > staleMaxAgeMs) {
+                evict(g, key);
+            }
+        }
+        if (age > staleMaxAgeMs) {
+            if (cause instanceof SearchTimeoutException) {
+                throw cause;
+            }
+            throw new ServiceUnavailableException("O banco de dados está indisponível no momento; tente novamente mais tarde");
+        }
+        g.staleServed.increment();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet && servlet.getResponse() != null) {
+            HttpServletResponse response = servlet.getResponse();
+            response.setHeader(STALE_HEADER, "true");
+            response.setHeader(HttpHeaders.AGE, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(age)));
+        }
+        return new Result<>((T) entry.value, true);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Plano de execução de uma busca de posts, produzido pelo {@link SearchPlanner}.
+ * Contém a estratégia escolhida e a consulta correspondente.
+ */
+public class SearchPlan {
+
+    /**
+     * Estratégias de busca disponíveis.
+     */
+    public enum Strategy {
+        /** Sem texto pesquisado: apenas os demais filtros (por exemplo, o intervalo de datas) */
+        ALL,
+        /** Prefixo ancorado sobre as palavras normalizadas do título, atendido pelo índice {@code titleWords} */
+        PREFIX,
+        /** Consulta {@code $text} sobre o índice de texto de título, corpo e comentários */
+        TEXT,
+        /** Expressão regular literal, sem índice, limitada por {@code maxTimeMS} */
+        REGEX
+    }
+
+    private final Strategy strategy;
+    private final Query query;
+
+    /**
+     * Construtor que inicializa o plano com a estratégia e a consulta.
+     *
+     * @param strategy A estratégia escolhida.
+     * @param query    A consulta a ser executada.
+     */
+    public SearchPlan(Strategy strategy, Query query) {
+        this.strategy = strategy;
+        this.query = query;
+    }
+
+    /**
+     * @return A estratégia escolhida
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return A consulta a ser executada
+     */
+    public Query getQuery() {
+        return query;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Planejador das buscas de posts.
+ * <p>
+ * O texto informado pelo usuário nunca é repassado ao MongoDB como expressão regular: ele é
+ * normalizado ou escapado como literal. Por padrão, as buscas encontram o texto em qualquer posição
+ * ({@link SearchPlan.Strategy#REGEX}: literal escapado, sem diferenciar maiúsculas e limitado por
+ * {@code maxTimeMS}), de modo que {@code viag} encontra "viagem" e palavras curtas também são buscadas.
+ * <p>
+ * Com {@code workshop.search.word-index=true}, as buscas passam a comparar palavras, resolvidas pelos
+ * índices, e o planejador escolhe a estratégia mais barata que atende a busca:
+ * <ul>
+ *   <li>{@link SearchPlan.Strategy#PREFIX}: busca por título com uma única palavra, resolvida por
+ *       prefixo ancorado no campo indexado {@code titleWords} (encontra apenas o início das palavras);</li>
+ *   <li>{@link SearchPlan.Strategy#TEXT}: busca completa por palavras inteiras com pelo menos
+ *       {@value #MIN_TEXT_WORD} caracteres, resolvida pelo índice de texto de título, corpo e
+ *       comentários (não encontra trechos de palavras);</li>
+ *   <li>{@link SearchPlan.Strategy#REGEX}: demais casos.</li>
+ * </ul>
+ * Os corpos gravados comprimidos ({@link PostBodyCompression}) são buscados pelas suas palavras
+ * normalizadas ({@code bodyWords}): cada palavra do texto deve aparecer em alguma palavra do corpo
+ * (ou, na estratégia {@code TEXT}, ser uma palavra do corpo), sem exigir que estejam lado a lado.
+ */
+@Component
+public class SearchPlanner {
+
+    /**
+     * Tamanho mínimo das palavras para que a busca completa use o índice de texto.
+     */
+    private static final int MIN_TEXT_WORD = 3;
+
+    @Value("${workshop.search.regex-max-time-ms:2000}")
+    private long regexMaxTimeMs = 2000;
+
+    @Value("${workshop.search.word-index:false}")
+    private boolean wordIndex = false;
+
+    /**
+     * Planeja a busca de posts pelo título.
+     *
+     * @param text O texto informado pelo usuário.
+     * @return O plano da busca.
+     */
+    public SearchPlan planTitleSearch(String text) {
+        if (text == null || text.isBlank()) {
+            return new SearchPlan(SearchPlan.Strategy.ALL, new Query());
+        }
+        List<String> words = TextNormalizer.words(text);
+        if (wordIndex && words.size() == 1 && TextNormalizer.normalize(text).equals(words.get(0))) {
+            Criteria prefix = Criteria.where("titleWords").regex("^" + TextNormalizer.escapeRegex(words.get(0)));
+            return new SearchPlan(SearchPlan.Strategy.PREFIX, new Query(prefix));
+        }
+        return regex(text, Criteria.where("title").regex(TextNormalizer.escapeRegex(text), "i"));
+    }
+
+    /**
+     * Planeja a busca completa de posts por texto e intervalo de datas.
+     *
+     * @param text    O texto informado pelo usuário.
+     * @param minDate A data mínima do post.
+     * @param maxDate A data máxima do post.
+     * @return O plano da busca.
+     */
+    public SearchPlan planFullSearch(String text, Date minDate, Date maxDate) {
+        Criteria dateRange = Criteria.where("date").gte(minDate).lte(maxDate);
+        if (text == null || text.isBlank()) {
+            return new SearchPlan(SearchPlan.Strategy.ALL, new Query(dateRange));
+        }
+        List<String> words = TextNormalizer.words(text);
+        if (wordIndex && !words.isEmpty() && isWholeWords(text, words)) {
+            // O $text só pode estar em um $or cujas cláusulas usem índices: "bodyWords" é indexado.
+            Document phrase = TextCriteria.forDefaultLanguage().matchingPhrase(text.trim()).getCriteriaObject();
+            Criteria textOrCompressed = new Criteria().orOperator(
+                    Criteria.where("$text").is(phrase.get("$text")),
+                    Criteria.where("bodyWords").all(words));
+            return new SearchPlan(SearchPlan.Strategy.TEXT, new Query(new Criteria().andOperator(dateRange, textOrCompressed)));
+        }
+        String literal = TextNormalizer.escapeRegex(text);
+        List<Criteria> fields = new ArrayList<>(List.of(
+                Criteria.where("title").regex(literal, "i"),
+                Criteria.where("body").regex(literal, "i"),
+                Criteria.where("comments.text").regex(literal, "i")));
+        if (!words.isEmpty()) {
+            // Um texto só de pontuação não tem palavras para buscar nos corpos comprimidos.
+            fields.add(2, compressedBody(words));
+        }
+        Criteria anyField = new Criteria().orOperator(fields);
+        return regex(text, new Criteria().andOperator(dateRange, anyField));
+    }
+
+    /**
+     * Ordena a consulta pelos posts mais recentes e limita a quantidade de resultados.
+     *
+     * @param query   A consulta planejada.
+     * @param limit   A quantidade máxima de resultados, ou 0 para todos.
+     * @param ordered Se os resultados devem ser ordenados por data decrescente.
+     * @return A própria consulta.
+     */
+    public Query newestFirst(Query query, int limit, boolean ordered) {
+        if (ordered) {
+            query.with(Sort.by(Sort.Direction.DESC, "date"));
+        }
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return query;
+    }
+
+    /**
+     * Verifica se o texto é formado apenas por palavras inteiras (letras e dígitos separados por
+     * espaços) com tamanho suficiente para o índice de texto.
+     */
+    private static boolean isWholeWords(String text, List<String> words) {
+        if (!String.join(" ", words).equals(TextNormalizer.normalize(text))) {
+            return false;
+        }
+        return words.stream().allMatch(word -> word.length() >= MIN_TEXT_WORD);
+    }
+
+    /**
+     * Busca nas palavras do corpo comprimido: cada palavra do texto em alguma palavra do corpo.
+     */
+    private static Criteria compressedBody(List<String> words) {
+        if (words.size() == 1) {
+            return Criteria.where("bodyWords").regex(TextNormalizer.escapeRegex(words.get(0)));
+        }
+        return new Criteria().andOperator(words.stream()
+                .map(word -> Criteria.where("bodyWords").regex(TextNormalizer.escapeRegex(word)))
+                .toArray(Criteria[]::new));
+    }
+
+    private SearchPlan regex(String text, Criteria criteria) {
+        Query query = new Query(criteria).maxTime(Duration.ofMillis(regexMaxTimeMs));
+        return new SearchPlan(SearchPlan.Strategy.REGEX, query);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário de normalização de textos para indexação e busca.
+ * A mesma normalização é aplicada na gravação e na consulta, para que as comparações
+ * ignorem acentos, maiúsculas e espaços repetidos.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Remove acentos, converte para minúsculas e reduz espaços consecutivos a um único espaço.
+     *
+     * @param text O texto original.
+     * @return O texto normalizado (vazio quando o texto é nulo).
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Separa o texto normalizado em palavras distintas, descartando pontuação.
+     *
+     * @param text O texto original.
+     * @return As palavras normalizadas, na ordem em que aparecem.
+     */
+    public static List<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : NON_WORD.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Escapa os metacaracteres de expressão regular, para que o texto seja tratado como literal.
+     *
+     * @param text O texto informado pelo usuário.
+     * @return O texto com os metacaracteres escapados.
+     */
+    public static String escapeRegex(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ("\\^$.|?*+()[]{}/-#".indexOf(c) >= 0) {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,192 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.SuggestStatsDTO;
+import com.ewertonrodrigues.workshopmongo.dto.SuggestionDTO;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de autocompletar dos títulos dos posts.
+ * <p>
+ * Mantém em memória uma {@link TitleTrie} com os títulos normalizados, construída a partir do
+ * {@link PostRepository} quando a aplicação fica pronta e atualizada a cada gravação de post.
+ * As sugestões são ordenadas por data do post ({@code recency}) ou pela soma de visualizações
+ * e curtidas ({@code popularity}), conforme a propriedade {@code workshop.suggest.rank}; no
+ * segundo caso, a pontuação acompanha os contadores gravados em lote.
+ */
+@Service
+public class TitleSuggestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleSuggestService.class);
+
+    @Autowired
+    private PostRepository repo;
+
+    @Value("${workshop.suggest.top-k:10}")
+    private int topK;
+
+    @Value("${workshop.suggest.rank:recency}")
+    private String rank;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private TitleTrie trie;
+
+    /**
+     * Alterações recebidas durante uma reconstrução, reaplicadas no novo índice antes da troca.
+     * Nulo fora de uma reconstrução; protegido por {@link #lock}.
+     */
+    private List<Consumer<TitleTrie>> journal;
+
+    /**
+     * Constrói o índice a partir dos títulos gravados no banco de dados.
+     * <p>
+     * O novo índice é montado sem bloquear as consultas, que seguem usando o índice atual, e
+     * substitui o atual em uma única troca de referência.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TitleTrie built = new TitleTrie(topK);
+        try (Stream<Post> titles = repo.streamTitles()) {
+            titles.forEach(post -> built.put(post.getId(), post.getTitle(), score(post)));
+        } catch (RuntimeException e) {
+            swap(null);
+            throw e;
+        }
+        swap(built);
+        log.info("Índice de autocompletar construído com {} títulos em {} ms",
+                built.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Encerra a reconstrução: reaplica as alterações registradas no novo índice e o torna o índice
+     * atual. Sem um novo índice (falha na leitura), o índice atual é mantido.
+     */
+    private void swap(TitleTrie built) {
+        lock.writeLock().lock();
+        try {
+            if (built != null) {
+                journal.forEach(change -> change.accept(built));
+                trie = built;
+            }
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa ou reindexa o título de um post gravado.
+     *
+     * @param post O post gravado.
+     */
+    public void index(Post post) {
+        long score = score(post);
+        apply(index -> index.put(post.getId(), post.getTitle(), score));
+    }
+
+    /**
+     * Remove o título de um post excluído.
+     *
+     * @param id O ID do post excluído.
+     */
+    public void remove(String id) {
+        apply(index -> index.remove(id));
+    }
+
+    /**
+     * Atualiza a pontuação dos títulos com os incrementos de visualizações e curtidas gravados
+     * pelo {@link PostCounterService}, quando as sugestões são ordenadas por popularidade.
+     *
+     * @param deltas A soma dos incrementos gravados, por ID de post.
+     */
+    public void countersFlushed(Map<String, Long> deltas) {
+        if (!"popularity".equals(rank) || deltas.isEmpty()) {
+            return;
+        }
+        apply(index -> deltas.forEach(index::addScore));
+    }
+
+    /**
+     * Aplica uma alteração ao índice atual e, durante uma reconstrução, também a registra para o novo índice.
+     */
+    private void apply(Consumer<TitleTrie> change) {
+        lock.writeLock().lock();
+        try {
+            if (trie != null) {
+                change.accept(trie);
+            }
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna as melhores sugestões de títulos para um prefixo.
+     *
+     * @param prefix O prefixo digitado pelo usuário.
+     * @param limit  A quantidade máxima de sugestões (limitada pelo tamanho das listas pré-calculadas).
+     * @return A lista de sugestões.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            if (trie == null) {
+                return List.of();
+            }
+            return trie.suggest(prefix, limit).stream()
+                    .map(entry -> new SuggestionDTO(entry.id, entry.title))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return As estatísticas de tamanho e memória do índice
+     */
+    public SuggestStatsDTO stats() {
+        lock.readLock().lock();
+        try {
+            if (trie == null) {
+                return new SuggestStatsDTO(0, 0, 0);
+            }
+            return new SuggestStatsDTO(trie.size(), trie.nodeCount(), trie.estimatedBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long score(Post post) {
+        if ("popularity".equals(rank)) {
+            return post.getViews() + post.getLikes();
+        }
+        return post.getDate() == null ? 0 : post.getDate().getTime();
+    }
+}
@@ -0,0 +1,299 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árvore de prefixos (trie) compacta dos títulos dos posts, normalizados por {@link TextNormalizer}.
+ * <p>
+ * Cada nó guarda seus filhos em vetores ordenados (sem mapas) e mantém pré-calculadas as
+ * {@code k} melhores sugestões da sua subárvore, de modo que uma consulta custa apenas a
+ * descida pelos caracteres do prefixo. Esta classe não é thread-safe; o controle de
+ * concorrência fica a cargo de {@link TitleSuggestService}.
+ */
+final class TitleTrie {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int k;
+    private final Node root = new Node();
+    private final Map<String, Entry> byId = new HashMap<>();
+    private int nodes = 1;
+
+    TitleTrie(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Indexa (ou reindexa) o título de um post.
+     *
+     * @param id    O ID do post.
+     * @param title O título original do post.
+     * @param score A pontuação usada na ordenação das sugestões (maior primeiro).
+     */
+    void put(String id, String title, long score) {
+        String key = TextNormalizer.normalize(title);
+        Entry previous = byId.get(id);
+        if (previous != null) {
+            if (previous.key.equals(key) && previous.score == score && previous.title.equals(title)) {
+                return;
+            }
+            remove(id);
+        }
+        if (key.isEmpty()) {
+            return;
+        }
+        Entry entry = new Entry(id, title, key, score);
+        byId.put(id, entry);
+
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            node.offer(entry, k);
+        }
+        node.terminals = append(node.terminals, entry);
+    }
+
+    /**
+     * Remove o título de um post do índice.
+     *
+     * @param id O ID do post.
+     */
+    void remove(String id) {
+        Entry entry = byId.remove(id);
+        if (entry == null) {
+            return;
+        }
+        Node[] path = new Node[entry.key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < entry.key.length(); i++) {
+            path[i + 1] = path[i].child(entry.key.charAt(i));
+        }
+        Node leaf = path[path.length - 1];
+        leaf.terminals = without(leaf.terminals, entry);
+        // De baixo para cima: poda os nós que ficaram vazios e recalcula as listas das quais a
+        // entrada foi retirada a partir das listas (já atualizadas) dos filhos.
+        for (int i = path.length - 1; i > 0; i--) {
+            Node current = path[i];
+            if (current.terminals.length == 0 && current.children.length == 0) {
+                path[i - 1].removeChild(entry.key.charAt(i - 1));
+            } else if (indexOf(current.top, entry) >= 0) {
+                current.top = mergeTop(current);
+            }
+        }
+    }
+
+    /**
+     * Soma um valor à pontuação de um título indexado, reposicionando-o nas listas de sugestões.
+     *
+     * @param id    O ID do post.
+     * @param delta O valor a somar à pontuação.
+     */
+    void addScore(String id, long delta) {
+        Entry entry = byId.get(id);
+        if (entry != null && delta != 0) {
+            put(id, entry.title, entry.score + delta);
+        }
+    }
+
+    /**
+     * Retorna as melhores sugestões para um prefixo.
+     *
+     * @param prefix O prefixo digitado pelo usuário.
+     * @param limit  A quantidade máxima de sugestões.
+     * @return As sugestões ordenadas pela pontuação, da maior para a menor.
+     */
+    List<Entry> suggest(String prefix, int limit) {
+        String key = TextNormalizer.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+
+    /**
+     * @return A quantidade de títulos indexados
+     */
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * @return A quantidade de nós da árvore
+     */
+    int nodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Estima a memória ocupada pela árvore, considerando cabeçalhos de objetos e vetores de uma
+     * JVM de 64 bits com ponteiros comprimidos, e as entradas com seus títulos em Latin-1.
+     *
+     * @return A estimativa em bytes.
+     */
+    long estimatedBytes() {
+        long bytes = 0;
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            bytes += 32 + arrayBytes(node.keys.length, 2) + arrayBytes(node.children.length, 4)
+                    + arrayBytes(node.top.length, 4) + arrayBytes(node.terminals.length, 4);
+            stack.addAll(Arrays.asList(node.children));
+        }
+        for (Entry entry : byId.values()) {
+            // Objeto da entrada, a chave normalizada e o título (String + byte[]).
+            bytes += 32 + 24 + arrayBytes(entry.key.length(), 1) + 24 + arrayBytes(entry.title.length(), 1);
+        }
+        // Mapa de IDs: nó da tabela e a String do ID.
+        bytes += byId.size() * (32L + 24 + arrayBytes(24, 1));
+        return bytes;
+    }
+
+    /**
+     * Combina os títulos do nó com as listas dos filhos, que já contêm as melhores sugestões de
+     * cada subárvore, sem percorrer a subárvore inteira.
+     */
+    private Entry[] mergeTop(Node node) {
+        List<Entry> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(Entry::compareTo);
+        return candidates.subList(0, Math.min(k, candidates.size())).toArray(NO_ENTRIES);
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        return (16 + (long) length * elementSize + 7) & ~7L;
+    }
+
+    private static int indexOf(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] result = Arrays.copyOf(entries, entries.length + 1);
+        result[entries.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        int index = indexOf(entries, entry);
+        if (index < 0) {
+            return entries;
+        }
+        Entry[] result = new Entry[entries.length - 1];
+        System.arraycopy(entries, 0, result, 0, index);
+        System.arraycopy(entries, index + 1, result, index, entries.length - index - 1);
+        return result;
+    }
+
+    /**
+     * Título indexado de um post.
+     */
+    static final class Entry implements Comparable<Entry> {
+
+        final String id;
+        final String title;
+        final String key;
+        final long score;
+
+        private Entry(String id, String title, String key, long score) {
+            this.id = id;
+            this.title = title;
+            this.key = key;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byScore = Long.compare(other.score, score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : id.compareTo(other.id);
+        }
+    }
+
+    /**
+     * Nó da árvore, com os filhos em vetores paralelos ordenados pelo caractere.
+     */
+    private final class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Entry[] top = NO_ENTRIES;
+        private Entry[] terminals = NO_ENTRIES;
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node node = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = node;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            nodes++;
+            return node;
+        }
+
+        private void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+            nodes--;
+        }
+
+        private void offer(Entry entry, int k) {
+            if (top.length == k && entry.compareTo(top[k - 1]) >= 0) {
+                return;
+            }
+            int insertAt = Arrays.binarySearch(top, entry);
+            insertAt = insertAt >= 0 ? insertAt : -insertAt - 1;
+            Entry[] result = new Entry[Math.min(k, top.length + 1)];
+            System.arraycopy(top, 0, result, 0, insertAt);
+            result[insertAt] = entry;
+            System.arraycopy(top, insertAt, result, insertAt + 1, result.length - insertAt - 1);
+            top = result;
+        }
+    }
+}
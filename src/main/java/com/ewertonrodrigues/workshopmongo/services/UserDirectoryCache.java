@@ -0,0 +1,238 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.dto.DirectoryCacheStatsDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserDTO;
+import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache da resposta já codificada da listagem de usuários ({@code GET /users}).
+ * <p>
+ * O JSON da listagem e a sua versão comprimida em gzip são mantidos fora do heap, em
+ * {@link ByteBuffer}s diretos, e escritos diretamente na resposta, sem ler os usuários, montar
+ * os {@link UserDTO}s nem executar o Jackson a cada requisição.
+ * <p>
+ * Cada gravação de usuário invalida o cache e agenda sua reconstrução em segundo plano. Até que a
+ * reconstrução termine, as requisições seguem o caminho normal, de modo que uma gravação é sempre
+ * visível na leitura seguinte. Uma reconstrução iniciada antes de uma gravação é descartada.
+ */
+@Component
+public class UserDirectoryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectoryCache.class);
+
+    @Autowired
+    private UserRepository repo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Versão dos dados de usuários, incrementada a cada invalidação.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Indica se já existe uma reconstrução agendada.
+     */
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-directory-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Monta o cache inicial após a carga dos dados na inicialização.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduleRebuild();
+    }
+
+    /**
+     * Descarta o conteúdo atual e agenda a reconstrução em segundo plano.
+     * Deve ser chamado após qualquer gravação na coleção de usuários.
+     */
+    public synchronized void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+        scheduleRebuild();
+    }
+
+    /**
+     * Escreve a listagem de usuários a partir do cache, quando disponível e compatível com a
+     * requisição. A versão gzip é usada quando o cliente a aceita.
+     *
+     * @param request  A requisição.
+     * @param response A resposta, na qual os bytes são escritos.
+     * @return {@code true} se a resposta foi escrita; {@code false} se a requisição deve seguir o caminho normal.
+     * @throws IOException Se ocorrer um erro na escrita da resposta.
+     */
+    public boolean write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Snapshot current = snapshot;
+        if (current == null || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ByteBuffer body = (gzip ? current.gzip : current.json).duplicate();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.remaining());
+
+        ServletOutputStream out = response.getOutputStream();
+        if (out instanceof CoyoteOutputStream coyote) {
+            // O Tomcat copia o buffer direto para o buffer do socket, sem passar por um byte[] no heap.
+            coyote.write(body);
+        } else {
+            Channels.newChannel(out).write(body);
+        }
+        out.flush();
+        return true;
+    }
+
+    /**
+     * Retorna as estatísticas do cache.
+     *
+     * @return As estatísticas de acertos, faltas, reconstruções e tamanho do conteúdo.
+     */
+    public DirectoryCacheStatsDTO stats() {
+        Snapshot current = snapshot;
+        DirectoryCacheStatsDTO stats = new DirectoryCacheStatsDTO();
+        stats.setReady(current != null);
+        stats.setHits(hits.sum());
+        stats.setMisses(misses.sum());
+        stats.setRebuilds(rebuilds.sum());
+        if (current != null) {
+            stats.setUsers(current.users);
+            stats.setJsonBytes(current.json.capacity());
+            stats.setGzipBytes(current.gzip.capacity());
+            stats.setBuildMillis(current.buildMillis);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Lê os usuários e codifica a listagem. Se uma gravação ocorrer durante a leitura, o resultado
+     * é descartado e uma nova reconstrução é agendada.
+     */
+    private void rebuild() {
+        rebuildScheduled.set(false);
+        long expected = version.get();
+        try {
+            long start = System.nanoTime();
+            List<UserDTO> users = repo.findAllWithoutPosts().stream().map(UserDTO::new).collect(Collectors.toList());
+            byte[] json = objectMapper.writeValueAsBytes(users);
+            Snapshot built = new Snapshot(users.size(), toDirect(json), toDirect(gzip(json)),
+                    (System.nanoTime() - start) / 1_000_000);
+            synchronized (this) {
+                if (version.get() == expected) {
+                    snapshot = built;
+                    rebuilds.increment();
+                }
+            }
+        } catch (RuntimeException | IOException e) {
+            log.warn("Falha ao reconstruir o cache de usuários: {}", e.getMessage());
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static ByteBuffer toDirect(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static boolean acceptsJson(String accept) {
+        return accept == null || accept.isBlank() || accept.contains("*/*")
+                || accept.contains("application/*") || accept.contains(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Conteúdo codificado da listagem de usuários em um dado momento.
+     */
+    private static final class Snapshot {
+        private final int users;
+        private final ByteBuffer json;
+        private final ByteBuffer gzip;
+        private final long buildMillis;
+
+        private Snapshot(int users, ByteBuffer json, ByteBuffer gzip, long buildMillis) {
+            this.users = users;
+            this.json = json;
+            this.gzip = gzip;
+            this.buildMillis = buildMillis;
+        }
+    }
+}
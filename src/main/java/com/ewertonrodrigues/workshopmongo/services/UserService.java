@@ -1,14 +1,19 @@
 package com.ewertonrodrigues.workshopmongo.services;
 
+import com.ewertonrodrigues.workshopmongo.domain.DomainEvent;
 import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.MultiGetDTO;
 import com.ewertonrodrigues.workshopmongo.dto.UserDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserProfileDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserStatsDTO;
 import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
 import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Serviço responsável pelas operações de negócios para a entidade {@link User}.
@@ -20,6 +25,30 @@ public class UserService {
     @Autowired
     private UserRepository repo;
 
+    @Autowired
+    private UserDirectoryCache directoryCache;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private IdLookupGuard idGuard;
+
+    @Autowired
+    private DomainEventPublisher events;
+
+    @Autowired
+    private HotIdTracker hotIds;
+
+    @Autowired
+    private RepositoryGuard guard;
+
+    @Value("${workshop.multiget.max-ids:100}")
+    private int maxIds = 100;
+
+    @Value("${workshop.profile.max-post-limit:50}")
+    private int maxPostLimit = 50;
+
     /**
      * Busca todos os usuários cadastrados no banco de dados.
      *
@@ -35,9 +64,79 @@ public class UserService {
      * @param id O ID do usuário a ser buscado.
      * @return O objeto {@link User} correspondente ao ID informado.
      * @throws ObjectNotFoundException Se o usuário não for encontrado.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException
+     *         Se o ID não for um ObjectId válido.
      */
     public User findById(String id) {
-        return repo.findById(id).orElseThrow(() -> new ObjectNotFoundException("Objeto não encontrado"));
+        idGuard.requireCandidate(IdLookupGuard.Kind.USER, id);
+        User user = guard.call(RepositoryGuard.Operation.USER_FIND_BY_ID, id, () -> repo.findById(id)).value()
+                .orElseThrow(() -> notFound(id, "Objeto não encontrado"));
+        hotIds.hit(IdLookupGuard.Kind.USER, id);
+        return user;
+    }
+
+    /**
+     * Busca vários usuários pelos seus IDs com uma única consulta {@code $in}.
+     *
+     * @param ids Os IDs dos usuários, na ordem desejada.
+     * @return Os usuários encontrados, na ordem dos IDs, e os IDs não encontrados.
+     * @throws com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException
+     *         Se nenhum ID for informado ou se a quantidade máxima de IDs for excedida.
+     */
+    public MultiGetDTO<User> findByIds(List<String> ids) {
+        List<String> distinct = MultiGet.distinctIds(ids, maxIds);
+        return MultiGet.ordered(distinct, repo.findAllById(distinct), User::getId);
+    }
+
+    /**
+     * Busca os IDs dos posts de um usuário sem carregar as referências aos posts.
+     *
+     * @param id O ID do usuário.
+     * @return Os IDs dos posts do usuário.
+     * @throws ObjectNotFoundException Se o usuário não for encontrado.
+     */
+    public List<String> findPostIds(String id) {
+        idGuard.requireCandidate(IdLookupGuard.Kind.USER, id);
+        return repo.findPostIds(id).orElseThrow(() -> notFound(id, "Objeto não encontrado"));
+    }
+
+    /**
+     * Busca o perfil de um usuário com os dados solicitados em {@code include}, lidos em uma única
+     * agregação, sem carregar as referências aos posts.
+     *
+     * @param id        O ID do usuário.
+     * @param include   Os dados incluídos: {@code posts} (resumos dos posts mais recentes e total de
+     *                  posts) e {@code commentCounts} (total de comentários recebidos).
+     * @param postLimit A quantidade máxima de posts incluídos.
+     * @return O perfil do usuário.
+     * @throws ObjectNotFoundException Se o usuário não for encontrado.
+     * @throws BadRequestException     Se algum item de {@code include} ou o limite de posts for inválido.
+     */
+    public UserProfileDTO findProfile(String id, List<String> include, int postLimit) {
+        for (String item : include) {
+            if (!item.equals("posts") && !item.equals("commentCounts")) {
+                throw new BadRequestException("Inclusão inválida: " + item + " (use posts ou commentCounts)");
+            }
+        }
+        if (postLimit < 1 || postLimit > maxPostLimit) {
+            throw new BadRequestException("O limite de posts deve estar entre 1 e " + maxPostLimit);
+        }
+        idGuard.requireCandidate(IdLookupGuard.Kind.USER, id);
+        UserProfileDTO profile = repo.findProfile(id, include.contains("posts"), include.contains("commentCounts"), postLimit)
+                .orElseThrow(() -> notFound(id, "Objeto não encontrado"));
+        hotIds.hit(IdLookupGuard.Kind.USER, id);
+        return profile;
+    }
+
+    /**
+     * Retorna as estatísticas de publicação de um usuário.
+     *
+     * @param id O ID do usuário.
+     * @return As estatísticas do usuário.
+     * @throws ObjectNotFoundException Se o usuário não for encontrado.
+     */
+    public UserStatsDTO findStats(String id) {
+        return statsService.stats(id);
     }
 
     /**
@@ -47,7 +146,10 @@ public class UserService {
      * @return O objeto {@link User} inserido no banco de dados.
      */
     public User insert(User obj) {
-        return repo.insert(obj);
+        User inserted = repo.insert(obj);
+        directoryCache.invalidate();
+        events.publish(DomainEvent.Type.USER_CREATED, inserted.getId(), inserted.getId());
+        return inserted;
     }
 
     /**
@@ -57,33 +159,49 @@ public class UserService {
      * @throws ObjectNotFoundException Se o usuário não for encontrado.
      */
     public void delete(String id) {
-        findById(id); // Verifica se o usuário existe antes de deletar.
+        idGuard.requireCandidate(IdLookupGuard.Kind.USER, id);
+        if (!repo.existsById(id)) {
+            throw notFound(id, "Objeto não encontrado");
+        }
         repo.deleteById(id);
+        repo.deleteCommentCounters(id);
+        guard.forget(RepositoryGuard.Operation.USER_FIND_BY_ID, id);
+        directoryCache.invalidate();
+        statsService.evict(id);
+        events.publish(DomainEvent.Type.USER_DELETED, id, null);
     }
 
     /**
      * Atualiza os dados de um usuário no banco de dados.
+     * <p>
+     * Apenas o nome e o email são gravados, com {@code $set}: o usuário não é lido e a lista de
+     * referências aos posts não é regravada, o que também evita sobrescrever uma referência incluída
+     * por uma publicação concorrente.
      *
      * @param obj O objeto {@link User} com as novas informações.
-     * @return O objeto {@link User} atualizado.
+     * @return O objeto {@link User} com o ID, o nome e o email atualizados.
      * @throws ObjectNotFoundException Se o usuário não for encontrado.
      */
     public User update(User obj) {
-        Optional<User> optionalUser = repo.findById(obj.getId());
-        User newObj = optionalUser.orElseThrow(() -> new ObjectNotFoundException("Usuário não encontrado"));
-        updateData(newObj, obj); // Atualiza os dados do usuário
-        return repo.save(newObj);
+        idGuard.requireCandidate(IdLookupGuard.Kind.USER, obj.getId());
+        if (!repo.updateNameAndEmail(obj.getId(), obj.getName(), obj.getEmail())) {
+            throw notFound(obj.getId(), "Usuário não encontrado");
+        }
+        directoryCache.invalidate();
+        events.publish(DomainEvent.Type.USER_UPDATED, obj.getId(), obj.getId());
+        return obj;
     }
 
     /**
-     * Atualiza os dados de um usuário com as informações de outro usuário.
+     * Registra o ID não encontrado na guarda de buscas e cria a exceção correspondente.
      *
-     * @param newObj O usuário a ser atualizado.
-     * @param obj    O usuário com os novos dados.
+     * @param id  O ID não encontrado.
+     * @param msg A mensagem da exceção.
+     * @return A exceção a ser lançada.
      */
-    private void updateData(User newObj, User obj) {
-        newObj.setName(obj.getName());
-        newObj.setEmail(obj.getEmail());
+    private ObjectNotFoundException notFound(String id, String msg) {
+        idGuard.recordMiss(IdLookupGuard.Kind.USER, id);
+        return new ObjectNotFoundException(msg);
     }
 
     /**
@@ -0,0 +1,214 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserStatsDTO;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Serviço das estatísticas de publicação por usuário.
+ * <p>
+ * As estatísticas são calculadas com um único pipeline de agregação sobre os posts, e a quantidade de
+ * comentários escritos é lida de um contador por usuário, incrementado a cada comentário. Os valores
+ * ficam em um cache LRU limitado a {@code workshop.stats.cache-size} usuários. As gravações
+ * descartam apenas as entradas dos usuários envolvidos, que são recalculadas na próxima leitura, e
+ * incrementam a versão desses usuários: um cálculo concorrente com uma gravação do mesmo usuário
+ * não é armazenado.
+ */
+@Service
+public class UserStatsService {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdLookupGuard idGuard;
+
+    @Value("${workshop.stats.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    /**
+     * Estatísticas em cache, em ordem de acesso (LRU); protegido por sincronização no próprio mapa.
+     */
+    private final Map<String, UserStatsDTO> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Versões das estatísticas por usuário, incrementadas a cada gravação. Os usuários são
+     * distribuídos em faixas pelo hash do ID, para que a memória não cresça com a quantidade de
+     * usuários; uma colisão apenas deixa de armazenar um cálculo.
+     */
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    /**
+     * Retorna as estatísticas de publicação de um usuário.
+     *
+     * @param userId O ID do usuário.
+     * @return As estatísticas do usuário.
+     * @throws ObjectNotFoundException Se o usuário não for encontrado.
+     */
+    public UserStatsDTO stats(String userId) {
+        idGuard.requireCandidate(IdLookupGuard.Kind.USER, userId);
+        synchronized (cache) {
+            UserStatsDTO cached = cache.get(userId);
+            if (cached != null) {
+                return copy(cached);
+            }
+        }
+        long version = versions.get(stripe(userId));
+        if (!userRepository.existsById(userId)) {
+            idGuard.recordMiss(IdLookupGuard.Kind.USER, userId);
+            throw new ObjectNotFoundException("Objeto não encontrado");
+        }
+        UserStatsDTO stats = postRepository.authorStats(userId);
+        stats.setCommentsAuthored(userRepository.findCommentsAuthored(userId));
+        synchronized (cache) {
+            // As gravações incrementam a versão antes de alterar o cache, também sob o bloqueio.
+            if (versions.get(stripe(userId)) == version) {
+                cache.putIfAbsent(userId, stats);
+                if (cache.size() > cacheSize) {
+                    cache.remove(cache.keySet().iterator().next());
+                }
+            }
+        }
+        return copy(stats);
+    }
+
+    /**
+     * Descarta as estatísticas do autor e dos autores dos comentários de um post gravado.
+     *
+     * @param post O post gravado.
+     */
+    public void postSaved(Post post) {
+        if (post.getAuthor() != null) {
+            evict(post.getAuthor().getId());
+        }
+        for (CommentDTO comment : post.getComments()) {
+            if (comment.getAuthor() != null) {
+                evict(comment.getAuthor().getId());
+            }
+        }
+    }
+
+    /**
+     * Atualiza as estatísticas em cache com um comentário incluído, sem recalculá-las: o autor do
+     * post recebe um comentário e o autor do comentário escreve um.
+     *
+     * @param postAuthorId O ID do autor do post comentado.
+     * @param commenterId  O ID do autor do comentário.
+     */
+    public void commentAdded(String postAuthorId, String commenterId) {
+        if (postAuthorId != null) {
+            update(postAuthorId, stats -> stats.setCommentsReceived(stats.getCommentsReceived() + 1));
+        }
+        if (commenterId != null) {
+            update(commenterId, stats -> stats.setCommentsAuthored(stats.getCommentsAuthored() + 1));
+        }
+    }
+
+    /**
+     * Descarta as estatísticas dos autores dos posts que serão excluídos por um filtro.
+     *
+     * @param filter O filtro da exclusão, já mapeado para os campos do documento.
+     * @return Os IDs dos autores, a descartar novamente após a exclusão com {@link #evict(String)},
+     * ou {@code null} se o filtro alcança todos os posts.
+     */
+    public Set<String> postsDeleting(Document filter) {
+        if (filter.isEmpty()) {
+            clear();
+            return null;
+        }
+        Set<String> authors = postRepository.findAuthorIds(filter);
+        authors.forEach(this::evict);
+        return authors;
+    }
+
+    /**
+     * Cria os contadores de comentários escritos a partir dos comentários guardados nos posts, se
+     * ainda não existirem (primeira execução sobre uma base existente).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initCounters() {
+        if (!userRepository.hasCommentCounters()) {
+            reconcileCounters();
+        }
+    }
+
+    /**
+     * Eleva os contadores de comentários escritos aos comentários guardados nos posts, depois de
+     * gravações que não passam pela inclusão de comentários (carga inicial e importação), e descarta
+     * as estatísticas em cache.
+     */
+    public void reconcileCounters() {
+        userRepository.raiseCommentsAuthored(postRepository.countCommentsByAuthor());
+        clear();
+    }
+
+    /**
+     * Descarta as estatísticas em cache de um usuário.
+     *
+     * @param userId O ID do usuário.
+     */
+    public void evict(String userId) {
+        if (userId != null) {
+            versions.incrementAndGet(stripe(userId));
+            synchronized (cache) {
+                cache.remove(userId);
+            }
+        }
+    }
+
+    /**
+     * Descarta todas as estatísticas em cache, usado quando os usuários afetados por uma gravação
+     * não são conhecidos (ex.: carga inicial e importação).
+     */
+    public void clear() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Atualiza as estatísticas em cache de um usuário, se existirem, e incrementa a sua versão.
+     */
+    private void update(String userId, Consumer<UserStatsDTO> change) {
+        versions.incrementAndGet(stripe(userId));
+        synchronized (cache) {
+            UserStatsDTO stats = cache.get(userId);
+            if (stats != null) {
+                UserStatsDTO updated = copy(stats);
+                change.accept(updated);
+                cache.put(userId, updated);
+            }
+        }
+    }
+
+    private static int stripe(String userId) {
+        return userId.hashCode() & (VERSION_STRIPES - 1);
+    }
+
+    private static UserStatsDTO copy(UserStatsDTO stats) {
+        return new UserStatsDTO(stats);
+    }
+}
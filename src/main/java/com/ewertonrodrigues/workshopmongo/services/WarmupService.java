@@ -0,0 +1,359 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.WarmupReportDTO;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aquecimento da aplicação antes de ela ser declarada pronta para receber tráfego.
+ * <p>
+ * Logo após a inicialização, uma thread em segundo plano:
+ * <ol>
+ *   <li>aguarda as tarefas da inicialização registradas em {@link #waitFor(Future)} (ex.: a carga dos
+ *       dados em segundo plano), sem limite de tempo;</li>
+ *   <li>abre em paralelo {@code workshop.warmup.pool-connections} conexões com o MongoDB;</li>
+ *   <li>aguarda a montagem dos filtros de IDs e do cache da listagem de usuários;</li>
+ *   <li>pré-carrega os usuários e posts mais acessados pela instância anterior ({@link HotIdTracker}),
+ *       ou uma amostra dos usuários e dos posts mais recentes na falta desse registro, incluindo as
+ *       estatísticas dos usuários;</li>
+ *   <li>executa {@code workshop.warmup.requests} requisições de leitura aos principais endpoints pela
+ *       própria porta HTTP da aplicação, para que o JIT compile os caminhos de controlador, serviço,
+ *       repositório e serialização. Nenhum endpoint que registra visualizações ou grava dados é
+ *       chamado, e as requisições levam o cabeçalho {@value HotIdTracker#UNTRACKED_HEADER} para não
+ *       serem contadas entre os acessos do {@link HotIdTracker}.</li>
+ * </ol>
+ * O indicador de saúde "warmup", incluído no grupo {@code readiness}, fica fora de serviço até o fim
+ * das tarefas registradas e do aquecimento, este limitado a {@code workshop.warmup.max-ms}. Com o
+ * aquecimento desabilitado, apenas as tarefas registradas são aguardadas. Falhas nas tarefas ou no
+ * aquecimento são registradas e não impedem que a aplicação fique pronta.
+ */
+@Service
+public class WarmupService {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+
+    private static final int ID_CHUNK = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private HotIdTracker hotIds;
+
+    @Autowired
+    private IdLookupGuard idGuard;
+
+    @Autowired
+    private UserDirectoryCache directoryCache;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private PostRepository postRepo;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${workshop.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${workshop.warmup.hot-ids:200}")
+    private int sampleSize = 200;
+
+    @Value("${workshop.warmup.pool-connections:8}")
+    private int poolConnections = 8;
+
+    @Value("${workshop.warmup.requests:500}")
+    private int requests = 500;
+
+    @Value("${workshop.warmup.max-ms:30000}")
+    private long maxMs = 30000;
+
+    private volatile boolean done;
+
+    private volatile WarmupReportDTO report = new WarmupReportDTO();
+
+    private final List<Future<?>> prerequisites = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registra uma tarefa da inicialização que deve terminar antes do aquecimento e da prontidão.
+     * Deve ser chamado antes do fim da inicialização (ex.: em um {@code CommandLineRunner}).
+     *
+     * @param task A tarefa em andamento.
+     */
+    public void waitFor(Future<?> task) {
+        prerequisites.add(task);
+    }
+
+    /**
+     * Inicia o aquecimento em segundo plano, quando habilitado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled && prerequisites.isEmpty()) {
+            done = true;
+            return;
+        }
+        Thread warmup = new Thread(() -> {
+            try {
+                awaitPrerequisites();
+                if (enabled) {
+                    warmUp();
+                }
+            } catch (RuntimeException e) {
+                log.error("Falha no aquecimento", e);
+            } finally {
+                done = true;
+            }
+        }, "warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    /**
+     * @return Se o aquecimento terminou (ou está desabilitado).
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return O resultado do último aquecimento, ou o andamento do aquecimento em execução.
+     */
+    public WarmupReportDTO report() {
+        return report;
+    }
+
+    /**
+     * Executa o aquecimento completo.
+     *
+     * @return O resultado do aquecimento.
+     */
+    public synchronized WarmupReportDTO warmUp() {
+        WarmupReportDTO current = new WarmupReportDTO();
+        current.setStartedAt(new Date());
+        report = current;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMs);
+
+        current.setPoolConnections(openConnections());
+        awaitCaches(deadline);
+
+        List<String> users = hotIds.recorded(IdLookupGuard.Kind.USER);
+        List<String> posts = hotIds.recorded(IdLookupGuard.Kind.POST);
+        current.setRecordedIds(!users.isEmpty() || !posts.isEmpty());
+        if (users.isEmpty()) {
+            users = sampleIds(mongoTemplate.getCollectionName(User.class), null);
+        }
+        if (posts.isEmpty()) {
+            posts = sampleIds(mongoTemplate.getCollectionName(Post.class), new Document("date", -1));
+        }
+        current.setPreloadedUsers(preloadUsers(users, deadline));
+        current.setPreloadedPosts(preloadPosts(posts, deadline));
+        exercise(current, users, posts, deadline);
+
+        current.setTimedOut(System.nanoTime() > deadline);
+        current.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        current.setCompleted(true);
+        log.info("Aquecimento concluído em {} ms: {} usuários e {} posts pré-carregados, {} requisições ({} com erro){}",
+                current.getElapsedMillis(), current.getPreloadedUsers(), current.getPreloadedPosts(),
+                current.getRequests(), current.getFailedRequests(), current.isTimedOut() ? ", tempo máximo atingido" : "");
+        return current;
+    }
+
+    private void awaitPrerequisites() {
+        for (Future<?> task : prerequisites) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.warn("Falha em uma tarefa da inicialização: {}", e.getCause().toString());
+            }
+        }
+    }
+
+    /**
+     * Abre as conexões do pool com comandos {@code ping} simultâneos, um por conexão.
+     */
+    private int openConnections() {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < poolConnections; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    go.await();
+                    mongoTemplate.executeCommand(new Document("ping", 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return poolConnections;
+    }
+
+    /**
+     * Aguarda os filtros de IDs e o cache da listagem de usuários, montados em segundo plano na inicialização.
+     */
+    private void awaitCaches(long deadline) {
+        while (System.nanoTime() < deadline && !(idGuard.isReady(IdLookupGuard.Kind.USER)
+                && idGuard.isReady(IdLookupGuard.Kind.POST) && directoryCache.stats().isReady())) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<String> sampleIds(String collection, Document sort) {
+        List<String> ids = new ArrayList<>();
+        mongoTemplate.getCollection(collection).find().projection(new Document("_id", 1))
+                .sort(sort).limit(sampleSize).forEach(doc -> ids.add(doc.get("_id").toString()));
+        return ids;
+    }
+
+    private int preloadUsers(List<String> ids, long deadline) {
+        int loaded = 0;
+        for (List<String> chunk : chunks(ids)) {
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+            for (User user : userRepo.findAllById(chunk)) {
+                try {
+                    statsService.stats(user.getId());
+                    loaded++;
+                } catch (ObjectNotFoundException e) {
+                    // Usuário excluído entre a leitura e o cálculo das estatísticas.
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private int preloadPosts(List<String> ids, long deadline) {
+        int loaded = 0;
+        for (List<String> chunk : chunks(ids)) {
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+            for (Post ignored : postRepo.findAllById(chunk)) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Executa requisições de leitura aos principais endpoints pela porta HTTP da aplicação. Sem
+     * servidor HTTP (ex.: testes com MockMvc), esta etapa é ignorada.
+     */
+    private void exercise(WarmupReportDTO current, List<String> users, List<String> posts, long deadline) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0 || requests <= 0) {
+            return;
+        }
+        List<String> paths = paths(users, posts);
+        String base = "http://localhost:" + port;
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build()) {
+            for (int i = 0; i < requests && System.nanoTime() < deadline; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(base + paths.get(i % paths.size())))
+                        .timeout(Duration.ofSeconds(5)).header("Accept-Encoding", i % 2 == 0 ? "gzip" : "identity")
+                        .header(HotIdTracker.UNTRACKED_HEADER, "true").build();
+                current.setRequests(current.getRequests() + 1);
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 500) {
+                        current.setFailedRequests(current.getFailedRequests() + 1);
+                    }
+                } catch (IOException e) {
+                    current.setFailedRequests(current.getFailedRequests() + 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Monta os caminhos das requisições de aquecimento, apenas de leitura e sem registrar visualizações.
+     */
+    private List<String> paths(List<String> users, List<String> posts) {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+        String monthAgo = sdf.format(new Date(System.currentTimeMillis() - 30L * 24 * 60 * 60 * 1000));
+
+        List<String> paths = new ArrayList<>();
+        // Apenas buscas com limite: uma busca sem limite pode ler a coleção inteira de posts.
+        paths.add("/users");
+        paths.add("/posts/fullsearch?text=a&minDate=" + monthAgo + "&limit=20&view=summary");
+        paths.add("/posts/fullsearch?text=ab&minDate=" + monthAgo + "&limit=20");
+        paths.add("/posts/suggest?prefix=a");
+        for (String id : users.subList(0, Math.min(20, users.size()))) {
+            paths.add("/users/" + id);
+            paths.add("/users/" + id + "/stats");
+            paths.add("/users/" + id + "/posts?view=summary");
+        }
+        for (List<String> chunk : chunks(posts.subList(0, Math.min(100, posts.size())), 20)) {
+            paths.add("/posts?ids=" + String.join(",", chunk));
+        }
+        return paths;
+    }
+
+    private static List<List<String>> chunks(List<String> ids) {
+        return chunks(ids, ID_CHUNK);
+    }
+
+    private static List<List<String>> chunks(List<String> ids, int size) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += size) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + size)));
+        }
+        return chunks;
+    }
+}
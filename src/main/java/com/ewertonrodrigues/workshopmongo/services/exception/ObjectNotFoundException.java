@@ -1,11 +1,15 @@
 package com.ewertonrodrigues.workshopmongo.services.exception;
 
+/**
+ * Exceção lançada quando o objeto buscado não existe.
+ * Não registra o rastreamento da pilha, pois é um resultado esperado das buscas e é convertida
+ * em resposta 404 pelo tratador de exceções.
+ */
 public class ObjectNotFoundException extends RuntimeException {
 
 	private static final long serialVersionUID = 1L;
 
 	public ObjectNotFoundException(String msg) {
-		super(msg);
-		
+		super(msg, null, false, false);
 	}
 }
@@ -0,0 +1,10 @@
+package com.ewertonrodrigues.workshopmongo.services.exception;
+
+public class SearchTimeoutException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SearchTimeoutException(String msg) {
+		super(msg);
+	}
+}
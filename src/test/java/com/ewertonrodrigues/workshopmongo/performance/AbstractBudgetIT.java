@@ -0,0 +1,284 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.services.TitleSuggestService;
+import com.ewertonrodrigues.workshopmongo.services.UserStatsService;
+import com.ewertonrodrigues.workshopmongo.services.UserDirectoryCache;
+import com.mongodb.MongoCommandException;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Base dos testes de integração com orçamentos de desempenho por endpoint.
+ * <p>
+ * A aplicação completa é iniciada contra um MongoDB em memória ({@code mongo-java-server}) ou,
+ * com {@code -Dworkshop.it.mongo-uri=mongodb://.../banco}, contra um MongoDB real. Nesse caso o
+ * banco deve ser dedicado aos testes, pois as coleções são recriadas. A base é populada com
+ * {@value #USERS} usuários e {@value #POSTS_PER_USER} posts por usuário.
+ * <p>
+ * Cada requisição é medida na própria thread de teste (MockMvc), o que permite contar os comandos
+ * enviados ao MongoDB ({@link CommandCounter}) e os bytes alocados pela requisição. A quantidade de
+ * documentos examinados é obtida com {@code explain} e verificada apenas quando o servidor oferece
+ * esse comando.
+ */
+@SpringBootTest(properties = {
+        "workshop.seed.mode=off",
+        "workshop.counters.flush-interval-ms=3600000",
+        "workshop.warmup.enabled=false",
+        "workshop.admin.token=" + AbstractBudgetIT.ADMIN_TOKEN
+})
+@AutoConfigureMockMvc
+@Import(AbstractBudgetIT.BudgetConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class AbstractBudgetIT {
+
+    protected static final Logger log = LoggerFactory.getLogger(AbstractBudgetIT.class);
+
+    /**
+     * Token dos endpoints administrativos nos testes.
+     */
+    protected static final String ADMIN_TOKEN = "token-dos-testes";
+
+    protected static final int USERS = 1_000;
+    protected static final int POSTS_PER_USER = 10;
+    protected static final int COMMENTS_PER_POST = 3;
+
+    /**
+     * Palavra rara usada nos títulos de poucos posts, para buscas com resultado pequeno.
+     */
+    protected static final String RARE_WORD = "Zanzibar";
+    protected static final int RARE_POSTS = 5;
+
+    private static final int WARMUP = 10;
+    private static final int MEASURED = 9;
+
+    private static final String[] WORDS = {
+            "viagem", "praia", "cidade", "montanha", "trabalho", "projeto", "livro", "filme", "musica",
+            "futebol", "cozinha", "receita", "jardim", "escola", "familia", "amigos", "festa", "cafe",
+            "tecnologia", "codigo", "banco", "dados", "noticia", "chuva", "sol", "inverno", "verao"
+    };
+
+    private static MongoServer server;
+    private static boolean seeded;
+
+    protected static List<User> users = new ArrayList<>();
+    protected static List<Post> posts = new ArrayList<>();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected MongoTemplate mongoTemplate;
+
+    @Autowired
+    protected CommandCounter commandCounter;
+
+    @Autowired
+    private TitleSuggestService suggestService;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    /**
+     * Espião do cache da listagem de usuários, para medir também o caminho sem cache.
+     */
+    @SpyBean
+    protected UserDirectoryCache directoryCache;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", AbstractBudgetIT::mongoUri);
+    }
+
+    private static synchronized String mongoUri() {
+        String external = System.getProperty("workshop.it.mongo-uri");
+        if (external != null && !external.isBlank()) {
+            return external;
+        }
+        if (server == null) {
+            server = new MongoServer(new MemoryBackend());
+            // Sem gancho de encerramento: o servidor em memória termina com a JVM, depois que os
+            // contextos do Spring gravam os contadores pendentes no encerramento.
+            server.bind();
+        }
+        return server.getConnectionString() + "/workshop_it";
+    }
+
+    /**
+     * Popula a base uma única vez por execução, compartilhada entre as classes de teste que usam
+     * o mesmo contexto.
+     */
+    @BeforeAll
+    void seed() {
+        synchronized (AbstractBudgetIT.class) {
+            if (seeded) {
+                return;
+            }
+            // Remove os documentos mantendo os índices criados na inicialização.
+            mongoTemplate.remove(new Query(), Post.class);
+            mongoTemplate.remove(new Query(), User.class);
+
+            Random random = new Random(42);
+            for (int i = 0; i < USERS; i++) {
+                users.add(new User(new ObjectId().toHexString(), "Usuário " + i, "usuario" + i + "@example.com"));
+            }
+            long day = 24L * 60 * 60 * 1000;
+            long start = 1_514_764_800_000L; // 01/01/2018
+            int rare = 0;
+            for (User user : users) {
+                for (int p = 0; p < POSTS_PER_USER; p++) {
+                    String title = rare < RARE_POSTS && p == 0 ? RARE_WORD + " " + words(random, 2) : words(random, 3);
+                    rare += title.startsWith(RARE_WORD) ? 1 : 0;
+                    Post post = new Post(new ObjectId().toHexString(), new Date(start + random.nextInt(6 * 365) * day),
+                            title, words(random, 30), new AuthorDTO(user));
+                    for (int c = 0; c < COMMENTS_PER_POST; c++) {
+                        User commenter = users.get(random.nextInt(users.size()));
+                        post.getComments().add(new CommentDTO(words(random, 8), post.getDate(), new AuthorDTO(commenter)));
+                    }
+                    posts.add(post);
+                    user.getPosts().add(post);
+                }
+            }
+            mongoTemplate.insert(posts, Post.class);
+            mongoTemplate.insert(users, User.class);
+            suggestService.rebuild();
+            statsService.reconcileCounters();
+            directoryCache.invalidate();
+            seeded = true;
+            log.info("Base de testes populada: {} usuários, {} posts", users.size(), posts.size());
+        }
+    }
+
+    /**
+     * Executa a requisição algumas vezes para aquecimento e mede as execuções seguintes.
+     *
+     * @param request A requisição a ser medida.
+     * @return Os comandos da última execução e as medianas de alocação e de tempo.
+     */
+    protected RequestCost measure(RequestBuilder request) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            mockMvc.perform(request);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] allocated = new long[MEASURED];
+        long[] nanos = new long[MEASURED];
+        List<String> commands = List.of();
+        int status = 0;
+        for (int i = 0; i < MEASURED; i++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            commandCounter.start();
+            MvcResult result = mockMvc.perform(request).andReturn();
+            commands = commandCounter.stop();
+            nanos[i] = System.nanoTime() - start;
+            allocated[i] = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            status = result.getResponse().getStatus();
+        }
+        return new RequestCost(status, commands, median(allocated), median(nanos));
+    }
+
+    /**
+     * Obtém, com {@code explain}, a quantidade de documentos examinados por uma consulta de posts.
+     * O teste é ignorado quando o servidor não oferece o comando {@code explain}.
+     *
+     * @param query A consulta, com os nomes de campos da entidade {@link Post}.
+     * @return A quantidade de documentos examinados.
+     */
+    protected long docsExamined(Query query) {
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        Document filter = mapper.getMappedObject(query.getQueryObject(),
+                mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Post.class));
+        Document explain = new Document("explain",
+                new Document("find", mongoTemplate.getCollectionName(Post.class)).append("filter", filter))
+                .append("verbosity", "executionStats");
+        Document result;
+        try {
+            result = mongoTemplate.getDb().runCommand(explain);
+        } catch (MongoCommandException e) {
+            Assumptions.abort("explain não suportado pelo servidor: " + e.getErrorMessage());
+            return -1;
+        }
+        Document stats = result.get("executionStats", Document.class);
+        Assumptions.assumeTrue(stats != null, "explain sem executionStats");
+        return ((Number) stats.get("totalDocsExamined")).longValue();
+    }
+
+    /**
+     * Ignora o teste quando o servidor não oferece buscas {@code $text}.
+     */
+    protected void assumeTextSearch() {
+        try {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class))
+                    .find(new Document("$text", new Document("$search", RARE_WORD))).first();
+        } catch (MongoCommandException e) {
+            Assumptions.abort("$text não suportado pelo servidor: " + e.getErrorMessage());
+        }
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Registra o {@link CommandCounter} no cliente do MongoDB da aplicação.
+     */
+    @TestConfiguration
+    static class BudgetConfiguration {
+
+        @Bean
+        CommandCounter commandCounter() {
+            return new CommandCounter();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCounterCustomizer(CommandCounter commandCounter) {
+            return settings -> settings.addCommandListener(commandCounter);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.config.ContextPropagation;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ouvinte dos comandos enviados ao MongoDB que registra os comandos executados por uma requisição.
+ * <p>
+ * Cada registro iniciado recebe um ID de requisição, guardado na thread que o iniciou e propagado,
+ * pela {@link ContextPropagation}, para as tarefas que a requisição executa em outras threads
+ * (partições da busca, leituras protegidas pelo disjuntor). O driver síncrono notifica o ouvinte na
+ * própria thread da operação, o que permite atribuir os comandos ao ID da requisição em andamento e
+ * ignorar as tarefas em segundo plano (envio dos contadores, reconstrução de caches etc.).
+ */
+public class CommandCounter implements CommandListener {
+
+    private final AtomicLong nextId = new AtomicLong();
+
+    private final ThreadLocal<Long> requestId = new ThreadLocal<>();
+
+    private final Map<Long, List<String>> recordings = new ConcurrentHashMap<>();
+
+    public CommandCounter() {
+        ContextPropagation.register(ContextPropagation.Propagator.of(requestId::get, id -> {
+            if (id == null) {
+                requestId.remove();
+            } else {
+                requestId.set(id);
+            }
+        }));
+    }
+
+    /**
+     * Inicia o registro dos comandos de uma requisição atendida pela thread atual.
+     */
+    public void start() {
+        long id = nextId.incrementAndGet();
+        recordings.put(id, Collections.synchronizedList(new ArrayList<>()));
+        requestId.set(id);
+    }
+
+    /**
+     * Encerra o registro e retorna os comandos executados pela requisição desde {@link #start()},
+     * inclusive nas outras threads.
+     *
+     * @return Os nomes dos comandos, na ordem de execução.
+     */
+    public List<String> stop() {
+        Long id = requestId.get();
+        requestId.remove();
+        List<String> commands = id == null ? null : recordings.remove(id);
+        if (commands == null) {
+            return List.of();
+        }
+        synchronized (commands) {
+            return List.copyOf(commands);
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Long id = requestId.get();
+        List<String> commands = id == null ? null : recordings.get(id);
+        if (commands != null) {
+            commands.add(event.getCommandName());
+        }
+    }
+}
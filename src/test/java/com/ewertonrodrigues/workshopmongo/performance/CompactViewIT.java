@@ -0,0 +1,106 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Comparação da memória ocupada pelas visões compactas de posts com a dos posts completos.
+ */
+class CompactViewIT extends AbstractBudgetIT {
+
+    private static final int RESULTS = 10_000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private PostRepository postRepository;
+
+    /**
+     * Mede a memória retida e a alocação da leitura de 10 mil posts como {@code Post} e como {@code PostView}.
+     * <p>
+     * Resultado esperado:
+     * - As visões compactas devem reter menos de 70% da memória dos posts completos.
+     */
+    @Test
+    void views_ShouldRetainLessHeapThanPosts() {
+        Query query = new Query().limit(RESULTS);
+        assertEquals(RESULTS, postRepository.search(query).size());
+        assertEquals(RESULTS, postRepository.searchViews(query).size());
+
+        long[] posts = footprint(() -> postRepository.search(query));
+        long[] views = footprint(() -> postRepository.searchViews(query));
+
+        log.info("{} resultados: Post retém {} KiB (alocou {} KiB); PostView retém {} KiB (alocou {} KiB)",
+                RESULTS, posts[0] / 1024, posts[1] / 1024, views[0] / 1024, views[1] / 1024);
+        assertTrue(views[0] * 10 < posts[0] * 7, "PostView: " + views[0] + " bytes | Post: " + posts[0] + " bytes");
+    }
+
+    /**
+     * Testa as buscas com {@code view=compact}.
+     * <p>
+     * Resultado esperado:
+     * - A mesma resposta das buscas com os posts completos.
+     * - 400 quando combinada com {@code fields}.
+     */
+    @Test
+    void compactView_ShouldReturnSameJsonAsFullView() throws Exception {
+        String full = mockMvc.perform(get("/posts/fullsearch").param("text", "ca").param("limit", "20"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String compact = mockMvc.perform(get("/posts/fullsearch").param("text", "ca").param("limit", "20").param("view", "compact"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(mapper.readTree(full), mapper.readTree(compact));
+        assertEquals(20, mapper.readTree(compact).size());
+
+        String title = mockMvc.perform(get("/posts/titlesearch").param("text", RARE_WORD))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String compactTitle = mockMvc.perform(get("/posts/titlesearch").param("text", RARE_WORD).param("view", "compact"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(mapper.readTree(title), mapper.readTree(compactTitle));
+
+        assertEquals(400, mockMvc.perform(get("/posts/fullsearch").param("text", "ca").param("view", "compact")
+                .param("fields", "title")).andReturn().getResponse().getStatus());
+    }
+
+    /**
+     * Mede a memória retida pelo resultado (após coleta de lixo) e os bytes alocados pela leitura,
+     * retornando as medianas de três medições.
+     */
+    private static long[] footprint(Supplier<List<?>> read) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] retained = new long[3];
+        long[] allocated = new long[3];
+        for (int i = 0; i < 3; i++) {
+            long before = usedAfterGc(memory);
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            List<?> result = read.get();
+            allocated[i] = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            retained[i] = usedAfterGc(memory) - before;
+            Reference.reachabilityFence(result);
+        }
+        Arrays.sort(retained);
+        Arrays.sort(allocated);
+        return new long[]{retained[1], allocated[1]};
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Testes da compressão dos corpos longos de posts, com a compressão habilitada.
+ */
+@TestPropertySource(properties = {
+        "workshop.compression.enabled=true",
+        "workshop.compression.threshold-bytes=1024"
+})
+class CompressionIT extends AbstractBudgetIT {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Testa a publicação de um post longo e a sua leitura completa e com projeção.
+     * <p>
+     * Resultado esperado:
+     * - O documento gravado deve conter apenas o corpo comprimido, menor que o original.
+     * - As duas leituras devem devolver o corpo original.
+     * - A busca completa deve encontrar o post por palavras e trechos do corpo comprimido.
+     */
+    @Test
+    void longBody_ShouldBeStoredCompressedAndReadTransparently() throws Exception {
+        String text = "Relato longo da viagem pelo litoral, com muitos detalhes do roteiro. ".repeat(100);
+        String content = mapper.writeValueAsString(new Post(null, null, "Diário de bordo", text, null));
+        String location = mockMvc.perform(post("/users/{id}/posts", users.get(998).getId())
+                .contentType(MediaType.APPLICATION_JSON).content(content)).andReturn().getResponse().getHeader("Location");
+        assertNotNull(location);
+        String id = location.substring(location.lastIndexOf('/') + 1);
+
+        Document stored = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class))
+                .find(new Document("_id", new ObjectId(id))).first();
+        assertNotNull(stored);
+        assertFalse(stored.containsKey("body"));
+        int storedBytes = stored.get("bodyZ", Binary.class).length();
+        log.info("Corpo de {} bytes gravado com {} bytes", text.getBytes(StandardCharsets.UTF_8).length, storedBytes);
+        assertTrue(storedBytes * 10 < text.length());
+
+        JsonNode full = mapper.readTree(mockMvc.perform(get("/posts/{id}", id))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(text, full.get("body").asText());
+        assertFalse(full.has("compressedBody"));
+
+        JsonNode projected = mapper.readTree(mockMvc.perform(get("/posts/{id}", id).param("fields", "title,body"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(text, projected.get("body").asText());
+        assertFalse(projected.has("bodyZ"));
+        assertFalse(projected.has("bodyWords"));
+
+        for (String search : new String[]{"litoral", "rotei", "Litoral, com"}) {
+            JsonNode found = mapper.readTree(mockMvc.perform(get("/posts/fullsearch").param("text", search))
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+            assertTrue(found.findValuesAsText("id").contains(id), search);
+        }
+    }
+}
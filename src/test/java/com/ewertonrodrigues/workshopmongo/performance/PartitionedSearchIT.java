@@ -0,0 +1,98 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.services.PartitionedSearch;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Medição da busca completa dividida em partições de data, com 1, 2, 4 e 8 partições.
+ * <p>
+ * Os comandos das subconsultas, executadas fora da thread da requisição, são atribuídos à requisição
+ * pelo {@link CommandCounter}; a alocação, medida na thread da requisição, não é verificada. O
+ * tempo registrado é o do servidor em memória usado nos testes, e não representa a aceleração em
+ * um MongoDB real.
+ */
+class PartitionedSearchIT extends AbstractBudgetIT {
+
+    private static final int[] PARTITIONS = {1, 2, 4, 8};
+
+    @Autowired
+    private PartitionedSearch partitionedSearch;
+
+    @AfterEach
+    void resetPartitions() {
+        ReflectionTestUtils.setField(partitionedSearch, "partitions", 1);
+    }
+
+    /**
+     * Testa a busca por expressão regular com quantidades crescentes de partições.
+     * <p>
+     * Resultado esperado:
+     * - Todas as quantidades de partições devem devolver os mesmos posts.
+     * - Cada partição deve enviar o seu próprio comando {@code find}, contado na requisição.
+     * - O tempo de cada quantidade é registrado em relação à busca sem partições.
+     */
+    @Test
+    void fullSearch_ShouldReturnSameResultsForAnyPartitionCount() throws Exception {
+        String text = RARE_WORD.substring(0, 2);
+        List<String> baseline = null;
+        long baselineNanos = 0;
+        for (int partitions : PARTITIONS) {
+            ReflectionTestUtils.setField(partitionedSearch, "partitions", partitions);
+            List<String> ids = ids(text, 0);
+            RequestCost cost = measure(get("/posts/fullsearch").param("text", text)
+                    .param("minDate", "2018-01-01").param("maxDate", "2024-12-31"));
+            assertEquals(200, cost.getStatus());
+            assertEquals(partitions, Collections.frequency(cost.getCommands(), "find"), cost.getCommands().toString());
+            if (baseline == null) {
+                baseline = ids;
+                baselineNanos = cost.getNanos();
+            }
+            log.info("GET /posts/fullsearch com {} partições: {} resultados, {} ms, aceleração {}x", partitions,
+                    ids.size(), cost.getNanos() / 1_000_000.0, String.format("%.2f", (double) baselineNanos / cost.getNanos()));
+            assertEquals(new HashSet<>(baseline), new HashSet<>(ids));
+            assertEquals(ids.size(), new HashSet<>(ids).size());
+        }
+        assertFalse(baseline.isEmpty());
+    }
+
+    /**
+     * Testa a busca particionada com limite.
+     * <p>
+     * Resultado esperado:
+     * - Os posts mais recentes devem ser devolvidos, com as mesmas datas da busca com limite sem
+     *   partições (posts da mesma data podem vir em outra ordem).
+     */
+    @Test
+    void fullSearch_WithLimit_ShouldReturnNewestPosts() throws Exception {
+        String text = "ca";
+        List<String> unpartitioned = read(text, 20, "$[*].date");
+        ReflectionTestUtils.setField(partitionedSearch, "partitions", 8);
+        List<String> partitioned = read(text, 20, "$[*].date");
+
+        assertEquals(20, partitioned.size());
+        assertEquals(unpartitioned, partitioned);
+    }
+
+    private List<String> ids(String text, int limit) throws Exception {
+        return read(text, limit, "$[*].id");
+    }
+
+    private List<String> read(String text, int limit, String path) throws Exception {
+        String body = mockMvc.perform(get("/posts/fullsearch").param("text", text)
+                        .param("minDate", "2018-01-01").param("maxDate", "2024-12-31").param("limit", String.valueOf(limit)))
+                .andReturn().getResponse().getContentAsString();
+        return new ArrayList<>(JsonPath.<List<String>>read(body, path));
+    }
+}
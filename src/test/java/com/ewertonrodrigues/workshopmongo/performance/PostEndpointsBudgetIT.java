@@ -0,0 +1,248 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostSummary;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.services.SearchPlanner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Orçamentos de desempenho dos endpoints de posts.
+ */
+class PostEndpointsBudgetIT extends AbstractBudgetIT {
+
+    private static final long POST_BY_ID_MAX_BYTES = 256 * 1024;
+    private static final long SEARCH_MAX_BYTES = 512 * 1024;
+    private static final long SUGGEST_MAX_BYTES = 64 * 1024;
+
+    @Autowired
+    private SearchPlanner planner;
+
+    @Value("${workshop.comments.window}")
+    private int commentWindow;
+
+    @AfterEach
+    void disableWordIndex() {
+        ReflectionTestUtils.setField(planner, "wordIndex", false);
+    }
+
+    /**
+     * Testa a busca de um post pelo ID e a curtida.
+     * <p>
+     * Resultado esperado:
+     * - Um único comando {@code find} por requisição; os contadores não geram escritas na requisição.
+     */
+    @Test
+    void findByIdAndLike_ShouldStayWithinBudget() throws Exception {
+        String id = posts.get(42).getId();
+        RequestCost view = measure(get("/posts/{id}", id));
+        RequestCost like = measure(post("/posts/{id}/like", id));
+
+        log.info("GET /posts/{{id}}: {}", view);
+        log.info("POST /posts/{{id}}/like: {}", like);
+        assertEquals(200, view.getStatus());
+        assertEquals(List.of("find"), view.getCommands());
+        assertTrue(view.getAllocatedBytes() <= POST_BY_ID_MAX_BYTES, view.toString());
+        assertEquals(List.of("find"), like.getCommands());
+    }
+
+    /**
+     * Testa a busca de vários posts pelos IDs.
+     * <p>
+     * Resultado esperado:
+     * - Uma única consulta {@code $in} para todos os IDs.
+     */
+    @Test
+    void findByIds_ShouldIssueSingleQuery() throws Exception {
+        List<String> ids = posts.subList(500, 550).stream().map(Post::getId).collect(Collectors.toList());
+        RequestCost cost = measure(get("/posts").param("ids", String.join(",", ids)));
+
+        log.info("GET /posts?ids= ({} IDs): {}", ids.size(), cost);
+        assertEquals(200, cost.getStatus());
+        assertEquals(List.of("find"), cost.getCommands());
+    }
+
+    /**
+     * Testa a busca por título com uma palavra e o índice de palavras habilitado, e a quantidade de
+     * documentos examinados.
+     * <p>
+     * Resultado esperado:
+     * - Um único comando {@code find} e, com {@code explain}, apenas os posts com a palavra examinados.
+     */
+    @Test
+    void titleSearch_ShouldUsePrefixIndex() throws Exception {
+        ReflectionTestUtils.setField(planner, "wordIndex", true);
+        RequestCost cost = measure(get("/posts/titlesearch").param("text", RARE_WORD.substring(0, 5)));
+
+        log.info("GET /posts/titlesearch: {}", cost);
+        assertEquals(200, cost.getStatus());
+        assertEquals(List.of("find"), cost.getCommands());
+        assertTrue(cost.getAllocatedBytes() <= SEARCH_MAX_BYTES, cost.toString());
+
+        long examined = docsExamined(planner.planTitleSearch(RARE_WORD.substring(0, 5)).getQuery());
+        assertTrue(examined <= RARE_POSTS, "documentos examinados: " + examined);
+    }
+
+    /**
+     * Testa a busca completa por uma palavra inteira, resolvida pelo índice de texto quando o índice de
+     * palavras está habilitado.
+     * <p>
+     * Resultado esperado:
+     * - Um único comando {@code find} e, com {@code explain}, apenas os posts com a palavra examinados.
+     */
+    @Test
+    void fullSearch_WholeWord_ShouldUseTextIndex() throws Exception {
+        assumeTextSearch();
+        ReflectionTestUtils.setField(planner, "wordIndex", true);
+        RequestCost cost = measure(get("/posts/fullsearch").param("text", RARE_WORD)
+                .param("minDate", "2018-01-01").param("maxDate", "2024-12-31"));
+
+        log.info("GET /posts/fullsearch (índice de texto): {}", cost);
+        assertEquals(200, cost.getStatus());
+        assertEquals(List.of("find"), cost.getCommands());
+        assertTrue(cost.getAllocatedBytes() <= SEARCH_MAX_BYTES, cost.toString());
+
+        long examined = docsExamined(planner.planFullSearch(RARE_WORD, new Date(0L), new Date()).getQuery());
+        assertTrue(examined <= RARE_POSTS, "documentos examinados: " + examined);
+    }
+
+    /**
+     * Testa as buscas por um trecho do meio de uma palavra, no padrão.
+     * <p>
+     * Resultado esperado:
+     * - As buscas por título e completa devem encontrar todos os posts com a palavra.
+     */
+    @Test
+    void search_PartialWordByDefault_ShouldMatchSubstring() throws Exception {
+        String partial = RARE_WORD.substring(1, 5);
+        String title = mockMvc.perform(get("/posts/titlesearch").param("text", partial))
+                .andReturn().getResponse().getContentAsString();
+        String full = mockMvc.perform(get("/posts/fullsearch").param("text", partial)
+                .param("minDate", "2018-01-01").param("maxDate", "2024-12-31"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(RARE_POSTS, JsonPath.<List<Object>>read(title, "$").size());
+        assertEquals(RARE_POSTS, JsonPath.<List<Object>>read(full, "$").size());
+    }
+
+    /**
+     * Testa a busca completa por um trecho curto, resolvida por expressão regular limitada por tempo.
+     * <p>
+     * Resultado esperado:
+     * - Um único comando {@code find}, sem abrir cursores adicionais para os resultados.
+     */
+    @Test
+    void fullSearch_ShortText_ShouldIssueSingleQuery() throws Exception {
+        RequestCost cost = measure(get("/posts/fullsearch").param("text", RARE_WORD.substring(0, 2))
+                .param("minDate", "2018-01-01").param("maxDate", "2024-12-31"));
+
+        log.info("GET /posts/fullsearch (expressão regular): {}", cost);
+        assertEquals(200, cost.getStatus());
+        assertEquals(List.of("find"), cost.getCommands());
+        assertTrue(cost.getAllocatedBytes() <= SEARCH_MAX_BYTES, cost.toString());
+    }
+
+    /**
+     * Testa o autocompletar de títulos.
+     * <p>
+     * Resultado esperado:
+     * - Nenhum comando enviado ao MongoDB.
+     */
+    @Test
+    void suggest_ShouldNotQueryMongo() throws Exception {
+        RequestCost cost = measure(get("/posts/suggest").param("prefix", "via"));
+
+        log.info("GET /posts/suggest: {}", cost);
+        assertEquals(200, cost.getStatus());
+        assertTrue(cost.getCommands().isEmpty(), cost.toString());
+        assertTrue(cost.getAllocatedBytes() <= SUGGEST_MAX_BYTES, cost.toString());
+    }
+
+    /**
+     * Testa a inclusão de comentários, isolada e concorrente em um mesmo post.
+     * <p>
+     * Resultado esperado:
+     * - A leitura do nome do autor, um único comando ({@code findAndModify}) no post por comentário,
+     *   sem ler o post, e as atualizações do contador do autor e da quantidade de comentários do resumo.
+     * - Com escritas concorrentes, nenhum comentário é perdido na contagem e o post mantém apenas
+     *   a janela de comentários mais recentes.
+     */
+    @Test
+    void addComment_ShouldAppendAtomically() throws Exception {
+        User commenter = users.get(999);
+        String body = "{\"text\":\"Comentário\",\"author\":{\"id\":\"" + commenter.getId() + "\",\"name\":\"" + commenter.getName() + "\"}}";
+        RequestCost cost = measure(post("/posts/{id}/comments", posts.get(9901).getId())
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+
+        log.info("POST /posts/{{id}}/comments: {}", cost);
+        assertEquals(201, cost.getStatus());
+        assertEquals(List.of("find", "findAndModify", "update", "update"), cost.getCommands());
+
+        Post hot = posts.get(9900);
+        int threads = 8;
+        int perThread = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < threads * perThread; i++) {
+                statuses.add(executor.submit(() -> mockMvc.perform(post("/posts/{id}/comments", hot.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn().getResponse().getStatus()));
+            }
+            for (Future<Integer> status : statuses) {
+                assertEquals(201, status.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Post stored = mongoTemplate.findById(hot.getId(), Post.class);
+        assertEquals(COMMENTS_PER_POST + threads * perThread, stored.getCommentCount());
+        assertEquals(commentWindow, stored.getComments().size());
+        assertEquals(stored.getCommentCount(), mongoTemplate.findById(hot.getId(), PostSummary.class).getCommentCount());
+    }
+
+    /**
+     * Testa as buscas com a visão resumida.
+     * <p>
+     * Resultado esperado:
+     * - Os mesmos posts da visão completa, com uma fração dos bytes por resultado.
+     */
+    @Test
+    void summaryView_ShouldReturnSameResultsWithFewerBytes() throws Exception {
+        for (String path : new String[]{"/posts/titlesearch", "/posts/fullsearch"}) {
+            String text = RARE_WORD.substring(0, 2);
+            MockHttpServletResponse full = mockMvc.perform(get(path).param("text", text)).andReturn().getResponse();
+            MockHttpServletResponse summary = mockMvc.perform(get(path).param("text", text).param("view", "summary"))
+                    .andReturn().getResponse();
+            RequestCost cost = measure(get(path).param("text", text).param("view", "summary"));
+
+            int results = JsonPath.<List<Object>>read(full.getContentAsString(), "$").size();
+            log.info("GET {}?view=summary: {} resultados, {} bytes (completo: {} bytes); {}", path, results,
+                    summary.getContentAsByteArray().length, full.getContentAsByteArray().length, cost);
+            assertEquals(JsonPath.<List<String>>read(full.getContentAsString(), "$[*].id"),
+                    JsonPath.<List<String>>read(summary.getContentAsString(), "$[*].id"));
+            assertTrue(results > 0);
+            assertTrue(summary.getContentAsByteArray().length * 2 < full.getContentAsByteArray().length,
+                    summary.getContentAsByteArray().length + " / " + full.getContentAsByteArray().length);
+        }
+    }
+}
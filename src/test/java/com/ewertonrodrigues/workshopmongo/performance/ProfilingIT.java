@@ -0,0 +1,134 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.services.JfrProfiler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Testes das gravações do JDK Flight Recorder em {@code /admin/profiling}, com os eventos por endpoint habilitados.
+ */
+@TestPropertySource(properties = "workshop.profiling.enabled=true")
+class ProfilingIT extends AbstractBudgetIT {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Grava uma sequência de buscas e leituras de usuários.
+     * <p>
+     * Resultado esperado:
+     * - O resumo deve atribuir alocações e chamadas aos repositórios aos endpoints executados.
+     * - O arquivo da gravação deve estar no formato do JFR, sem variáveis de ambiente nem
+     *   propriedades do sistema.
+     */
+    @Test
+    void recording_ShouldAttributeAllocationsToHandlers() throws Exception {
+        JsonNode started = json(mockMvc.perform(admin(post("/admin/profiling/start")).param("durationSeconds", "60"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("RECORDING", started.get("state").asText());
+        assertEquals(400, mockMvc.perform(admin(post("/admin/profiling/start"))).andReturn().getResponse().getStatus());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, mockMvc.perform(get("/posts/fullsearch").param("text", "ca").param("limit", "20"))
+                    .andReturn().getResponse().getStatus());
+            assertEquals(200, mockMvc.perform(get("/users/{id}", users.get(i).getId()))
+                    .andReturn().getResponse().getStatus());
+        }
+
+        JsonNode summary = json(mockMvc.perform(admin(post("/admin/profiling/stop")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+        log.info("Resumo da gravação: {}", summary);
+        assertEquals("STOPPED", summary.get("state").asText());
+        assertTrue(summary.get("allocatedBytes").asLong() > 0);
+        assertTrue(summary.get("topFrames").size() > 0);
+
+        JsonNode search = handler(summary, "PostResource.fullsearch");
+        assertEquals(20, search.get("requests").asLong());
+        assertTrue(search.get("allocatedBytes").asLong() > 0, search.toString());
+        assertTrue(search.get("repositoryCalls").asLong() >= 20, search.toString());
+        assertEquals(20, handler(summary, "UserResource.findById").get("requests").asLong());
+
+        assertEquals(summary, json(mockMvc.perform(admin(get("/admin/profiling/summary")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8)));
+        MvcResult download = mockMvc.perform(admin(get("/admin/profiling/recording"))).andReturn();
+        byte[] recording = mockMvc.perform(asyncDispatch(download)).andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals("FLR\0".getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(recording, 4));
+
+        Path file = Files.createTempFile("profiling-it-", ".jfr");
+        try {
+            Files.write(file, recording);
+            List<String> sensitive = RecordingFile.readAllEvents(file).stream()
+                    .map(event -> event.getEventType().getName())
+                    .filter(JfrProfiler.SENSITIVE_EVENTS::contains)
+                    .distinct()
+                    .collect(Collectors.toList());
+            assertEquals(List.of(), sensitive);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Testa os limites da duração das gravações.
+     * <p>
+     * Resultado esperado:
+     * - 400 para durações fora do intervalo aceito.
+     */
+    @Test
+    void start_WithDurationOutOfBounds_ShouldReturnBadRequest() throws Exception {
+        assertEquals(400, mockMvc.perform(admin(post("/admin/profiling/start")).param("durationSeconds", "0"))
+                .andReturn().getResponse().getStatus());
+        assertEquals(400, mockMvc.perform(admin(post("/admin/profiling/start")).param("durationSeconds", "301"))
+                .andReturn().getResponse().getStatus());
+    }
+
+    /**
+     * Testa os endpoints administrativos sem o token e com um token diferente.
+     * <p>
+     * Resultado esperado:
+     * - 401 nos dois casos, sem iniciar gravações nem exportar dados.
+     * - 200 com o token configurado.
+     */
+    @Test
+    void admin_WithoutToken_ShouldReturnUnauthorized() throws Exception {
+        assertEquals(401, mockMvc.perform(post("/admin/profiling/start")).andReturn().getResponse().getStatus());
+        assertEquals(401, mockMvc.perform(get("/admin/export/users")).andReturn().getResponse().getStatus());
+        assertEquals(401, mockMvc.perform(get("/admin/profiling/recording").header(HttpHeaders.AUTHORIZATION, "Bearer outro"))
+                .andReturn().getResponse().getStatus());
+        assertEquals(200, mockMvc.perform(admin(get("/admin/profiling/summary"))).andReturn().getResponse().getStatus());
+    }
+
+    private static MockHttpServletRequestBuilder admin(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN);
+    }
+
+    private JsonNode handler(JsonNode summary, String name) {
+        for (JsonNode handler : summary.get("handlers")) {
+            if (handler.get("handler").asText().equals(name)) {
+                return handler;
+            }
+        }
+        return fail("Endpoint ausente do resumo: " + name);
+    }
+
+    private JsonNode json(String content) throws Exception {
+        return mapper.readTree(content);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import java.util.List;
+
+/**
+ * Custo medido de uma requisição: comandos enviados ao MongoDB, bytes alocados pela thread da
+ * requisição e tempo de resposta.
+ */
+public final class RequestCost {
+
+    private final int status;
+    private final List<String> commands;
+    private final long allocatedBytes;
+    private final long nanos;
+
+    public RequestCost(int status, List<String> commands, long allocatedBytes, long nanos) {
+        this.status = status;
+        this.commands = commands;
+        this.allocatedBytes = allocatedBytes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return O status HTTP da resposta
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return Os comandos enviados ao MongoDB, na ordem de execução
+     */
+    public List<String> getCommands() {
+        return commands;
+    }
+
+    /**
+     * @return Os bytes alocados pela thread da requisição
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return O tempo de resposta, em nanossegundos
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d comando(s) %s, %,d bytes alocados, %.3f ms",
+                commands.size(), commands, allocatedBytes, nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Testes do cabeçalho {@code Server-Timing}, com a instrumentação habilitada.
+ */
+@TestPropertySource(properties = "workshop.timing.enabled=true")
+class ServerTimingIT extends AbstractBudgetIT {
+
+    /**
+     * Testa a busca de um usuário por ID.
+     * <p>
+     * Resultado esperado:
+     * - O cabeçalho deve trazer todas as fases e exatamente um comando do MongoDB.
+     */
+    @Test
+    void findById_ShouldReportPhases() throws Exception {
+        String header = mockMvc.perform(get("/users/{id}", users.get(3).getId()))
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        log.info("Server-Timing de GET /users/{{id}}: {}", header);
+        assertNotNull(header);
+        for (String metric : new String[]{"ctrl;dur=", "svc;dur=", "repo;dur=", "map;dur=", "dbref;dur=", "ser;dur=", "total;dur="}) {
+            assertTrue(header.contains(metric), header);
+        }
+        assertTrue(header.contains("mongo;desc=\"1 comando(s)\""), header);
+    }
+
+    /**
+     * Testa a listagem dos posts de um usuário, cujas referências são resolvidas durante a serialização.
+     * <p>
+     * Resultado esperado:
+     * - O tempo da resolução dos {@code @DBRef} deve ser separado do tempo do Jackson.
+     */
+    @Test
+    void findPosts_ShouldReportDbRefResolution() throws Exception {
+        String header = mockMvc.perform(get("/users/{id}/posts", users.get(5).getId()))
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        log.info("Server-Timing de GET /users/{{id}}/posts: {}", header);
+        assertNotNull(header);
+        assertTrue(header.contains("mongo;desc=\"2 comando(s)\""), header);
+        assertFalse(header.contains("dbref;dur=0.000"), header);
+    }
+}
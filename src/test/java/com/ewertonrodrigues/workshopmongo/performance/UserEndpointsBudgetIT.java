@@ -0,0 +1,289 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.IdLookupGuard;
+import com.mongodb.DBRef;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamentos de desempenho dos endpoints de usuários.
+ */
+class UserEndpointsBudgetIT extends AbstractBudgetIT {
+
+    private static final long USERS_CACHED_MAX_BYTES = 256 * 1024;
+    private static final long USER_BY_ID_MAX_BYTES = 256 * 1024;
+    private static final long USER_POSTS_MAX_BYTES = 2 * 1024 * 1024;
+
+    @Autowired
+    private IdLookupGuard idGuard;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Testa a listagem de usuários atendida pelo cache de bytes pré-codificados.
+     * <p>
+     * Resultado esperado:
+     * - Nenhum comando enviado ao MongoDB e alocação independente da quantidade de usuários.
+     * - A alocação deve ser uma fração da alocação do caminho sem cache.
+     */
+    @Test
+    void findAll_FromDirectoryCache_ShouldStayWithinBudget() throws Exception {
+        awaitDirectoryCache();
+        RequestCost cached = measure(get("/users").header("Accept-Encoding", "gzip"));
+
+        doReturn(false).when(directoryCache).write(any(), any());
+        RequestCost uncached;
+        try {
+            uncached = measure(get("/users"));
+        } finally {
+            reset(directoryCache);
+        }
+
+        log.info("GET /users com cache: {}", cached);
+        log.info("GET /users sem cache: {}", uncached);
+        assertEquals(200, cached.getStatus());
+        assertEquals(0, cached.getCommands().size());
+        assertTrue(cached.getAllocatedBytes() <= USERS_CACHED_MAX_BYTES, cached.toString());
+        assertEquals(1, uncached.getCommands().size());
+        assertTrue(cached.getAllocatedBytes() * 10 < uncached.getAllocatedBytes(),
+                "com cache: " + cached + " | sem cache: " + uncached);
+    }
+
+    /**
+     * Testa a busca de um usuário pelo ID.
+     * <p>
+     * Resultado esperado:
+     * - Um único comando {@code find}, sem resolver as referências aos posts.
+     */
+    @Test
+    void findById_ShouldStayWithinBudget() throws Exception {
+        RequestCost cost = measure(get("/users/{id}", users.get(7).getId()));
+
+        log.info("GET /users/{{id}}: {}", cost);
+        assertEquals(200, cost.getStatus());
+        assertEquals(List.of("find"), cost.getCommands());
+        assertTrue(cost.getAllocatedBytes() <= USER_BY_ID_MAX_BYTES, cost.toString());
+    }
+
+    /**
+     * Testa a listagem dos posts de um usuário, completos e com campos selecionados.
+     * <p>
+     * Resultado esperado:
+     * - No máximo dois comandos (IDs dos posts e uma consulta {@code $in}), independentemente
+     *   da quantidade de posts do usuário, evitando uma consulta por referência (N+1).
+     */
+    @Test
+    void findPosts_ShouldNotIssueOneQueryPerPost() throws Exception {
+        String id = users.get(11).getId();
+        RequestCost full = measure(get("/users/{id}/posts", id));
+        RequestCost projected = measure(get("/users/{id}/posts", id).param("fields", "title,date"));
+
+        log.info("GET /users/{{id}}/posts: {}", full);
+        log.info("GET /users/{{id}}/posts?fields=title,date: {}", projected);
+        assertEquals(200, full.getStatus());
+        assertTrue(full.getCommands().size() <= 2, full.toString());
+        assertTrue(full.getAllocatedBytes() <= USER_POSTS_MAX_BYTES, full.toString());
+        assertEquals(200, projected.getStatus());
+        assertTrue(projected.getCommands().size() <= 2, projected.toString());
+        assertTrue(projected.getAllocatedBytes() <= full.getAllocatedBytes(), projected + " | " + full);
+    }
+
+    /**
+     * Compara a busca de vários usuários em uma requisição com as buscas individuais.
+     * <p>
+     * Resultado esperado:
+     * - Uma única consulta para todos os IDs, contra uma consulta por ID nas buscas individuais,
+     *   e tempo total menor.
+     */
+    @Test
+    void findByIds_ShouldBeCheaperThanSingleRequests() throws Exception {
+        List<String> ids = users.subList(100, 120).stream().map(User::getId).collect(Collectors.toList());
+
+        RequestCost multi = measure(get("/users").param("ids", String.join(",", ids)));
+        long singleNanos = 0;
+        int singleCommands = 0;
+        for (String id : ids) {
+            RequestCost single = measure(get("/users/{id}", id));
+            singleNanos += single.getNanos();
+            singleCommands += single.getCommands().size();
+        }
+
+        log.info("GET /users?ids= ({} IDs): {} | {} buscas individuais: {} comandos, {} ms",
+                ids.size(), multi, ids.size(), singleCommands, String.format("%.3f", singleNanos / 1_000_000.0));
+        assertEquals(List.of("find"), multi.getCommands());
+        assertEquals(ids.size(), singleCommands);
+        assertTrue(multi.getNanos() < singleNanos, multi + " | individuais: " + singleNanos + " ns");
+    }
+
+    /**
+     * Testa o perfil de um usuário com os posts mais recentes e a quantidade de comentários recebidos.
+     * <p>
+     * Resultado esperado:
+     * - Uma única agregação, sem resolver as referências aos posts.
+     * - Os posts mais recentes do usuário, do mais recente para o mais antigo, e os totais iguais aos
+     *   calculados a partir da base gerada.
+     */
+    @Test
+    void findProfile_ShouldUseSingleAggregation() throws Exception {
+        User user = users.get(31);
+        List<Post> newest = user.getPosts().stream()
+                .sorted(Comparator.comparing(Post::getDate).reversed())
+                .collect(Collectors.toList());
+        long received = user.getPosts().stream().mapToLong(p -> p.getComments().size()).sum();
+
+        RequestCost cost = measure(get("/users/{id}", user.getId()).param("include", "posts,commentCounts").param("postLimit", "4"));
+        mockMvc.perform(get("/users/{id}", user.getId()).param("include", "posts,commentCounts").param("postLimit", "4"))
+                .andExpect(jsonPath("$.name").value(user.getName()))
+                .andExpect(jsonPath("$.posts.length()").value(4))
+                .andExpect(jsonPath("$.posts[0].id").value(newest.get(0).getId()))
+                .andExpect(jsonPath("$.posts[3].id").value(newest.get(3).getId()))
+                .andExpect(jsonPath("$.postCount").value(POSTS_PER_USER))
+                .andExpect(jsonPath("$.commentCount").value(received));
+        mockMvc.perform(get("/users/{id}", user.getId()).param("include", "commentCounts"))
+                .andExpect(jsonPath("$.commentCount").value(received))
+                .andExpect(jsonPath("$.posts").doesNotExist())
+                .andExpect(jsonPath("$.postCount").doesNotExist());
+
+        log.info("GET /users/{{id}}?include=posts,commentCounts: {}", cost);
+        assertEquals(200, cost.getStatus());
+        assertEquals(List.of("aggregate"), cost.getCommands());
+    }
+
+    /**
+     * Testa a listagem dos posts de um usuário com a quantidade de documentos examinados.
+     * <p>
+     * Resultado esperado:
+     * - A consulta {@code $in} por IDs deve examinar apenas os posts do usuário.
+     */
+    @Test
+    void findPosts_ShouldExamineOnlyUserPosts() {
+        List<String> ids = users.get(11).getPosts().stream().map(Post::getId).collect(Collectors.toList());
+
+        long examined = docsExamined(new Query(Criteria.where("id").in(ids)));
+
+        assertTrue(examined <= ids.size(), "documentos examinados: " + examined);
+    }
+
+    /**
+     * Testa as estatísticas de um usuário, comparando com os dados gerados.
+     * <p>
+     * Resultado esperado:
+     * - Valores iguais aos calculados a partir da base gerada.
+     * - Na primeira leitura, a verificação do usuário, uma agregação por coleção (posts e posts
+     *   arquivados, já que o servidor de testes não tem {@code $unionWith}) e a leitura do contador de
+     *   comentários escritos; nas seguintes, nenhum comando.
+     */
+    @Test
+    void findStats_ShouldAggregateOnceAndServeFromCache() throws Exception {
+        // Outro usuário antes, para que a detecção do $unionWith não entre na contagem.
+        mockMvc.perform(get("/users/{id}/stats", users.get(24).getId())).andExpect(status().isOk());
+        User user = users.get(23);
+        long received = user.getPosts().stream().mapToLong(p -> p.getComments().size()).sum();
+        long authored = posts.stream().flatMap(p -> p.getComments().stream())
+                .filter(c -> c.getAuthor().getId().equals(user.getId())).count();
+
+        commandCounter.start();
+        mockMvc.perform(get("/users/{id}/stats", user.getId()))
+                .andExpect(jsonPath("$.postCount").value(POSTS_PER_USER))
+                .andExpect(jsonPath("$.commentsReceived").value(received))
+                .andExpect(jsonPath("$.commentsAuthored").value(authored));
+        List<String> firstCommands = commandCounter.stop();
+        RequestCost cached = measure(get("/users/{id}/stats", user.getId()));
+
+        log.info("GET /users/{{id}}/stats: primeira leitura {} | em cache: {}", firstCommands, cached);
+        assertEquals(4, firstCommands.size(), firstCommands.toString());
+        assertEquals(200, cached.getStatus());
+        assertTrue(cached.getCommands().isEmpty(), cached.toString());
+    }
+
+    /**
+     * Testa a busca de usuários por IDs malformados e inexistentes.
+     * <p>
+     * Resultado esperado:
+     * - 400 para o ID malformado e 404 para o inexistente, sem nenhum comando enviado ao MongoDB.
+     */
+    @Test
+    void findById_WhenIdIsMalformedOrAbsent_ShouldNotQueryMongo() throws Exception {
+        for (int i = 0; i < 500 && !idGuard.isReady(IdLookupGuard.Kind.USER); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(idGuard.isReady(IdLookupGuard.Kind.USER));
+
+        RequestCost malformed = measure(get("/users/{id}", "nao-e-um-id"));
+        // Um ID criado antes da montagem do filtro; os IDs mais novos seguem para o banco.
+        RequestCost absent = measure(get("/users/{id}", new ObjectId(new Date(System.currentTimeMillis() - 3_600_000)).toHexString()));
+
+        log.info("GET /users/{{id}} malformado: {}", malformed);
+        log.info("GET /users/{{id}} inexistente: {}", absent);
+        assertEquals(400, malformed.getStatus());
+        assertEquals(List.of(), malformed.getCommands());
+        assertEquals(404, absent.getStatus());
+        assertEquals(List.of(), absent.getCommands());
+        assertTrue(absent.getAllocatedBytes() <= USER_BY_ID_MAX_BYTES, absent.toString());
+    }
+
+    /**
+     * Testa a publicação de posts por um autor com poucos posts e por um autor com muitos posts.
+     * <p>
+     * Resultado esperado:
+     * - Os mesmos comandos (leitura do nome, inserção, gravação do resumo e {@code $push}) nos dois
+     *   casos, sem ler nem regravar a lista de posts do autor.
+     * - Alocação independente da quantidade de posts do autor.
+     */
+    @Test
+    void insertPost_ShouldNotDependOnAuthorPostCount() throws Exception {
+        User light = users.get(996);
+        User heavy = users.get(997);
+        List<DBRef> refs = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            refs.add(new DBRef(mongoTemplate.getCollectionName(Post.class), new ObjectId()));
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(heavy.getId())),
+                new Update().push("posts").each(refs.toArray()), User.class);
+
+        String body = "{\"title\":\"Novo post\",\"body\":\"Conteúdo\"}";
+        RequestCost few = measure(post("/users/{id}/posts", light.getId()).contentType(MediaType.APPLICATION_JSON).content(body));
+        RequestCost many = measure(post("/users/{id}/posts", heavy.getId()).contentType(MediaType.APPLICATION_JSON).content(body));
+
+        log.info("POST /users/{{id}}/posts (autor com {} posts): {}", POSTS_PER_USER, few);
+        log.info("POST /users/{{id}}/posts (autor com {} posts): {}", refs.size(), many);
+        assertEquals(201, few.getStatus());
+        assertEquals(201, many.getStatus());
+        assertEquals(List.of("find", "insert", "update", "update"), few.getCommands());
+        assertEquals(List.of("find", "insert", "update", "update"), many.getCommands());
+        assertTrue(many.getAllocatedBytes() <= few.getAllocatedBytes() * 2, many + " / " + few);
+        // 10 execuções de aquecimento e 9 medidas.
+        assertEquals(POSTS_PER_USER + 19, userRepository.findPostIds(light.getId()).orElseThrow().size());
+    }
+
+    private void awaitDirectoryCache() throws InterruptedException {
+        for (int i = 0; i < 500 && !directoryCache.stats().isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(directoryCache.stats().isReady());
+    }
+}
@@ -0,0 +1,99 @@
+package com.ewertonrodrigues.workshopmongo.performance;
+
+import com.ewertonrodrigues.workshopmongo.dto.WarmupReportDTO;
+import com.ewertonrodrigues.workshopmongo.services.HotIdTracker;
+import com.ewertonrodrigues.workshopmongo.services.IdLookupGuard;
+import com.ewertonrodrigues.workshopmongo.services.WarmupService;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes do aquecimento da inicialização, com o servidor HTTP em uma porta aleatória para que as
+ * requisições internas de aquecimento sejam executadas.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "workshop.seed.mode=off",
+        "workshop.counters.flush-interval-ms=3600000",
+        "workshop.warmup.enabled=true",
+        "workshop.warmup.requests=200"
+})
+class WarmupIT extends AbstractBudgetIT {
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Autowired
+    private HotIdTracker hotIds;
+
+    /**
+     * Testa o indicador de prontidão ao fim do aquecimento da inicialização.
+     * <p>
+     * Resultado esperado:
+     * - Ao fim do aquecimento, a prontidão deve estar disponível e o resultado deve registrar a duração.
+     */
+    @Test
+    void readiness_ShouldBeUpAfterWarmup() throws Exception {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (!warmupService.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(warmupService.isDone());
+
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        WarmupReportDTO report = warmupService.report();
+        log.info("Aquecimento da inicialização: {} ms, {} requisições", report.getElapsedMillis(), report.getRequests());
+        assertTrue(report.isCompleted());
+    }
+
+    /**
+     * Testa um aquecimento a partir dos IDs mais acessados gravados.
+     * <p>
+     * Resultado esperado:
+     * - Os IDs acessados devem ser somados aos gravados por outra instância e usados no aquecimento
+     *   seguinte, que pré-carrega esses usuários e posts e executa as requisições internas sem erros
+     *   de servidor.
+     * - As requisições do aquecimento não devem ser contadas como acessos.
+     */
+    @Test
+    void warmUp_ShouldPreloadRecordedHotIds() throws Exception {
+        String otherInstanceHot = users.get(9).getId();
+        mongoTemplate.getCollection("warmup").replaceOne(Filters.eq("_id", "hot-ids"),
+                new Document("_id", "hot-ids").append("version", 3L).append("users", List.of(otherInstanceHot))
+                        .append("usersHits", List.of(new Document("id", otherInstanceHot).append("hits", 100L))),
+                new ReplaceOptions().upsert(true));
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/users/{id}", users.get(i).getId())).andExpect(status().isOk());
+            hotIds.hit(IdLookupGuard.Kind.POST, posts.get(i).getId());
+        }
+        hotIds.save();
+        List<String> recorded = hotIds.recorded(IdLookupGuard.Kind.USER);
+        assertEquals(otherInstanceHot, recorded.get(0));
+        assertTrue(recorded.contains(users.get(0).getId()), recorded.toString());
+
+        WarmupReportDTO report = warmupService.warmUp();
+
+        log.info("Aquecimento com IDs gravados: {} ms, {} usuários, {} posts, {} requisições ({} com erro)",
+                report.getElapsedMillis(), report.getPreloadedUsers(), report.getPreloadedPosts(),
+                report.getRequests(), report.getFailedRequests());
+        assertTrue(report.isRecordedIds());
+        assertTrue(report.getPreloadedUsers() >= 5);
+        assertTrue(report.getPreloadedPosts() >= 5);
+        assertEquals(200, report.getRequests());
+        assertEquals(0, report.getFailedRequests());
+        assertFalse(report.isTimedOut());
+        assertTrue(hotIds.hottest(IdLookupGuard.Kind.USER).isEmpty(), hotIds.hottest(IdLookupGuard.Kind.USER).toString());
+    }
+}
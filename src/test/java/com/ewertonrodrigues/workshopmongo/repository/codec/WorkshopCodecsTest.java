@@ -0,0 +1,162 @@
+package com.ewertonrodrigues.workshopmongo.repository.codec;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostView;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoClientSettings;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de compatibilidade dos codecs escritos à mão com o mapeamento de entidades do Spring Data.
+ */
+class WorkshopCodecsTest {
+
+    private final CodecRegistry registry = WorkshopCodecs.registry("post");
+    private final Codec<Document> documentCodec = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext context = new MongoMappingContext();
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setTypeMapper(new DefaultMongoTypeMapper(null, context));
+        converter.afterPropertiesSet();
+    }
+
+    /**
+     * Testa a leitura e a gravação de um post com autor e comentários.
+     * <p>
+     * Resultado esperado:
+     * - O codec deve ler o documento gravado pelo mapeamento e gravar exatamente o mesmo documento.
+     */
+    @Test
+    void post_ShouldRoundTripWithMappingConverter() {
+        AuthorDTO maria = new AuthorDTO(new User(new ObjectId().toHexString(), "Maria", "maria@gmail.com"));
+        AuthorDTO alex = new AuthorDTO(new User("alex", "Alex", "alex@gmail.com"));
+        Post post = new Post(new ObjectId().toHexString(), new Date(1_600_000_000_000L), "Partiu viagem", "Vou viajar", maria);
+        post.setTitleWords(List.of("partiu", "viagem"));
+        post.getComments().add(new CommentDTO("Boa viagem", new Date(1_600_000_100_000L), alex));
+        post.getComments().add(new CommentDTO("Aproveite", new Date(1_600_000_200_000L), maria));
+        post.setCommentCount(7);
+        post.setViews(3);
+        post.setLikes(2);
+
+        Document mapped = new Document();
+        converter.write(post, mapped);
+
+        Post decoded = new RawBsonDocument(mapped, documentCodec).decode(registry.get(Post.class));
+        assertEquals(post.getId(), decoded.getId());
+        assertEquals(post.getDate(), decoded.getDate());
+        assertEquals(post.getBody(), decoded.getBody());
+        assertEquals(post.getTitleWords(), decoded.getTitleWords());
+        assertEquals(maria.getId(), decoded.getAuthor().getId());
+        assertEquals("alex", decoded.getComments().get(0).getAuthor().getId());
+        assertEquals("Aproveite", decoded.getComments().get(1).getText());
+        assertEquals(7, decoded.getCommentCount());
+
+        Document encoded = new RawBsonDocument(post, registry.get(Post.class)).decode(documentCodec);
+        assertEquals(mapped, encoded);
+        assertEquals(post.getTitle(), converter.read(Post.class, encoded).getTitle());
+    }
+
+    /**
+     * Testa a leitura da visão compacta de um post gravado pelo mapeamento de entidades.
+     * <p>
+     * Resultado esperado:
+     * - A visão deve ser serializada exatamente como o post lido pelo {@link PostCodec}.
+     * - O mesmo autor deve ser uma única instância no post e nos comentários, também entre posts.
+     */
+    @Test
+    void postView_ShouldSerializeLikePostAndShareAuthors() throws Exception {
+        AuthorDTO maria = new AuthorDTO(new User(new ObjectId().toHexString(), "Maria", "maria@gmail.com"));
+        AuthorDTO alex = new AuthorDTO(new User("alex", "Alex", "alex@gmail.com"));
+        Post post = new Post(new ObjectId().toHexString(), new Date(1_600_000_000_000L), "Partiu viagem", "Vou viajar", maria);
+        post.setTitleWords(List.of("partiu", "viagem"));
+        post.getComments().add(new CommentDTO("Boa viagem", new Date(1_600_000_100_000L), alex));
+        post.getComments().add(new CommentDTO("Aproveite", new Date(1_600_000_200_000L), maria));
+        post.setCommentCount(7);
+        post.setViews(3);
+        Post other = new Post(new ObjectId().toHexString(), null, "Sem comentários", null, maria);
+
+        Document mapped = new Document();
+        converter.write(post, mapped);
+        Document otherMapped = new Document();
+        converter.write(other, otherMapped);
+
+        PostView view = new RawBsonDocument(mapped, documentCodec).decode(registry.get(PostView.class));
+        PostView otherView = new RawBsonDocument(otherMapped, documentCodec).decode(registry.get(PostView.class));
+        Post decoded = new RawBsonDocument(mapped, documentCodec).decode(registry.get(Post.class));
+
+        ObjectMapper json = new ObjectMapper();
+        assertEquals(json.readTree(json.writeValueAsString(decoded)), json.readTree(json.writeValueAsString(view)));
+        assertEquals(1_600_000_000_000L, view.getDateMillis());
+        assertSame(view.getAuthor(), view.getComments().get(1).getAuthor());
+        assertSame(view.getAuthor(), otherView.getAuthor());
+        assertNull(otherView.getDate());
+        assertTrue(otherView.getComments().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> view.getComments().clear());
+    }
+
+    /**
+     * Testa a leitura de um usuário com referências a posts e de um documento antigo com {@code _class}.
+     * <p>
+     * Resultado esperado:
+     * - As referências devem ser lidas apenas com o ID do post e o {@code _class} deve ser ignorado.
+     */
+    @Test
+    void user_ShouldReadReferencesAndIgnoreTypeKey() {
+        String postId = new ObjectId().toHexString();
+        User user = new User(new ObjectId().toHexString(), "Maria", "maria@gmail.com");
+        user.getPosts().add(new Post(postId, null, null, null, null));
+
+        Document mapped = new Document();
+        converter.write(user, mapped);
+        mapped.put("_class", "com.ewertonrodrigues.workshopmongo.domain.User");
+
+        User decoded = new RawBsonDocument(mapped, documentCodec).decode(registry.get(User.class));
+        assertEquals(user.getId(), decoded.getId());
+        assertEquals("maria@gmail.com", decoded.getEmail());
+        assertEquals(postId, decoded.getPosts().get(0).getId());
+
+        mapped.remove("_class");
+        assertEquals(mapped, new RawBsonDocument(user, registry.get(User.class)).decode(documentCodec));
+    }
+
+    /**
+     * Testa a leitura de contadores gravados como inteiros de 32 bits por {@code $inc}.
+     * <p>
+     * Resultado esperado:
+     * - Os contadores devem ser lidos como {@code long}.
+     */
+    @Test
+    void post_ShouldReadInt32Counters() {
+        Document doc = new Document("_id", "p1").append("views", 5).append("likes", 2.0).append("comments", List.of());
+
+        Post decoded = new RawBsonDocument(doc, documentCodec).decode(registry.get(Post.class));
+
+        assertEquals("p1", decoded.getId());
+        assertEquals(5, decoded.getViews());
+        assertEquals(2, decoded.getLikes());
+        assertTrue(decoded.getComments().isEmpty());
+    }
+}
@@ -0,0 +1,188 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.ImportReportDTO;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a importação em lote da classe {@link BulkTransferService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkTransferServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    @InjectMocks
+    private BulkTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "importThreads", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    /**
+     * Testa a importação completa de 5 documentos em blocos de 2.
+     * <p>
+     * Resultado esperado:
+     * - 3 blocos devem ser gravados e o último bloco confirmado deve ser o de índice 2.
+     */
+    @Test
+    void importDocuments_ShouldWriteAllChunks() throws IOException {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "post")).thenReturn(bulk);
+
+        ImportReportDTO report = service.importDocuments("post", ndjson(5), 0);
+
+        assertTrue(report.isCompleted());
+        assertEquals(5, report.getDocuments());
+        assertEquals(2, report.getLastAcknowledgedChunk());
+        verify(bulk, times(3)).execute();
+        verify(bulk, times(5)).replaceOne(any(Query.class), any(Document.class), any(FindAndReplaceOptions.class));
+    }
+
+    /**
+     * Testa a retomada de uma importação a partir do bloco 1.
+     * <p>
+     * Resultado esperado:
+     * - O primeiro bloco deve ser descartado e apenas os 3 documentos seguintes gravados.
+     */
+    @Test
+    void importDocuments_WhenResumed_ShouldSkipAcknowledgedChunks() throws IOException {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "post")).thenReturn(bulk);
+
+        ImportReportDTO report = service.importDocuments("post", ndjson(5), 1);
+
+        assertTrue(report.isCompleted());
+        assertEquals(3, report.getDocuments());
+        assertEquals(1, report.getFirstChunk());
+        assertEquals(2, report.getLastAcknowledgedChunk());
+        verify(bulk, times(2)).execute();
+    }
+
+    /**
+     * Testa a importação quando a gravação de um bloco falha.
+     * <p>
+     * Resultado esperado:
+     * - A importação não deve ser marcada como concluída e a mensagem de erro deve ser informada.
+     */
+    @Test
+    void importDocuments_WhenChunkFails_ShouldReportError() throws IOException {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "post")).thenReturn(bulk);
+        when(bulk.execute()).thenThrow(new IllegalStateException("falha"));
+
+        ImportReportDTO report = service.importDocuments("post", ndjson(1), 0);
+
+        assertFalse(report.isCompleted());
+        assertEquals(-1, report.getLastAcknowledgedChunk());
+        assertNotNull(report.getError());
+    }
+
+    /**
+     * Testa a importação de um arquivo com uma linha inválida no terceiro bloco.
+     * <p>
+     * Resultado esperado:
+     * - O relatório deve trazer o erro e o último bloco confirmado, sem lançar exceção.
+     * - As migrações dos posts devem ser executadas para os documentos importados, e os caches dos
+     *   posts devem ser atualizados, incluindo o autocompletar de títulos.
+     */
+    @Test
+    void importDocuments_WhenLineIsInvalid_ShouldReturnPartialReport() throws IOException {
+        TitleSuggestService suggestService = mock(TitleSuggestService.class);
+        UserStatsService statsService = mock(UserStatsService.class);
+        IdLookupGuard idGuard = mock(IdLookupGuard.class);
+        PostSummaryService summaryService = mock(PostSummaryService.class);
+        PostMigrations migrations = mock(PostMigrations.class);
+        ReflectionTestUtils.setField(service, "suggestService", suggestService);
+        ReflectionTestUtils.setField(service, "migrations", migrations);
+        ReflectionTestUtils.setField(service, "statsService", statsService);
+        ReflectionTestUtils.setField(service, "idGuard", idGuard);
+        ReflectionTestUtils.setField(service, "summaryService", summaryService);
+        when(mongoTemplate.getCollectionName(any())).thenAnswer(invocation ->
+                invocation.getArgument(0) == Post.class ? "post" : "user");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "post")).thenReturn(bulk);
+
+        ImportReportDTO report = service.importDocuments("post", gzip(ndjsonLines(4) + "{\"_id\": \n"), 0);
+
+        assertFalse(report.isCompleted());
+        assertTrue(report.getError().contains("bloco 2"), report.getError());
+        assertEquals(1, report.getLastAcknowledgedChunk());
+        assertEquals(4, report.getDocuments());
+        verify(migrations).runAll();
+        verify(statsService).reconcileCounters();
+        verify(idGuard).rebuild(IdLookupGuard.Kind.POST);
+        verify(summaryService).refresh();
+        verify(suggestService).rebuild();
+    }
+
+    /**
+     * Testa a importação com um bloco inicial negativo.
+     * <p>
+     * Resultado esperado:
+     * - Deve ser lançada {@link BadRequestException}.
+     */
+    @Test
+    void importDocuments_WhenResumeFromIsNegative_ShouldThrowBadRequest() {
+        assertThrows(BadRequestException.class, () -> service.importDocuments("post", new ByteArrayInputStream(new byte[0]), -1));
+    }
+
+    /**
+     * Testa o método {@link BulkTransferService#collectionName(String)} com uma coleção não suportada.
+     */
+    @Test
+    void collectionName_WhenUnknown_ShouldThrowException() {
+        assertThrows(ObjectNotFoundException.class, () -> service.collectionName("comments"));
+    }
+
+    private static ByteArrayInputStream ndjson(int count) throws IOException {
+        return gzip(ndjsonLines(count));
+    }
+
+    private static String ndjsonLines(int count) {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            lines.append(new Document("_id", String.valueOf(i)).append("title", "Post " + i).toJson()).append('\n');
+        }
+        return lines.toString();
+    }
+
+    private static ByteArrayInputStream gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
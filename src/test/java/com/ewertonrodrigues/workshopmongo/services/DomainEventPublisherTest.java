@@ -0,0 +1,217 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.DomainEvent;
+import com.ewertonrodrigues.workshopmongo.dto.EventStatsDTO;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link DomainEventPublisher}.
+ */
+class DomainEventPublisherTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    /**
+     * Lotes recebidos pelo {@code insertMany}, na ordem de gravação.
+     */
+    private final List<List<DomainEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    private DomainEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new DomainEventPublisher();
+        ReflectionTestUtils.setField(publisher, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(publisher, "batchSize", 100);
+        ReflectionTestUtils.setField(publisher, "flushIntervalMs", 5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    /**
+     * Testa a publicação concorrente de eventos por várias threads.
+     * <p>
+     * Resultado esperado:
+     * - Todos os eventos devem ser gravados uma única vez, em lotes de no máximo 100, mantendo a
+     *   ordem de publicação de cada thread.
+     */
+    @Test
+    void publish_FromManyThreads_ShouldPersistAllEventsInBatches() throws Exception {
+        record();
+        ReflectionTestUtils.setField(publisher, "capacity", 16_384);
+        publisher.start();
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            String actor = "p" + p;
+            producers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 2_500; i++) {
+                    publisher.publish(DomainEvent.Type.USER_UPDATED, String.valueOf(i), actor);
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        publisher.shutdown();
+
+        Map<String, Integer> next = new HashMap<>();
+        for (List<DomainEvent> batch : batches) {
+            assertTrue(batch.size() <= 100, "lote com " + batch.size() + " eventos");
+            for (DomainEvent event : batch) {
+                int expected = next.getOrDefault(event.getActorId(), 0);
+                assertEquals(String.valueOf(expected), event.getEntityId());
+                next.put(event.getActorId(), expected + 1);
+            }
+        }
+        assertEquals(Map.of("p0", 2_500, "p1", 2_500, "p2", 2_500, "p3", 2_500), next);
+        EventStatsDTO stats = publisher.stats();
+        assertEquals(10_000, stats.getPublished());
+        assertEquals(10_000, stats.getPersisted());
+        assertEquals(0, stats.getDropped());
+        assertEquals(0, stats.getQueued());
+    }
+
+    /**
+     * Testa a fila cheia com a política {@code drop} enquanto a gravação de um lote está em andamento.
+     * <p>
+     * Resultado esperado:
+     * - Os eventos além da capacidade devem ser descartados sem bloquear a publicação.
+     * - Os eventos aceitos devem ser gravados no encerramento.
+     */
+    @Test
+    void publish_WhenRingIsFull_ShouldDropAndFlushOnShutdown() throws Exception {
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            inserting.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            batches.add(new ArrayList<>(invocation.<Collection<DomainEvent>>getArgument(0)));
+            return invocation.getArgument(0);
+        }).when(mongoTemplate).insert(anyCollection(), eq(DomainEvent.class));
+        ReflectionTestUtils.setField(publisher, "capacity", 4);
+        publisher.start();
+
+        publisher.publish(DomainEvent.Type.POST_CREATED, "1", "10");
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 11; i++) {
+            publisher.publish(DomainEvent.Type.COMMENT_ADDED, String.valueOf(i), "20");
+        }
+        EventStatsDTO stats = publisher.stats();
+        assertEquals(5, stats.getPublished());
+        assertEquals(6, stats.getDropped());
+        assertEquals(4, stats.getQueued());
+
+        release.countDown();
+        publisher.shutdown();
+
+        assertEquals(5, batches.stream().mapToInt(List::size).sum());
+        assertEquals(5, publisher.stats().getPersisted());
+    }
+
+    /**
+     * Testa a falha na gravação de um lote.
+     * <p>
+     * Resultado esperado:
+     * - O mesmo lote, com os mesmos IDs, deve ser gravado novamente no ciclo seguinte com uma
+     *   inserção não ordenada, sem perder eventos.
+     */
+    @Test
+    void flush_WhenInsertFails_ShouldRetrySameBatch() {
+        List<DomainEvent> first = new ArrayList<>();
+        doAnswer(invocation -> {
+            first.addAll(invocation.<Collection<DomainEvent>>getArgument(0));
+            throw new IllegalStateException("indisponível");
+        }).when(mongoTemplate).insert(anyCollection(), eq(DomainEvent.class));
+        BulkOperations bulk = retryBulk();
+        publisher.start();
+
+        publisher.publish(DomainEvent.Type.USER_CREATED, "1", "1");
+        publisher.publish(DomainEvent.Type.USER_DELETED, "2", null);
+        publisher.shutdown();
+
+        verify(bulk).execute();
+        assertEquals(1, publisher.stats().getFailures());
+        assertEquals(2, publisher.stats().getPersisted());
+        assertEquals(List.of("1", "2"), batches.stream().flatMap(List::stream).map(DomainEvent::getEntityId).collect(Collectors.toList()));
+        assertEquals(first.stream().map(DomainEvent::getId).collect(Collectors.toList()),
+                batches.get(0).stream().map(DomainEvent::getId).collect(Collectors.toList()));
+        assertTrue(first.stream().allMatch(event -> event.getId() != null));
+    }
+
+    /**
+     * Testa a nova tentativa de um lote gravado em parte pela tentativa anterior.
+     * <p>
+     * Resultado esperado:
+     * - Os erros de chave duplicada dos eventos já gravados devem ser ignorados e o lote considerado
+     *   gravado, sem nova falha.
+     */
+    @Test
+    void flush_WhenRetryHitsDuplicateKeys_ShouldTreatBatchAsPersisted() {
+        doThrow(new IllegalStateException("tempo esgotado")).when(mongoTemplate).insert(anyCollection(), eq(DomainEvent.class));
+        BulkOperations bulk = retryBulk();
+        MongoBulkWriteException duplicate = new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of());
+        when(bulk.execute()).thenThrow(new BulkOperationException("duplicado", duplicate));
+        publisher.start();
+
+        publisher.publish(DomainEvent.Type.POST_CREATED, "1", "1");
+        publisher.shutdown();
+
+        verify(bulk).execute();
+        assertEquals(1, publisher.stats().getFailures());
+        assertEquals(1, publisher.stats().getPersisted());
+    }
+
+    /**
+     * Simula a inserção não ordenada usada nas novas tentativas, registrando os lotes recebidos.
+     */
+    private BulkOperations retryBulk() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DomainEvent.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.<List<DomainEvent>>getArgument(0)));
+            return bulk;
+        });
+        return bulk;
+    }
+
+    private void record() {
+        when(mongoTemplate.insert(anyCollection(), eq(DomainEvent.class))).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.<Collection<DomainEvent>>getArgument(0)));
+            return invocation.getArgument(0);
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link HotIdTracker}.
+ */
+class HotIdTrackerTest {
+
+    private HotIdTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HotIdTracker();
+        ReflectionTestUtils.setField(tracker, "hotIds", 2);
+        ReflectionTestUtils.setField(tracker, "trackedIds", 3);
+    }
+
+    /**
+     * Testa a ordenação dos IDs mais acessados.
+     * <p>
+     * Resultado esperado:
+     * - Devem ser retornados apenas os dois IDs mais acessados, do mais acessado para o menos
+     *   acessado, separados por coleção.
+     */
+    @Test
+    void hottest_ShouldReturnMostAccessedIdsPerCollection() {
+        hit(IdLookupGuard.Kind.POST, "a", 1);
+        hit(IdLookupGuard.Kind.POST, "b", 5);
+        hit(IdLookupGuard.Kind.POST, "c", 3);
+        hit(IdLookupGuard.Kind.USER, "u", 1);
+
+        assertEquals(List.of("b", "c"), tracker.hottest(IdLookupGuard.Kind.POST));
+        assertEquals(List.of("u"), tracker.hottest(IdLookupGuard.Kind.USER));
+    }
+
+    /**
+     * Testa o limite de IDs registrados.
+     * <p>
+     * Resultado esperado:
+     * - Depois do limite, IDs novos devem ser ignorados e os já registrados continuam sendo contados.
+     */
+    @Test
+    void hit_WhenLimitIsReached_ShouldIgnoreNewIds() {
+        hit(IdLookupGuard.Kind.USER, "a", 1);
+        hit(IdLookupGuard.Kind.USER, "b", 1);
+        hit(IdLookupGuard.Kind.USER, "c", 1);
+        hit(IdLookupGuard.Kind.USER, "d", 10);
+        hit(IdLookupGuard.Kind.USER, "a", 1);
+
+        List<String> hottest = tracker.hottest(IdLookupGuard.Kind.USER);
+        assertEquals("a", hottest.get(0));
+        assertFalse(hottest.contains("d"));
+    }
+
+    /**
+     * Testa as leituras das requisições do aquecimento.
+     * <p>
+     * Resultado esperado:
+     * - As leituras de requisições com o cabeçalho {@link HotIdTracker#UNTRACKED_HEADER} não devem ser contadas.
+     */
+    @Test
+    void hit_WhenRequestIsUntracked_ShouldNotCount() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HotIdTracker.UNTRACKED_HEADER, "true");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            hit(IdLookupGuard.Kind.USER, "a", 3);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        hit(IdLookupGuard.Kind.USER, "b", 1);
+
+        assertEquals(List.of("b"), tracker.hottest(IdLookupGuard.Kind.USER));
+    }
+
+    /**
+     * Testa a gravação dos acessos sobre um registro gravado há duas meias-vidas.
+     * <p>
+     * Resultado esperado:
+     * - Os acessos gravados devem cair para um quarto antes da soma, e os que chegam a zero devem
+     *   ser descartados, de modo que os IDs acessados agora passem à frente dos antigos.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void save_ShouldDecayRecordedHitsByHalfLife() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoCollection<Document> collection = mock(MongoCollection.class, RETURNS_DEEP_STUBS);
+        when(mongoTemplate.getCollection(HotIdTracker.COLLECTION)).thenReturn(collection);
+        ReflectionTestUtils.setField(tracker, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(tracker, "halfLifeMs", 3_600_000L);
+        Document current = new Document("_id", "hot-ids").append("version", 3L)
+                .append("savedAt", new Date(System.currentTimeMillis() - 7_200_000L))
+                .append("posts", List.of("a", "b"))
+                .append("postsHits", List.of(new Document("id", "a").append("hits", 40L), new Document("id", "b").append("hits", 1L)));
+        when(collection.find(any(Bson.class)).first()).thenReturn(current);
+        when(collection.replaceOne(any(Bson.class), any(Document.class)).getMatchedCount()).thenReturn(1L);
+        hit(IdLookupGuard.Kind.POST, "c", 12);
+
+        tracker.save();
+
+        ArgumentCaptor<Document> saved = ArgumentCaptor.forClass(Document.class);
+        verify(collection, atLeastOnce()).replaceOne(any(Bson.class), saved.capture());
+        Document doc = saved.getAllValues().get(saved.getAllValues().size() - 1);
+        assertEquals(List.of("c", "a"), doc.getList("posts", String.class));
+        assertEquals(10L, doc.getList("postsHits", Document.class).get(1).get("hits"));
+        assertEquals(4L, doc.getLong("version"));
+    }
+
+    private void hit(IdLookupGuard.Kind kind, String id, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.hit(kind, id);
+        }
+    }
+}
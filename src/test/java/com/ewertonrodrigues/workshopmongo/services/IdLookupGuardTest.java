@@ -0,0 +1,140 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes unitários para as classes {@link IdLookupGuard} e {@link BloomFilter}.
+ */
+class IdLookupGuardTest {
+
+    private final IdLookupGuard guard = new IdLookupGuard();
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+    /**
+     * Testa a busca por um ID que não tem o formato de um ObjectId.
+     * <p>
+     * Resultado esperado:
+     * - Deve ser lançada {@link BadRequestException}.
+     */
+    @Test
+    void requireCandidate_WhenIdIsMalformed_ShouldThrowBadRequest() {
+        assertThrows(BadRequestException.class, () -> guard.requireCandidate(IdLookupGuard.Kind.USER, "abc"));
+    }
+
+    /**
+     * Testa a busca repetida por um ID não encontrado e a gravação posterior desse ID.
+     * <p>
+     * Resultado esperado:
+     * - A segunda busca deve ser respondida pelo cache negativo.
+     * - Após a gravação do ID, a busca deve voltar a ser permitida.
+     */
+    @Test
+    void recordMiss_ShouldAnswerUntilIdIsSaved() {
+        String id = new ObjectId().toHexString();
+        guard.requireCandidate(IdLookupGuard.Kind.USER, id);
+        guard.recordMiss(IdLookupGuard.Kind.USER, id);
+
+        assertThrows(ObjectNotFoundException.class, () -> guard.requireCandidate(IdLookupGuard.Kind.USER, id));
+        assertDoesNotThrow(() -> guard.requireCandidate(IdLookupGuard.Kind.POST, id));
+
+        guard.onAfterSave(new AfterSaveEvent<>(new User(id, "Maria", "maria@gmail.com"),
+                new Document("_id", new ObjectId(id)), "user"));
+        assertDoesNotThrow(() -> guard.requireCandidate(IdLookupGuard.Kind.USER, id));
+    }
+
+    /**
+     * Testa o filtro montado a partir de uma base vazia, com IDs criados antes e depois da leitura.
+     * <p>
+     * Resultado esperado:
+     * - O ID criado antes da leitura e ausente do filtro deve ser rejeitado sem consultar o banco.
+     * - O ID criado depois da leitura (ex.: gravado por outra instância) deve seguir para o banco.
+     * - A reconstrução do filtro deve descartar o cache negativo.
+     */
+    @Test
+    void requireCandidate_ShouldTrustFilterOnlyForIdsCreatedBeforeLastRead() {
+        ReflectionTestUtils.setField(guard, "mongoTemplate", mock(MongoTemplate.class, RETURNS_DEEP_STUBS));
+        guard.rebuild(IdLookupGuard.Kind.USER).join();
+
+        String old = new ObjectId(new Date(System.currentTimeMillis() - 3_600_000)).toHexString();
+        String recent = new ObjectId().toHexString();
+        assertThrows(ObjectNotFoundException.class, () -> guard.requireCandidate(IdLookupGuard.Kind.USER, old));
+        assertDoesNotThrow(() -> guard.requireCandidate(IdLookupGuard.Kind.USER, recent));
+
+        guard.recordMiss(IdLookupGuard.Kind.USER, recent);
+        assertThrows(ObjectNotFoundException.class, () -> guard.requireCandidate(IdLookupGuard.Kind.USER, recent));
+        guard.rebuild(IdLookupGuard.Kind.USER).join();
+        assertDoesNotThrow(() -> guard.requireCandidate(IdLookupGuard.Kind.USER, recent));
+    }
+
+    /**
+     * Testa a busca por um ID existente informado em hexadecimal maiúsculo.
+     * <p>
+     * Resultado esperado:
+     * - O ID deve ser comparado com o filtro e com o cache negativo na forma minúscula, como o
+     *   Spring Data, que lê o mesmo documento em qualquer caixa.
+     */
+    @Test
+    void requireCandidate_WhenIdIsUppercase_ShouldMatchStoredId() {
+        ReflectionTestUtils.setField(guard, "mongoTemplate", mock(MongoTemplate.class, RETURNS_DEEP_STUBS));
+        guard.rebuild(IdLookupGuard.Kind.POST).join();
+        String id = new ObjectId(new Date(System.currentTimeMillis() - 3_600_000)).toHexString();
+        guard.onAfterSave(new AfterSaveEvent<>(new Post(id, new Date(), "Partiu viagem", "Vou viajar", null),
+                new Document("_id", new ObjectId(id)), "post"));
+
+        assertDoesNotThrow(() -> guard.requireCandidate(IdLookupGuard.Kind.POST, id.toUpperCase()));
+
+        String missing = new ObjectId().toHexString();
+        guard.recordMiss(IdLookupGuard.Kind.POST, missing.toUpperCase());
+        assertThrows(ObjectNotFoundException.class, () -> guard.requireCandidate(IdLookupGuard.Kind.POST, missing));
+    }
+
+    /**
+     * Testa o filtro de Bloom com a quantidade de IDs para a qual foi dimensionado.
+     * <p>
+     * Resultado esperado:
+     * - Todos os IDs incluídos devem ser reconhecidos.
+     * - A taxa de falsos positivos deve ficar próxima da configurada.
+     */
+    @Test
+    void bloomFilter_ShouldHaveNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = new ObjectId().toHexString();
+            ids.add(id);
+            filter.put(id);
+        }
+        ids.forEach(id -> assertTrue(filter.mightContain(id)));
+        assertFalse(filter.isSaturated());
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(new ObjectId().toHexString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "falsos positivos: " + falsePositives);
+    }
+}
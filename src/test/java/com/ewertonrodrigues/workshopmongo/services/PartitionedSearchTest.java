@@ -0,0 +1,108 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import com.ewertonrodrigues.workshopmongo.services.exception.SearchTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link PartitionedSearch}.
+ */
+class PartitionedSearchTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * Um post por dia durante 400 dias, representado pela sua data.
+     */
+    private final List<Date> posts = LongStream.range(0, 400).mapToObj(day -> new Date(day * DAY)).collect(Collectors.toList());
+
+    private final List<Date> searched = Collections.synchronizedList(new ArrayList<>());
+
+    private PartitionedSearch search;
+
+    @BeforeEach
+    void setUp() {
+        search = new PartitionedSearch();
+        ReflectionTestUtils.setField(search, "partitions", 8);
+        ReflectionTestUtils.setField(search, "minPartitionDays", 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        search.shutdown();
+    }
+
+    /**
+     * Testa a busca particionada sem limite.
+     * <p>
+     * Resultado esperado:
+     * - Todos os posts devem ser retornados uma única vez, em ordem de data decrescente.
+     */
+    @Test
+    void search_ShouldMergePartitionsInDateOrder() {
+        List<Date> result = search.search(new Date(0), new Date(399 * DAY), 0, this::partition);
+
+        List<Date> expected = new ArrayList<>(posts);
+        Collections.reverse(expected);
+        assertEquals(expected, result);
+        assertEquals(8, searched.size());
+    }
+
+    /**
+     * Testa a busca particionada com limite, uma partição por vez.
+     * <p>
+     * Resultado esperado:
+     * - Os posts mais recentes devem ser retornados e as partições mais antigas não devem ser consultadas.
+     */
+    @Test
+    void search_WithLimit_ShouldStopAfterNewestPartitions() {
+        ReflectionTestUtils.setField(search, "concurrency", 1);
+
+        List<Date> result = search.search(new Date(0), new Date(399 * DAY), 60, this::partition);
+
+        assertEquals(60, result.size());
+        assertEquals(new Date(399 * DAY), result.get(0));
+        assertEquals(new Date(340 * DAY), result.get(59));
+        assertTrue(searched.size() < 8, "partições consultadas: " + searched.size());
+    }
+
+    /**
+     * Testa intervalos curtos, limites inválidos e falhas nas partições.
+     * <p>
+     * Resultado esperado:
+     * - Intervalos menores que duas partições mínimas não são divididos.
+     * - Limites inválidos e exceções das partições chegam ao chamador.
+     */
+    @Test
+    void search_ShouldKeepShortRangesAndPropagateErrors() {
+        assertEquals(1, search.partitionsFor(new Date(0), new Date(40 * DAY)));
+        assertThrows(BadRequestException.class, () -> search.checkLimit(-1));
+        assertThrows(BadRequestException.class, () -> search.checkLimit(1001));
+        assertThrows(SearchTimeoutException.class, () -> search.search(new Date(0), new Date(399 * DAY), 0,
+                (from, to, limit, ordered) -> {
+                    throw new SearchTimeoutException("A busca excedeu o tempo limite");
+                }));
+    }
+
+    private List<Date> partition(Date from, Date to, int limit, boolean ordered) {
+        searched.add(from);
+        assertTrue(ordered);
+        return posts.stream()
+                .filter(date -> !date.before(from) && !date.after(to))
+                .sorted(Collections.reverseOrder())
+                .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+    }
+}
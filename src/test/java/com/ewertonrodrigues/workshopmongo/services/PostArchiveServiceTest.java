@@ -0,0 +1,84 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.ArchiveReportDTO;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link PostArchiveService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class PostArchiveServiceTest {
+
+    @Mock
+    private PostRepository repo;
+
+    @Mock
+    private UserStatsService statsService;
+
+    @InjectMocks
+    private PostArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "batchPauseMs", 0L);
+    }
+
+    /**
+     * Testa o arquivamento de cinco posts em lotes de dois, com um post alterado durante a movimentação.
+     * <p>
+     * Resultado esperado:
+     * - Devem ser contados os posts excluídos de cada lote, e não os lidos.
+     * - Os lotes devem ser movidos até um lote que não exclui nenhum post, as estatísticas devem ser descartadas e as
+     *   buscas a partir da data do post arquivado mais recente devem passar a consultar o arquivo.
+     */
+    @Test
+    void archive_ShouldMoveBatchesUntilNothingIsDeleted() {
+        Date newest = new Date(1_000_000L);
+        when(repo.archiveBatch(any(Date.class), eq(2))).thenReturn(2, 1, 2, 0);
+        when(repo.newestArchivedDate()).thenReturn(newest);
+
+        ArchiveReportDTO report = service.archive();
+
+        assertEquals(5, report.getMoved());
+        assertEquals(3, report.getBatches());
+        verify(repo, times(4)).archiveBatch(any(Date.class), eq(2));
+        verify(repo).prepareArchive();
+        verify(statsService).clear();
+        assertTrue(service.reaches(newest));
+        assertFalse(service.reaches(new Date(newest.getTime() + 1)));
+    }
+
+    /**
+     * Testa a busca por ID e o alcance das buscas com o arquivo vazio.
+     * <p>
+     * Resultado esperado:
+     * - Nenhuma consulta deve ser feita à coleção de posts arquivados.
+     */
+    @Test
+    void findById_WhenArchiveIsEmpty_ShouldNotQuery() {
+        when(repo.newestArchivedDate()).thenReturn(null);
+        service.onStartup();
+
+        Optional<Post> post = service.findById("5f0000000000000000000001");
+
+        assertTrue(post.isEmpty());
+        assertFalse(service.reaches(new Date(0)));
+        verify(repo, never()).findArchivedById(anyString());
+        verify(repo, never()).prepareArchive();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.CompressedText;
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.CompressionStatsDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link PostBodyCompression}.
+ */
+class PostBodyCompressionTest {
+
+    private PostBodyCompression compression;
+
+    @BeforeEach
+    void setUp() {
+        compression = new PostBodyCompression();
+        ReflectionTestUtils.setField(compression, "enabled", true);
+        ReflectionTestUtils.setField(compression, "thresholdBytes", 100);
+    }
+
+    /**
+     * Testa a gravação de um post com corpo acima do limite.
+     * <p>
+     * Resultado esperado:
+     * - O corpo deve ser trocado pelo campo "bodyZ", descomprimido apenas na leitura, e as
+     *   estatísticas devem registrar a razão de compressão.
+     * - As palavras normalizadas do corpo devem ser gravadas em "bodyWords", para as buscas.
+     */
+    @Test
+    void onBeforeSave_ShouldCompressLongBody() throws Exception {
+        String body = "Partiu viagem para São Paulo. ".repeat(50);
+        Document doc = save(body);
+
+        assertFalse(doc.containsKey("body"));
+        assertEquals(List.of("partiu", "viagem", "para", "sao", "paulo"), doc.getList("bodyWords", String.class));
+        byte[] data = doc.get("bodyZ", Binary.class).getData();
+        assertTrue(data.length < body.length() / 5);
+
+        Post post = new Post("1", new Date(), "Partiu viagem", null, null);
+        post.setCompressedBody(data);
+        assertEquals(body, post.getBody());
+        assertEquals("\"" + body + "\"", new ObjectMapper().writeValueAsString(new CompressedText(data)));
+
+        CompressionStatsDTO stats = compression.stats();
+        assertEquals(1, stats.getCompressed());
+        assertTrue(stats.getRatio() > 5, String.valueOf(stats.getRatio()));
+    }
+
+    /**
+     * Testa a gravação de um corpo curto e a regravação de um corpo alterado com a compressão desabilitada.
+     * <p>
+     * Resultado esperado:
+     * - O corpo deve ser gravado como texto, sem o corpo comprimido e as palavras anteriores.
+     */
+    @Test
+    void onBeforeSave_ShouldKeepShortOrDisabledBodyAsText() {
+        assertEquals("Bom dia", save("Bom dia").getString("body"));
+
+        ReflectionTestUtils.setField(compression, "enabled", false);
+        Document doc = new Document("body", "x".repeat(500)).append("bodyZ", new Binary(new byte[]{1}))
+                .append("bodyWords", List.of("x"));
+        compression.onBeforeSave(new BeforeSaveEvent<>(new Post(), doc, "post"));
+
+        assertEquals(500, doc.getString("body").length());
+        assertFalse(doc.containsKey("bodyZ"));
+        assertFalse(doc.containsKey("bodyWords"));
+        assertEquals(0, compression.stats().getCompressed());
+    }
+
+    private Document save(String body) {
+        Document doc = new Document("_id", "1").append("body", body);
+        compression.onBeforeSave(new BeforeSaveEvent<>(new Post(), doc, "post"));
+        return doc;
+    }
+}
@@ -0,0 +1,205 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepositoryCustomImpl;
+import com.mongodb.bulk.BulkWriteResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link PostCounterService}.
+ * Garantem que os incrementos são acumulados em memória e enviados em lote ao banco de dados.
+ */
+@ExtendWith(MockitoExtension.class)
+class PostCounterServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    @Mock
+    private TitleSuggestService suggestService;
+
+    @InjectMocks
+    private PostCounterService service;
+
+    /**
+     * Testa o método {@link PostCounterService#applyPending(Post)}.
+     * <p>
+     * Resultado esperado:
+     * - Os contadores do post devem somar o valor persistido e os incrementos pendentes.
+     * - Nenhuma escrita deve ser feita no banco de dados.
+     */
+    @Test
+    void applyPending_ShouldMergePersistedAndPendingCounts() {
+        Post post = new Post("1", new Date(), "Title", "Content", null);
+        post.setViews(10);
+
+        service.incrementViews("1");
+        service.incrementViews("1");
+        service.incrementLikes("1");
+        service.applyPending(post);
+
+        assertEquals(12, post.getViews());
+        assertEquals(1, post.getLikes());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    /**
+     * Testa o método {@link PostCounterService#flush()}.
+     * <p>
+     * Resultado esperado:
+     * - Um único lote não ordenado deve ser executado com uma atualização por post.
+     * - Após o envio, não deve haver incrementos pendentes.
+     */
+    @Test
+    void flush_ShouldSendOneUnorderedBulk() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(matched(2));
+
+        service.incrementViews("1");
+        service.incrementViews("2");
+        service.incrementLikes("2");
+        service.flush();
+
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        verify(bulk, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(bulk, times(1)).execute();
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Post.class));
+        verify(suggestService, times(1)).countersFlushed(Map.of("1", 1L, "2", 2L));
+
+        Post post = new Post("2", new Date(), "Title", "Content", null);
+        service.applyPending(post);
+        assertEquals(0, post.getViews());
+        assertEquals(0, post.getLikes());
+    }
+
+    /**
+     * Testa o método {@link PostCounterService#applyPending(Post)} durante o envio dos incrementos.
+     * <p>
+     * Resultado esperado:
+     * - Enquanto o lote não é confirmado, os incrementos enviados continuam somados às leituras.
+     */
+    @Test
+    void applyPending_WhileFlushIsInFlight_ShouldKeepDeltasVisible() {
+        Post post = new Post("1", new Date(), "Title", "Content", null);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulk);
+        when(bulk.execute()).thenAnswer(invocation -> {
+            service.applyPending(post);
+            return matched(1);
+        });
+
+        service.incrementViews("1");
+        service.incrementViews("1");
+        service.flush();
+
+        assertEquals(2, post.getViews());
+    }
+
+    /**
+     * Testa o método {@link PostCounterService#flush()} para um post sem novos incrementos.
+     * <p>
+     * Resultado esperado:
+     * - A entrada é mantida no ciclo em que é enviada e removida no ciclo seguinte, sem incrementos.
+     * - Um incremento posterior cria uma nova entrada.
+     */
+    @Test
+    void flush_WhenCountersAreIdle_ShouldRemoveEntry() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(matched(1));
+
+        service.incrementViews("1");
+        service.flush();
+        assertEquals(1, service.size());
+
+        service.flush();
+        assertEquals(0, service.size());
+        verify(bulk, times(1)).execute();
+
+        service.incrementLikes("1");
+        Post post = new Post("1", new Date(), "Title", "Content", null);
+        service.applyPending(post);
+        assertEquals(1, post.getLikes());
+    }
+
+    /**
+     * Testa o método {@link PostCounterService#flush()} quando um dos posts foi arquivado.
+     * <p>
+     * Resultado esperado:
+     * - O incremento do post ausente da coleção de posts deve ser reaplicado na coleção de posts arquivados.
+     * - O incremento do post presente não deve ser reaplicado.
+     */
+    @Test
+    void flush_WhenPostWasArchived_ShouldApplyIncrementToArchive() {
+        BulkOperations archive = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulk);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class,
+                PostRepositoryCustomImpl.ARCHIVE_COLLECTION)).thenReturn(archive);
+        when(bulk.execute()).thenReturn(matched(1));
+        when(mongoTemplate.find(any(Query.class), eq(Post.class)))
+                .thenReturn(List.of(new Post("1", new Date(), "Title", "Content", null)));
+
+        service.incrementViews("1");
+        service.incrementLikes("2");
+        service.flush();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(archive, times(1)).updateOne(query.capture(), any(Update.class));
+        assertEquals("2", query.getValue().getQueryObject().get("id"));
+        verify(archive, times(1)).execute();
+    }
+
+    /**
+     * Testa o método {@link PostCounterService#flush()} quando o envio falha.
+     * <p>
+     * Resultado esperado:
+     * - Os incrementos devem voltar a ficar pendentes para o próximo ciclo.
+     */
+    @Test
+    void flush_WhenBulkFails_ShouldKeepPendingCounts() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulk);
+        when(bulk.execute()).thenThrow(new IllegalStateException("falha"));
+
+        service.incrementViews("1");
+
+        assertThrows(IllegalStateException.class, () -> service.flush());
+
+        Post post = new Post("1", new Date(), "Title", "Content", null);
+        service.applyPending(post);
+        assertEquals(1, post.getViews());
+    }
+
+    /**
+     * Testa o método {@link PostCounterService#flush()} sem incrementos pendentes.
+     * <p>
+     * Resultado esperado:
+     * - Nenhuma operação deve ser enviada ao banco de dados.
+     */
+    @Test
+    void flush_WithoutPendingCounts_ShouldNotTouchDatabase() {
+        service.flush();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static BulkWriteResult matched(int count) {
+        return BulkWriteResult.acknowledged(0, count, 0, count, List.of(), List.of());
+    }
+}
@@ -0,0 +1,67 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link PostFieldProjection}.
+ * Verificam a validação dos campos contra o mapeamento de {@code Post} e a projeção gerada.
+ */
+class PostFieldProjectionTest {
+
+    private PostFieldProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        projection = new PostFieldProjection();
+        ReflectionTestUtils.setField(projection, "mappingContext", new MongoMappingContext());
+    }
+
+    /**
+     * Testa a tradução dos campos, incluindo os aninhados, para os nomes gravados no banco de dados.
+     * <p>
+     * Resultado esperado:
+     * - {@code id} deve ser traduzido para {@code _id}, inclusive no autor.
+     */
+    @Test
+    void resolve_ShouldTranslateToDatabaseFieldNames() {
+        assertEquals(List.of("_id", "title", "date", "author.name", "author._id"),
+                List.copyOf(projection.resolve("id, title,date,author.name,author.id")));
+    }
+
+    /**
+     * Testa a projeção aplicada à consulta.
+     * <p>
+     * Resultado esperado:
+     * - Apenas os campos solicitados devem ser incluídos.
+     */
+    @Test
+    void apply_ShouldIncludeOnlyRequestedFields() {
+        Query query = projection.apply(new Query(), "title,comments.text");
+
+        assertEquals(new Document("title", 1).append("comments.text", 1), query.getFieldsObject());
+    }
+
+    /**
+     * Testa campos inexistentes ou internos.
+     * <p>
+     * Resultado esperado:
+     * - O método deve lançar a exceção {@link BadRequestException}.
+     */
+    @Test
+    void resolve_WhenFieldIsInvalid_ShouldThrowException() {
+        assertThrows(BadRequestException.class, () -> projection.resolve("password"));
+        assertThrows(BadRequestException.class, () -> projection.resolve("author.email"));
+        assertThrows(BadRequestException.class, () -> projection.resolve("titleWords"));
+        assertThrows(BadRequestException.class, () -> projection.resolve(" , "));
+    }
+}
@@ -0,0 +1,94 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link PostMigrations}.
+ */
+class PostMigrationsTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final PostRepository repo = mock(PostRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+
+    private final PostMigrations migrations = new PostMigrations();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(migrations, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(migrations, "repo", repo);
+        when(mongoTemplate.getCollection(PostMigrations.COLLECTION)).thenReturn(collection);
+        marker("posts.titleWords", new Document("_id", "posts.titleWords"));
+        marker("posts.bodyWords", null);
+        marker("posts.commentCount", null);
+    }
+
+    /**
+     * Testa a execução das migrações com uma delas já registrada.
+     * <p>
+     * Resultado esperado:
+     * - A migração registrada não deve percorrer os posts novamente.
+     * - As demais devem ser executadas e registradas.
+     */
+    @Test
+    void runPending_ShouldRunOnlyUnrecordedMigrations() {
+        when(repo.backfillBodyWords()).thenReturn(3L);
+
+        migrations.runPending();
+
+        verify(repo, never()).backfillTitleWords();
+        verify(repo).backfillBodyWords();
+        verify(repo).backfillCommentCount();
+        ArgumentCaptor<Document> markers = ArgumentCaptor.forClass(Document.class);
+        verify(collection, times(2)).insertOne(markers.capture());
+        assertEquals("posts.bodyWords", markers.getAllValues().get(0).getString("_id"));
+        assertEquals(3L, markers.getAllValues().get(0).getLong("updated"));
+        assertEquals("posts.commentCount", markers.getAllValues().get(1).getString("_id"));
+    }
+
+    /**
+     * Testa a falha de uma migração.
+     * <p>
+     * Resultado esperado:
+     * - A migração que falhou não deve ser registrada, para ser executada na próxima inicialização,
+     *   e as seguintes devem ser executadas normalmente.
+     */
+    @Test
+    void runPending_WhenMigrationFails_ShouldNotRecordIt() {
+        when(repo.backfillBodyWords()).thenThrow(new IllegalStateException("indisponível"));
+
+        migrations.runPending();
+
+        verify(repo).backfillCommentCount();
+        ArgumentCaptor<Document> markers = ArgumentCaptor.forClass(Document.class);
+        verify(collection).insertOne(markers.capture());
+        assertEquals("posts.commentCount", markers.getValue().getString("_id"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void marker(String name, Document marker) {
+        FindIterable<Document> found = mock(FindIterable.class);
+        when(found.first()).thenReturn(marker);
+        when(collection.find(eqFilter(name))).thenReturn(found);
+    }
+
+    private static Bson eqFilter(String name) {
+        return argThat(filter -> filter != null && filter.equals(Filters.eq("_id", name)));
+    }
+}
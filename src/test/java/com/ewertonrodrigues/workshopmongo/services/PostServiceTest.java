@@ -1,14 +1,22 @@
 package com.ewertonrodrigues.workshopmongo.services;
 
+import com.ewertonrodrigues.workshopmongo.domain.DomainEvent;
 import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
 import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
 import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.Arrays;
 import java.util.Date;
@@ -28,6 +36,42 @@ class PostServiceTest {
     @Mock
     private PostRepository repo;
 
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private PostCounterService counters;
+
+    @Spy
+    private SearchPlanner planner = new SearchPlanner();
+
+    @Mock
+    private PostFieldProjection projection;
+
+    @Mock
+    private IdLookupGuard idGuard;
+
+    @Mock
+    private UserStatsService statsService;
+
+    @Mock
+    private PostSummaryService summaryService;
+
+    @Mock
+    private PostArchiveService archive;
+
+    @Spy
+    private PartitionedSearch partitionedSearch = new PartitionedSearch();
+
+    @Mock
+    private DomainEventPublisher events;
+
+    @Mock
+    private HotIdTracker hotIds;
+
+    @Spy
+    private RepositoryGuard guard = new RepositoryGuard();
+
     @InjectMocks
     private PostService service;
 
@@ -90,11 +134,50 @@ class PostServiceTest {
         assertThrows(ObjectNotFoundException.class, () -> service.findById("1"));
     }
 
+    /**
+     * Testa o método {@link PostService#view(String)}.
+     * <p>
+     * Cenário:
+     * - O repositório retorna um post válido.
+     * <p>
+     * Resultado esperado:
+     * - A visualização deve ser registrada nos contadores em memória, sem escrita no repositório.
+     *
+     * @throws Exception Se ocorrer algum erro durante o teste.
+     */
+    @Test
+    void testView_IncrementsPendingViews() {
+        when(repo.findById("1")).thenReturn(Optional.of(post));
+
+        Post viewedPost = service.view("1");
+
+        assertEquals(post, viewedPost);
+        verify(counters).incrementViews("1");
+        verify(counters).applyPending(post);
+        verify(repo, never()).save(any(Post.class));
+    }
+
+    /**
+     * Testa o método {@link PostService#like(String)} para o caso em que o post não é encontrado.
+     * <p>
+     * Resultado esperado:
+     * - O método deve lançar a exceção {@link ObjectNotFoundException} sem registrar a curtida.
+     *
+     * @throws Exception Se ocorrer algum erro durante o teste.
+     */
+    @Test
+    void testLike_NotFound() {
+        when(repo.findById("1")).thenReturn(Optional.empty());
+
+        assertThrows(ObjectNotFoundException.class, () -> service.like("1"));
+        verify(counters, never()).incrementLikes(anyString());
+    }
+
     /**
      * Testa o método {@link PostService#findByTitle(String)}.
      * <p>
      * Cenário:
-     * - O repositório retorna uma lista de posts que correspondem ao título fornecido.
+     * - O repositório retorna uma lista de posts que correspondem à consulta planejada para o título.
      * - O método {@link PostService#findByTitle(String)} deve retornar os posts corretos.
      * <p>
      * Resultado esperado:
@@ -106,10 +189,12 @@ class PostServiceTest {
      */
     @Test
     void testFindByTitle() {
-        when(repo.searchTitle("Title")).thenReturn(Arrays.asList(post));
+        when(repo.search(any(Query.class))).thenReturn(Arrays.asList(post));
 
         List<Post> posts = service.findByTitle("Title");
 
+        verify(planner).planTitleSearch("Title");
+
         assertFalse(posts.isEmpty());
         assertEquals(1, posts.size());
         assertEquals(post, posts.get(0));
@@ -131,12 +216,167 @@ class PostServiceTest {
      */
     @Test
     void testFullSearch() {
-        when(repo.fullSearch(anyString(), any(Date.class), any(Date.class))).thenReturn(Arrays.asList(post));
+        when(repo.search(any(Query.class))).thenReturn(Arrays.asList(post));
 
         List<Post> posts = service.fullSearch("Title", minDate, maxDate);
 
+        verify(planner).planFullSearch(eq("Title"), eq(minDate), any(Date.class));
+
         assertFalse(posts.isEmpty());
         assertEquals(1, posts.size());
         assertEquals(post, posts.get(0));
     }
+
+    /**
+     * Testa a busca completa quando o intervalo de datas alcança os posts arquivados.
+     * <p>
+     * Cenário:
+     * - O mesmo post é encontrado nas duas coleções (movido durante a busca), além de um post
+     *   apenas arquivado.
+     * <p>
+     * Resultado esperado:
+     * - O arquivo deve ser consultado com a mesma consulta e os posts não devem se repetir.
+     */
+    @Test
+    void testFullSearch_WhenRangeReachesArchive_ShouldMergeArchivedPosts() {
+        Post archived = new Post("2", minDate, "Old Title", "Old Body", post.getAuthor());
+        when(repo.search(any(Query.class))).thenReturn(List.of(post));
+        when(archive.reaches(minDate)).thenReturn(true);
+        when(repo.searchArchive(any(Query.class))).thenReturn(List.of(post, archived));
+
+        List<Post> posts = service.fullSearch("Title", minDate, maxDate);
+
+        assertEquals(List.of(post, archived), posts);
+    }
+
+    /**
+     * Testa a curtida de um post arquivado.
+     * <p>
+     * Resultado esperado:
+     * - Os posts arquivados são somente leitura: o método deve lançar {@link BadRequestException}
+     *   sem registrar a curtida.
+     */
+    @Test
+    void testLike_WhenArchived_ShouldThrowBadRequest() {
+        when(repo.findById("1")).thenReturn(Optional.empty());
+        when(archive.findById("1")).thenReturn(Optional.of(post));
+
+        assertThrows(BadRequestException.class, () -> service.like("1"));
+        verify(counters, never()).incrementLikes(anyString());
+    }
+
+    /**
+     * Testa o método {@link PostService#addComment(String, CommentDTO)}.
+     * <p>
+     * Cenário:
+     * - O repositório inclui o comentário e retorna o post com o autor e a quantidade de comentários.
+     * <p>
+     * Resultado esperado:
+     * - O comentário deve ser incluído com a data do servidor e o nome do autor lido do usuário, sem ler
+     *   nem gravar o post inteiro.
+     * - O contador de comentários do autor do comentário deve ser incrementado.
+     * - As estatísticas do autor do post e do autor do comentário devem ser atualizadas.
+     * - O evento do comentário deve ser publicado com o autor do comentário.
+     */
+    @Test
+    void testAddComment_AppendsAtomically() {
+        Post updated = new Post("1", new Date(), null, null, new AuthorDTO(new User("10", "Maria", "maria@gmail.com")));
+        updated.setCommentCount(4);
+        CommentDTO comment = new CommentDTO("Boa viagem", null, new AuthorDTO(new User("20", "Nome falso", null)));
+        when(userRepo.findAuthor("20")).thenReturn(Optional.of(new AuthorDTO(new User("20", "Alex", "alex@gmail.com"))));
+        when(repo.appendComment("1", comment, 100)).thenReturn(updated);
+
+        Post result = service.addComment("1", comment);
+
+        assertEquals(4, result.getCommentCount());
+        assertNotNull(comment.getDate());
+        assertEquals("Alex", comment.getAuthor().getName());
+        verify(userRepo).incrementCommentsAuthored("20");
+        verify(statsService).commentAdded("10", "20");
+        verify(summaryService).commentAdded("1");
+        verify(events).publish(DomainEvent.Type.COMMENT_ADDED, "1", "20");
+        verify(repo, never()).findById(anyString());
+        verify(repo, never()).save(any(Post.class));
+    }
+
+    /**
+     * Testa o método {@link PostService#addComment(String, CommentDTO)} com um comentário sem texto.
+     * <p>
+     * Resultado esperado:
+     * - Deve ser lançada {@link BadRequestException}, sem atualizar o post.
+     */
+    @Test
+    void testAddComment_WhenTextIsBlank_ShouldThrowBadRequest() {
+        CommentDTO comment = new CommentDTO(" ", null, new AuthorDTO(new User("20", "Alex", "alex@gmail.com")));
+
+        assertThrows(BadRequestException.class, () -> service.addComment("1", comment));
+        verify(repo, never()).appendComment(anyString(), any(CommentDTO.class), anyInt());
+    }
+
+    /**
+     * Testa o método {@link PostService#addComment(String, CommentDTO)} com um autor inexistente.
+     * <p>
+     * Resultado esperado:
+     * - Deve ser lançada {@link BadRequestException}, sem atualizar o post nem os contadores.
+     */
+    @Test
+    void testAddComment_WhenAuthorDoesNotExist_ShouldThrowBadRequest() {
+        CommentDTO comment = new CommentDTO("Boa viagem", null, new AuthorDTO(new User("20", "Alex", "alex@gmail.com")));
+        when(userRepo.findAuthor("20")).thenReturn(Optional.empty());
+
+        assertThrows(BadRequestException.class, () -> service.addComment("1", comment));
+        verify(repo, never()).appendComment(anyString(), any(CommentDTO.class), anyInt());
+        verify(userRepo, never()).incrementCommentsAuthored(anyString());
+    }
+
+    /**
+     * Testa o método {@link PostService#insert(String, Post)}.
+     * <p>
+     * Cenário:
+     * - O autor existe e a referência ao post é incluída com sucesso.
+     * <p>
+     * Resultado esperado:
+     * - O post deve ser inserido com o autor lido do usuário e a referência incluída com {@code $push},
+     *   sem regravar o usuário, e o evento de criação deve ser publicado.
+     */
+    @Test
+    void testInsert_PushesReferenceWithoutSavingUser() {
+        when(userRepo.findAuthor("10")).thenReturn(Optional.of(new AuthorDTO(new User("10", "Maria", "maria@gmail.com"))));
+        when(repo.insert(any(Post.class))).thenAnswer(invocation -> {
+            Post inserted = invocation.getArgument(0);
+            inserted.setId("99");
+            return inserted;
+        });
+        when(userRepo.pushPostRef("10", "99")).thenReturn(true);
+
+        Post inserted = service.insert("10", new Post(null, null, "Partiu", "Vou viajar", null));
+
+        assertEquals("Maria", inserted.getAuthor().getName());
+        assertNotNull(inserted.getDate());
+        verify(userRepo, never()).save(any(User.class));
+        verify(repo, never()).deleteById(anyString());
+        verify(events).publish(DomainEvent.Type.POST_CREATED, "99", "10");
+    }
+
+    /**
+     * Testa o método {@link PostService#insert(String, Post)} quando o autor é excluído antes da
+     * inclusão da referência.
+     * <p>
+     * Resultado esperado:
+     * - O post inserido deve ser excluído e deve ser lançada {@link ObjectNotFoundException}.
+     */
+    @Test
+    void testInsert_WhenAuthorDisappears_ShouldDeletePost() {
+        when(userRepo.findAuthor("10")).thenReturn(Optional.of(new AuthorDTO(new User("10", "Maria", "maria@gmail.com"))));
+        when(repo.insert(any(Post.class))).thenAnswer(invocation -> {
+            Post inserted = invocation.getArgument(0);
+            inserted.setId("99");
+            return inserted;
+        });
+        when(userRepo.pushPostRef("10", "99")).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> service.insert("10", new Post(null, null, "Partiu", "Vou viajar", null)));
+        verify(repo).deleteById("99");
+        verifyNoInteractions(events);
+    }
 }
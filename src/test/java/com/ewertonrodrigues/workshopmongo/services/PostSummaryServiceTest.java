@@ -0,0 +1,103 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.PostSummary;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.ewertonrodrigues.workshopmongo.repository.PostSummaryRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link PostSummaryService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class PostSummaryServiceTest {
+
+    @Mock
+    private PostSummaryRepository repo;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Spy
+    private SearchPlanner planner = new SearchPlanner();
+
+    @Mock
+    private PostArchiveService archive;
+
+    @Spy
+    private PartitionedSearch partitionedSearch = new PartitionedSearch();
+
+    @InjectMocks
+    private PostSummaryService service;
+
+    /**
+     * Testa o resumo de um post com corpo longo e comentários.
+     * <p>
+     * Resultado esperado:
+     * - O resumo deve conter o início do corpo e a quantidade de comentários, sem os comentários.
+     */
+    @Test
+    void saved_ShouldStoreSnippetAndCommentCount() {
+        Post post = new Post("1", new Date(), "Partiu Viagem", "x".repeat(500), new AuthorDTO(new User("10", "Maria", "maria@gmail.com")));
+        post.getComments().add(new CommentDTO("Boa viagem", new Date(), new AuthorDTO(new User("20", "Alex", "alex@gmail.com"))));
+
+        service.saved(post);
+
+        verify(repo).save(argThat(summary -> summary.getSnippet().length() == 120
+                && summary.getCommentCount() == 1 && "Maria".equals(summary.getAuthor().getName())));
+    }
+
+    /**
+     * Testa a busca de resumos por IDs.
+     * <p>
+     * Resultado esperado:
+     * - Os resumos devem ser retornados na ordem dos IDs, ignorando os não encontrados.
+     */
+    @Test
+    void findByIds_ShouldKeepRequestedOrder() {
+        when(repo.findAllById(List.of("3", "1", "2"))).thenReturn(List.of(summary("1"), summary("3")));
+
+        List<PostSummary> result = service.findByIds(List.of("3", "1", "2"));
+
+        assertEquals(List.of("3", "1"), result.stream().map(PostSummary::getId).collect(Collectors.toList()));
+    }
+
+    /**
+     * Testa a exclusão de posts por ID e por outros campos.
+     * <p>
+     * Resultado esperado:
+     * - Exclusões por ID excluem apenas os resumos correspondentes; as demais recalculam os resumos.
+     */
+    @Test
+    void deleted_ShouldDeleteByIdOrRebuild() {
+        service.deleted(new Document("_id", "1"));
+        verify(repo).deleteMatching(new Document("_id", "1"));
+        verify(repo, never()).mergeFromPosts(anyInt());
+
+        service.deleted(new Document("author._id", "10"));
+        verify(repo).deleteAll();
+        verify(repo).mergeFromPosts(120);
+    }
+
+    private static PostSummary summary(String id) {
+        PostSummary summary = new PostSummary();
+        summary.setId(id);
+        return summary;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link PostWriteListener}.
+ */
+@ExtendWith(MockitoExtension.class)
+class PostWriteListenerTest {
+
+    @Mock
+    private TitleSuggestService suggestService;
+
+    @Mock
+    private UserStatsService statsService;
+
+    @Mock
+    private PostSummaryService summaryService;
+
+    @InjectMocks
+    private PostWriteListener listener;
+
+    /**
+     * Testa a exclusão de posts pelos seus IDs.
+     * <p>
+     * Resultado esperado:
+     * - Os títulos de cada post excluído devem ser removidos do autocompletar, sem reconstruí-lo.
+     */
+    @Test
+    void onAfterDelete_ByIds_ShouldRemoveEachTitle() {
+        ObjectId first = new ObjectId();
+        ObjectId second = new ObjectId();
+
+        delete(new Document("_id", first));
+        delete(new Document("_id", new Document("$in", List.of(first, second))));
+
+        verify(suggestService, times(2)).remove(first.toHexString());
+        verify(suggestService).remove(second.toHexString());
+        verify(suggestService, never()).rebuild();
+    }
+
+    /**
+     * Testa a exclusão de posts por outros campos além do ID.
+     * <p>
+     * Resultado esperado:
+     * - O autocompletar deve ser reconstruído, pois os posts excluídos não são conhecidos.
+     */
+    @Test
+    void onAfterDelete_ByOtherFields_ShouldRebuildSuggestions() {
+        delete(new Document("author._id", new ObjectId()));
+        delete(new Document("_id", new Document("$nin", List.of(new ObjectId()))));
+
+        verify(suggestService, times(2)).rebuild();
+        verify(suggestService, never()).remove(anyString());
+    }
+
+    private void delete(Document filter) {
+        listener.onAfterDelete(new AfterDeleteEvent<>(filter, Post.class, "post"));
+    }
+}
@@ -0,0 +1,273 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.config.ContextPropagation;
+import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import com.ewertonrodrigues.workshopmongo.services.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link RepositoryGuard}.
+ */
+class RepositoryGuardTest {
+
+    private static final RepositoryGuard.Operation FIND = RepositoryGuard.Operation.USER_FIND_BY_ID;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private RepositoryGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new RepositoryGuard();
+        ReflectionTestUtils.setField(guard, "enabled", true);
+        ReflectionTestUtils.setField(guard, "findTimeoutMs", 50L);
+        ReflectionTestUtils.setField(guard, "failureThreshold", 2);
+        ReflectionTestUtils.setField(guard, "openMs", 200L);
+        ReflectionTestUtils.setField(guard, "meterRegistry", registry);
+        guard.registerMetrics();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        guard.shutdown();
+    }
+
+    /**
+     * Testa leituras que excedem o tempo limite depois de uma leitura bem-sucedida.
+     * <p>
+     * Resultado esperado:
+     * - O último resultado bom deve ser retornado, com os cabeçalhos de resposta desatualizada.
+     * - Depois de duas falhas seguidas, o disjuntor deve abrir e rejeitar as leituras sem acessar o banco.
+     */
+    @Test
+    void call_WhenReadTimesOut_ShouldServeStaleValueAndOpenBreaker() {
+        RepositoryGuard.Result<Optional<String>> fresh = guard.call(FIND, "1", () -> read(Optional.of("Maria"), 0));
+        assertFalse(fresh.isStale());
+        assertNull(response.getHeader(RepositoryGuard.STALE_HEADER));
+
+        for (int i = 0; i < 2; i++) {
+            RepositoryGuard.Result<Optional<String>> stale = guard.call(FIND, "1", () -> read(Optional.of("Alex"), 1_000));
+            assertTrue(stale.isStale());
+            assertEquals(Optional.of("Maria"), stale.value());
+        }
+        assertEquals("true", response.getHeader(RepositoryGuard.STALE_HEADER));
+        assertEquals("0", response.getHeader("Age"));
+        assertEquals("OPEN", guard.stats().get(0).getState());
+
+        reads.set(0);
+        assertEquals(Optional.of("Maria"), guard.call(FIND, "1", () -> read(Optional.of("Alex"), 0)).value());
+        assertEquals(0, reads.get());
+        assertEquals(1.0, registry.get("workshop.breaker.state").tag("operation", "users.findById").gauge().value());
+        assertEquals(1.0, registry.get("workshop.breaker.calls").tag("operation", "users.findById")
+                .tag("outcome", "rejected").functionCounter().count());
+        assertEquals(3.0, registry.get("workshop.breaker.calls").tag("operation", "users.findById")
+                .tag("outcome", "stale").functionCounter().count());
+    }
+
+    /**
+     * Testa falhas do banco sem resultado anterior e exceções de negócio.
+     * <p>
+     * Resultado esperado:
+     * - Sem resultado anterior, deve ser lançada uma {@link ServiceUnavailableException}.
+     * - Exceções de negócio devem chegar ao chamador sem contar como falha.
+     * - Resultados vazios não devem ser guardados.
+     */
+    @Test
+    void call_WithoutStaleValue_ShouldThrowServiceUnavailable() {
+        assertThrows(ObjectNotFoundException.class, () -> guard.call(FIND, "1", () -> {
+            throw new ObjectNotFoundException("Objeto não encontrado");
+        }));
+        guard.call(FIND, "2", () -> read(Optional.empty(), 0));
+
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(FIND, "2", () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }));
+        assertEquals("CLOSED", guard.stats().get(0).getState());
+        assertEquals(1, guard.stats().get(0).getFailures());
+        assertEquals(0, guard.stats().get(0).getCachedKeys());
+        assertNull(response.getHeader(RepositoryGuard.STALE_HEADER));
+    }
+
+    /**
+     * Testa a leitura de teste depois do tempo de disjuntor aberto.
+     * <p>
+     * Resultado esperado:
+     * - A leitura de teste bem-sucedida deve fechar o disjuntor e retornar o resultado atual.
+     */
+    @Test
+    void call_AfterOpenPeriod_ShouldCloseBreakerOnSuccessfulTrial() throws Exception {
+        guard.call(FIND, "1", () -> read(Optional.of("Maria"), 0));
+        for (int i = 0; i < 2; i++) {
+            guard.call(FIND, "1", () -> {
+                throw new DataAccessResourceFailureException("sem conexão");
+            });
+        }
+        assertEquals("OPEN", guard.stats().get(0).getState());
+
+        Thread.sleep(250);
+        RepositoryGuard.Result<Optional<String>> result = guard.call(FIND, "1", () -> read(Optional.of("Alex"), 0));
+
+        assertFalse(result.isStale());
+        assertEquals(Optional.of("Alex"), result.value());
+        assertEquals("CLOSED", guard.stats().get(0).getState());
+        assertEquals(1, guard.stats().get(0).getOpened());
+    }
+
+    /**
+     * Testa o limite de chaves e a idade máxima do cache de últimos resultados.
+     * <p>
+     * Resultado esperado:
+     * - Acima do limite, a chave lida há mais tempo deve dar lugar à nova.
+     * - Os resultados mais antigos que a idade máxima devem ser descartados na leitura seguinte.
+     */
+    @Test
+    void call_ShouldEvictLeastRecentlyReadAndExpiredKeys() throws Exception {
+        ReflectionTestUtils.setField(guard, "staleCacheSize", 2);
+        ReflectionTestUtils.setField(guard, "staleMaxAgeMs", 1_000L);
+        guard.call(FIND, "1", () -> read(Optional.of("Maria"), 0));
+        guard.call(FIND, "2", () -> read(Optional.of("Alex"), 0));
+        guard.call(FIND, "1", () -> read(Optional.of("Maria"), 0));
+        guard.call(FIND, "3", () -> read(Optional.of("Bob"), 0));
+
+        assertEquals(2, guard.stats().get(0).getCachedKeys());
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(FIND, "2", () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }));
+        assertEquals(Optional.of("Maria"), guard.call(FIND, "1", () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }).value());
+
+        Thread.sleep(1_100);
+        guard.call(FIND, "4", () -> read(Optional.of("Ana"), 0));
+        assertEquals(1, guard.stats().get(0).getCachedKeys());
+    }
+
+    /**
+     * Testa o limite do cache de últimos resultados das buscas, pela quantidade de posts guardados.
+     * <p>
+     * Resultado esperado:
+     * - Acima do limite de posts somados, as buscas lidas há mais tempo devem ser descartadas.
+     * - Uma busca com mais posts que o limite não deve ser guardada.
+     */
+    @Test
+    void call_ForSearches_ShouldBoundCacheByPostCount() {
+        ReflectionTestUtils.setField(guard, "staleSearchMaxPosts", 5);
+        RepositoryGuard.Operation search = RepositoryGuard.Operation.POST_FULL_SEARCH;
+        guard.call(search, "a", () -> read(List.of("1", "2", "3"), 0));
+        guard.call(search, "b", () -> read(List.of("4", "5"), 0));
+        guard.call(search, "c", () -> read(List.of("6"), 0));
+        guard.call(search, "d", () -> read(List.of("1", "2", "3", "4", "5", "6"), 0));
+
+        assertEquals(2, cachedKeys(search));
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(search, "a", () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }));
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(search, "d", () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }));
+        assertEquals(List.of("4", "5"), guard.call(search, "b", () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }).value());
+    }
+
+    /**
+     * Testa a interrupção da thread que aguarda a chamada de teste do disjuntor meio aberto.
+     * <p>
+     * Resultado esperado:
+     * - A chamada de teste deve ser liberada sem fechar o disjuntor, e a chamada seguinte deve
+     *   poder testar o banco.
+     */
+    @Test
+    void call_WhenTrialIsInterrupted_ShouldReleaseWithoutClosing() throws Exception {
+        guard.call(FIND, "1", () -> read(Optional.of("Maria"), 0));
+        for (int i = 0; i < 2; i++) {
+            guard.call(FIND, "1", () -> {
+                throw new DataAccessResourceFailureException("sem conexão");
+            });
+        }
+        Thread.sleep(250);
+
+        Thread.currentThread().interrupt();
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(FIND, "1", () -> read(Optional.of("Alex"), 1_000)));
+        assertTrue(Thread.interrupted());
+        assertEquals("HALF_OPEN", guard.stats().get(0).getState());
+
+        assertEquals(Optional.of("Alex"), guard.call(FIND, "1", () -> read(Optional.of("Alex"), 0)).value());
+        assertEquals("CLOSED", guard.stats().get(0).getState());
+    }
+
+    private long cachedKeys(RepositoryGuard.Operation operation) {
+        return guard.stats().stream().filter(stats -> stats.getOperation().equals(operation.getMetricName()))
+                .findFirst().orElseThrow().getCachedKeys();
+    }
+
+    /**
+     * Testa o descarte do último resultado de um objeto excluído.
+     * <p>
+     * Resultado esperado:
+     * - Com o banco indisponível, o objeto excluído não deve ser servido do cache.
+     */
+    @Test
+    void forget_ShouldNotServeDeletedKey() {
+        guard.call(FIND, "1", () -> read(Optional.of("Maria"), 0));
+
+        guard.forget(FIND, "1");
+
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(FIND, "1", () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }));
+    }
+
+    /**
+     * Testa a propagação do contexto da requisição para a thread virtual da leitura.
+     * <p>
+     * Resultado esperado:
+     * - A leitura deve ver o contexto registrado na {@link ContextPropagation}, e a thread da
+     *   leitura não deve mantê-lo ao final.
+     */
+    @Test
+    void call_ShouldPropagateContextToReadThread() {
+        ThreadLocal<String> context = new ThreadLocal<>();
+        ContextPropagation.register(ContextPropagation.Propagator.of(context::get, context::set));
+        context.set("requisição");
+        try {
+            RepositoryGuard.Result<Optional<String>> result = guard.call(FIND, "1",
+                    () -> Optional.ofNullable(context.get()));
+
+            assertEquals(Optional.of("requisição"), result.value());
+        } finally {
+            context.remove();
+        }
+    }
+
+    private <T> T read(T value, long delayMs) {
+        reads.incrementAndGet();
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link SearchPlanner}.
+ * Verificam a estratégia escolhida para cada tipo de texto e o formato da consulta gerada,
+ * que determina o uso de índices pelo MongoDB.
+ */
+class SearchPlannerTest {
+
+    private final SearchPlanner planner = new SearchPlanner();
+
+    /**
+     * Testa a busca por título com uma única palavra, no padrão.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser REGEX, encontrando o texto em qualquer posição do título.
+     */
+    @Test
+    void planTitleSearch_SingleWordByDefault_ShouldMatchSubstring() {
+        SearchPlan plan = planner.planTitleSearch("iag");
+
+        assertEquals(SearchPlan.Strategy.REGEX, plan.getStrategy());
+        Pattern pattern = (Pattern) plan.getQuery().getQueryObject().get("title");
+        assertEquals("iag", pattern.pattern());
+        assertEquals(Pattern.CASE_INSENSITIVE, pattern.flags());
+    }
+
+    /**
+     * Testa a busca por título com uma única palavra e o índice de palavras habilitado.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser PREFIX, com expressão ancorada no campo indexado {@code titleWords}.
+     */
+    @Test
+    void planTitleSearch_SingleWord_ShouldUseAnchoredPrefix() {
+        ReflectionTestUtils.setField(planner, "wordIndex", true);
+        SearchPlan plan = planner.planTitleSearch("Viágem");
+
+        assertEquals(SearchPlan.Strategy.PREFIX, plan.getStrategy());
+        Pattern pattern = (Pattern) plan.getQuery().getQueryObject().get("titleWords");
+        assertEquals("^viagem", pattern.pattern());
+        assertEquals(0, pattern.flags());
+    }
+
+    /**
+     * Testa a busca por título com metacaracteres de expressão regular.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser REGEX, com o texto escapado como literal e tempo máximo definido.
+     */
+    @Test
+    void planTitleSearch_WithMetacharacters_ShouldEscapeAndBoundRegex() {
+        SearchPlan plan = planner.planTitleSearch("(a+)+$");
+
+        assertEquals(SearchPlan.Strategy.REGEX, plan.getStrategy());
+        Pattern pattern = (Pattern) plan.getQuery().getQueryObject().get("title");
+        assertEquals("\\(a\\+\\)\\+\\$", pattern.pattern());
+        assertTrue(plan.getQuery().getMeta().hasValues());
+        assertEquals(2000L, plan.getQuery().getMeta().getMaxTimeMsec());
+    }
+
+    /**
+     * Testa a busca por título sem texto.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser ALL, sem filtros.
+     */
+    @Test
+    void planTitleSearch_Blank_ShouldMatchAll() {
+        SearchPlan plan = planner.planTitleSearch("  ");
+
+        assertEquals(SearchPlan.Strategy.ALL, plan.getStrategy());
+        assertTrue(plan.getQuery().getQueryObject().isEmpty());
+    }
+
+    /**
+     * Testa a busca completa com um trecho de palavra, no padrão.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser REGEX, para que {@code viag} encontre "viagem" no título, no corpo ou
+     *   nos comentários.
+     */
+    @Test
+    void planFullSearch_PartialWordByDefault_ShouldMatchSubstring() {
+        SearchPlan plan = planner.planFullSearch("viag", new Date(0L), new Date());
+
+        assertEquals(SearchPlan.Strategy.REGEX, plan.getStrategy());
+        assertNull(plan.getQuery().getQueryObject().get("$text"));
+        @SuppressWarnings("unchecked")
+        List<Document> and = (List<Document>) plan.getQuery().getQueryObject().get("$and");
+        @SuppressWarnings("unchecked")
+        List<Document> or = (List<Document>) and.get(1).get("$or");
+        assertTrue(((Pattern) or.get(1).get("body")).matcher("Partiu viagem").find());
+        assertTrue(((Pattern) or.get(2).get("bodyWords")).matcher("viagem").find());
+    }
+
+    /**
+     * Testa a busca completa com palavras inteiras e o índice de palavras habilitado.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser TEXT, combinando com o intervalo de datas o {@code $text} ou, para os
+     *   corpos comprimidos, as palavras inteiras em {@code bodyWords}.
+     */
+    @Test
+    void planFullSearch_WholeWords_ShouldUseTextIndex() {
+        ReflectionTestUtils.setField(planner, "wordIndex", true);
+        SearchPlan plan = planner.planFullSearch("Bom dia", new Date(0L), new Date());
+
+        assertEquals(SearchPlan.Strategy.TEXT, plan.getStrategy());
+        @SuppressWarnings("unchecked")
+        List<Document> and = (List<Document>) plan.getQuery().getQueryObject().get("$and");
+        assertNotNull(and.get(0).get("date"));
+        @SuppressWarnings("unchecked")
+        List<Document> or = (List<Document>) and.get(1).get("$or");
+        assertEquals("\"Bom dia\"", ((Document) or.get(0).get("$text")).getString("$search"));
+        assertEquals(new Document("$all", List.of("bom", "dia")), or.get(1).get("bodyWords"));
+    }
+
+    /**
+     * Testa a busca completa com palavras curtas ou pontuação.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser REGEX limitada por tempo, com o texto escapado em todos os campos.
+     */
+    @Test
+    void planFullSearch_ShortOrPunctuated_ShouldFallBackToBoundedRegex() {
+        ReflectionTestUtils.setField(planner, "wordIndex", true);
+        SearchPlan plan = planner.planFullSearch("dia!", new Date(0L), new Date());
+
+        assertEquals(SearchPlan.Strategy.REGEX, plan.getStrategy());
+        assertEquals(2000L, plan.getQuery().getMeta().getMaxTimeMsec());
+        @SuppressWarnings("unchecked")
+        List<Document> and = (List<Document>) plan.getQuery().getQueryObject().get("$and");
+        @SuppressWarnings("unchecked")
+        List<Document> or = (List<Document>) and.get(1).get("$or");
+        assertEquals(4, or.size());
+        assertEquals("dia!", ((Pattern) or.get(0).get("title")).pattern());
+    }
+
+    /**
+     * Testa a busca completa com um texto formado apenas por pontuação.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser REGEX com o texto escapado como literal, e não ALL: "#" não encontra
+     *   todos os posts. Sem palavras, os corpos comprimidos não entram na busca.
+     */
+    @Test
+    void planFullSearch_PunctuationOnly_ShouldMatchLiteral() {
+        for (String text : List.of("#", "!!!", "-")) {
+            SearchPlan plan = planner.planFullSearch(text, new Date(0L), new Date());
+
+            assertEquals(SearchPlan.Strategy.REGEX, plan.getStrategy());
+            @SuppressWarnings("unchecked")
+            List<Document> and = (List<Document>) plan.getQuery().getQueryObject().get("$and");
+            @SuppressWarnings("unchecked")
+            List<Document> or = (List<Document>) and.get(1).get("$or");
+            assertEquals(3, or.size());
+            assertTrue(((Pattern) or.get(1).get("body")).matcher("Vamos " + text).find());
+            assertFalse(((Pattern) or.get(1).get("body")).matcher("Vamos viajar").find());
+        }
+        assertEquals(SearchPlan.Strategy.REGEX, planner.planTitleSearch("#").getStrategy());
+        Pattern title = (Pattern) planner.planTitleSearch("C#").getQuery().getQueryObject().get("title");
+        assertTrue(title.matcher("Curso de C#").find());
+        assertFalse(title.matcher("Curso de C").find());
+    }
+
+    /**
+     * Testa a busca completa sem texto.
+     * <p>
+     * Resultado esperado:
+     * - A estratégia deve ser ALL, apenas com o intervalo de datas.
+     */
+    @Test
+    void planFullSearch_Blank_ShouldFilterOnlyByDate() {
+        SearchPlan plan = planner.planFullSearch("", new Date(0L), new Date());
+
+        assertEquals(SearchPlan.Strategy.ALL, plan.getStrategy());
+        assertEquals(1, plan.getQuery().getQueryObject().size());
+    }
+}
@@ -0,0 +1,94 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.dto.SuggestionDTO;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link TitleSuggestService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TitleSuggestServiceTest {
+
+    @Mock
+    private PostRepository repo;
+
+    @InjectMocks
+    private TitleSuggestService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "topK", 5);
+        ReflectionTestUtils.setField(service, "rank", "popularity");
+    }
+
+    /**
+     * Testa a reconstrução do índice com gravações durante a leitura dos títulos.
+     * <p>
+     * Resultado esperado:
+     * - As consultas feitas durante a leitura usam o índice anterior, sem esperar a reconstrução.
+     * - Os posts gravados e excluídos durante a leitura são refletidos no novo índice.
+     */
+    @Test
+    void rebuild_ShouldServeOldIndexAndReplayConcurrentWrites() {
+        when(repo.streamTitles()).thenReturn(Stream.of(post("1", "Partiu viagem", 1)));
+        service.rebuild();
+
+        List<List<String>> seenDuringRebuild = new ArrayList<>();
+        when(repo.streamTitles()).thenReturn(Stream.of(post("1", "Partiu viagem", 1), post("2", "Parabéns", 2))
+                .peek(post -> {
+                    if (post.getId().equals("2")) {
+                        seenDuringRebuild.add(ids(service.suggest("par", 10)));
+                        service.index(post("3", "Paraquedas", 3));
+                        service.remove("1");
+                    }
+                }));
+        service.rebuild();
+
+        assertEquals(List.of(List.of("1")), seenDuringRebuild);
+        assertEquals(List.of("3", "2"), ids(service.suggest("par", 10)));
+    }
+
+    /**
+     * Testa a atualização da pontuação pelos contadores gravados, na ordenação por popularidade.
+     * <p>
+     * Resultado esperado:
+     * - O post mais visualizado deve passar a ser a primeira sugestão.
+     */
+    @Test
+    void countersFlushed_ShouldReorderByPopularity() {
+        when(repo.streamTitles()).thenReturn(Stream.of(post("1", "Partiu viagem", 1), post("2", "Parabéns", 2)));
+        service.rebuild();
+
+        service.countersFlushed(Map.of("1", 5L));
+
+        assertEquals(List.of("1", "2"), ids(service.suggest("par", 10)));
+    }
+
+    private static Post post(String id, String title, long views) {
+        Post post = new Post(id, new Date(), title, "Content", null);
+        post.setViews(views);
+        return post;
+    }
+
+    private static List<String> ids(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,122 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a árvore de prefixos {@link TitleTrie} usada no autocompletar de títulos.
+ */
+class TitleTrieTest {
+
+    private TitleTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new TitleTrie(2);
+        trie.put("1", "Partiu Viagem", 10);
+        trie.put("2", "Parabéns a você", 30);
+        trie.put("3", "Para sempre", 20);
+        trie.put("4", "Bom dia", 40);
+    }
+
+    /**
+     * Testa a busca por prefixo ignorando acentos e maiúsculas.
+     * <p>
+     * Resultado esperado:
+     * - Apenas as 2 melhores sugestões, ordenadas pela pontuação, devem ser retornadas.
+     */
+    @Test
+    void suggest_ShouldReturnTopKByScore() {
+        assertEquals(List.of("2", "3"), ids(trie.suggest("PAR", 10)));
+        assertEquals(List.of("2"), ids(trie.suggest("parabe", 10)));
+        assertEquals(List.of("2"), ids(trie.suggest("Parabé", 10)));
+        assertTrue(trie.suggest("xyz", 10).isEmpty());
+        assertTrue(trie.suggest("", 10).isEmpty());
+    }
+
+    /**
+     * Testa a remoção de um título que fazia parte das melhores sugestões.
+     * <p>
+     * Resultado esperado:
+     * - A lista pré-calculada deve ser completada com o próximo título da subárvore.
+     */
+    @Test
+    void remove_ShouldRefillTopK() {
+        trie.remove("2");
+
+        assertEquals(List.of("3", "1"), ids(trie.suggest("par", 10)));
+        assertEquals(3, trie.size());
+    }
+
+    /**
+     * Testa a remoção dos títulos que criaram ramos próprios da árvore.
+     * <p>
+     * Resultado esperado:
+     * - Os nós que ficaram sem títulos devem ser podados, voltando à contagem anterior.
+     * - Os títulos que compartilhavam o prefixo continuam sendo sugeridos.
+     */
+    @Test
+    void remove_ShouldPruneEmptyNodes() {
+        int before = trie.nodeCount();
+        trie.put("5", "Paralelepípedo", 5);
+        trie.put("6", "Zebra", 5);
+        assertTrue(trie.nodeCount() > before);
+
+        trie.remove("5");
+        trie.remove("6");
+
+        assertEquals(before, trie.nodeCount());
+        assertEquals(List.of("2", "3"), ids(trie.suggest("para", 10)));
+        assertTrue(trie.suggest("z", 10).isEmpty());
+    }
+
+    /**
+     * Testa a alteração da pontuação de um título indexado.
+     * <p>
+     * Resultado esperado:
+     * - O título deve subir nas listas de sugestões de todos os seus prefixos.
+     */
+    @Test
+    void addScore_ShouldReorderSuggestions() {
+        trie.addScore("1", 25);
+
+        assertEquals(List.of("1", "2"), ids(trie.suggest("par", 10)));
+        assertEquals(List.of("1"), ids(trie.suggest("parti", 10)));
+    }
+
+    /**
+     * Testa a reindexação de um post cujo título foi alterado.
+     * <p>
+     * Resultado esperado:
+     * - O título antigo não deve mais ser sugerido e o novo deve ser encontrado.
+     */
+    @Test
+    void put_WhenTitleChanges_ShouldReindex() {
+        trie.put("4", "Partida de futebol", 40);
+
+        assertTrue(trie.suggest("bom", 10).isEmpty());
+        assertEquals(List.of("4", "2"), ids(trie.suggest("par", 10)));
+        assertEquals(4, trie.size());
+    }
+
+    /**
+     * Testa a estimativa de memória do índice.
+     */
+    @Test
+    void estimatedBytes_ShouldGrowWithTitles() {
+        long before = trie.estimatedBytes();
+        trie.put("5", "Um título bem diferente", 1);
+
+        assertTrue(trie.estimatedBytes() > before);
+        assertTrue(trie.nodeCount() > 1);
+    }
+
+    private static List<String> ids(List<TitleTrie.Entry> entries) {
+        return entries.stream().map(entry -> entry.id).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,101 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link UserDirectoryCache}.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryCacheTest {
+
+    @Mock
+    private UserRepository repo;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private UserDirectoryCache cache;
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    /**
+     * Testa a escrita da listagem a partir do cache para um cliente que aceita gzip.
+     * <p>
+     * Resultado esperado:
+     * - A resposta deve ser escrita com {@code Content-Encoding: gzip} e conter o JSON dos usuários.
+     */
+    @Test
+    void write_WhenReadyAndGzipAccepted_ShouldWriteCompressedJson() throws Exception {
+        when(repo.findAllWithoutPosts()).thenReturn(List.of(new User("1", "Maria", "maria@gmail.com")));
+        cache.invalidate();
+        awaitReady();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(cache.write(request, response));
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("[{\"id\":\"1\",\"name\":\"Maria\",\"email\":\"maria@gmail.com\"}]", gunzip(response.getContentAsByteArray()));
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    /**
+     * Testa a leitura logo após uma gravação.
+     * <p>
+     * Resultado esperado:
+     * - Enquanto o cache é reconstruído, a requisição deve seguir o caminho normal.
+     */
+    @Test
+    void write_AfterInvalidate_ShouldFallBackUntilRebuilt() throws Exception {
+        when(repo.findAllWithoutPosts()).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return List.of();
+        });
+        cache.invalidate();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(cache.write(new MockHttpServletRequest("GET", "/users"), response));
+        assertEquals(0, response.getContentLength());
+
+        awaitReady();
+        assertTrue(cache.write(new MockHttpServletRequest("GET", "/users"), new MockHttpServletResponse()));
+    }
+
+    private void awaitReady() throws InterruptedException {
+        for (int i = 0; i < 200 && !cache.stats().isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(cache.stats().isReady());
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
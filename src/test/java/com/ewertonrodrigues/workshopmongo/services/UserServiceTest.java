@@ -1,19 +1,27 @@
 package com.ewertonrodrigues.workshopmongo.services;
 
+import com.ewertonrodrigues.workshopmongo.domain.DomainEvent;
 import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.MultiGetDTO;
 import com.ewertonrodrigues.workshopmongo.dto.UserDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserProfileDTO;
 import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.exception.BadRequestException;
 import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +36,24 @@ class UserServiceTest {
     @Mock
     private UserRepository repo;
 
+    @Mock
+    private UserDirectoryCache directoryCache;
+
+    @Mock
+    private UserStatsService statsService;
+
+    @Mock
+    private IdLookupGuard idGuard;
+
+    @Mock
+    private DomainEventPublisher events;
+
+    @Mock
+    private HotIdTracker hotIds;
+
+    @Spy
+    private RepositoryGuard guard = new RepositoryGuard();
+
     @InjectMocks
     private UserService service;
 
@@ -110,6 +136,73 @@ class UserServiceTest {
         assertThrows(ObjectNotFoundException.class, () -> service.findById("2"));
     }
 
+    /**
+     * Testa o método {@link UserService#findByIds(List)}.
+     * Verifica se os usuários são retornados na ordem da requisição, com os IDs ausentes informados.
+     * <p>
+     * Cenário:
+     * - O repositório retorna os usuários "3" e "1", fora da ordem da requisição.
+     * <p>
+     * Resultado esperado:
+     * - Uma única consulta deve ser feita com os IDs distintos.
+     * - Os usuários devem seguir a ordem "1", "3" e o ID "2" deve ser informado como ausente.
+     *
+     * @throws Exception Se ocorrer algum erro durante o teste.
+     */
+    @Test
+    void findByIds_ShouldKeepRequestOrderAndReportMissing() {
+        User other = new User("3", "Maria Brown", "maria@example.com");
+        when(repo.findAllById(Arrays.asList("1", "2", "3"))).thenReturn(Arrays.asList(other, user));
+
+        MultiGetDTO<User> result = service.findByIds(Arrays.asList("1", "2", "3", "1"));
+
+        assertEquals(Arrays.asList(user, other), result.getItems());
+        assertEquals(Collections.singletonList("2"), result.getMissing());
+        verify(repo, times(1)).findAllById(anyIterable());
+    }
+
+    /**
+     * Testa o método {@link UserService#findByIds(List)} com mais IDs do que o permitido.
+     * <p>
+     * Resultado esperado:
+     * - O método deve lançar uma exceção {@link BadRequestException} sem consultar o repositório.
+     *
+     * @throws Exception Se ocorrer algum erro durante o teste.
+     */
+    @Test
+    void findByIds_WhenLimitExceeded_ShouldThrowException() {
+        List<String> ids = IntStream.range(0, 101).mapToObj(String::valueOf).collect(Collectors.toList());
+
+        assertThrows(BadRequestException.class, () -> service.findByIds(ids));
+        verifyNoInteractions(repo);
+    }
+
+    /**
+     * Testa o método {@link UserService#findProfile(String, List, int)}.
+     * <p>
+     * Resultado esperado:
+     * - O perfil deve ser lido com uma única chamada ao repositório, com os dados solicitados.
+     * - Inclusões desconhecidas e limites de posts inválidos devem lançar {@link BadRequestException}
+     *   sem consultar o repositório.
+     *
+     * @throws Exception Se ocorrer algum erro durante o teste.
+     */
+    @Test
+    void findProfile_ShouldReadRequestedIncludesInOneCall() {
+        UserProfileDTO profile = new UserProfileDTO();
+        profile.setId("1");
+        when(repo.findProfile("1", true, false, 5)).thenReturn(Optional.of(profile));
+
+        assertSame(profile, service.findProfile("1", List.of("posts"), 5));
+        verify(repo, times(1)).findProfile("1", true, false, 5);
+        verify(repo, never()).findById(anyString());
+
+        assertThrows(BadRequestException.class, () -> service.findProfile("1", List.of("comments"), 5));
+        assertThrows(BadRequestException.class, () -> service.findProfile("1", List.of("posts"), 0));
+        assertThrows(BadRequestException.class, () -> service.findProfile("1", List.of("posts"), 51));
+        verifyNoMoreInteractions(repo);
+    }
+
     /**
      * Testa o método {@link UserService#insert(User)}.
      * Verifica se o usuário é salvo corretamente.
@@ -119,6 +212,8 @@ class UserServiceTest {
      * <p>
      * Resultado esperado:
      * - O usuário salvo deve ter o ID "1".
+     * - O cache da listagem de usuários deve ser invalidado.
+     * - O evento de criação do usuário deve ser publicado.
      *
      * @throws Exception Se ocorrer algum erro durante o teste.
      */
@@ -130,6 +225,8 @@ class UserServiceTest {
 
         assertNotNull(savedUser);
         assertEquals("1", savedUser.getId());
+        verify(directoryCache).invalidate();
+        verify(events).publish(DomainEvent.Type.USER_CREATED, "1", "1");
     }
 
     /**
@@ -137,21 +234,26 @@ class UserServiceTest {
      * Verifica se o usuário é deletado corretamente.
      * <p>
      * Cenário:
-     * - O repositório encontra um usuário com o ID "1".
+     * - O repositório confirma que existe um usuário com o ID "1".
      * <p>
      * Resultado esperado:
      * - O método {@link UserService#delete(String)} deve não lançar exceção.
-     * - O método  deve ser chamado uma vez.
+     * - O método {@code deleteById} deve ser chamado uma vez, sem carregar o usuário nem registrar um acesso.
+     * - O último resultado do usuário deve ser descartado da {@link RepositoryGuard}.
      *
      * @throws Exception Se ocorrer algum erro durante o teste.
      */
     @Test
     void delete_WhenUserExists_ShouldDeleteUser() {
-        when(repo.findById("1")).thenReturn(Optional.of(user));
+        when(repo.existsById("1")).thenReturn(true);
         doNothing().when(repo).deleteById("1");
 
         assertDoesNotThrow(() -> service.delete("1"));
         verify(repo, times(1)).deleteById("1");
+        verify(repo, never()).findById("1");
+        verify(guard).forget(RepositoryGuard.Operation.USER_FIND_BY_ID, "1");
+        verifyNoInteractions(hotIds);
+        verify(events).publish(DomainEvent.Type.USER_DELETED, "1", null);
     }
 
     /**
@@ -168,9 +270,11 @@ class UserServiceTest {
      */
     @Test
     void delete_WhenUserDoesNotExist_ShouldThrowException() {
-        when(repo.findById("2")).thenReturn(Optional.empty());
+        when(repo.existsById("2")).thenReturn(false);
 
         assertThrows(ObjectNotFoundException.class, () -> service.delete("2"));
+        verify(repo, never()).deleteById("2");
+        verifyNoInteractions(events);
     }
 
     /**
@@ -178,25 +282,26 @@ class UserServiceTest {
      * Verifica se o usuário é atualizado corretamente.
      * <p>
      * Cenário:
-     * - O repositório encontra um usuário com o ID "1".
-     * - O repositório salva o usuário atualizado corretamente.
+     * - O repositório encontra um usuário com o ID "1" e grava o nome e o email com {@code $set}.
      * <p>
      * Resultado esperado:
      * - O nome e o email do usuário atualizado devem ser "Updated Name" e "updated@example.com", respectivamente.
+     * - O usuário não deve ser lido nem regravado por inteiro, preservando as referências aos posts.
      *
      * @throws Exception Se ocorrer algum erro durante o teste.
      */
     @Test
     void update_WhenUserExists_ShouldUpdateUser() {
         User updatedUser = new User("1", "Updated Name", "updated@example.com");
-        when(repo.findById("1")).thenReturn(Optional.of(user));
-        when(repo.save(any(User.class))).thenReturn(updatedUser);
+        when(repo.updateNameAndEmail("1", "Updated Name", "updated@example.com")).thenReturn(true);
 
         User result = service.update(updatedUser);
 
         assertNotNull(result);
         assertEquals("Updated Name", result.getName());
         assertEquals("updated@example.com", result.getEmail());
+        verify(repo, never()).findById(any());
+        verify(repo, never()).save(any(User.class));
     }
 
     /**
@@ -214,7 +319,7 @@ class UserServiceTest {
     @Test
     void update_WhenUserDoesNotExist_ShouldThrowException() {
         User updatedUser = new User("2", "Updated Name", "updated@example.com");
-        when(repo.findById("2")).thenReturn(Optional.empty());
+        when(repo.updateNameAndEmail("2", "Updated Name", "updated@example.com")).thenReturn(false);
 
         assertThrows(ObjectNotFoundException.class, () -> service.update(updatedUser));
     }
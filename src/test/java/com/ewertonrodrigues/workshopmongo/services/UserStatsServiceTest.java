@@ -0,0 +1,198 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import com.ewertonrodrigues.workshopmongo.domain.Post;
+import com.ewertonrodrigues.workshopmongo.domain.User;
+import com.ewertonrodrigues.workshopmongo.dto.AuthorDTO;
+import com.ewertonrodrigues.workshopmongo.dto.CommentDTO;
+import com.ewertonrodrigues.workshopmongo.dto.UserStatsDTO;
+import com.ewertonrodrigues.workshopmongo.repository.PostRepository;
+import com.ewertonrodrigues.workshopmongo.repository.UserRepository;
+import com.ewertonrodrigues.workshopmongo.services.exception.ObjectNotFoundException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe {@link UserStatsService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserStatsServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private IdLookupGuard idGuard;
+
+    @InjectMocks
+    private UserStatsService service;
+
+    /**
+     * Testa leituras repetidas das estatísticas de um usuário.
+     * <p>
+     * Resultado esperado:
+     * - A agregação deve ser executada apenas na primeira leitura.
+     */
+    @Test
+    void stats_ShouldAggregateOnlyOnce() {
+        when(userRepository.existsById("1")).thenReturn(true);
+        when(postRepository.authorStats("1")).thenReturn(stats("1", 2));
+
+        assertEquals(2, service.stats("1").getPostCount());
+        assertEquals(2, service.stats("1").getPostCount());
+
+        verify(postRepository, times(1)).authorStats("1");
+    }
+
+    /**
+     * Testa a gravação de um post comentado pelo usuário em cache.
+     * <p>
+     * Resultado esperado:
+     * - As estatísticas do autor do comentário devem ser recalculadas na leitura seguinte.
+     */
+    @Test
+    void postSaved_ShouldEvictAuthorAndCommenters() {
+        when(userRepository.existsById("2")).thenReturn(true);
+        when(postRepository.authorStats("2")).thenReturn(stats("2", 0));
+        service.stats("2");
+
+        Post post = new Post("p1", new Date(), "Bom dia", "Acordei feliz", new AuthorDTO(new User("1", "Maria", "maria@gmail.com")));
+        post.getComments().add(new CommentDTO("Boa", new Date(), new AuthorDTO(new User("2", "Alex", "alex@gmail.com"))));
+        service.postSaved(post);
+        service.stats("2");
+
+        verify(postRepository, times(2)).authorStats("2");
+    }
+
+    /**
+     * Testa as estatísticas de um usuário inexistente.
+     * <p>
+     * Resultado esperado:
+     * - Deve ser lançada {@link ObjectNotFoundException}, sem executar a agregação.
+     */
+    @Test
+    void stats_WhenUserDoesNotExist_ShouldThrowException() {
+        when(userRepository.existsById("9")).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> service.stats("9"));
+        verify(postRepository, never()).authorStats(anyString());
+    }
+
+    /**
+     * Testa a inclusão de um comentário com as estatísticas do autor do post e do autor do
+     * comentário em cache.
+     * <p>
+     * Resultado esperado:
+     * - As estatísticas em cache devem ser atualizadas sem uma nova agregação.
+     */
+    @Test
+    void commentAdded_ShouldUpdateCachedStatsWithoutAggregating() {
+        when(userRepository.existsById(anyString())).thenReturn(true);
+        when(postRepository.authorStats("1")).thenReturn(stats("1", 1));
+        when(postRepository.authorStats("2")).thenReturn(stats("2", 0));
+        service.stats("1");
+        service.stats("2");
+
+        service.commentAdded("1", "2");
+
+        assertEquals(1, service.stats("1").getCommentsReceived());
+        assertEquals(1, service.stats("2").getCommentsAuthored());
+        verify(postRepository, times(1)).authorStats("1");
+        verify(postRepository, times(1)).authorStats("2");
+    }
+
+    /**
+     * Testa o cache cheio.
+     * <p>
+     * Resultado esperado:
+     * - Apenas o usuário lido há mais tempo deve ser descartado; os demais continuam em cache.
+     */
+    @Test
+    void stats_WhenCacheIsFull_ShouldEvictLeastRecentlyUsed() {
+        ReflectionTestUtils.setField(service, "cacheSize", 2);
+        when(userRepository.existsById(anyString())).thenReturn(true);
+        when(postRepository.authorStats(anyString())).thenAnswer(invocation -> stats(invocation.getArgument(0), 1));
+
+        service.stats("1");
+        service.stats("2");
+        service.stats("1");
+        service.stats("3");
+        service.stats("1");
+        service.stats("2");
+
+        verify(postRepository, times(1)).authorStats("1");
+        verify(postRepository, times(2)).authorStats("2");
+        verify(postRepository, times(1)).authorStats("3");
+    }
+
+    /**
+     * Testa gravações concorrentes com o cálculo das estatísticas de um usuário.
+     * <p>
+     * Resultado esperado:
+     * - A gravação de outro usuário não impede o armazenamento do cálculo.
+     * - A gravação do mesmo usuário impede o armazenamento, e a leitura seguinte recalcula.
+     */
+    @Test
+    void stats_WhenWrittenDuringAggregation_ShouldCacheOnlyUnaffectedUsers() {
+        when(userRepository.existsById(anyString())).thenReturn(true);
+        when(postRepository.authorStats("1")).thenAnswer(invocation -> {
+            service.evict("2");
+            return stats("1", 1);
+        });
+        when(postRepository.authorStats("2")).thenAnswer(invocation -> {
+            service.evict("2");
+            return stats("2", 1);
+        });
+
+        service.stats("1");
+        service.stats("1");
+        service.stats("2");
+        service.stats("2");
+
+        verify(postRepository, times(1)).authorStats("1");
+        verify(postRepository, times(2)).authorStats("2");
+    }
+
+    /**
+     * Testa a exclusão de posts por um filtro.
+     * <p>
+     * Resultado esperado:
+     * - Apenas as estatísticas dos autores dos posts excluídos devem ser descartadas.
+     */
+    @Test
+    void postsDeleting_ShouldEvictOnlyAuthors() {
+        Document filter = new Document("_id", "p1");
+        when(userRepository.existsById(anyString())).thenReturn(true);
+        when(postRepository.authorStats(anyString())).thenAnswer(invocation -> stats(invocation.getArgument(0), 1));
+        when(postRepository.findAuthorIds(filter)).thenReturn(Set.of("1"));
+        service.stats("1");
+        service.stats("2");
+
+        assertEquals(Set.of("1"), service.postsDeleting(filter));
+        service.stats("1");
+        service.stats("2");
+
+        verify(postRepository, times(2)).authorStats("1");
+        verify(postRepository, times(1)).authorStats("2");
+    }
+
+    private static UserStatsDTO stats(String userId, long postCount) {
+        UserStatsDTO stats = new UserStatsDTO();
+        stats.setUserId(userId);
+        stats.setPostCount(postCount);
+        return stats;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ewertonrodrigues.workshopmongo.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link WarmupService}.
+ */
+class WarmupServiceTest {
+
+    /**
+     * Testa a prontidão com o aquecimento desabilitado e uma carga de dados em andamento.
+     * <p>
+     * Resultado esperado:
+     * - A aplicação só deve ficar pronta depois do fim da carga.
+     */
+    @Test
+    void onStartup_ShouldWaitForRegisteredTasks() throws Exception {
+        WarmupService service = new WarmupService();
+        ReflectionTestUtils.setField(service, "enabled", false);
+        CompletableFuture<Void> seed = new CompletableFuture<>();
+        service.waitFor(seed);
+
+        service.onStartup();
+        Thread.sleep(50);
+        assertFalse(service.isDone());
+
+        seed.complete(null);
+        for (int i = 0; i < 100 && !service.isDone(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(service.isDone());
+    }
+}